@@ -0,0 +1,85 @@
+package com.spring.logitrack.benchmark;
+
+import com.spring.logitrack.entity.*;
+import com.spring.logitrack.entity.enums.OrderStatus;
+import com.spring.logitrack.entity.enums.POStatus;
+import com.spring.logitrack.entity.enums.Role;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/** Detached entity graphs shaped like the ones the services load from the database. */
+final class BenchmarkFixtures {
+
+    static final long WAREHOUSE_ID = 1L;
+
+    private BenchmarkFixtures() {
+    }
+
+    /** Every n-th product is inactive, where n = 100 / inactivePercent (none when 0). */
+    static List<Product> products(int count, int inactivePercent) {
+        int every = inactivePercent == 0 ? Integer.MAX_VALUE : 100 / inactivePercent;
+        List<Product> products = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            products.add(Product.builder()
+                    .id((long) i + 1).sku("SKU-" + i).name("Product " + i).description("Benchmark product")
+                    .price(BigDecimal.valueOf(10 + i % 90)).unit("pcs").active(i % every != every - 1)
+                    .imageUrls(new ArrayList<>(List.of("https://bucket.s3.amazonaws.com/uploads/" + i + ".png")))
+                    .build());
+        }
+        return products;
+    }
+
+    static Warehouse warehouse() {
+        User manager = User.builder().id(2L).name("Manager").email("manager@bench.local")
+                .password("x").active(true).role(Role.WAREHOUSE_MANAGER).build();
+        return Warehouse.builder().id(WAREHOUSE_ID).code("WH-1").name("Main").location("Casablanca")
+                .active(true).manager(manager).build();
+    }
+
+    static SalesOrder salesOrder(List<Product> products, Warehouse warehouse) {
+        User client = User.builder().id(3L).name("Client").email("client@bench.local")
+                .password("x").active(true).role(Role.CLIENT).build();
+        SalesOrder order = SalesOrder.builder()
+                .id(100L).client(client).warehouse(warehouse).status(OrderStatus.CREATED)
+                .country("Morocco").city("Casablanca").street("Street 1").zip("20000")
+                .build();
+        long lineId = 1;
+        for (Product product : products) {
+            order.getLines().add(SalesOrderLine.builder()
+                    .id(lineId++).salesOrder(order).product(product)
+                    .qtyOrdered(2).qtyReserved(0).price(product.getPrice())
+                    .build());
+        }
+        return order;
+    }
+
+    /** One inventory per product, with enough stock for any order built above. */
+    static List<Inventory> inventories(List<Product> products, Warehouse warehouse) {
+        List<Inventory> inventories = new ArrayList<>(products.size());
+        for (Product product : products) {
+            inventories.add(Inventory.builder()
+                    .id(product.getId()).product(product).warehouse(warehouse)
+                    .qtyOnHand(1_000_000).qtyReserved(0)
+                    .build());
+        }
+        return inventories;
+    }
+
+    static PurchaseOrder purchaseOrder(List<Product> products) {
+        Supplier supplier = Supplier.builder().id(4L).name("Supplier").email("supplier@bench.local")
+                .contact("0600000000").build();
+        PurchaseOrder po = PurchaseOrder.builder()
+                .id(200L).supplier(supplier).status(POStatus.APPROVED).createdAt(LocalDateTime.now())
+                .build();
+        long lineId = 1;
+        for (Product product : products) {
+            po.getLines().add(POLine.builder()
+                    .id(lineId++).purchaseOrder(po).product(product).qty(5).price(product.getPrice())
+                    .build());
+        }
+        return po;
+    }
+}
@@ -0,0 +1,30 @@
+package com.spring.logitrack.benchmark;
+
+import java.lang.reflect.Proxy;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Builds in-memory stand-ins for Spring Data repositories: only the methods a benchmark
+ * names are implemented, anything else fails loudly so a changed code path is noticed.
+ */
+final class InMemoryRepositories {
+
+    private InMemoryRepositories() {
+    }
+
+    static <T> T stub(Class<T> type, Map<String, Function<Object[], Object>> methods) {
+        Object proxy = Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[]{type}, (self, method, args) -> {
+            Function<Object[], Object> body = methods.get(method.getName());
+            if (body != null) return body.apply(args);
+
+            return switch (method.getName()) {
+                case "toString" -> "InMemory" + type.getSimpleName();
+                case "hashCode" -> System.identityHashCode(self);
+                case "equals" -> self == args[0];
+                default -> throw new UnsupportedOperationException(type.getSimpleName() + "." + method.getName());
+            };
+        });
+        return type.cast(proxy);
+    }
+}
@@ -0,0 +1,65 @@
+package com.spring.logitrack.benchmark;
+
+import com.spring.logitrack.dto.purchaseOrder.PurchaseOrderResponseDTO;
+import com.spring.logitrack.dto.salesOrder.SalesOrderResponseDTO;
+import com.spring.logitrack.entity.Product;
+import com.spring.logitrack.entity.PurchaseOrder;
+import com.spring.logitrack.entity.SalesOrder;
+import com.spring.logitrack.mapper.ProductMapper;
+import com.spring.logitrack.mapper.ProductMapperImpl;
+import com.spring.logitrack.mapper.PurchaseOrderMapper;
+import com.spring.logitrack.mapper.SalesOrderMapper;
+import com.spring.logitrack.mapper.SalesOrderMapperImpl;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Entity to response mapping for orders of growing size: the MapStruct generated
+ * SalesOrderMapper and ProductMapper next to the hand-written PurchaseOrderMapper.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class MappingBenchmark {
+
+    @Param({"1", "10", "100", "1000"})
+    private int lines;
+
+    private final SalesOrderMapper salesOrderMapper = new SalesOrderMapperImpl();
+    private final ProductMapper productMapper = new ProductMapperImpl();
+    private final PurchaseOrderMapper purchaseOrderMapper = new PurchaseOrderMapper();
+
+    private List<Product> products;
+    private SalesOrder salesOrder;
+    private PurchaseOrder purchaseOrder;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        products = BenchmarkFixtures.products(lines, 0);
+        salesOrder = BenchmarkFixtures.salesOrder(products, BenchmarkFixtures.warehouse());
+        purchaseOrder = BenchmarkFixtures.purchaseOrder(products);
+    }
+
+    @Benchmark
+    public SalesOrderResponseDTO salesOrderMapStruct() {
+        return salesOrderMapper.toResponse(salesOrder);
+    }
+
+    @Benchmark
+    public PurchaseOrderResponseDTO purchaseOrderHandWritten() {
+        return purchaseOrderMapper.toResponse(purchaseOrder);
+    }
+
+    @Benchmark
+    public void productsMapStruct(Blackhole blackhole) {
+        for (Product product : products) {
+            blackhole.consume(productMapper.toResponse(product));
+        }
+    }
+}
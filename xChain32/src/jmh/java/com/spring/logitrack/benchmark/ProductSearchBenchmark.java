@@ -0,0 +1,108 @@
+package com.spring.logitrack.benchmark;
+
+import com.spring.logitrack.dto.product.ProductSearchCriteria;
+import com.spring.logitrack.dto.product.ProductSearchHitDTO;
+import com.spring.logitrack.repository.ProductIndexRow;
+import com.spring.logitrack.repository.ProductRepository;
+import com.spring.logitrack.service.ProductSearchIndex;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.stream.LongStream;
+
+/**
+ * Catalog search on a generated catalog: a sku, two common words, an autocomplete prefix and
+ * a filter-only scan. Product names and descriptions draw from a fixed vocabulary with a skewed
+ * distribution, so a few words are on most products like in a real catalog.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class ProductSearchBenchmark {
+
+    private static final List<String> VOCABULARY = List.of(
+            "pallet", "box", "crate", "tape", "film", "strap", "label", "bag", "drum", "tank",
+            "wooden", "plastic", "steel", "cardboard", "heavy", "light", "blue", "red", "euro", "standard",
+            "reusable", "stackable", "foldable", "coated", "printed", "sealed", "insulated", "vented", "large", "small");
+
+    @Param({"100000", "1000000"})
+    private int products;
+
+    private ProductSearchIndex index;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        Random random = new Random(42);
+        List<ProductIndexRow> rows = LongStream.rangeClosed(1, products)
+                .mapToObj(id -> row(id, random))
+                .toList();
+        ProductRepository repository = InMemoryRepositories.stub(ProductRepository.class,
+                Map.<String, Function<Object[], Object>>of("streamIndexRows", args -> rows.stream()));
+        index = new ProductSearchIndex(repository);
+        index.rebuild();
+    }
+
+    @Benchmark
+    public Page<ProductSearchHitDTO> rareWord() {
+        return index.search(criteria("SKU-" + (products / 2), null), PageRequest.of(0, 20));
+    }
+
+    @Benchmark
+    public Page<ProductSearchHitDTO> twoWords() {
+        return index.search(criteria("insulated drum", null), PageRequest.of(0, 20));
+    }
+
+    @Benchmark
+    public Page<ProductSearchHitDTO> prefix() {
+        return index.search(criteria("steel cra", null), PageRequest.of(0, 20));
+    }
+
+    @Benchmark
+    public Page<ProductSearchHitDTO> filterOnly() {
+        return index.search(criteria(null, new BigDecimal("99.00")), PageRequest.of(0, 20));
+    }
+
+    @Benchmark
+    public List<String> suggest() {
+        return index.suggest("st", 10);
+    }
+
+    private static ProductSearchCriteria criteria(String q, BigDecimal minPrice) {
+        ProductSearchCriteria criteria = new ProductSearchCriteria();
+        criteria.setQ(q);
+        criteria.setMinPrice(minPrice);
+        return criteria;
+    }
+
+    private static ProductIndexRow row(long id, Random random) {
+        String sku = "SKU-" + id;
+        String name = word(random) + " " + word(random);
+        String description = word(random) + " " + word(random) + " " + word(random) + " " + word(random);
+        BigDecimal price = BigDecimal.valueOf(random.nextInt(10_000), 2);
+        return new ProductIndexRow() {
+            public Long getId() { return id; }
+            public String getSku() { return sku; }
+            public String getName() { return name; }
+            public String getDescription() { return description; }
+            public String getUnit() { return "pcs"; }
+            public BigDecimal getPrice() { return price; }
+            public boolean isActive() { return true; }
+        };
+    }
+
+    // squaring skews the draw towards the start of the vocabulary
+    private static String word(Random random) {
+        double r = random.nextDouble();
+        return VOCABULARY.get((int) (r * r * VOCABULARY.size()));
+    }
+}
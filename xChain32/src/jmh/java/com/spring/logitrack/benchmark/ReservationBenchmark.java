@@ -0,0 +1,87 @@
+package com.spring.logitrack.benchmark;
+
+import com.spring.logitrack.dto.salesOrder.SalesOrderResponseWithWarningsDTO;
+import com.spring.logitrack.entity.*;
+import com.spring.logitrack.entity.enums.OrderStatus;
+import com.spring.logitrack.mapper.SalesOrderMapperImpl;
+import com.spring.logitrack.repository.InventoryRepository;
+import com.spring.logitrack.repository.SalesOrderRepository;
+import com.spring.logitrack.service.InventoryAvailabilityCache;
+import com.spring.logitrack.service.OperationMetrics;
+import com.spring.logitrack.service.OrderEventOutbox;
+import com.spring.logitrack.service.SalesOrderService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * SalesOrderService.reserve against in-memory repositories: the planning loop, the batched
+ * update bookkeeping, the warning strings for skipped lines and the response mapping, without
+ * any SQL. Every line is in stock, so no sourcing or backorder work is involved.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ReservationBenchmark {
+
+    @Param({"1", "10", "100", "1000"})
+    private int lines;
+
+    // share of inactive products; each one adds a warning to the response
+    @Param({"0", "50"})
+    private int inactivePercent;
+
+    private SalesOrderService service;
+    private SalesOrder order;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        List<Product> products = BenchmarkFixtures.products(lines, inactivePercent);
+        Warehouse warehouse = BenchmarkFixtures.warehouse();
+        order = BenchmarkFixtures.salesOrder(products, warehouse);
+        List<Inventory> inventories = BenchmarkFixtures.inventories(products, warehouse);
+
+        SalesOrderRepository orders = InMemoryRepositories.stub(SalesOrderRepository.class, Map.of(
+                "findWithLinesById", args -> Optional.of(order),
+                "save", args -> args[0]));
+        InventoryRepository inventoryRepo = InMemoryRepositories.stub(InventoryRepository.class, Map.of(
+                "findAllByWarehouse_IdAndProduct_IdIn", args -> inventories,
+                // every conditional update applies
+                "reserveAll", args -> filled(((Map<?, ?>) args[0]).size()),
+                "findTopByProduct_IdAndWarehouse_IdOrderByIdDesc", args -> Optional.empty()));
+
+        service = new SalesOrderService(orders, null, null, null, new SalesOrderMapperImpl(),
+                inventoryRepo, null, null, null, inventoryRepo, orders,
+                // no listener cares about stock increases here, and a reservation never raises stock
+                new InventoryAvailabilityCache(inventoryRepo, event -> { }), null, null,
+                new OperationMetrics(new SimpleMeterRegistry()),
+                // events are not the subject here, and recording one needs an outer transaction
+                new OrderEventOutbox(null, null) {
+                    @Override
+                    public void record(String aggregateType, Long aggregateId, Enum<?> status) {
+                    }
+                },
+                // only warehouse transfers refresh entities, and the stock here always suffices
+                null);
+    }
+
+    @Benchmark
+    public SalesOrderResponseWithWarningsDTO reserve() {
+        order.setStatus(OrderStatus.CREATED);
+        return service.reserve(order.getId());
+    }
+
+    private static int[] filled(int size) {
+        int[] counts = new int[size];
+        Arrays.fill(counts, 1);
+        return counts;
+    }
+}
@@ -0,0 +1,99 @@
+package com.spring.logitrack.loadtest;
+
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Per-endpoint latency histograms and error counts. Recording is off during warm-up;
+ * {@link #start()} clears whatever was recorded before and opens the measured window.
+ */
+class LatencyStats {
+
+    // up to 1 min at 3 significant digits
+    private static final long HIGHEST_NANOS = Duration.ofMinutes(1).toNanos();
+
+    private final Map<String, Endpoint> endpoints = new ConcurrentHashMap<>();
+    private volatile boolean recording;
+    private volatile long startedAt;
+    private volatile long stoppedAt;
+
+    void start() {
+        endpoints.clear();
+        startedAt = System.nanoTime();
+        recording = true;
+    }
+
+    void stop() {
+        recording = false;
+        stoppedAt = System.nanoTime();
+    }
+
+    void record(String label, long nanos, boolean ok) {
+        if (!recording) return;
+
+        Endpoint endpoint = endpoints.computeIfAbsent(label, l -> new Endpoint());
+        endpoint.latencies.recordValue(Math.min(nanos, HIGHEST_NANOS));
+        if (!ok) endpoint.errors.increment();
+    }
+
+    List<String> summary() {
+        double seconds = (stoppedAt - startedAt) / 1e9;
+        List<String> rows = new ArrayList<>();
+        rows.add("endpoint,requests,errors,throughput_rps,p50_ms,p90_ms,p99_ms,p999_ms,max_ms");
+
+        Histogram total = new Histogram(HIGHEST_NANOS, 3);
+        long totalErrors = 0;
+        for (Map.Entry<String, Endpoint> entry : new TreeMap<>(endpoints).entrySet()) {
+            Histogram latencies = entry.getValue().latencies.copy();
+            long errors = entry.getValue().errors.sum();
+            rows.add(row(entry.getKey(), latencies, errors, seconds));
+            total.add(latencies);
+            totalErrors += errors;
+        }
+        rows.add(row("TOTAL", total, totalErrors, seconds));
+        return rows;
+    }
+
+    void print(PrintStream out) {
+        List<String> rows = summary();
+        out.printf("%-52s %9s %7s %10s %9s %9s %9s %9s %9s%n", (Object[]) rows.get(0).split(","));
+        for (String row : rows.subList(1, rows.size())) {
+            out.printf("%-52s %9s %7s %10s %9s %9s %9s %9s %9s%n", (Object[]) row.split(","));
+        }
+    }
+
+    void write(Path csv) throws IOException {
+        if (csv.getParent() != null) Files.createDirectories(csv.getParent());
+        Files.write(csv, summary());
+    }
+
+    private static String row(String label, Histogram latencies, long errors, double seconds) {
+        return String.format(Locale.ROOT, "%s,%d,%d,%.1f,%.2f,%.2f,%.2f,%.2f,%.2f",
+                label, latencies.getTotalCount(), errors, latencies.getTotalCount() / seconds,
+                millis(latencies.getValueAtPercentile(50)), millis(latencies.getValueAtPercentile(90)),
+                millis(latencies.getValueAtPercentile(99)), millis(latencies.getValueAtPercentile(99.9)),
+                millis(latencies.getMaxValue()));
+    }
+
+    private static double millis(long nanos) {
+        return nanos / 1e6;
+    }
+
+    private static class Endpoint {
+        private final ConcurrentHistogram latencies = new ConcurrentHistogram(HIGHEST_NANOS, 3);
+        private final LongAdder errors = new LongAdder();
+    }
+}
@@ -0,0 +1,109 @@
+package com.spring.logitrack.loadtest;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.Map;
+
+/**
+ * Blocking HTTP calls against the application, each one timed and recorded under its
+ * endpoint label. A call that does not answer 2xx aborts the rest of its scenario.
+ */
+class LoadTestClient {
+
+    private final HttpClient http;
+    private final ObjectMapper objectMapper;
+    private final String baseUrl;
+    private final LatencyStats stats;
+    private String clientToken;
+    private String managerToken;
+
+    LoadTestClient(HttpClient http, ObjectMapper objectMapper, String baseUrl, LatencyStats stats) {
+        this.http = http;
+        this.objectMapper = objectMapper;
+        this.baseUrl = baseUrl;
+        this.stats = stats;
+    }
+
+    void login(String clientEmail, String managerEmail, String password) {
+        clientToken = post("POST /api/login", "/api/login", Map.of("email", clientEmail, "password", password), null)
+                .get("accessToken").asText();
+        managerToken = post("POST /api/login", "/api/login", Map.of("email", managerEmail, "password", password), null)
+                .get("accessToken").asText();
+    }
+
+    String clientToken() {
+        return clientToken;
+    }
+
+    String managerToken() {
+        return managerToken;
+    }
+
+    JsonNode get(String label, String path, String token) {
+        return send(label, request(path, token).GET());
+    }
+
+    JsonNode post(String label, String path, Object body, String token) {
+        return send(label, request(path, token)
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(json(body))));
+    }
+
+    JsonNode patch(String label, String path, String token) {
+        return send(label, request(path, token).method("PATCH", HttpRequest.BodyPublishers.noBody()));
+    }
+
+    private HttpRequest.Builder request(String path, String token) {
+        HttpRequest.Builder builder = HttpRequest.newBuilder(URI.create(baseUrl + path))
+                .header("Accept", "application/json");
+        if (token != null) builder.header("Authorization", "Bearer " + token);
+        return builder;
+    }
+
+    private JsonNode send(String label, HttpRequest.Builder request) {
+        long start = System.nanoTime();
+        HttpResponse<byte[]> response;
+        try {
+            response = http.send(request.build(), HttpResponse.BodyHandlers.ofByteArray());
+        } catch (IOException e) {
+            stats.record(label, System.nanoTime() - start, false);
+            throw new ScenarioFailedException(label + " failed: " + e.getMessage());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ScenarioFailedException(label + " interrupted");
+        }
+
+        boolean ok = response.statusCode() / 100 == 2;
+        stats.record(label, System.nanoTime() - start, ok);
+        if (!ok) {
+            throw new ScenarioFailedException(label + " answered " + response.statusCode() + ": "
+                    + new String(response.body()));
+        }
+        try {
+            return response.body().length == 0 ? objectMapper.nullNode() : objectMapper.readTree(response.body());
+        } catch (IOException e) {
+            throw new ScenarioFailedException(label + " returned unreadable JSON");
+        }
+    }
+
+    private String json(Object body) {
+        try {
+            return objectMapper.writeValueAsString(body);
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException(e);
+        }
+    }
+
+    static class ScenarioFailedException extends RuntimeException {
+        ScenarioFailedException(String message) {
+            super(message);
+        }
+    }
+}
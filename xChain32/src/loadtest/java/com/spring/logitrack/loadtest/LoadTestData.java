@@ -0,0 +1,60 @@
+package com.spring.logitrack.loadtest;
+
+import com.spring.logitrack.entity.*;
+import com.spring.logitrack.entity.enums.Role;
+import com.spring.logitrack.repository.*;
+import org.springframework.context.ApplicationContext;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Data the scenarios run against, written straight through the repositories so seeding
+ * does not count towards the measured traffic (and product creation needs no S3).
+ */
+record LoadTestData(Long clientId, Long warehouseId, Long supplierId, List<Long> productIds,
+                    List<Long> inventoryIds) {
+
+    static final String PASSWORD = "loadtest-password";
+    static final String CLIENT_EMAIL = "client@loadtest.local";
+    static final String MANAGER_EMAIL = "manager@loadtest.local";
+
+    // large enough that reservations never fall short and no backorders are created
+    private static final int STOCK = 1_000_000_000;
+
+    static LoadTestData seed(ApplicationContext context, int productCount) {
+        UserRepository users = context.getBean(UserRepository.class);
+        PasswordEncoder encoder = context.getBean(PasswordEncoder.class);
+
+        User client = users.save(User.builder().name("Load Client").email(CLIENT_EMAIL)
+                .password(encoder.encode(PASSWORD)).active(true).role(Role.CLIENT).build());
+        User manager = users.save(User.builder().name("Load Manager").email(MANAGER_EMAIL)
+                .password(encoder.encode(PASSWORD)).active(true).role(Role.WAREHOUSE_MANAGER).build());
+
+        Warehouse warehouse = context.getBean(WarehouseRepository.class).save(Warehouse.builder()
+                .code("LT-1").name("Load test").location("Casablanca").active(true).manager(manager).build());
+        Supplier supplier = context.getBean(SupplierRepository.class).save(Supplier.builder()
+                .name("Load Supplier").email("supplier@loadtest.local").contact("0600000000").build());
+
+        List<Product> products = new ArrayList<>(productCount);
+        for (int i = 0; i < productCount; i++) {
+            products.add(Product.builder().sku("LT-" + i).name("Load product " + i)
+                    .description("Seeded for load testing").price(BigDecimal.valueOf(5 + i % 95))
+                    .unit("pcs").active(true).build());
+        }
+        products = context.getBean(ProductRepository.class).saveAll(products);
+
+        List<Inventory> inventories = new ArrayList<>(productCount);
+        for (Product product : products) {
+            inventories.add(Inventory.builder().product(product).warehouse(warehouse)
+                    .qtyOnHand(STOCK).qtyReserved(0).build());
+        }
+        inventories = context.getBean(InventoryRepository.class).saveAll(inventories);
+
+        return new LoadTestData(client.getId(), warehouse.getId(), supplier.getId(),
+                products.stream().map(Product::getId).toList(),
+                inventories.stream().map(Inventory::getId).toList());
+    }
+}
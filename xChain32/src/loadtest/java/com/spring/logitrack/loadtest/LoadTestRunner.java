@@ -0,0 +1,119 @@
+package com.spring.logitrack.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.spring.logitrack.LogitrackApplication;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.net.http.HttpClient;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * End-to-end load test: boots the application with the {@code loadtest} profile, seeds it,
+ * then runs a weighted mix of {@link Scenario}s from {@code concurrency} virtual users for
+ * a warm-up and a measured window. Prints latency percentiles and throughput per endpoint
+ * and writes them as CSV, so runs can be compared across changes.
+ * <p>
+ * {@code mvn -Ploadtest test-compile exec:exec@load-test -Dloadtest.concurrency=32}
+ * Program arguments are passed to Spring, e.g. {@code --spring.datasource.url=...}.
+ * <p>
+ * Platform against virtual threads, same load and pool, on a JDK 21:
+ * {@code mvn -Pjava21,loadtest test-compile exec:exec@load-test -Dloadtest.concurrency=400 -Dloadtest.threads=virtual
+ * -Dloadtest.jvm.args=-Djdk.tracePinnedThreads=short}, then again with {@code -Dloadtest.threads=platform}; the
+ * flag prints the stack of any virtual thread pinned to its carrier while blocking.
+ */
+public class LoadTestRunner {
+
+    private static final Logger log = LoggerFactory.getLogger(LoadTestRunner.class);
+
+    public static void main(String[] args) throws Exception {
+        LoadTestSettings settings = LoadTestSettings.fromSystemProperties();
+        // devtools would re-run main in a restart class loader
+        System.setProperty("spring.devtools.restart.enabled", "false");
+
+        // loadtest comes last, so both modes run with its pool and datasource settings
+        String[] profiles = settings.virtualThreads()
+                ? new String[]{"virtual-threads", "loadtest"}
+                : new String[]{"loadtest"};
+        try (ConfigurableApplicationContext context = new SpringApplicationBuilder(LogitrackApplication.class)
+                .profiles(profiles)
+                .run(args)) {
+            String baseUrl = "http://localhost:" + context.getEnvironment().getRequiredProperty("local.server.port");
+            LoadTestData data = LoadTestData.seed(context, settings.products());
+            log.info("Seeded {} products, running {} for {} after {} warm-up with {} users on {} threads",
+                    settings.products(), settings.mix(), settings.duration(), settings.warmup(), settings.concurrency(),
+                    settings.threads());
+
+            LatencyStats stats = run(settings, data, baseUrl, context.getBean(ObjectMapper.class));
+
+            stats.print(System.out);
+            stats.write(Path.of(settings.report()));
+            log.info("Summary written to {}", settings.report());
+        }
+    }
+
+    private static LatencyStats run(LoadTestSettings settings, LoadTestData data, String baseUrl,
+                                    ObjectMapper objectMapper) throws InterruptedException {
+        LatencyStats stats = new LatencyStats();
+        LongAdder failures = new LongAdder();
+        ExecutorService users = Executors.newFixedThreadPool(settings.concurrency());
+        HttpClient http = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(5))
+                .build();
+
+        List<Scenario> weighted = weighted(settings.mix());
+        long deadline = System.nanoTime() + settings.warmup().plus(settings.duration()).toNanos();
+
+        for (int i = 0; i < settings.concurrency(); i++) {
+            users.submit(() -> {
+                LoadTestClient client = new LoadTestClient(http, objectMapper, baseUrl, stats);
+                try {
+                    client.login(LoadTestData.CLIENT_EMAIL, LoadTestData.MANAGER_EMAIL, LoadTestData.PASSWORD);
+                } catch (LoadTestClient.ScenarioFailedException e) {
+                    log.error("Virtual user could not log in: {}", e.getMessage());
+                    return;
+                }
+
+                while (System.nanoTime() < deadline && !Thread.currentThread().isInterrupted()) {
+                    Scenario scenario = weighted.get(ThreadLocalRandom.current().nextInt(weighted.size()));
+                    try {
+                        scenario.run(client, data);
+                    } catch (RuntimeException e) {
+                        failures.increment();
+                        log.debug("{} aborted: {}", scenario, e.getMessage());
+                    }
+                }
+            });
+        }
+
+        Thread.sleep(settings.warmup().toMillis());
+        stats.start();
+        Thread.sleep(settings.duration().toMillis());
+        stats.stop();
+
+        users.shutdown();
+        if (!users.awaitTermination(1, TimeUnit.MINUTES)) users.shutdownNow();
+        if (failures.sum() > 0) log.warn("{} scenario runs aborted on an error response", failures.sum());
+        return stats;
+    }
+
+    private static List<Scenario> weighted(Map<Scenario, Integer> mix) {
+        List<Scenario> weighted = new ArrayList<>();
+        mix.forEach((scenario, weight) -> {
+            for (int i = 0; i < weight; i++) weighted.add(scenario);
+        });
+        return weighted;
+    }
+}
@@ -0,0 +1,55 @@
+package com.spring.logitrack.loadtest;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Run parameters, read from system properties:
+ * <ul>
+ *     <li>{@code loadtest.concurrency} virtual users running scenarios back to back (16)</li>
+ *     <li>{@code loadtest.duration} measured time, ISO-8601 (PT60S)</li>
+ *     <li>{@code loadtest.warmup} time run before measuring starts (PT15S)</li>
+ *     <li>{@code loadtest.mix} scenario weights (browse=60,order=30,receive=10)</li>
+ *     <li>{@code loadtest.products} products seeded, each with stock in one warehouse (500)</li>
+ *     <li>{@code loadtest.threads} what the server runs requests on, {@code platform} or {@code virtual},
+ *     the latter through the virtual-threads profile and only on Java 21 (platform)</li>
+ *     <li>{@code loadtest.report} CSV written with the results (target/loadtest/summary-&lt;threads&gt;.csv)</li>
+ * </ul>
+ */
+record LoadTestSettings(int concurrency, Duration duration, Duration warmup, Map<Scenario, Integer> mix,
+                        int products, String threads, String report) {
+
+    static LoadTestSettings fromSystemProperties() {
+        String threads = System.getProperty("loadtest.threads", "platform");
+        if (!threads.equals("platform") && !threads.equals("virtual")) {
+            throw new IllegalArgumentException("loadtest.threads must be platform or virtual: " + threads);
+        }
+        return new LoadTestSettings(
+                Integer.getInteger("loadtest.concurrency", 16),
+                Duration.parse(System.getProperty("loadtest.duration", "PT60S")),
+                Duration.parse(System.getProperty("loadtest.warmup", "PT15S")),
+                parseMix(System.getProperty("loadtest.mix", "browse=60,order=30,receive=10")),
+                Integer.getInteger("loadtest.products", 500),
+                threads,
+                System.getProperty("loadtest.report", "target/loadtest/summary-" + threads + ".csv"));
+    }
+
+    boolean virtualThreads() {
+        return threads.equals("virtual");
+    }
+
+    static Map<Scenario, Integer> parseMix(String mix) {
+        Map<Scenario, Integer> weights = new LinkedHashMap<>();
+        for (String entry : mix.split(",")) {
+            String[] parts = entry.trim().split("=");
+            if (parts.length != 2) throw new IllegalArgumentException("Invalid mix entry: " + entry);
+
+            int weight = Integer.parseInt(parts[1].trim());
+            if (weight < 0) throw new IllegalArgumentException("Negative weight for " + parts[0]);
+            if (weight > 0) weights.put(Scenario.valueOf(parts[0].trim().toUpperCase()), weight);
+        }
+        if (weights.isEmpty()) throw new IllegalArgumentException("Mix has no scenario: " + mix);
+        return weights;
+    }
+}
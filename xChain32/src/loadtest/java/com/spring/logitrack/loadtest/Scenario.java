@@ -0,0 +1,77 @@
+package com.spring.logitrack.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+
+/** User journeys from collection_postman.json, each a short sequence of dependent calls. */
+enum Scenario {
+
+    /** A client browses the catalog: a product page, then one product. */
+    BROWSE {
+        @Override
+        void run(LoadTestClient client, LoadTestData data) {
+            ThreadLocalRandom random = ThreadLocalRandom.current();
+            int pages = Math.max(1, data.productIds().size() / 20);
+            client.get("GET /api/products", "/api/products?page=" + random.nextInt(pages) + "&size=20", client.clientToken());
+            client.get("GET /api/products/{id}", "/api/products/" + pick(data.productIds()), client.clientToken());
+        }
+    },
+
+    /** A client places an order, a manager reserves and ships it. */
+    ORDER {
+        @Override
+        void run(LoadTestClient client, LoadTestData data) {
+            ThreadLocalRandom random = ThreadLocalRandom.current();
+            List<Map<String, Object>> lines = new ArrayList<>();
+            for (Long productId : distinct(data.productIds(), 1 + random.nextInt(5))) {
+                lines.add(Map.of("productId", productId, "qtyOrdered", 1 + random.nextInt(3), "price", 10));
+            }
+            Map<String, Object> order = Map.of("clientId", data.clientId(), "warehouseId", data.warehouseId(),
+                    "country", "Morocco", "city", "Casablanca", "street", "Load street 1", "zip", "20000",
+                    "lines", lines);
+
+            JsonNode created = client.post("POST /api/sales-orders", "/api/sales-orders", order, client.clientToken());
+            String status = "/api/sales-orders/" + created.path("order").path("id").asLong() + "/status?status=";
+            client.patch("PATCH /api/sales-orders/{id}/status RESERVED", status + "RESERVED", client.managerToken());
+            client.patch("PATCH /api/sales-orders/{id}/status SHIPPED", status + "SHIPPED", client.managerToken());
+        }
+    },
+
+    /** A manager receives a purchase order and corrects the count of one inventory. */
+    RECEIVE {
+        @Override
+        void run(LoadTestClient client, LoadTestData data) {
+            ThreadLocalRandom random = ThreadLocalRandom.current();
+            List<Map<String, Object>> lines = new ArrayList<>();
+            for (Long productId : distinct(data.productIds(), 1 + random.nextInt(3))) {
+                lines.add(Map.of("productId", productId, "qty", 10 + random.nextInt(90)));
+            }
+
+            JsonNode created = client.post("POST /api/purchase-orders", "/api/purchase-orders",
+                    Map.of("supplierId", data.supplierId(), "lines", lines), client.managerToken());
+            client.patch("PATCH /api/purchase-orders/{id}/status RECEIVED",
+                    "/api/purchase-orders/" + created.get("id").asLong() + "/status?status=RECEIVED", client.managerToken());
+            client.patch("PATCH /api/inventories/{id} adjust",
+                    "/api/inventories/" + pick(data.inventoryIds()) + "?adjust=-1", client.managerToken());
+        }
+    };
+
+    abstract void run(LoadTestClient client, LoadTestData data);
+
+    private static Long pick(List<Long> ids) {
+        return ids.get(ThreadLocalRandom.current().nextInt(ids.size()));
+    }
+
+    private static List<Long> distinct(List<Long> ids, int count) {
+        int start = ThreadLocalRandom.current().nextInt(ids.size());
+        List<Long> picked = new ArrayList<>(count);
+        for (int i = 0; i < Math.min(count, ids.size()); i++) {
+            picked.add(ids.get((start + i) % ids.size()));
+        }
+        return picked;
+    }
+}
@@ -2,8 +2,10 @@ package com.spring.logitrack;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.context.annotation.PropertySource;
 
 @SpringBootApplication
+@PropertySource("classpath:logitrack-defaults.properties")
 public class LogitrackApplication {
 
 	public static void main(String[] args) {
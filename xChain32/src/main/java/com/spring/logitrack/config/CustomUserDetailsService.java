@@ -1,31 +1,72 @@
 package com.spring.logitrack.config;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
 import com.spring.logitrack.entity.User;
 import com.spring.logitrack.repository.UserRepository;
-import lombok.RequiredArgsConstructor;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.userdetails.*;
 import org.springframework.stereotype.Service;
 
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Resolves users for basic authentication through a bounded, expiring cache keyed by email,
+ * so repeated requests from the same user cost no query. UserService evicts an entry whenever
+ * the user is updated or deleted; the TTL only bounds how long a missed eviction could last.
+ * Hit/miss counts are published as the "userDetails" cache metrics.
+ */
 @Service
-@RequiredArgsConstructor
 public class CustomUserDetailsService implements UserDetailsService {
 
     private final UserRepository repo;
+    private final Cache<String, UserDetails> cache;
+    private final AtomicLong evictions = new AtomicLong();
+
+    public CustomUserDetailsService(UserRepository repo,
+                                    MeterRegistry meterRegistry,
+                                    @Value("${security.user-cache.ttl:PT5M}") Duration ttl,
+                                    @Value("${security.user-cache.max-size:10000}") long maxSize) {
+        this.repo = repo;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "userDetails");
+    }
 
     @Override
     public UserDetails loadUserByUsername(String email) throws UsernameNotFoundException {
-        System.out.println("Loading user: " + email);
-        System.out.println("➡️ Attempting login for email: " + email);
+        UserDetails cached = cache.getIfPresent(email);
+        if (cached == null) cached = loadAndCache(email);
+        // Spring Security erases the password of the principal it is handed after
+        // authenticating, so each caller gets its own copy
+        return org.springframework.security.core.userdetails.User.withUserDetails(cached).build();
+    }
+
+    public void evict(String email) {
+        if (email == null) return;
+        evictions.incrementAndGet();
+        cache.invalidate(email);
+    }
+
+    // not cache.get(email, this::load): the query would run under Caffeine's bin lock and pin the
+    // carrier of a virtual thread. An eviction that raced with the query drops what it loaded
+    private UserDetails loadAndCache(String email) {
+        long seen = evictions.get();
+        UserDetails loaded = load(email);
+        cache.put(email, loaded);
+        if (evictions.get() != seen) cache.invalidate(email);
+        return loaded;
+    }
 
+    private UserDetails load(String email) {
         User user = repo.findByEmail(email)
-                .orElseThrow(() -> {
-                    System.out.println("❌ User not found in DB");
-                    return new UsernameNotFoundException("Not found");
-                });
-
-        System.out.println("✔ User loaded: " + user.getEmail());
-        System.out.println("✔ Hash stored: " + user.getPassword());
-        System.out.println("✔ Role: " + user.getRole());
+                .orElseThrow(() -> new UsernameNotFoundException("Not found"));
 
         return org.springframework.security.core.userdetails.User
                 .withUsername(user.getEmail())
@@ -1,12 +1,23 @@
 package com.spring.logitrack.config;
 
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnThreading;
+import org.springframework.boot.autoconfigure.thread.Threading;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
 import software.amazon.awssdk.auth.credentials.AwsBasicCredentials;
 import software.amazon.awssdk.auth.credentials.StaticCredentialsProvider;
 import software.amazon.awssdk.regions.Region;
 import software.amazon.awssdk.services.s3.S3Client;
+import software.amazon.awssdk.services.s3.S3ClientBuilder;
+
+import java.net.URI;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
 @Configuration
 public class S3Config {
@@ -20,15 +31,58 @@ public class S3Config {
     @Value("${aws.region}")
     private String region;
 
+    // optional, points the client at an S3-compatible stand-in (MinIO, LocalStack...)
+    @Value("${aws.s3.endpoint:}")
+    private String endpoint;
+
+    @Value("${aws.s3.upload-concurrency:4}")
+    private int uploadConcurrency;
+
     @Bean
     public S3Client s3Client() {
-        return S3Client.builder()
+        S3ClientBuilder builder = S3Client.builder()
                 .region(Region.of(region))
                 .credentialsProvider(
                         StaticCredentialsProvider.create(
                                 AwsBasicCredentials.create(accessKey, secretKey)
                         )
-                )
-                .build();
+                );
+        if (!endpoint.isBlank()) {
+            builder.endpointOverride(URI.create(endpoint)).forcePathStyle(true);
+        }
+        return builder.build();
+    }
+
+    /**
+     * Bounded pool for image uploads. When the queue is full the request thread uploads the
+     * file itself, which throttles callers instead of piling up work.
+     */
+    @Bean(name = "s3UploadExecutor", destroyMethod = "shutdown")
+    @ConditionalOnThreading(Threading.PLATFORM)
+    public ExecutorService s3UploadExecutor() {
+        AtomicInteger threads = new AtomicInteger();
+        return new ThreadPoolExecutor(uploadConcurrency, uploadConcurrency, 60, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(uploadConcurrency * 16),
+                r -> {
+                    Thread thread = new Thread(r, "s3-upload-" + threads.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.CallerRunsPolicy());
+    }
+
+    /**
+     * With spring.threads.virtual.enabled, one virtual thread per upload. The concurrency limit is
+     * the bulkhead the pool size was: past it the request thread waits, which is cheap on a virtual
+     * thread, rather than opening ever more S3 connections.
+     */
+    @Bean(name = "s3UploadExecutor")
+    @ConditionalOnThreading(Threading.VIRTUAL)
+    public SimpleAsyncTaskExecutor virtualS3UploadExecutor() {
+        SimpleAsyncTaskExecutor executor = new SimpleAsyncTaskExecutor("s3-upload-");
+        executor.setVirtualThreads(true);
+        executor.setConcurrencyLimit(uploadConcurrency);
+        executor.setTaskTerminationTimeout(30_000);
+        return executor;
     }
-}
\ No newline at end of file
+}
@@ -1,5 +1,6 @@
 package com.spring.logitrack.config;
 
+import com.spring.logitrack.service.TokenService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
@@ -12,6 +13,9 @@ import org.springframework.security.config.annotation.web.configurers.AbstractHt
 import org.springframework.security.config.http.SessionCreationPolicy;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
+import org.springframework.security.oauth2.server.resource.authentication.JwtAuthenticationConverter;
+import org.springframework.security.oauth2.server.resource.authentication.JwtGrantedAuthoritiesConverter;
 import org.springframework.security.web.SecurityFilterChain;
 
 @Configuration
@@ -24,6 +28,22 @@ public class SecurityConfig {
         return new BCryptPasswordEncoder();
     }
 
+    @Bean
+    public JwtDecoder jwtDecoder(TokenService tokenService) {
+        return tokenService.accessTokenDecoder();
+    }
+
+    @Bean
+    public JwtAuthenticationConverter jwtAuthenticationConverter() {
+        JwtGrantedAuthoritiesConverter authorities = new JwtGrantedAuthoritiesConverter();
+        authorities.setAuthoritiesClaimName("roles");
+        authorities.setAuthorityPrefix("ROLE_");
+
+        JwtAuthenticationConverter converter = new JwtAuthenticationConverter();
+        converter.setJwtGrantedAuthoritiesConverter(authorities);
+        return converter;
+    }
+
     @Bean
     public SecurityFilterChain securityFilterChain(HttpSecurity http) throws Exception {
         http
@@ -33,7 +53,11 @@ public class SecurityConfig {
                 .authorizeHttpRequests(auth -> auth
 
                         // PUBLIC ENDPOINTS
-                        .requestMatchers("/api/register", "/api/login").permitAll()
+                        .requestMatchers("/api/register", "/api/login", "/api/token/refresh").permitAll()
+                        .requestMatchers("/actuator/health").permitAll()
+
+                        // METRICS – ADMIN ONLY
+                        .requestMatchers("/actuator/**").hasRole("ADMIN")
 
                         // PUBLIC PRODUCT GET
                         .requestMatchers(HttpMethod.GET, "/api/products/**").permitAll()
@@ -68,6 +92,10 @@ public class SecurityConfig {
                         .requestMatchers("/api/simpleorders/**")
                         .hasAnyRole("WAREHOUSE_MANAGER", "ADMIN")
 
+                        // INVENTORY MOVEMENTS + SALES ORDER EXPORT – MANAGER + ADMIN
+                        .requestMatchers("/api/inventory-movements/**", "/api/sales-orders/export", "/api/sales-orders/import")
+                        .hasAnyRole("WAREHOUSE_MANAGER", "ADMIN")
+
                         // SALES ORDERS – CLIENT + MANAGER + ADMIN
                         .requestMatchers("/api/sales-orders/**")
                         .hasAnyRole("CLIENT","WAREHOUSE_MANAGER","ADMIN")
@@ -76,6 +104,9 @@ public class SecurityConfig {
                         .anyRequest().authenticated()
                 )
 
+                // bearer tokens from /api/login are verified without touching the database;
+                // basic auth is kept for existing clients
+                .oauth2ResourceServer(oauth -> oauth.jwt(Customizer.withDefaults()))
                 .httpBasic(Customizer.withDefaults());
 
         return http.build();
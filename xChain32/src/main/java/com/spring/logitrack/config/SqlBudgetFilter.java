@@ -0,0 +1,93 @@
+package com.spring.logitrack.config;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.security.web.util.OnCommittedResponseWrapper;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Tracks the SQL each request runs. The totals go out as a {@code Server-Timing} header, added
+ * when the response commits, and requests over the statement or time budget are logged with
+ * their most repeated statements, which is how lazy-loading loops give themselves away.
+ */
+public class SqlBudgetFilter extends OncePerRequestFilter {
+
+    static final String SERVER_TIMING = "Server-Timing";
+
+    private static final Logger log = LoggerFactory.getLogger(SqlBudgetFilter.class);
+    private static final int LOGGED_FINGERPRINTS = 5;
+
+    private final int statementBudget;
+    private final long timeBudgetNanos;
+
+    public SqlBudgetFilter(int statementBudget, Duration timeBudget) {
+        this.statementBudget = statementBudget;
+        this.timeBudgetNanos = timeBudget.toNanos();
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        SqlRequestStats stats = SqlRequestStats.begin();
+        ServerTimingResponse timedResponse = new ServerTimingResponse(response, stats);
+        try {
+            chain.doFilter(request, timedResponse);
+        } finally {
+            SqlRequestStats.end();
+            timedResponse.writeServerTiming();
+            if (stats.statements() > statementBudget || stats.jdbcNanos() > timeBudgetNanos) {
+                logOverBudget(request, stats);
+            }
+        }
+    }
+
+    private void logOverBudget(HttpServletRequest request, SqlRequestStats stats) {
+        StringBuilder top = new StringBuilder();
+        for (Map.Entry<String, Integer> entry : stats.topFingerprints(LOGGED_FINGERPRINTS)) {
+            top.append("\n  ").append(entry.getValue()).append("x ").append(entry.getKey());
+        }
+        log.warn("{} {} ran {} SQL statements in {} ms (budget {} statements, {} ms):{}",
+                request.getMethod(), request.getRequestURI(), stats.statements(), millis(stats.jdbcNanos()),
+                statementBudget, millis(timeBudgetNanos), top);
+    }
+
+    static String serverTiming(SqlRequestStats stats) {
+        return "db;dur=" + millis(stats.jdbcNanos()) + ";desc=\"" + stats.statements() + " statements\"";
+    }
+
+    private static String millis(long nanos) {
+        return String.format(Locale.ROOT, "%.1f", nanos / 1e6);
+    }
+
+    /** Headers can only be added until the body starts going out, so the header is set on commit. */
+    private static class ServerTimingResponse extends OnCommittedResponseWrapper {
+
+        private final SqlRequestStats stats;
+        private boolean written;
+
+        ServerTimingResponse(HttpServletResponse response, SqlRequestStats stats) {
+            super(response);
+            this.stats = stats;
+        }
+
+        @Override
+        protected void onResponseCommitted() {
+            writeServerTiming();
+        }
+
+        void writeServerTiming() {
+            if (written || isCommitted()) return;
+            written = true;
+            addHeader(SERVER_TIMING, serverTiming(stats));
+        }
+    }
+}
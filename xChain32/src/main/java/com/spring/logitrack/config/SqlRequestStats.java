@@ -0,0 +1,80 @@
+package com.spring.logitrack.config;
+
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+/**
+ * SQL statements and JDBC time of the HTTP request running on the current thread. Filled by
+ * {@link SqlStatementInspector} and {@link SqlTimingEventListener}, read by {@link SqlBudgetFilter};
+ * work outside a request (schedulers, async export threads) is not tracked.
+ */
+public final class SqlRequestStats {
+
+    // distinct statements kept per request; a bulk import must not grow this without bound
+    static final int MAX_FINGERPRINTS = 100;
+
+    private static final ThreadLocal<SqlRequestStats> CURRENT = new ThreadLocal<>();
+
+    private static final Pattern STRING_LITERAL = Pattern.compile("'(?:[^']|'')*'");
+    private static final Pattern NUMBER = Pattern.compile("\\b\\d+(?:\\.\\d+)?\\b");
+    private static final Pattern IN_LIST = Pattern.compile("(?i)\\bin\\s*\\(\\s*\\?(?:\\s*,\\s*\\?)*\\s*\\)");
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+
+    private final Map<String, Integer> fingerprints = new HashMap<>();
+    private int statements;
+    private long jdbcNanos;
+
+    static SqlRequestStats begin() {
+        SqlRequestStats stats = new SqlRequestStats();
+        CURRENT.set(stats);
+        return stats;
+    }
+
+    static void end() {
+        CURRENT.remove();
+    }
+
+    /** Stats of the current request, or null when the thread is not serving one. */
+    static SqlRequestStats current() {
+        return CURRENT.get();
+    }
+
+    void statement(String sql) {
+        statements++;
+        String fingerprint = fingerprint(sql);
+        if (fingerprints.size() < MAX_FINGERPRINTS || fingerprints.containsKey(fingerprint)) {
+            fingerprints.merge(fingerprint, 1, Integer::sum);
+        }
+    }
+
+    void executed(long nanos) {
+        jdbcNanos += nanos;
+    }
+
+    public int statements() {
+        return statements;
+    }
+
+    public long jdbcNanos() {
+        return jdbcNanos;
+    }
+
+    /** The most repeated statements first: an N+1 shows up as one fingerprint with a high count. */
+    public List<Map.Entry<String, Integer>> topFingerprints(int limit) {
+        return fingerprints.entrySet().stream()
+                .sorted(Map.Entry.<String, Integer>comparingByValue(Comparator.reverseOrder()))
+                .limit(limit)
+                .toList();
+    }
+
+    /** SQL with literals and IN-list sizes removed, so statements differing only by values group together. */
+    static String fingerprint(String sql) {
+        String normalized = STRING_LITERAL.matcher(sql).replaceAll("?");
+        normalized = NUMBER.matcher(normalized).replaceAll("?");
+        normalized = IN_LIST.matcher(normalized).replaceAll("in (...)");
+        return WHITESPACE.matcher(normalized).replaceAll(" ").trim().toLowerCase();
+    }
+}
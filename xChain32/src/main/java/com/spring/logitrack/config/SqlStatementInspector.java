@@ -0,0 +1,14 @@
+package com.spring.logitrack.config;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+/** Counts every statement Hibernate prepares against the current request; the SQL is left unchanged. */
+public class SqlStatementInspector implements StatementInspector {
+
+    @Override
+    public String inspect(String sql) {
+        SqlRequestStats stats = SqlRequestStats.current();
+        if (stats != null) stats.statement(sql);
+        return sql;
+    }
+}
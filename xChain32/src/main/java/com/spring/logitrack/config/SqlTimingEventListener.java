@@ -0,0 +1,38 @@
+package com.spring.logitrack.config;
+
+import org.hibernate.SessionEventListener;
+
+/**
+ * Adds the time Hibernate spends executing statements and batches to the current request.
+ * Hibernate creates one instance per session, so the start marks need no synchronisation.
+ */
+public class SqlTimingEventListener implements SessionEventListener {
+
+    private long statementStart;
+    private long batchStart;
+
+    @Override
+    public void jdbcExecuteStatementStart() {
+        statementStart = System.nanoTime();
+    }
+
+    @Override
+    public void jdbcExecuteStatementEnd() {
+        record(statementStart);
+    }
+
+    @Override
+    public void jdbcExecuteBatchStart() {
+        batchStart = System.nanoTime();
+    }
+
+    @Override
+    public void jdbcExecuteBatchEnd() {
+        record(batchStart);
+    }
+
+    private static void record(long start) {
+        SqlRequestStats stats = SqlRequestStats.current();
+        if (stats != null) stats.executed(System.nanoTime() - start);
+    }
+}
@@ -1,12 +1,13 @@
 package com.spring.logitrack.controller;
 
+import com.spring.logitrack.dto.user.TokenRefreshDTO;
 import com.spring.logitrack.dto.user.UserLoginDTO;
 import com.spring.logitrack.dto.user.UserCreateDTO;
+import com.spring.logitrack.service.TokenService;
 import com.spring.logitrack.service.UserService;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
-import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
 
 @RestController
@@ -14,10 +15,12 @@ import org.springframework.web.bind.annotation.*;
 public class AuthController {
 
     private final UserService service;
+    private final TokenService tokenService;
 
     @Autowired
-    public AuthController(UserService service) {
+    public AuthController(UserService service, TokenService tokenService) {
         this.service = service;
+        this.tokenService = tokenService;
     }
 
     @PostMapping("/register")
@@ -27,7 +30,11 @@ public class AuthController {
 
     @PostMapping("/login")
     public ResponseEntity<?> login(@Valid @RequestBody UserLoginDTO dto) {
-        System.out.println("dadaw");
-        return ResponseEntity.ok(service.login(dto));
+        return ResponseEntity.ok(tokenService.issue(service.login(dto)));
+    }
+
+    @PostMapping("/token/refresh")
+    public ResponseEntity<?> refresh(@Valid @RequestBody TokenRefreshDTO dto) {
+        return ResponseEntity.ok(tokenService.refresh(dto.getRefreshToken()));
     }
 }
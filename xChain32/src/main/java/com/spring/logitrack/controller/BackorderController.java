@@ -5,6 +5,9 @@ import com.spring.logitrack.dto.order.OrderResponseDTO;
 import com.spring.logitrack.service.BackorderService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.web.PageableDefault;
+import org.springframework.data.web.PagedModel;
 import org.springframework.http.*;
 import org.springframework.web.bind.annotation.*;
 
@@ -23,8 +26,8 @@ public class BackorderController {
     }
 
     @GetMapping
-    public ResponseEntity<List<OrderResponseDTO>> list() {
-        return ResponseEntity.ok(service.list());
+    public ResponseEntity<PagedModel<OrderResponseDTO>> list(@PageableDefault(size = 20, sort = "id") Pageable pageable) {
+        return ResponseEntity.ok(new PagedModel<>(service.list(pageable)));
     }
 
     @GetMapping("/order/{salesOrderId}")
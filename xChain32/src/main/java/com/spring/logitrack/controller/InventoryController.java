@@ -1,14 +1,17 @@
 package com.spring.logitrack.controller;
 
+import com.spring.logitrack.dto.inventory.InventoryAvailabilityDTO;
 import com.spring.logitrack.dto.inventory.InventoryCreateDTO;
 import com.spring.logitrack.dto.inventory.InventoryResponseDTO;
 import com.spring.logitrack.service.InventoryService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.web.PageableDefault;
+import org.springframework.data.web.PagedModel;
 import org.springframework.http.*;
 import org.springframework.web.bind.annotation.*;
 
-import java.util.List;
 
 @RestController
 @RequestMapping("/api/inventories")
@@ -23,8 +26,15 @@ public class InventoryController {
     }
 
     @GetMapping
-    public ResponseEntity<List<InventoryResponseDTO>> list() {
-        return ResponseEntity.ok(service.list());
+    public ResponseEntity<PagedModel<InventoryResponseDTO>> list(@PageableDefault(size = 20, sort = "id") Pageable pageable) {
+        return ResponseEntity.ok(new PagedModel<>(service.list(pageable)));
+    }
+
+    @GetMapping("/availability")
+    public ResponseEntity<InventoryAvailabilityDTO> availability(@RequestParam Long productId,
+                                                                 @RequestParam Long warehouseId,
+                                                                 @RequestParam(defaultValue = "1") int qty) {
+        return ResponseEntity.ok(service.availability(productId, warehouseId, qty));
     }
 
     @GetMapping("/{id}")
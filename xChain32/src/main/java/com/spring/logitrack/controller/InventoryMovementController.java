@@ -0,0 +1,48 @@
+package com.spring.logitrack.controller;
+
+import com.spring.logitrack.dto.inventoryMovement.InventoryMovementResponseDTO;
+import com.spring.logitrack.service.InventoryMovementService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.web.PageableDefault;
+import org.springframework.data.web.PagedModel;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.time.LocalDateTime;
+
+@RestController
+@RequestMapping("/api/inventory-movements")
+@RequiredArgsConstructor
+public class InventoryMovementController {
+
+    private static final int DEFAULT_PERIOD_DAYS = 30;
+
+    private final InventoryMovementService service;
+
+    @GetMapping
+    public ResponseEntity<PagedModel<InventoryMovementResponseDTO>> list(@PageableDefault(size = 50, sort = "id") Pageable pageable) {
+        return ResponseEntity.ok(new PagedModel<>(service.list(pageable)));
+    }
+
+    @GetMapping("/inventory/{inventoryId}")
+    public ResponseEntity<PagedModel<InventoryMovementResponseDTO>> findByInventory(
+            @PathVariable Long inventoryId,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @PageableDefault(size = 50, sort = "occurredAt", direction = Sort.Direction.DESC) Pageable pageable) {
+        LocalDateTime end = to != null ? to : LocalDateTime.now();
+        LocalDateTime start = from != null ? from : end.minusDays(DEFAULT_PERIOD_DAYS);
+        return ResponseEntity.ok(new PagedModel<>(service.findByInventory(inventoryId, start, end, pageable)));
+    }
+
+    @GetMapping(value = "/export", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> export() {
+        StreamingResponseBody body = service::export;
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_NDJSON).body(body);
+    }
+}
@@ -2,8 +2,16 @@ package com.spring.logitrack.controller;
 
 import com.spring.logitrack.dto.product.ProductCreateDTO;
 import com.spring.logitrack.dto.product.ProductResponseDTO;
+import com.spring.logitrack.dto.product.ProductSearchCriteria;
+import com.spring.logitrack.dto.product.ProductSearchHitDTO;
+import com.spring.logitrack.service.CatalogCache;
+import com.spring.logitrack.service.CatalogCache.CachedResponse;
 import com.spring.logitrack.service.ProductService;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.web.PageableDefault;
+import org.springframework.data.web.PagedModel;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.CacheControl;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
@@ -18,19 +26,22 @@ import java.util.Map;
 public class ProductController {
 
     private final ProductService service;
+    private final CatalogCache catalogCache;
 
     @Autowired
-    public ProductController(ProductService service) {
+    public ProductController(ProductService service, CatalogCache catalogCache) {
         this.service = service;
+        this.catalogCache = catalogCache;
     }
 
 
     @PreAuthorize("hasAnyRole('CLIENT')")
     @GetMapping
-    public ResponseEntity<?> list() {
+    public ResponseEntity<?> list(@PageableDefault(size = 20, sort = "id") Pageable pageable) {
         try {
-            List<ProductResponseDTO> products = service.list();
-            return ResponseEntity.ok(products);
+            CachedResponse products = catalogCache.page(pageable, () -> service.list(pageable));
+            // the listing needs a client login, so shared caches must not keep it
+            return cached(products, CacheControl.noCache().cachePrivate());
         } catch (Exception e) {
             return ResponseEntity
                     .status(HttpStatus.INTERNAL_SERVER_ERROR)
@@ -38,11 +49,32 @@ public class ProductController {
         }
     }
 
+    @PreAuthorize("hasAnyRole('CLIENT')")
+    @GetMapping("/search")
+    public ResponseEntity<?> search(@ModelAttribute ProductSearchCriteria criteria,
+                                    @PageableDefault(size = 20) Pageable pageable) {
+        try {
+            PagedModel<ProductSearchHitDTO> hits = new PagedModel<>(service.search(criteria, pageable));
+            return ResponseEntity.ok(hits);
+        } catch (Exception e) {
+            return ResponseEntity
+                    .status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(Map.of("message", "Erreur lors de la recherche des produits : " + e.getMessage()));
+        }
+    }
+
+    @PreAuthorize("hasAnyRole('CLIENT')")
+    @GetMapping("/suggest")
+    public ResponseEntity<List<String>> suggest(@RequestParam String prefix,
+                                                @RequestParam(defaultValue = "10") int limit) {
+        return ResponseEntity.ok(service.suggest(prefix, Math.max(1, Math.min(limit, 50))));
+    }
+
     @GetMapping("/{id}")
     public ResponseEntity<?> get(@PathVariable Long id) {
         try {
-            ProductResponseDTO product = service.get(id);
-            return ResponseEntity.status(HttpStatus.OK).body(product);
+            CachedResponse product = catalogCache.product(id, () -> service.get(id));
+            return cached(product, CacheControl.noCache().cachePublic());
         } catch (Exception e) {
             return ResponseEntity
                     .status(HttpStatus.BAD_REQUEST)
@@ -98,4 +130,16 @@ public class ProductController {
                     .body(Map.of("message", e.getMessage()));
         }
     }
+
+    /**
+     * Clients keep the body but revalidate it on each use; a matching If-None-Match is answered
+     * with 304 by Spring MVC from the ETag set here, without writing the body.
+     */
+    private static ResponseEntity<byte[]> cached(CachedResponse response, CacheControl cacheControl) {
+        return ResponseEntity.ok()
+                .eTag(response.etag())
+                .cacheControl(cacheControl)
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(response.body());
+    }
 }
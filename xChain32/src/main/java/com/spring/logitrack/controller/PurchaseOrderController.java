@@ -1,10 +1,16 @@
 package com.spring.logitrack.controller;
 
 import com.spring.logitrack.dto.purchaseOrder.PurchaseOrderCreateDTO;
+import com.spring.logitrack.dto.purchaseOrder.PurchaseOrderReceiptDTO;
 import com.spring.logitrack.dto.purchaseOrder.PurchaseOrderResponseDTO;
+import com.spring.logitrack.dto.purchaseOrder.ReplenishmentRequestDTO;
 import com.spring.logitrack.service.PurchaseOrderService;
+import jakarta.persistence.EntityNotFoundException;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.web.PageableDefault;
+import org.springframework.data.web.PagedModel;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
@@ -30,9 +36,14 @@ public class PurchaseOrderController {
                 .body(service.createFromBackOrder(backorderId, supplierId));
     }
 
+    @PostMapping("/replenishment")
+    public ResponseEntity<List<PurchaseOrderResponseDTO>> replenishBackorders(@RequestBody ReplenishmentRequestDTO dto) {
+        return ResponseEntity.status(HttpStatus.CREATED).body(service.replenishBackorders(dto));
+    }
+
     @GetMapping
-    public ResponseEntity<List<PurchaseOrderResponseDTO>> list() {
-        return ResponseEntity.ok(service.list());
+    public ResponseEntity<PagedModel<PurchaseOrderResponseDTO>> list(@PageableDefault(size = 20, sort = "id") Pageable pageable) {
+        return ResponseEntity.ok(new PagedModel<>(service.list(pageable)));
     }
 
     @GetMapping("/supplier/{supplierId}")
@@ -52,6 +63,17 @@ public class PurchaseOrderController {
         }
     }
 
+    @PostMapping("/{id}/receipts")
+    public ResponseEntity<?> receive(@PathVariable Long id, @Valid @RequestBody(required = false) PurchaseOrderReceiptDTO dto) {
+        try {
+            return ResponseEntity.ok(service.receive(id, dto));
+        } catch (IllegalStateException | IllegalArgumentException | EntityNotFoundException e) {
+            return ResponseEntity
+                    .status(HttpStatus.BAD_REQUEST)
+                    .body(Map.of("message", e.getMessage()));
+        }
+    }
+
     @DeleteMapping("/{id}")
     public ResponseEntity<Void> delete(@PathVariable Long id) {
         service.delete(id);
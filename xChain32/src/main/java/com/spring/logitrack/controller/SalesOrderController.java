@@ -1,16 +1,23 @@
 package com.spring.logitrack.controller;
 
 import com.spring.logitrack.dto.salesOrder.SalesOrderCreateDTO;
+import com.spring.logitrack.dto.salesOrder.SalesOrderImportResultDTO;
 import com.spring.logitrack.dto.salesOrder.SalesOrderResponseDTO;
 import com.spring.logitrack.dto.salesOrder.SalesOrderResponseWithWarningsDTO;
+import com.spring.logitrack.service.SalesOrderImportService;
 import com.spring.logitrack.service.SalesOrderService;
 import jakarta.validation.Valid;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.web.PageableDefault;
+import org.springframework.data.web.PagedModel;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
-import java.util.List;
+import java.io.InputStream;
 import java.util.Map;
 
 @RestController
@@ -18,16 +25,18 @@ import java.util.Map;
 public class SalesOrderController {
 
     private final SalesOrderService service;
+    private final SalesOrderImportService importService;
 
     @Autowired
-    public SalesOrderController(SalesOrderService service) {
+    public SalesOrderController(SalesOrderService service, SalesOrderImportService importService) {
         this.service = service;
+        this.importService = importService;
     }
 
     @GetMapping
-    public ResponseEntity<?> list() {
+    public ResponseEntity<?> list(@PageableDefault(size = 20, sort = "id") Pageable pageable) {
         try {
-            List<SalesOrderResponseDTO> orders = service.list();
+            PagedModel<SalesOrderResponseDTO> orders = new PagedModel<>(service.list(pageable));
             return ResponseEntity.ok(orders);
         } catch (Exception e) {
             return ResponseEntity
@@ -36,6 +45,12 @@ public class SalesOrderController {
         }
     }
 
+    @GetMapping(value = "/export", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> export() {
+        StreamingResponseBody body = service::export;
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_NDJSON).body(body);
+    }
+
     @GetMapping("/{id}")
     public ResponseEntity<?> get(@PathVariable Long id) {
         try {
@@ -60,6 +75,11 @@ public class SalesOrderController {
         }
     }
 
+    @PostMapping(value = "/import", consumes = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<SalesOrderImportResultDTO> importOrders(InputStream body) {
+        return ResponseEntity.ok(importService.importNdjson(body));
+    }
+
     @PutMapping("/{id}")
     public ResponseEntity<?> update(@PathVariable Long id, @RequestBody SalesOrderCreateDTO dto) {
         try {
@@ -6,10 +6,12 @@ import com.spring.logitrack.entity.enums.ShipmentStatus;
 import com.spring.logitrack.service.ShipmentService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.web.PageableDefault;
+import org.springframework.data.web.PagedModel;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
-import java.util.List;
 
 @RestController
 @RequestMapping("/api/shipments")
@@ -29,8 +31,8 @@ public class ShipmentController {
     }
 
     @GetMapping
-    public ResponseEntity<List<ShipmentResponseDTO>> list() {
-        return ResponseEntity.ok(service.list());
+    public ResponseEntity<PagedModel<ShipmentResponseDTO>> list(@PageableDefault(size = 20, sort = "id") Pageable pageable) {
+        return ResponseEntity.ok(new PagedModel<>(service.list(pageable)));
     }
 
     @PatchMapping("/{id}")
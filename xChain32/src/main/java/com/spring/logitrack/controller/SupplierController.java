@@ -5,10 +5,12 @@ import com.spring.logitrack.dto.supplier.SupplierResponseDTO;
 import com.spring.logitrack.service.SupplierService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.web.PageableDefault;
+import org.springframework.data.web.PagedModel;
 import org.springframework.http.*;
 import org.springframework.web.bind.annotation.*;
 
-import java.util.List;
 import java.util.Map;
 
 @RestController
@@ -29,8 +31,8 @@ public class SupplierController {
     }
 
     @GetMapping
-    public ResponseEntity<List<SupplierResponseDTO>> list() {
-        return ResponseEntity.ok(service.list());
+    public ResponseEntity<PagedModel<SupplierResponseDTO>> list(@PageableDefault(size = 20, sort = "id") Pageable pageable) {
+        return ResponseEntity.ok(new PagedModel<>(service.list(pageable)));
     }
 
     @GetMapping("/{id}")
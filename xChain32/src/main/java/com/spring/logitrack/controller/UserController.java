@@ -3,13 +3,15 @@ package com.spring.logitrack.controller;
 import com.spring.logitrack.dto.user.UserCreateDTO;
 import com.spring.logitrack.dto.user.UserResponseDTO;
 import com.spring.logitrack.service.UserService;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.web.PageableDefault;
+import org.springframework.data.web.PagedModel;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
 
-import java.util.List;
 import java.util.Map;
 
 @RestController
@@ -24,9 +26,9 @@ public class UserController {
     }
 
     @GetMapping
-    public ResponseEntity<?> list() {
+    public ResponseEntity<?> list(@PageableDefault(size = 20, sort = "id") Pageable pageable) {
         try {
-            List<UserResponseDTO> users = service.list();
+            PagedModel<UserResponseDTO> users = new PagedModel<>(service.list(pageable));
             return ResponseEntity.ok(users);
         } catch (Exception e) {
             return ResponseEntity
@@ -0,0 +1,13 @@
+package com.spring.logitrack.dto.POLine;
+
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotNull;
+import lombok.Data;
+
+@Data
+public class POLineReceiptDTO {
+    @NotNull
+    private Long lineId;
+    @Min(1)
+    private int qty;
+}
@@ -10,5 +10,6 @@ public class POLineResponseDTO {
     private Long productId;
     private String productName;
     private int qty;
+    private int qtyReceived;
     private BigDecimal price;
 }
@@ -0,0 +1,11 @@
+package com.spring.logitrack.dto.inventory;
+
+import lombok.Data;
+
+@Data
+public class InventoryAvailabilityDTO {
+    private Long productId;
+    private Long warehouseId;
+    private int available;
+    private boolean promisable;
+}
@@ -0,0 +1,22 @@
+package com.spring.logitrack.dto.product;
+
+import lombok.Getter;
+import lombok.Setter;
+
+import java.math.BigDecimal;
+
+@Getter
+@Setter
+public class ProductSearchCriteria {
+
+    /** Words matched against sku, name and description; the last one also matches as a prefix. */
+    private String q;
+
+    private String unit;
+
+    private Boolean active;
+
+    private BigDecimal minPrice;
+
+    private BigDecimal maxPrice;
+}
@@ -0,0 +1,22 @@
+package com.spring.logitrack.dto.product;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.math.BigDecimal;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class ProductSearchHitDTO {
+    private Long id;
+    private String sku;
+    private String name;
+    private String unit;
+    private BigDecimal price;
+    private boolean active;
+    private double score;
+}
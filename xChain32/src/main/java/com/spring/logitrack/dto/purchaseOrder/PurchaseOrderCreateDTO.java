@@ -15,6 +15,8 @@ public class PurchaseOrderCreateDTO {
     @NotNull
     private Long supplierId;
 
+    private Long warehouseId;
+
     private List<POLineCreateDTO> lines;
 
     @JsonProperty("order")
@@ -0,0 +1,15 @@
+package com.spring.logitrack.dto.purchaseOrder;
+
+import com.spring.logitrack.dto.POLine.POLineReceiptDTO;
+import jakarta.validation.Valid;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+public class PurchaseOrderReceiptDTO {
+
+    /** Received quantity per line; when empty, everything still outstanding is received. */
+    @Valid
+    private List<POLineReceiptDTO> lines;
+}
@@ -13,6 +13,7 @@ public class PurchaseOrderResponseDTO {
     private Long id;
     private Long supplierId;
     private String supplierName;
+    private Long warehouseId;
     private POStatus status;
     private LocalDateTime createdAt;
     private List<POLineResponseDTO> lines;
@@ -0,0 +1,16 @@
+package com.spring.logitrack.dto.purchaseOrder;
+
+import lombok.Data;
+
+import java.util.HashMap;
+import java.util.Map;
+
+@Data
+public class ReplenishmentRequestDTO {
+
+    /** Supplier for products not listed in suppliersByProduct; their backorders are skipped when null. */
+    private Long defaultSupplierId;
+
+    /** Supplier chosen per product id. */
+    private Map<Long, Long> suppliersByProduct = new HashMap<>();
+}
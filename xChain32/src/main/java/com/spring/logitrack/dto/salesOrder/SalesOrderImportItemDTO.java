@@ -0,0 +1,17 @@
+package com.spring.logitrack.dto.salesOrder;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class SalesOrderImportItemDTO {
+    private int line;
+    private Long orderId;
+    private boolean imported;
+    private List<String> messages;
+}
@@ -0,0 +1,14 @@
+package com.spring.logitrack.dto.salesOrder;
+
+import lombok.Data;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+public class SalesOrderImportResultDTO {
+    private int total;
+    private int imported;
+    private int rejected;
+    private List<SalesOrderImportItemDTO> results = new ArrayList<>();
+}
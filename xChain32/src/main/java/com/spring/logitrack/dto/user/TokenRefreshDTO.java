@@ -0,0 +1,12 @@
+package com.spring.logitrack.dto.user;
+
+import jakarta.validation.constraints.NotBlank;
+import lombok.Getter;
+import lombok.Setter;
+
+@Getter
+@Setter
+public class TokenRefreshDTO {
+    @NotBlank
+    private String refreshToken;
+}
@@ -0,0 +1,12 @@
+package com.spring.logitrack.dto.user;
+
+import lombok.Data;
+
+@Data
+public class TokenResponseDTO {
+    private String accessToken;
+    private String refreshToken;
+    private String tokenType = "Bearer";
+    private long expiresIn;
+    private UserResponseDTO user;
+}
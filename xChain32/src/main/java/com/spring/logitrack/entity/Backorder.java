@@ -7,7 +7,9 @@ import lombok.*;
 import lombok.experimental.SuperBuilder;
 
 @Entity
-@Table(name = "backorders")
+@Table(name = "backorders", indexes = {
+        @Index(name = "idx_backorders_status", columnList = "status")
+})
 @Getter
 @Setter
 @NoArgsConstructor
@@ -23,6 +25,11 @@ public class Backorder extends AbstractOrder {
     @Column(nullable = false)
     private BackorderStatus status;
 
+    /** Consolidated purchase order raised for this backorder together with others of the same supplier. */
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "replenishment_order_id")
+    private PurchaseOrder replenishmentOrder;
+
     @Override
     public BackorderStatus getStatus() {
         return status;
@@ -6,11 +6,10 @@ import jakarta.persistence.*;
 import jakarta.validation.constraints.Min;
 import lombok.*;
 
-import java.util.ArrayList;
-import java.util.List;
-
 @Entity
-@Table(name = "inventories")
+@Table(name = "inventories", indexes = {
+        @Index(name = "idx_inventories_product_warehouse", columnList = "product_id, warehouse_id")
+})
 @Getter
 @Setter
 @NoArgsConstructor
@@ -19,7 +18,8 @@ import java.util.List;
 public class Inventory {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "inventories_seq")
+    @SequenceGenerator(name = "inventories_seq", sequenceName = "inventories_seq", allocationSize = 50)
     private Long id;
 
     @ManyToOne(fetch = FetchType.LAZY, optional = false)
@@ -39,10 +39,6 @@ public class Inventory {
     @Column(name = "qty_reserved", nullable = false)
     private int qtyReserved;
 
-    @OneToMany(mappedBy = "inventory", cascade = CascadeType.ALL, orphanRemoval = true)
-    @Builder.Default
-    private List<InventoryMovement> movements = new ArrayList<>();
-
     @Override
     public String toString() {
         return "Inventory{" +
@@ -51,7 +47,6 @@ public class Inventory {
                 ", product=" + product +
                 ", qtyOnHand=" + qtyOnHand +
                 ", qtyReserved=" + qtyReserved +
-                ", movements=" + movements +
                 '}';
     }
 }
@@ -4,11 +4,15 @@ import com.spring.logitrack.entity.enums.MovementType;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.Min;
 import lombok.*;
+import org.hibernate.annotations.Immutable;
 
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "inventory_movements")
+@Immutable
+@Table(name = "inventory_movements", indexes = {
+        @Index(name = "idx_inventory_movements_inventory_occurred_at", columnList = "inventory_id, occurred_at")
+})
 @Getter
 @Setter
 @NoArgsConstructor
@@ -17,7 +21,8 @@ import java.time.LocalDateTime;
 public class InventoryMovement {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "inventory_movements_seq")
+    @SequenceGenerator(name = "inventory_movements_seq", sequenceName = "inventory_movements_seq", allocationSize = 50)
     private Long id;
 
     @ManyToOne(fetch = FetchType.LAZY, optional = false)
@@ -32,6 +37,7 @@ public class InventoryMovement {
     @Column(nullable = false)
     private int qty;
 
-    @Column(nullable = false)
+    @Column(name = "occurred_at", nullable = false)
+    @Builder.Default
     private LocalDateTime occurredAt = LocalDateTime.now();
 }
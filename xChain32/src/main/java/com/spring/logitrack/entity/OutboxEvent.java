@@ -0,0 +1,52 @@
+package com.spring.logitrack.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * A state change of an order, written in the transaction that made it and published by the
+ * outbox relay once committed. publishedAt stays null until then. An event the relay failed to
+ * deliver on its own counts the failure in attempts; once these reach outbox.relay.max-attempts it
+ * is parked, left in the table for an operator while the events behind it go out.
+ */
+@Entity
+@Table(name = "outbox_events", indexes = {
+        @Index(name = "idx_outbox_events_published_at", columnList = "published_at, id")
+})
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class OutboxEvent {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "outbox_events_seq")
+    @SequenceGenerator(name = "outbox_events_seq", sequenceName = "outbox_events_seq", allocationSize = 50)
+    private Long id;
+
+    @Column(name = "aggregate_type", nullable = false, length = 32)
+    private String aggregateType;
+
+    @Column(name = "aggregate_id", nullable = false)
+    private Long aggregateId;
+
+    @Column(nullable = false, length = 32)
+    private String status;
+
+    @Column(name = "occurred_at", nullable = false)
+    @Builder.Default
+    private LocalDateTime occurredAt = LocalDateTime.now();
+
+    @Column(name = "published_at")
+    private LocalDateTime publishedAt;
+
+    @Column(nullable = false)
+    @Builder.Default
+    private int attempts = 0;
+
+    @Column(name = "last_error", length = 500)
+    private String lastError;
+}
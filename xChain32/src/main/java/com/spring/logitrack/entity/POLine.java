@@ -17,7 +17,8 @@ import java.math.BigDecimal;
 public class POLine {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "po_lines_seq")
+    @SequenceGenerator(name = "po_lines_seq", sequenceName = "po_lines_seq", allocationSize = 50)
     private Long id;
 
     @ManyToOne(fetch = FetchType.LAZY, optional = false)
@@ -32,6 +33,10 @@ public class POLine {
     @Column(nullable = false)
     private int qty;
 
+    @Min(0)
+    @Column(name = "qty_received", nullable = false)
+    private int qtyReceived;
+
     @DecimalMin("0.0")
     @Column(nullable = false, precision = 10, scale = 2)
     private BigDecimal price;
@@ -43,6 +48,7 @@ public class POLine {
                 ", purchaseOrder=" + purchaseOrder +
                 ", product=" + product +
                 ", qty=" + qty +
+                ", qtyReceived=" + qtyReceived +
                 ", price=" + price +
                 '}';
     }
@@ -18,7 +18,8 @@ import java.math.BigDecimal;
 public class SalesOrderLine {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "sales_order_lines_seq")
+    @SequenceGenerator(name = "sales_order_lines_seq", sequenceName = "sales_order_lines_seq", allocationSize = 50)
     private Long id;
 
     @ManyToOne(fetch = FetchType.LAZY, optional = false)
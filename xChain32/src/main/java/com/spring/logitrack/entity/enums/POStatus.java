@@ -1,5 +1,5 @@
 package com.spring.logitrack.entity.enums;
 
 public enum POStatus {
-    APPROVED, RECEIVED
+    APPROVED, PARTIALLY_RECEIVED, RECEIVED
 }
\ No newline at end of file
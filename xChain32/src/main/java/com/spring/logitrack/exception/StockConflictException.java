@@ -0,0 +1,7 @@
+package com.spring.logitrack.exception;
+
+public class StockConflictException extends BusinessException {
+    public StockConflictException(String message) {
+        super(message);
+    }
+}
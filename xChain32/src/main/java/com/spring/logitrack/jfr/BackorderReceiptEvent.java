@@ -0,0 +1,28 @@
+package com.spring.logitrack.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+@Name("logitrack.BackorderReceipt")
+@Label("Backorder Receipt")
+@Category({"LogiTrack", "Purchase Orders"})
+@Description("Goods of a received purchase order applied to the backorder it was raised for")
+@StackTrace(false)
+public class BackorderReceiptEvent extends Event {
+
+    @Label("Purchase Order Id")
+    public long purchaseOrderId;
+
+    @Label("Backorder Id")
+    public long backorderId;
+
+    @Label("Product Id")
+    public long productId;
+
+    @Label("Quantity")
+    public int qty;
+}
@@ -0,0 +1,130 @@
+package com.spring.logitrack.jfr;
+
+import jdk.jfr.Configuration;
+import jdk.jfr.FlightRecorder;
+import jdk.jfr.Recording;
+import jdk.jfr.RecordingState;
+import org.springframework.boot.actuate.endpoint.annotation.DeleteOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Selector;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.boot.actuate.endpoint.web.WebEndpointResponse;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.text.ParseException;
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * {@code /actuator/jfr}: lists the Flight Recorder recordings of this JVM, starts a new one
+ * (POST, optional {@code name}, {@code settings} and {@code maxAge}), downloads a .jfr dump of
+ * one ({@code GET /actuator/jfr/{id}}) and stops it ({@code DELETE /actuator/jfr/{id}}).
+ * Recordings started here run with the low-overhead "default" settings unless told otherwise
+ * and keep the last hour on disk; the logitrack.* events are on whatever settings are used.
+ */
+@Component
+@Endpoint(id = "jfr")
+public class FlightRecordingEndpoint {
+
+    static final String DEFAULT_SETTINGS = "default";
+    static final Duration DEFAULT_MAX_AGE = Duration.ofHours(1);
+
+    @ReadOperation
+    public List<RecordingDescriptor> recordings() {
+        if (!FlightRecorder.isAvailable()) return List.of();
+        return FlightRecorder.getFlightRecorder().getRecordings().stream()
+                .map(RecordingDescriptor::of)
+                .toList();
+    }
+
+    @WriteOperation
+    public RecordingDescriptor start(@Nullable String name, @Nullable String settings, @Nullable Duration maxAge) {
+        Configuration configuration;
+        try {
+            configuration = Configuration.getConfiguration(settings == null ? DEFAULT_SETTINGS : settings);
+        } catch (IOException | ParseException e) {
+            throw new IllegalArgumentException("Unknown JFR settings: " + settings, e);
+        }
+
+        Recording recording = new Recording(configuration);
+        recording.setName(name == null ? "logitrack" : name);
+        recording.setMaxAge(maxAge == null ? DEFAULT_MAX_AGE : maxAge);
+        recording.setToDisk(true);
+        recording.start();
+        return RecordingDescriptor.of(recording);
+    }
+
+    @ReadOperation(produces = "application/octet-stream")
+    public WebEndpointResponse<Resource> dump(@Selector long id) {
+        Optional<Recording> recording = find(id);
+        if (recording.isEmpty()) return new WebEndpointResponse<>(WebEndpointResponse.STATUS_NOT_FOUND);
+
+        try {
+            Path file = Files.createTempFile("recording-" + id + "-", ".jfr");
+            recording.get().dump(file);
+            return new WebEndpointResponse<>(deletedAfterRead(file), WebEndpointResponse.STATUS_OK);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not dump recording " + id, e);
+        }
+    }
+
+    @DeleteOperation
+    public WebEndpointResponse<RecordingDescriptor> stop(@Selector long id) {
+        Optional<Recording> recording = find(id);
+        if (recording.isEmpty()) return new WebEndpointResponse<>(WebEndpointResponse.STATUS_NOT_FOUND);
+
+        Recording stopped = recording.get();
+        if (stopped.getState() == RecordingState.RUNNING) stopped.stop();
+        RecordingDescriptor descriptor = RecordingDescriptor.of(stopped);
+        stopped.close();
+        return new WebEndpointResponse<>(descriptor, WebEndpointResponse.STATUS_OK);
+    }
+
+    private static Optional<Recording> find(long id) {
+        if (!FlightRecorder.isAvailable()) return Optional.empty();
+        return FlightRecorder.getFlightRecorder().getRecordings().stream()
+                .filter(recording -> recording.getId() == id)
+                .findFirst();
+    }
+
+    /** Dumps can be large, so the temporary file goes away once the response has been streamed. */
+    private static Resource deletedAfterRead(Path file) {
+        return new FileSystemResource(file) {
+            @Override
+            public InputStream getInputStream() throws IOException {
+                return new FilterInputStream(super.getInputStream()) {
+                    @Override
+                    public void close() throws IOException {
+                        try {
+                            super.close();
+                        } finally {
+                            Files.deleteIfExists(file);
+                        }
+                    }
+                };
+            }
+        };
+    }
+
+    public record RecordingDescriptor(long id, String name, String state, String startTime,
+                                      String maxAge, long size) {
+
+        static RecordingDescriptor of(Recording recording) {
+            return new RecordingDescriptor(recording.getId(), recording.getName(), recording.getState().name(),
+                    recording.getStartTime() == null ? null : recording.getStartTime().toString(),
+                    recording.getMaxAge() == null ? null : recording.getMaxAge().toString(),
+                    recording.getSize());
+        }
+    }
+}
@@ -0,0 +1,23 @@
+package com.spring.logitrack.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+@Name("logitrack.InventoryAdjustment")
+@Label("Inventory Adjustment")
+@Category({"LogiTrack", "Inventory"})
+@StackTrace(false)
+public class InventoryAdjustmentEvent extends Event {
+
+    @Label("Inventory Id")
+    public long inventoryId;
+
+    @Label("Adjustment")
+    public long adjustment;
+
+    @Label("Applied")
+    public boolean applied;
+}
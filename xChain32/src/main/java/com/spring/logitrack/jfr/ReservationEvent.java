@@ -0,0 +1,32 @@
+package com.spring.logitrack.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+@Name("logitrack.Reservation")
+@Label("Sales Order Reservation")
+@Category({"LogiTrack", "Sales Orders"})
+@Description("SalesOrderService.reserve, from loading the order to saving it")
+@StackTrace(false)
+public class ReservationEvent extends Event {
+
+    @Label("Order Id")
+    public long orderId;
+
+    @Label("Lines")
+    public int lines;
+
+    @Label("Helper Lookups")
+    @Description("Shortfalls that asked other warehouses for stock")
+    public int helperLookups;
+
+    @Label("Backorders")
+    public int backorders;
+
+    @Label("Outcome")
+    public String outcome;
+}
@@ -0,0 +1,28 @@
+package com.spring.logitrack.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+@Name("logitrack.S3Upload")
+@Label("S3 Upload")
+@Category({"LogiTrack", "Storage"})
+@StackTrace(false)
+public class S3UploadEvent extends Event {
+
+    @Label("Key")
+    public String key;
+
+    @Label("Size")
+    @DataAmount
+    public long bytes;
+
+    @Label("Multipart")
+    public boolean multipart;
+
+    @Label("Success")
+    public boolean success;
+}
@@ -0,0 +1,25 @@
+package com.spring.logitrack.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+@Name("logitrack.WarehouseTransfer")
+@Label("Warehouse Transfer")
+@Category({"LogiTrack", "Inventory"})
+@Description("Stock moved from a helper warehouse to cover a reservation shortfall")
+@StackTrace(false)
+public class WarehouseTransferEvent extends Event {
+
+    @Label("From Inventory")
+    public long fromInventoryId;
+
+    @Label("To Inventory")
+    public long toInventoryId;
+
+    @Label("Quantity")
+    public int qty;
+}
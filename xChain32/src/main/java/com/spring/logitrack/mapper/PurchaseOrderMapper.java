@@ -51,6 +51,7 @@ public class PurchaseOrderMapper {
         dto.setId(entity.getId());
         dto.setSupplierId(entity.getSupplier().getId());
         dto.setSupplierName(entity.getSupplier().getName());
+        dto.setWarehouseId(entity.getWarehouse() != null ? entity.getWarehouse().getId() : null);
         dto.setStatus(entity.getStatus());
         dto.setCreatedAt(entity.getCreatedAt());
 
@@ -61,6 +62,7 @@ public class PurchaseOrderMapper {
             l.setProductId(line.getProduct().getId());
             l.setProductName(line.getProduct().getName());
             l.setQty(line.getQty());
+            l.setQtyReceived(line.getQtyReceived());
             l.setPrice(line.getPrice());
             lineDTOs.add(l);
         }
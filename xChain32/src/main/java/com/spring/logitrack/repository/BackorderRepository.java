@@ -1,11 +1,51 @@
 package com.spring.logitrack.repository;
 
 import com.spring.logitrack.entity.Backorder;
+import com.spring.logitrack.entity.enums.BackorderStatus;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.stream.Stream;
 
-public interface BackorderRepository extends JpaRepository<Backorder, Long> {
+import static org.hibernate.jpa.HibernateHints.HINT_FETCH_SIZE;
+
+public interface BackorderRepository extends JpaRepository<Backorder, Long>, BackorderRepositoryCustom {
     List<Backorder> findBySalesOrder_Id(Long salesOrderId);
     List<Backorder> findByStatus(String status);
+
+    /** Goes through idx_backorders_status: only the open backorders are read, never the whole table. */
+    @QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = "1000"))
+    @Query("""
+    SELECT b.id AS id, b.product.id AS productId, o.warehouse.id AS warehouseId,
+           b.createdAt AS createdAt, b.qty AS qty
+    FROM Backorder b
+    JOIN b.salesOrder o
+    WHERE b.status IN :statuses
+""")
+    Stream<PendingBackorder> streamByStatusIn(@Param("statuses") Collection<BackorderStatus> statuses);
+
+    /** Open backorders no purchase order has been raised for yet, neither on its own nor consolidated. */
+    @QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = "1000"))
+    @Query("""
+    SELECT b.id AS id, b.product.id AS productId, o.warehouse.id AS warehouseId,
+           b.qty AS qty, b.extraQty AS extraQty
+    FROM Backorder b
+    JOIN b.salesOrder o
+    WHERE b.status IN :statuses
+      AND b.replenishmentOrder IS NULL
+      AND NOT EXISTS (SELECT p.id FROM PurchaseOrder p WHERE p.order = b)
+    ORDER BY b.id
+""")
+    List<UnorderedBackorder> findUnorderedByStatusIn(@Param("statuses") Collection<BackorderStatus> statuses);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT b FROM Backorder b WHERE b.id IN :ids")
+    List<Backorder> findAllForUpdateByIdIn(@Param("ids") Collection<Long> ids);
 }
@@ -0,0 +1,13 @@
+package com.spring.logitrack.repository;
+
+import java.util.Collection;
+
+/**
+ * Native updates of backorders that declare the backorder tables as their query space, so
+ * Hibernate invalidates only those instead of every second-level cache region.
+ */
+public interface BackorderRepositoryCustom {
+
+    /** Links the backorders to their consolidated purchase order, skipping any a concurrent run got first. */
+    int linkReplenishmentOrder(Long purchaseOrderId, Collection<Long> ids);
+}
@@ -0,0 +1,32 @@
+package com.spring.logitrack.repository;
+
+import com.spring.logitrack.entity.Backorder;
+import jakarta.persistence.EntityManager;
+import lombok.RequiredArgsConstructor;
+import org.hibernate.query.NativeQuery;
+
+import java.util.Collection;
+
+@RequiredArgsConstructor
+public class BackorderRepositoryImpl implements BackorderRepositoryCustom {
+
+    // a JPQL UPDATE of the JOINED Backorder would go through a temporary id table
+    private static final String LINK_SQL = """
+    UPDATE backorders
+    SET replenishment_order_id = :purchaseOrderId
+    WHERE id IN (:ids)
+      AND replenishment_order_id IS NULL
+""";
+
+    private final EntityManager entityManager;
+
+    @Override
+    public int linkReplenishmentOrder(Long purchaseOrderId, Collection<Long> ids) {
+        return entityManager.createNativeQuery(LINK_SQL)
+                .unwrap(NativeQuery.class)
+                .addSynchronizedEntityClass(Backorder.class)
+                .setParameter("purchaseOrderId", purchaseOrderId)
+                .setParameterList("ids", ids)
+                .executeUpdate();
+    }
+}
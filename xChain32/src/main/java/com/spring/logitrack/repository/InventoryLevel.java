@@ -0,0 +1,8 @@
+package com.spring.logitrack.repository;
+
+public interface InventoryLevel {
+    Long getProductId();
+    Long getWarehouseId();
+    int getQtyOnHand();
+    int getQtyReserved();
+}
@@ -1,10 +1,38 @@
 package com.spring.logitrack.repository;
 
 import com.spring.logitrack.entity.InventoryMovement;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import jakarta.persistence.QueryHint;
 
-import java.util.List;
+import java.time.LocalDateTime;
+import java.util.stream.Stream;
 
-public interface InventoryMovementRepository extends JpaRepository<InventoryMovement, Long> {
-    List<InventoryMovement> findByInventory_Id(Long inventoryId);
+import static org.hibernate.jpa.HibernateHints.HINT_FETCH_SIZE;
+import static org.hibernate.jpa.HibernateHints.HINT_READ_ONLY;
+
+public interface InventoryMovementRepository extends JpaRepository<InventoryMovement, Long>, InventoryMovementRepositoryCustom {
+
+    @Query("""
+    SELECT m
+    FROM InventoryMovement m
+    WHERE m.inventory.id = :inventoryId
+      AND m.occurredAt >= :from
+      AND m.occurredAt < :to
+""")
+    Page<InventoryMovement> findByInventoryAndPeriod(@Param("inventoryId") Long inventoryId,
+                                                      @Param("from") LocalDateTime from,
+                                                      @Param("to") LocalDateTime to,
+                                                      Pageable pageable);
+
+    @QueryHints({
+            @QueryHint(name = HINT_FETCH_SIZE, value = "1000"),
+            @QueryHint(name = HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT m FROM InventoryMovement m ORDER BY m.id")
+    Stream<InventoryMovement> streamAllForExport();
 }
@@ -0,0 +1,14 @@
+package com.spring.logitrack.repository;
+
+import com.spring.logitrack.entity.InventoryMovement;
+
+import java.util.List;
+
+/**
+ * Insert-only access to the movement ledger. Rows are written with one JDBC batch and are
+ * never loaded back into the persistence context; ids come from the entity's pooled generator.
+ */
+public interface InventoryMovementRepositoryCustom {
+
+    int[] appendAll(List<InventoryMovement> movements);
+}
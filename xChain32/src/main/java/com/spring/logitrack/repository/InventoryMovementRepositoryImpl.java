@@ -0,0 +1,50 @@
+package com.spring.logitrack.repository;
+
+import com.spring.logitrack.entity.InventoryMovement;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import lombok.RequiredArgsConstructor;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.hibernate.generator.BeforeExecutionGenerator;
+import org.hibernate.generator.EventType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.orm.jpa.EntityManagerFactoryUtils;
+
+import java.util.List;
+
+@RequiredArgsConstructor
+public class InventoryMovementRepositoryImpl implements InventoryMovementRepositoryCustom {
+
+    private static final String APPEND_SQL = """
+    INSERT INTO inventory_movements (id, inventory_id, type, qty, occurred_at)
+    VALUES (?, ?, ?, ?, ?)
+""";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final EntityManagerFactory entityManagerFactory;
+
+    @Override
+    public int[] appendAll(List<InventoryMovement> movements) {
+        if (movements.isEmpty()) return new int[0];
+        EntityManager entityManager = EntityManagerFactoryUtils.getTransactionalEntityManager(entityManagerFactory);
+        if (entityManager != null) return insert(entityManager, movements);
+        try (EntityManager standalone = entityManagerFactory.createEntityManager()) {
+            return insert(standalone, movements);
+        }
+    }
+
+    private int[] insert(EntityManager entityManager, List<InventoryMovement> movements) {
+        SharedSessionContractImplementor session = entityManager.unwrap(SharedSessionContractImplementor.class);
+        // the sequence steps by 50 for the pooled optimizer, so a raw nextval would spend a whole block per row
+        BeforeExecutionGenerator generator = (BeforeExecutionGenerator) entityManagerFactory
+                .unwrap(SessionFactoryImplementor.class)
+                .getMappingMetamodel()
+                .getEntityDescriptor(InventoryMovement.class)
+                .getGenerator();
+        return jdbcTemplate.batchUpdate(APPEND_SQL, movements.stream()
+                .map(m -> new Object[]{generator.generate(session, m, null, EventType.INSERT),
+                        m.getInventory().getId(), m.getType().name(), m.getQty(), m.getOccurredAt()})
+                .toList());
+    }
+}
@@ -1,28 +1,90 @@
 package com.spring.logitrack.repository;
 
 import com.spring.logitrack.entity.Inventory;
+import com.spring.logitrack.entity.Product;
+import com.spring.logitrack.entity.Warehouse;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
+import jakarta.persistence.QueryHint;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
-public interface InventoryRepository extends JpaRepository<Inventory, Long> {
+import static org.hibernate.jpa.HibernateHints.HINT_FETCH_SIZE;
+
+public interface InventoryRepository extends JpaRepository<Inventory, Long>, InventoryRepositoryCustom {
     List<Inventory> findAllByProduct_Id(Long productId);
     Optional<Inventory> findTopByProduct_IdAndWarehouse_IdOrderByIdDesc(Long productId, Long warehouseId);
+    List<Inventory> findAllByWarehouse_IdAndProduct_IdIn(Long warehouseId, Collection<Long> productIds);
     Optional<Inventory> findOneByProduct_IdAndQtyOnHandIsGreaterThanEqualAndWarehouse_IdNot(Long productId, int qty, Long warehouseId);
-    @Query(value = """
-    SELECT *
-    FROM inventories i
-    WHERE i.product_id = :productId
-      AND (i.qty_on_hand - i.qty_reserved) >= :qty
-      AND i.warehouse_id <> :warehouseId
-    LIMIT 1
-""", nativeQuery = true)
-    Optional<Inventory> findAvailableInventoryNative(
-            @Param("productId") Long productId,
-            @Param("qty") int qty,
-            @Param("warehouseId") Long warehouseId);
+    @Query("""
+    SELECT i
+    FROM Inventory i
+    JOIN FETCH i.warehouse w
+    JOIN FETCH w.manager
+    WHERE i.product.id = :productId
+      AND w.id <> :warehouseId
+      AND i.qtyOnHand - i.qtyReserved > 0
+    ORDER BY (i.qtyOnHand - i.qtyReserved) DESC, i.id
+""")
+    List<Inventory> findSourcingCandidates(@Param("productId") Long productId, @Param("warehouseId") Long warehouseId);
+
+    @QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = "1000"))
+    @Query("""
+    SELECT i.product.id AS productId, i.warehouse.id AS warehouseId,
+           i.qtyOnHand AS qtyOnHand, i.qtyReserved AS qtyReserved
+    FROM Inventory i
+    ORDER BY i.id
+""")
+    Stream<InventoryLevel> streamAllLevels();
+
+    @Modifying
+    @Query("""
+    UPDATE Inventory i
+    SET i.qtyOnHand = i.qtyOnHand - :qty
+    WHERE i.id = :id
+      AND i.qtyOnHand - i.qtyReserved >= :qty
+""")
+    int withdrawAvailable(@Param("id") Long id, @Param("qty") int qty);
+
+    @Modifying
+    @Query("""
+    UPDATE Inventory i
+    SET i.qtyOnHand = i.qtyOnHand + :qty
+    WHERE i.id = :id
+""")
+    int addOnHand(@Param("id") Long id, @Param("qty") int qty);
 
+    @Modifying
+    @Query("""
+    UPDATE Inventory i
+    SET i.qtyOnHand = i.qtyOnHand + :qty,
+        i.qtyReserved = i.qtyReserved + :qty
+    WHERE i.id = :id
+""")
+    int addOnHandReserved(@Param("id") Long id, @Param("qty") int qty);
 
+    /** Replaces an inventory's warehouse, product and quantities, only while the quantities are still the expected ones. */
+    @Modifying
+    @Query("""
+    UPDATE Inventory i
+    SET i.warehouse = :warehouse,
+        i.product = :product,
+        i.qtyOnHand = :qtyOnHand,
+        i.qtyReserved = :qtyReserved
+    WHERE i.id = :id
+      AND i.qtyOnHand = :expectedOnHand
+      AND i.qtyReserved = :expectedReserved
+""")
+    int overwrite(@Param("id") Long id,
+                  @Param("warehouse") Warehouse warehouse,
+                  @Param("product") Product product,
+                  @Param("qtyOnHand") int qtyOnHand,
+                  @Param("qtyReserved") int qtyReserved,
+                  @Param("expectedOnHand") int expectedOnHand,
+                  @Param("expectedReserved") int expectedReserved);
 }
@@ -0,0 +1,26 @@
+package com.spring.logitrack.repository;
+
+import java.util.Map;
+
+/**
+ * Batched, conditional stock updates. Each method sends one JDBC batch and returns the
+ * affected row count per inventory (same iteration order as the given map); a 0 means the
+ * condition did not hold anymore because another transaction consumed the stock first.
+ */
+public interface InventoryRepositoryCustom {
+
+    /** qty_reserved += qty, only while qty_on_hand - qty_reserved >= qty. */
+    int[] reserveAll(Map<Long, Integer> qtyByInventoryId);
+
+    /** qty_reserved -= qty, only while qty_reserved >= qty. */
+    int[] releaseAll(Map<Long, Integer> qtyByInventoryId);
+
+    /** qty_on_hand -= qty and qty_reserved -= qty, only while both are >= qty. */
+    int[] shipAll(Map<Long, Integer> qtyByInventoryId);
+
+    /**
+     * qty_on_hand += qty, unconditionally, as one set-based UPDATE per 5000 inventories instead of
+     * a statement per row. Returns the total number of rows updated.
+     */
+    int receiveAll(Map<Long, Integer> qtyByInventoryId);
+}
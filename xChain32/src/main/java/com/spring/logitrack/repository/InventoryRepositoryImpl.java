@@ -0,0 +1,92 @@
+package com.spring.logitrack.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+@RequiredArgsConstructor
+public class InventoryRepositoryImpl implements InventoryRepositoryCustom {
+
+    private static final String RESERVE_SQL = """
+    UPDATE inventories
+    SET qty_reserved = qty_reserved + ?
+    WHERE id = ?
+      AND qty_on_hand - qty_reserved >= ?
+""";
+
+    private static final String RELEASE_SQL = """
+    UPDATE inventories
+    SET qty_reserved = qty_reserved - ?
+    WHERE id = ?
+      AND qty_reserved >= ?
+""";
+
+    private static final String SHIP_SQL = """
+    UPDATE inventories
+    SET qty_on_hand = qty_on_hand - ?,
+        qty_reserved = qty_reserved - ?
+    WHERE id = ?
+      AND qty_reserved >= ?
+      AND qty_on_hand >= ?
+""";
+
+    /** Keeps the three bind parameters per inventory far below the driver's limit of 65535. */
+    static final int RECEIVE_CHUNK = 5000;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Override
+    public int[] reserveAll(Map<Long, Integer> qtyByInventoryId) {
+        return batch(RESERVE_SQL, qtyByInventoryId.entrySet().stream()
+                .map(e -> new Object[]{e.getValue(), e.getKey(), e.getValue()})
+                .toList());
+    }
+
+    @Override
+    public int[] releaseAll(Map<Long, Integer> qtyByInventoryId) {
+        return batch(RELEASE_SQL, qtyByInventoryId.entrySet().stream()
+                .map(e -> new Object[]{e.getValue(), e.getKey(), e.getValue()})
+                .toList());
+    }
+
+    @Override
+    public int[] shipAll(Map<Long, Integer> qtyByInventoryId) {
+        return batch(SHIP_SQL, qtyByInventoryId.entrySet().stream()
+                .map(e -> new Object[]{e.getValue(), e.getValue(), e.getKey(), e.getValue(), e.getValue()})
+                .toList());
+    }
+
+    @Override
+    public int receiveAll(Map<Long, Integer> qtyByInventoryId) {
+        List<Map.Entry<Long, Integer>> entries = new ArrayList<>(qtyByInventoryId.entrySet());
+        int updated = 0;
+        for (int from = 0; from < entries.size(); from += RECEIVE_CHUNK) {
+            updated += receive(entries.subList(from, Math.min(from + RECEIVE_CHUNK, entries.size())));
+        }
+        return updated;
+    }
+
+    // UPDATE inventories SET qty_on_hand = qty_on_hand + CASE id WHEN ? THEN ? ... END WHERE id IN (?, ...)
+    private int receive(List<Map.Entry<Long, Integer>> entries) {
+        StringBuilder sql = new StringBuilder("UPDATE inventories SET qty_on_hand = qty_on_hand + CASE id");
+        List<Object> args = new ArrayList<>(entries.size() * 3);
+        for (Map.Entry<Long, Integer> e : entries) {
+            sql.append(" WHEN ? THEN ?");
+            args.add(e.getKey());
+            args.add(e.getValue());
+        }
+        sql.append(" END WHERE id IN (").append(String.join(", ", Collections.nCopies(entries.size(), "?"))).append(')');
+        entries.forEach(e -> args.add(e.getKey()));
+
+        return jdbcTemplate.update(sql.toString(), args.toArray());
+    }
+
+    private int[] batch(String sql, List<Object[]> args) {
+        if (args.isEmpty()) return new int[0];
+        return jdbcTemplate.batchUpdate(sql, args);
+    }
+}
@@ -0,0 +1,11 @@
+package com.spring.logitrack.repository;
+
+import java.time.LocalDateTime;
+
+public interface PendingBackorder {
+    Long getId();
+    Long getProductId();
+    Long getWarehouseId();
+    LocalDateTime getCreatedAt();
+    int getQty();
+}
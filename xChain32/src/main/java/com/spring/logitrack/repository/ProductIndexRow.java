@@ -0,0 +1,13 @@
+package com.spring.logitrack.repository;
+
+import java.math.BigDecimal;
+
+public interface ProductIndexRow {
+    Long getId();
+    String getSku();
+    String getName();
+    String getDescription();
+    String getUnit();
+    BigDecimal getPrice();
+    boolean isActive();
+}
@@ -2,10 +2,27 @@ package com.spring.logitrack.repository;
 
 import com.spring.logitrack.entity.Product;
 import com.spring.logitrack.entity.User;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.AvailableHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 
 import java.util.Optional;
+import java.util.stream.Stream;
+
+import static org.hibernate.jpa.HibernateHints.HINT_FETCH_SIZE;
 
 public interface ProductRepository extends JpaRepository<Product, Long> {
+    @QueryHints(@QueryHint(name = AvailableHints.HINT_CACHEABLE, value = "true"))
     Optional<Product> findBySku(String sku);
+
+    @QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = "1000"))
+    @Query("""
+    SELECT p.id AS id, p.sku AS sku, p.name AS name, p.description AS description,
+           p.unit AS unit, p.price AS price, p.active AS active
+    FROM Product p
+    ORDER BY p.id
+""")
+    Stream<ProductIndexRow> streamIndexRows();
 }
@@ -1,9 +1,16 @@
 package com.spring.logitrack.repository;
 
 import com.spring.logitrack.entity.PurchaseOrder;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -11,4 +18,28 @@ import java.util.Optional;
 public interface PurchaseOrderRepository extends JpaRepository<PurchaseOrder, Long> {
     List<PurchaseOrder> findBySupplier_Id(Long supplierId);
     Optional<PurchaseOrder> findByOrder_Id(Long orderId);
+
+    @Query(value = "SELECT p.id FROM PurchaseOrder p", countQuery = "SELECT count(p) FROM PurchaseOrder p")
+    Page<Long> findPageOfIds(Pageable pageable);
+
+    @Query("SELECT p.id FROM PurchaseOrder p WHERE p.supplier.id = :supplierId ORDER BY p.id")
+    List<Long> findIdsBySupplierId(@Param("supplierId") Long supplierId);
+
+    /** Serializes receipts and status changes of the same purchase order. */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT p FROM PurchaseOrder p WHERE p.id = :id")
+    Optional<PurchaseOrder> findForUpdateById(@Param("id") Long id);
+
+    /** Everything PurchaseOrderMapper.toResponse touches, in one statement. */
+    @Query("""
+    SELECT DISTINCT p
+    FROM PurchaseOrder p
+    JOIN FETCH p.supplier
+    LEFT JOIN FETCH p.lines l
+    LEFT JOIN FETCH l.product
+    LEFT JOIN FETCH p.order o
+    LEFT JOIN FETCH o.product
+    WHERE p.id IN :ids
+""")
+    List<PurchaseOrder> findAllWithDetailsByIdIn(@Param("ids") Collection<Long> ids);
 }
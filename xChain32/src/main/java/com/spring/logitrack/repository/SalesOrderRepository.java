@@ -1,7 +1,73 @@
 package com.spring.logitrack.repository;
 
 import com.spring.logitrack.entity.SalesOrder;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import jakarta.persistence.QueryHint;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+import static org.hibernate.jpa.HibernateHints.HINT_FETCH_SIZE;
+import static org.hibernate.jpa.HibernateHints.HINT_READ_ONLY;
 
 public interface SalesOrderRepository extends JpaRepository<SalesOrder, Long> {
+
+    @Query("""
+    SELECT DISTINCT o
+    FROM SalesOrder o
+    LEFT JOIN FETCH o.lines l
+    LEFT JOIN FETCH l.product
+    WHERE o.id = :id
+""")
+    Optional<SalesOrder> findWithLinesById(@Param("id") Long id);
+
+    @Query("""
+    SELECT DISTINCT o
+    FROM SalesOrder o
+    LEFT JOIN FETCH o.lines l
+    LEFT JOIN FETCH l.product
+    WHERE o.id IN :ids
+""")
+    List<SalesOrder> findAllWithLinesByIdIn(@Param("ids") Collection<Long> ids);
+
+    @Query(value = "SELECT o.id FROM SalesOrder o", countQuery = "SELECT count(o) FROM SalesOrder o")
+    Page<Long> findPageOfIds(Pageable pageable);
+
+    /** Everything SalesOrderMapper.toResponse touches, in one statement. */
+    @Query("""
+    SELECT DISTINCT o
+    FROM SalesOrder o
+    JOIN FETCH o.client
+    JOIN FETCH o.warehouse w
+    JOIN FETCH w.manager
+    LEFT JOIN FETCH o.shipment
+    LEFT JOIN FETCH o.lines l
+    LEFT JOIN FETCH l.product
+    WHERE o.id IN :ids
+""")
+    List<SalesOrder> findAllWithDetailsByIdIn(@Param("ids") Collection<Long> ids);
+
+    @QueryHints({
+            @QueryHint(name = HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HINT_READ_ONLY, value = "true")
+    })
+    @Query("""
+    SELECT o
+    FROM SalesOrder o
+    JOIN FETCH o.client
+    JOIN FETCH o.warehouse w
+    JOIN FETCH w.manager
+    LEFT JOIN FETCH o.shipment
+    LEFT JOIN FETCH o.lines l
+    LEFT JOIN FETCH l.product
+    ORDER BY o.id
+""")
+    Stream<SalesOrder> streamAllForExport();
 }
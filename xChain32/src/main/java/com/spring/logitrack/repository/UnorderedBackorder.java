@@ -0,0 +1,9 @@
+package com.spring.logitrack.repository;
+
+public interface UnorderedBackorder {
+    Long getId();
+    Long getProductId();
+    Long getWarehouseId();
+    int getQty();
+    int getExtraQty();
+}
@@ -0,0 +1,351 @@
+package com.spring.logitrack.service;
+
+import com.spring.logitrack.entity.Backorder;
+import com.spring.logitrack.entity.Inventory;
+import com.spring.logitrack.entity.SalesOrder;
+import com.spring.logitrack.entity.SalesOrderLine;
+import com.spring.logitrack.entity.enums.BackorderStatus;
+import com.spring.logitrack.entity.enums.OrderStatus;
+import com.spring.logitrack.exception.StockConflictException;
+import com.spring.logitrack.repository.BackorderRepository;
+import com.spring.logitrack.repository.InventoryRepository;
+import com.spring.logitrack.repository.PendingBackorder;
+import com.spring.logitrack.repository.SalesOrderRepository;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.ConcurrencyFailureException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Hands stock that becomes available to the backorders waiting for it, oldest first.
+ * <p>
+ * Open backorders (PENDING, PARTIALLY_FULFILLED) are queued in memory per product and warehouse
+ * of their sales order, ordered by createdAt. The table is read once at startup through its status
+ * index; BackorderService and the allocations keep the queues current afterwards.
+ * <p>
+ * A {@link StockIncreasedEvent} for a queue that is not empty marks it, and a single allocation
+ * thread drains marked queues in transactions of up to {@link #BATCH_SIZE} backorders: the stock
+ * is reserved with one conditional UPDATE, added to the matching sales order lines, and orders
+ * whose lines are all reserved move from BACKORDER to RESERVED. When the stock runs out the
+ * backorder at the head is partially fulfilled. A concurrent writer taking the stock first rolls
+ * the batch back; it is retried against the stock left, up to {@link #CONFLICT_RETRIES} times, and
+ * otherwise on the next arrival.
+ */
+@Component
+public class BackorderAllocator {
+
+    static final int BATCH_SIZE = 200;
+    static final int CONFLICT_RETRIES = 3;
+
+    private static final Logger log = LoggerFactory.getLogger(BackorderAllocator.class);
+    private static final Set<BackorderStatus> OPEN =
+            EnumSet.of(BackorderStatus.PENDING, BackorderStatus.PARTIALLY_FULFILLED);
+
+    private final BackorderRepository backorderRepo;
+    private final SalesOrderRepository salesOrderRepo;
+    private final InventoryRepository inventoryRepo;
+    private final InventoryAvailabilityCache availabilityCache;
+    private final OperationMetrics metrics;
+    private final OrderEventOutbox outbox;
+    private final TransactionTemplate transactionTemplate;
+    private final Executor executor;
+
+    private final Map<Slot, NavigableSet<Waiting>> queues = new ConcurrentHashMap<>();
+    private final Map<Long, Waiting> waitingById = new ConcurrentHashMap<>();
+    private final Set<Slot> marked = ConcurrentHashMap.newKeySet();
+    private final ReentrantLock writes = new ReentrantLock();
+
+    @Autowired
+    public BackorderAllocator(BackorderRepository backorderRepo, SalesOrderRepository salesOrderRepo,
+                              InventoryRepository inventoryRepo, InventoryAvailabilityCache availabilityCache,
+                              OperationMetrics metrics, OrderEventOutbox outbox,
+                              PlatformTransactionManager transactionManager) {
+        this(backorderRepo, salesOrderRepo, inventoryRepo, availabilityCache, metrics, outbox, transactionManager,
+                Executors.newSingleThreadExecutor(r -> {
+                    Thread thread = new Thread(r, "backorder-allocator");
+                    thread.setDaemon(true);
+                    return thread;
+                }));
+    }
+
+    BackorderAllocator(BackorderRepository backorderRepo, SalesOrderRepository salesOrderRepo,
+                       InventoryRepository inventoryRepo, InventoryAvailabilityCache availabilityCache,
+                       OperationMetrics metrics, OrderEventOutbox outbox, PlatformTransactionManager transactionManager,
+                       Executor executor) {
+        this.backorderRepo = backorderRepo;
+        this.salesOrderRepo = salesOrderRepo;
+        this.inventoryRepo = inventoryRepo;
+        this.availabilityCache = availabilityCache;
+        this.metrics = metrics;
+        this.outbox = outbox;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.executor = executor;
+    }
+
+    /** Loads the open backorders and gives each queue a first pass, for stock that came in while down. */
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public void rebuild() {
+        writes.lock();
+        try {
+            queues.clear();
+            waitingById.clear();
+            try (Stream<PendingBackorder> rows = backorderRepo.streamByStatusIn(OPEN)) {
+                rows.forEach(row -> enqueue(new Waiting(row.getId(), new Slot(row.getProductId(), row.getWarehouseId()),
+                        row.getCreatedAt(), row.getQty())));
+            }
+        } finally {
+            writes.unlock();
+        }
+        queues.keySet().forEach(this::schedule);
+    }
+
+    @EventListener
+    public void onStockIncreased(StockIncreasedEvent event) {
+        schedule(new Slot(event.productId(), event.warehouseId()));
+    }
+
+    /** Queues, requeues or drops the backorder according to its status, once the transaction commits. */
+    public void track(Backorder backorder) {
+        Long id = backorder.getId();
+        Waiting waiting = OPEN.contains(backorder.getStatus())
+                ? new Waiting(id, new Slot(backorder.getProduct().getId(), backorder.getSalesOrder().getWarehouse().getId()),
+                        backorder.getCreatedAt(), backorder.getQty())
+                : null;
+        afterCommit(() -> {
+            writes.lock();
+            try {
+                dequeue(id);
+                if (waiting != null) enqueue(waiting);
+            } finally {
+                writes.unlock();
+            }
+            // stock may already be there, e.g. for a backorder opened by hand
+            if (waiting != null) schedule(waiting.slot());
+        });
+    }
+
+    public void untrack(Long backorderId) {
+        afterCommit(() -> {
+            writes.lock();
+            try {
+                dequeue(backorderId);
+            } finally {
+                writes.unlock();
+            }
+        });
+    }
+
+    int waiting(Long productId, Long warehouseId) {
+        NavigableSet<Waiting> queue = queues.get(new Slot(productId, warehouseId));
+        return queue == null ? 0 : queue.size();
+    }
+
+    @PreDestroy
+    void shutdown() {
+        if (executor instanceof ExecutorService service) service.shutdownNow();
+    }
+
+    private void schedule(Slot slot) {
+        NavigableSet<Waiting> queue = queues.get(slot);
+        if (queue == null || queue.isEmpty()) return;
+        // arrivals while the queue is marked are covered by the drain to come
+        if (marked.add(slot)) executor.execute(() -> drain(slot));
+    }
+
+    private void drain(Slot slot) {
+        marked.remove(slot);
+        int conflicts = 0;
+        try {
+            boolean more = true;
+            while (more) {
+                try {
+                    more = Boolean.TRUE.equals(transactionTemplate.execute(status -> allocate(slot)));
+                } catch (StockConflictException | ConcurrencyFailureException e) {
+                    // the batch is read again in the next transaction, with the stock the other writer left
+                    if (++conflicts > CONFLICT_RETRIES) throw e;
+                }
+            }
+        } catch (RuntimeException e) {
+            log.warn("Allocation to backorders of product {} in warehouse {} failed: {}",
+                    slot.productId(), slot.warehouseId(), e.getMessage());
+        }
+    }
+
+    /** One batch, from the head of the queue. True when stock is left for a next one. */
+    private boolean allocate(Slot slot) {
+        NavigableSet<Waiting> queue = queues.get(slot);
+        List<Waiting> batch = queue == null ? List.of() : queue.stream().limit(BATCH_SIZE).toList();
+        if (batch.isEmpty()) return false;
+
+        Inventory inventory = inventoryRepo
+                .findTopByProduct_IdAndWarehouse_IdOrderByIdDesc(slot.productId(), slot.warehouseId())
+                .orElse(null);
+        if (inventory == null) return false;
+        int available = inventory.getQtyOnHand() - inventory.getQtyReserved();
+        if (available <= 0) return false;
+
+        Map<Long, Backorder> backorders = backorderRepo.findAllForUpdateByIdIn(batch.stream().map(Waiting::id).toList())
+                .stream()
+                .collect(Collectors.toMap(Backorder::getId, Function.identity()));
+        Map<Long, SalesOrder> orders = backorders.isEmpty() ? Map.of()
+                : salesOrderRepo.findAllWithLinesByIdIn(backorders.values().stream()
+                                .map(b -> b.getSalesOrder().getId())
+                                .collect(Collectors.toSet())).stream()
+                        .collect(Collectors.toMap(SalesOrder::getId, Function.identity()));
+
+        List<Long> closed = new ArrayList<>();
+        List<Waiting> requeued = new ArrayList<>();
+        Set<SalesOrder> touched = new LinkedHashSet<>();
+        int reserved = 0;
+        int fulfilled = 0;
+
+        for (Waiting waiting : batch) {
+            Backorder backorder = backorders.get(waiting.id());
+            // closed since it was queued, e.g. received through its own purchase order
+            if (backorder == null || !OPEN.contains(backorder.getStatus())) {
+                closed.add(waiting.id());
+                continue;
+            }
+
+            SalesOrder order = orders.get(backorder.getSalesOrder().getId());
+            if (order.getStatus() == OrderStatus.CANCELLED) {
+                backorder.setStatus(BackorderStatus.CANCELLED);
+                closed.add(waiting.id());
+                continue;
+            }
+            if (available == 0) break;
+
+            SalesOrderLine line = openLine(order, slot.productId());
+            if (line == null) {
+                backorder.setStatus(BackorderStatus.FULFILLED);
+                closed.add(waiting.id());
+                continue;
+            }
+
+            int qty = Math.min(Math.min(backorder.getQty(), line.getQtyOrdered() - line.getQtyReserved()), available);
+            line.setQtyReserved(line.getQtyReserved() + qty);
+            available -= qty;
+            reserved += qty;
+            touched.add(order);
+
+            if (qty == backorder.getQty() || line.getQtyReserved() >= line.getQtyOrdered()) {
+                backorder.setStatus(BackorderStatus.FULFILLED);
+                closed.add(waiting.id());
+                fulfilled++;
+            } else {
+                backorder.setQty(backorder.getQty() - qty);
+                backorder.setStatus(BackorderStatus.PARTIALLY_FULFILLED);
+                requeued.add(waiting.withQty(backorder.getQty()));
+            }
+        }
+
+        for (SalesOrder order : touched) {
+            if (order.getStatus() == OrderStatus.BACKORDER && fullyReserved(order)) {
+                order.setStatus(OrderStatus.RESERVED);
+                outbox.record(OrderEventOutbox.SALES_ORDER, order.getId(), OrderStatus.RESERVED);
+            }
+        }
+
+        if (reserved > 0) {
+            if (inventoryRepo.reserveAll(Map.of(inventory.getId(), reserved))[0] == 0) {
+                throw new StockConflictException("Stock of inventory " + inventory.getId()
+                        + " changed concurrently while allocating to backorders");
+            }
+            availabilityCache.adjust(inventory, 0, reserved);
+        }
+
+        int allocated = fulfilled;
+        int partial = requeued.size();
+        afterCommit(() -> {
+            writes.lock();
+            try {
+                closed.forEach(this::dequeue);
+                requeued.forEach(waiting -> {
+                    dequeue(waiting.id());
+                    enqueue(waiting);
+                });
+            } finally {
+                writes.unlock();
+            }
+            metrics.backordersAllocated(allocated, partial);
+        });
+        return batch.size() == BATCH_SIZE && available > 0;
+    }
+
+    private static SalesOrderLine openLine(SalesOrder order, Long productId) {
+        return order.getLines().stream()
+                .filter(line -> line.getProduct().getId().equals(productId))
+                .filter(line -> line.getQtyReserved() < line.getQtyOrdered())
+                .findFirst()
+                .orElse(null);
+    }
+
+    // lines of inactive products are skipped by reserve(), they cannot hold an order back
+    private static boolean fullyReserved(SalesOrder order) {
+        return order.getLines().stream()
+                .filter(line -> line.getProduct().isActive())
+                .allMatch(line -> line.getQtyReserved() >= line.getQtyOrdered());
+    }
+
+    private void enqueue(Waiting waiting) {
+        waitingById.put(waiting.id(), waiting);
+        queues.computeIfAbsent(waiting.slot(), s -> new ConcurrentSkipListSet<>(Waiting.FIFO)).add(waiting);
+    }
+
+    private void dequeue(Long backorderId) {
+        Waiting previous = waitingById.remove(backorderId);
+        if (previous == null) return;
+
+        NavigableSet<Waiting> queue = queues.get(previous.slot());
+        if (queue == null) return;
+        queue.remove(previous);
+        if (queue.isEmpty()) queues.remove(previous.slot());
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+
+    private record Slot(Long productId, Long warehouseId) {
+    }
+
+    private record Waiting(Long id, Slot slot, LocalDateTime createdAt, int qty) {
+
+        static final Comparator<Waiting> FIFO = Comparator.comparing(Waiting::createdAt).thenComparing(Waiting::id);
+
+        Waiting withQty(int remaining) {
+            return new Waiting(id, slot, createdAt, remaining);
+        }
+    }
+}
@@ -11,6 +11,8 @@ import com.spring.logitrack.repository.ProductRepository;
 import com.spring.logitrack.repository.SalesOrderRepository;
 import jakarta.persistence.EntityNotFoundException;
 import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -27,6 +29,8 @@ public class BackorderService {
     private final ProductRepository productRepository;
     private final SalesOrderRepository salesOrderRepository;
     private final BackorderMapper mapper;
+    private final OperationMetrics metrics;
+    private final BackorderAllocator allocator;
 
     public OrderResponseDTO create(OrderCreateDTO dto) {
         SalesOrder order = salesOrderRepository.findById(dto.getSalesOrderId())
@@ -40,6 +44,8 @@ public class BackorderService {
 
         try {
             Backorder saved = backorderRepository.save(entity);
+            metrics.backorderCreated();
+            allocator.track(saved);
             return mapper.toResponse(saved);
         } catch (Exception e) {
             throw new DataIntegrityViolationException("Error while saving backorder: " + e.getMessage());
@@ -47,11 +53,8 @@ public class BackorderService {
     }
 
     @Transactional(readOnly = true)
-    public List<OrderResponseDTO> list() {
-        return backorderRepository.findAll()
-                .stream()
-                .map(mapper::toResponse)
-                .toList();
+    public Page<OrderResponseDTO> list(Pageable pageable) {
+        return backorderRepository.findAll(pageable).map(mapper::toResponse);
     }
 
     @Transactional(readOnly = true)
@@ -70,10 +73,6 @@ public class BackorderService {
 
         mapper.patch(existing, dto);
 
-        System.out.println("Existing : ==="+existing);
-        System.out.println("DTO : ==="+dto);
-
-
         if (dto.getSalesOrderId() != null) {
             SalesOrder order = salesOrderRepository.findById(dto.getSalesOrderId())
                     .orElseThrow(() -> new EntityNotFoundException("Sales order not found"));
@@ -87,6 +86,7 @@ public class BackorderService {
         }
 
         Backorder saved = backorderRepository.save(existing);
+        allocator.track(saved);
         return mapper.toResponse(saved);
     }
 
@@ -94,5 +94,6 @@ public class BackorderService {
         Backorder entity = backorderRepository.findById(id)
                 .orElseThrow(() -> new EntityNotFoundException("Backorder not found"));
         backorderRepository.delete(entity);
+        allocator.untrack(id);
     }
 }
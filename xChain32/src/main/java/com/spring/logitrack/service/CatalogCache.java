@@ -0,0 +1,103 @@
+package com.spring.logitrack.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.spring.logitrack.dto.product.ProductResponseDTO;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.web.PagedModel;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.util.DigestUtils;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Catalog responses kept as the JSON bytes sent to the client, one entry per product and per
+ * requested page, each with the ETag of its bytes. A hit costs neither a query nor serialization.
+ * <p>
+ * Any product change invalidates the whole catalog by bumping a generation that is part of every
+ * key, once the writing transaction has committed: a load that started on the old data can only
+ * store its result under the old generation, where nobody looks it up again. Hit/miss counts are
+ * published as the "catalog" cache metrics.
+ */
+@Component
+public class CatalogCache {
+
+    private final ObjectMapper objectMapper;
+    private final Cache<String, CachedResponse> cache;
+    private final AtomicLong generation = new AtomicLong();
+
+    public CatalogCache(ObjectMapper objectMapper,
+                        MeterRegistry meterRegistry,
+                        @Value("${catalog.cache.ttl:PT10M}") Duration ttl,
+                        @Value("${catalog.cache.max-size:10000}") long maxSize) {
+        this.objectMapper = objectMapper;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "catalog");
+    }
+
+    public CachedResponse product(Long id, Supplier<ProductResponseDTO> loader) {
+        return lookup("product:" + id, loader);
+    }
+
+    public CachedResponse page(Pageable pageable, Supplier<Page<ProductResponseDTO>> loader) {
+        String key = "page:" + pageable.getPageNumber() + ":" + pageable.getPageSize() + ":" + pageable.getSort();
+        return lookup(key, () -> new PagedModel<>(loader.get()));
+    }
+
+    /** Drops every cached response once the current transaction, if any, has committed. */
+    public void invalidate() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    bump();
+                }
+            });
+        } else {
+            bump();
+        }
+    }
+
+    private void bump() {
+        generation.incrementAndGet();
+        cache.invalidateAll();
+    }
+
+    // loaded outside Caffeine's compute, whose bin lock would pin a virtual thread for the whole
+    // query; concurrent misses may each load, the last one stays. Loader failures leave nothing behind
+    private CachedResponse lookup(String key, Supplier<?> loader) {
+        String versioned = generation.get() + ":" + key;
+        CachedResponse cached = cache.getIfPresent(versioned);
+        if (cached != null) return cached;
+
+        CachedResponse loaded = serialize(loader.get());
+        cache.put(versioned, loaded);
+        return loaded;
+    }
+
+    private CachedResponse serialize(Object body) {
+        try {
+            byte[] json = objectMapper.writeValueAsBytes(body);
+            return new CachedResponse(json, "\"" + DigestUtils.md5DigestAsHex(json) + "\"");
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not serialize catalog response", e);
+        }
+    }
+
+    public record CachedResponse(byte[] body, String etag) {
+    }
+}
@@ -0,0 +1,26 @@
+package com.spring.logitrack.service;
+
+import com.spring.logitrack.entity.Inventory;
+import com.spring.logitrack.entity.Warehouse;
+import org.springframework.stereotype.Component;
+
+/**
+ * Inactive warehouses are never used, warehouses in the same location come first,
+ * then the ones with the most available stock.
+ */
+@Component
+public class DefaultSourcingCostFunction implements SourcingCostFunction {
+
+    @Override
+    public double cost(Inventory candidate, Warehouse destination) {
+        Warehouse source = candidate.getWarehouse();
+        if (!source.isActive()) return Double.POSITIVE_INFINITY;
+
+        double distance = source.getLocation() != null
+                && source.getLocation().equalsIgnoreCase(destination.getLocation()) ? 0 : 1;
+        int available = candidate.getQtyOnHand() - candidate.getQtyReserved();
+
+        // the availability term stays below 1 so location always dominates
+        return distance + 1.0 / (1 + Math.max(available, 0));
+    }
+}
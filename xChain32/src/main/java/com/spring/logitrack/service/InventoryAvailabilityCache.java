@@ -0,0 +1,147 @@
+package com.spring.logitrack.service;
+
+import com.spring.logitrack.entity.Inventory;
+import com.spring.logitrack.repository.InventoryLevel;
+import com.spring.logitrack.repository.InventoryRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+
+/**
+ * In-process available-to-promise view of the inventories table, keyed by product then warehouse.
+ * <p>
+ * Each (product, warehouse) slot packs qtyOnHand (high 32 bits) and qtyReserved (low 32 bits) in a
+ * single AtomicLong, so reads are one volatile load and updates are lock-free CAS loops. Changes are
+ * applied after the writing transaction commits; the database stays the authority and the
+ * conditional updates in InventoryRepository still guard against overselling.
+ * <p>
+ * As every stock write passes through here, a change that raises the available quantity of a
+ * slot is also published as a {@link StockIncreasedEvent}.
+ */
+@Component
+@RequiredArgsConstructor
+public class InventoryAvailabilityCache {
+
+    private final InventoryRepository repository;
+    private final ApplicationEventPublisher events;
+
+    private final Map<Long, Map<Long, AtomicLong>> levels = new ConcurrentHashMap<>();
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public void rebuild() {
+        levels.clear();
+        try (Stream<InventoryLevel> rows = repository.streamAllLevels()) {
+            // ordered by id, so the latest row of a (product, warehouse) pair wins
+            rows.forEach(row -> slot(row.getProductId(), row.getWarehouseId())
+                    .set(pack(row.getQtyOnHand(), row.getQtyReserved())));
+        }
+    }
+
+    public int available(Long productId, Long warehouseId) {
+        long packed = load(productId, warehouseId);
+        return onHand(packed) - reserved(packed);
+    }
+
+    public boolean canPromise(Long productId, Long warehouseId, int qty) {
+        return available(productId, warehouseId) >= qty;
+    }
+
+    public void put(Inventory inventory) {
+        Long productId = productId(inventory);
+        Long warehouseId = warehouseId(inventory);
+        long packed = pack(inventory.getQtyOnHand(), inventory.getQtyReserved());
+        afterCommit(() -> {
+            // a slot created here reads as empty before, which at worst announces stock already there
+            long previous = slot(productId, warehouseId).getAndSet(packed);
+            if (onHand(packed) - reserved(packed) > onHand(previous) - reserved(previous)) {
+                events.publishEvent(new StockIncreasedEvent(productId, warehouseId));
+            }
+        });
+    }
+
+    public void adjust(Inventory inventory, int onHandDelta, int reservedDelta) {
+        Long productId = productId(inventory);
+        Long warehouseId = warehouseId(inventory);
+        afterCommit(() -> {
+            Map<Long, AtomicLong> byWarehouse = levels.get(productId);
+            AtomicLong slot = byWarehouse == null ? null : byWarehouse.get(warehouseId);
+            // unknown slots are loaded from the database on the next read
+            if (slot != null) {
+                slot.updateAndGet(p -> pack(onHand(p) + onHandDelta, reserved(p) + reservedDelta));
+            }
+            if (onHandDelta - reservedDelta > 0) {
+                events.publishEvent(new StockIncreasedEvent(productId, warehouseId));
+            }
+        });
+    }
+
+    public void evict(Long productId, Long warehouseId) {
+        afterCommit(() -> {
+            Map<Long, AtomicLong> byWarehouse = levels.get(productId);
+            if (byWarehouse != null) byWarehouse.remove(warehouseId);
+        });
+    }
+
+    private long load(Long productId, Long warehouseId) {
+        Map<Long, AtomicLong> byWarehouse = levels.get(productId);
+        AtomicLong slot = byWarehouse == null ? null : byWarehouse.get(warehouseId);
+        if (slot != null) return slot.get();
+
+        return repository.findTopByProduct_IdAndWarehouse_IdOrderByIdDesc(productId, warehouseId)
+                .map(inv -> {
+                    long packed = pack(inv.getQtyOnHand(), inv.getQtyReserved());
+                    slot(productId, warehouseId).compareAndSet(0L, packed);
+                    return packed;
+                })
+                .orElse(0L);
+    }
+
+    private AtomicLong slot(Long productId, Long warehouseId) {
+        return levels.computeIfAbsent(productId, id -> new ConcurrentHashMap<>())
+                .computeIfAbsent(warehouseId, id -> new AtomicLong());
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+
+    private static Long productId(Inventory inventory) {
+        return inventory.getProduct().getId();
+    }
+
+    private static Long warehouseId(Inventory inventory) {
+        return inventory.getWarehouse().getId();
+    }
+
+    static long pack(int onHand, int reserved) {
+        return ((long) onHand << 32) | (reserved & 0xFFFFFFFFL);
+    }
+
+    static int onHand(long packed) {
+        return (int) (packed >>> 32);
+    }
+
+    static int reserved(long packed) {
+        return (int) packed;
+    }
+}
@@ -0,0 +1,80 @@
+package com.spring.logitrack.service;
+
+import com.spring.logitrack.entity.Inventory;
+import com.spring.logitrack.entity.InventoryMovement;
+import com.spring.logitrack.entity.enums.MovementType;
+import com.spring.logitrack.repository.InventoryMovementRepository;
+import jakarta.persistence.EntityManager;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Append-only writer for the inventory movement ledger.
+ * <p>
+ * Movements recorded inside a transaction are buffered and written with one JDBC batch just
+ * before it commits (or whenever the buffer fills up), so recording one costs neither a SELECT
+ * on the inventory nor an entity in the persistence context. Outside a transaction the movement
+ * is written straight away.
+ */
+@Component
+@RequiredArgsConstructor
+public class InventoryLedger {
+
+    static final int BUFFER_SIZE = 500;
+
+    private final InventoryMovementRepository repository;
+    private final EntityManager entityManager;
+
+    public void append(Long inventoryId, MovementType type, int qty) {
+        InventoryMovement movement = InventoryMovement.builder()
+                .inventory(entityManager.getReference(Inventory.class, inventoryId))
+                .type(type)
+                .qty(qty)
+                .occurredAt(LocalDateTime.now())
+                .build();
+
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            repository.appendAll(List.of(movement));
+            return;
+        }
+
+        List<InventoryMovement> buffer = buffer();
+        buffer.add(movement);
+        if (buffer.size() >= BUFFER_SIZE) write(buffer);
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<InventoryMovement> buffer() {
+        List<InventoryMovement> buffer = (List<InventoryMovement>) TransactionSynchronizationManager.getResource(this);
+        if (buffer != null) return buffer;
+
+        List<InventoryMovement> created = new ArrayList<>();
+        TransactionSynchronizationManager.bindResource(this, created);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void beforeCommit(boolean readOnly) {
+                write(created);
+            }
+
+            @Override
+            public void afterCompletion(int status) {
+                TransactionSynchronizationManager.unbindResourceIfPossible(InventoryLedger.this);
+            }
+        });
+        return created;
+    }
+
+    private void write(List<InventoryMovement> buffer) {
+        if (buffer.isEmpty()) return;
+        // inventories created earlier in the same transaction must exist before their movements
+        entityManager.flush();
+        repository.appendAll(buffer);
+        buffer.clear();
+    }
+}
@@ -2,17 +2,16 @@ package com.spring.logitrack.service;
 
 import com.spring.logitrack.dto.inventoryMovement.InventoryMovementCreateDTO;
 import com.spring.logitrack.dto.inventoryMovement.InventoryMovementResponseDTO;
-import com.spring.logitrack.entity.Inventory;
-import com.spring.logitrack.entity.InventoryMovement;
 import com.spring.logitrack.mapper.InventoryMovementMapper;
 import com.spring.logitrack.repository.InventoryMovementRepository;
-import com.spring.logitrack.repository.InventoryRepository;
-import jakarta.persistence.EntityNotFoundException;
 import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
-import java.util.List;
+import java.io.OutputStream;
+import java.time.LocalDateTime;
 
 @Service
 @RequiredArgsConstructor
@@ -20,37 +19,29 @@ import java.util.List;
 public class InventoryMovementService {
 
     private final InventoryMovementRepository movementRepository;
-    private final InventoryRepository inventoryRepository;
+    private final InventoryLedger ledger;
     private final InventoryMovementMapper mapper;
+    private final NdjsonExporter exporter;
 
-    public InventoryMovementResponseDTO create(InventoryMovementCreateDTO dto) {
-        Inventory inventory = inventoryRepository.findById(dto.getInventoryId())
-                .orElseThrow(() -> new EntityNotFoundException("Inventory not found"));
-
-        InventoryMovement movement = mapper.toEntity(dto);
-        movement.setInventory(inventory);
-
-        inventoryRepository.save(inventory);
-        return mapper.toResponse(movementRepository.save(movement));
+    /** Appends to the ledger; the row is written in a batch when the current transaction commits. */
+    public void create(InventoryMovementCreateDTO dto) {
+        ledger.append(dto.getInventoryId(), dto.getType(), dto.getQty());
     }
 
     @Transactional(readOnly = true)
-    public List<InventoryMovementResponseDTO> list() {
-        return movementRepository.findAll().stream()
-                .map(mapper::toResponse)
-                .toList();
+    public Page<InventoryMovementResponseDTO> list(Pageable pageable) {
+        return movementRepository.findAll(pageable).map(mapper::toResponse);
     }
 
     @Transactional(readOnly = true)
-    public List<InventoryMovementResponseDTO> findByInventory(Long inventoryId) {
-        return movementRepository.findByInventory_Id(inventoryId).stream()
-                .map(mapper::toResponse)
-                .toList();
+    public long export(OutputStream out) {
+        return exporter.write(movementRepository.streamAllForExport(), mapper::toResponse, out);
     }
 
-    public void delete(Long id) {
-        InventoryMovement movement = movementRepository.findById(id)
-                .orElseThrow(() -> new EntityNotFoundException("Movement not found"));
-        movementRepository.delete(movement);
+    /** Movements of one inventory with from <= occurredAt < to. */
+    @Transactional(readOnly = true)
+    public Page<InventoryMovementResponseDTO> findByInventory(Long inventoryId, LocalDateTime from, LocalDateTime to, Pageable pageable) {
+        if (!from.isBefore(to)) throw new IllegalArgumentException("'from' must be before 'to'");
+        return movementRepository.findByInventoryAndPeriod(inventoryId, from, to, pageable).map(mapper::toResponse);
     }
 }
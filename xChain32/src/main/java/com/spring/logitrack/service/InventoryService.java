@@ -1,5 +1,6 @@
 package com.spring.logitrack.service;
 
+import com.spring.logitrack.dto.inventory.InventoryAvailabilityDTO;
 import com.spring.logitrack.dto.inventory.InventoryCreateDTO;
 import com.spring.logitrack.dto.inventory.InventoryResponseDTO;
 import com.spring.logitrack.dto.inventoryMovement.InventoryMovementCreateDTO;
@@ -7,17 +8,21 @@ import com.spring.logitrack.entity.Inventory;
 import com.spring.logitrack.entity.Product;
 import com.spring.logitrack.entity.Warehouse;
 import com.spring.logitrack.entity.enums.MovementType;
+import com.spring.logitrack.exception.StockConflictException;
+import com.spring.logitrack.jfr.InventoryAdjustmentEvent;
 import com.spring.logitrack.mapper.InventoryMapper;
 import com.spring.logitrack.repository.InventoryRepository;
 import com.spring.logitrack.repository.ProductRepository;
 import com.spring.logitrack.repository.WarehouseRepository;
+import jakarta.persistence.EntityManager;
 import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
-import java.util.List;
 import java.util.Objects;
-import java.util.Optional;
 
 @Service
 @RequiredArgsConstructor
@@ -29,6 +34,8 @@ public class InventoryService {
     private final ProductRepository productRepository;
     private final InventoryMapper mapper;
     private final InventoryMovementService inventoryMovementService;
+    private final InventoryAvailabilityCache availabilityCache;
+    private final EntityManager entityManager;
 
     public InventoryResponseDTO create(InventoryCreateDTO dto) {
         Warehouse warehouse = warehouseRepository.findById(dto.getWarehouseId())
@@ -40,13 +47,13 @@ public class InventoryService {
         entity.setWarehouse(warehouse);
         entity.setProduct(product);
 
-        return mapper.toResponse(repository.save(entity));
+        Inventory saved = repository.save(entity);
+        availabilityCache.put(saved);
+        return mapper.toResponse(saved);
     }
 
-    public List<InventoryResponseDTO> list() {
-        return repository.findAll().stream()
-                .map(mapper::toResponse)
-                .toList();
+    public Page<InventoryResponseDTO> list(Pageable pageable) {
+        return repository.findAll(pageable).map(mapper::toResponse);
     }
 
     public InventoryResponseDTO getById(Long id) {
@@ -63,39 +70,58 @@ public class InventoryService {
         Product product = productRepository.findById(dto.getProductId())
                 .orElseThrow(() -> new IllegalArgumentException("Product not found"));
 
-        entity.setWarehouse(warehouse);
-        entity.setProduct(product);
-        entity.setQtyOnHand(dto.getQtyOnHand());
-        entity.setQtyReserved(dto.getQtyReserved());
-
         if(dto.getQtyOnHand() < 0 || dto.getQtyReserved() < 0){
             throw new RuntimeException("Cant provide a Zero negative quantity");
         }
 
-        return mapper.toResponse(repository.save(entity));
+        // written only if the quantities are still the ones read above, so a reservation committed
+        // in between is not silently overwritten
+        if (repository.overwrite(id, warehouse, product, dto.getQtyOnHand(), dto.getQtyReserved(),
+                entity.getQtyOnHand(), entity.getQtyReserved()) == 0) {
+            throw new StockConflictException("Stock of inventory " + id + " changed concurrently, please retry");
+        }
+
+        availabilityCache.evict(entity.getProduct().getId(), entity.getWarehouse().getId());
+        entityManager.refresh(entity);
+        availabilityCache.put(entity);
+        return mapper.toResponse(entity);
     }
 
     public InventoryResponseDTO adjust(Long id,  Long adjust) {
-        Inventory entity = repository.findById(id)
-                .orElseThrow(() -> new IllegalArgumentException("Inventory not found"));
-
-        if(adjust >= 0) throw new RuntimeException("Adjustment quantity must be negative, like : -2");
-
-        boolean valid = entity.getQtyOnHand() + adjust >= entity.getQtyReserved();
-
-        int qtyAllowed = entity.getQtyOnHand() - entity.getQtyReserved();
-
-        if(!valid) throw new RuntimeException("Invalid Adjustment, you can only adjust in min : -"+qtyAllowed);
-        entity.setQtyOnHand(entity.getQtyOnHand() + adjust.intValue());
-
-        InventoryMovementCreateDTO inventoryMvtDTO = new InventoryMovementCreateDTO();
-        inventoryMvtDTO.setInventoryId(entity.getId());
-        inventoryMvtDTO.setType(MovementType.ADJUSTMENT);
-        inventoryMvtDTO.setQty(Math.abs(adjust.intValue()));
-
-
-        inventoryMovementService.create(inventoryMvtDTO);
-        return mapper.toResponse(repository.save(entity));
+        InventoryAdjustmentEvent event = new InventoryAdjustmentEvent();
+        event.begin();
+        try {
+            Inventory entity = repository.findById(id)
+                    .orElseThrow(() -> new IllegalArgumentException("Inventory not found"));
+
+            if(adjust >= 0) throw new RuntimeException("Adjustment quantity must be negative, like : -2");
+
+            boolean valid = entity.getQtyOnHand() + adjust >= entity.getQtyReserved();
+
+            int qtyAllowed = entity.getQtyOnHand() - entity.getQtyReserved();
+
+            if(!valid) throw new RuntimeException("Invalid Adjustment, you can only adjust in min : -"+qtyAllowed);
+            // relative and conditional, like the reservation updates: never writes back a stale qty_reserved
+            if (repository.withdrawAvailable(id, Math.abs(adjust.intValue())) == 0) {
+                throw new StockConflictException("Stock of inventory " + id + " changed concurrently, please retry");
+            }
+
+            InventoryMovementCreateDTO inventoryMvtDTO = new InventoryMovementCreateDTO();
+            inventoryMvtDTO.setInventoryId(entity.getId());
+            inventoryMvtDTO.setType(MovementType.ADJUSTMENT);
+            inventoryMvtDTO.setQty(Math.abs(adjust.intValue()));
+
+
+            inventoryMovementService.create(inventoryMvtDTO);
+            availabilityCache.adjust(entity, adjust.intValue(), 0);
+            entityManager.refresh(entity);
+            event.applied = true;
+            return mapper.toResponse(entity);
+        } finally {
+            event.inventoryId = Objects.requireNonNullElse(id, 0L);
+            event.adjustment = Objects.requireNonNullElse(adjust, 0L);
+            event.commit();
+        }
     }
 
 
@@ -103,10 +129,19 @@ public class InventoryService {
         Inventory entity = repository.findById(id)
                 .orElseThrow(() -> new IllegalArgumentException("Inventory not found"));
         repository.delete(entity);
+        availabilityCache.evict(entity.getProduct().getId(), entity.getWarehouse().getId());
     }
 
-    public Optional<Inventory> getHelperInventory(Long id, int qty, Long WarehouseId) {
-        System.out.println("ProductId : "+id + " ===== qty : "+qty+" Warehouse : "+WarehouseId);
-        return repository.findAvailableInventoryNative(id, qty, WarehouseId);
+    /** Answered from the in-memory ATP cache, no SQL round trip once the slot is warm. */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public InventoryAvailabilityDTO availability(Long productId, Long warehouseId, int qty) {
+        int available = availabilityCache.available(productId, warehouseId);
+
+        InventoryAvailabilityDTO dto = new InventoryAvailabilityDTO();
+        dto.setProductId(productId);
+        dto.setWarehouseId(warehouseId);
+        dto.setAvailable(available);
+        dto.setPromisable(available >= qty);
+        return dto;
     }
 }
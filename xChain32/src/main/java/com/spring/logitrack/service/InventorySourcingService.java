@@ -0,0 +1,53 @@
+package com.spring.logitrack.service;
+
+import com.spring.logitrack.entity.Inventory;
+import com.spring.logitrack.entity.Warehouse;
+import com.spring.logitrack.repository.InventoryRepository;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+@Service
+@RequiredArgsConstructor
+public class InventorySourcingService {
+
+    private final InventoryRepository repository;
+    private final SourcingCostFunction costFunction;
+
+    /**
+     * Splits a shortfall across the cheapest helper inventories of other warehouses.
+     * All candidates come from one query; the plan is all-or-nothing, an empty list
+     * means the other warehouses together cannot cover the quantity.
+     */
+    public List<Allocation> plan(Long productId, Warehouse destination, int qty) {
+        List<Inventory> ranked = repository.findSourcingCandidates(productId, destination.getId()).stream()
+                .filter(candidate -> Double.isFinite(costFunction.cost(candidate, destination)))
+                .sorted(Comparator.comparingDouble(candidate -> costFunction.cost(candidate, destination)))
+                .toList();
+
+        List<Allocation> allocations = new ArrayList<>();
+        int remaining = qty;
+
+        for (Inventory candidate : ranked) {
+            int take = Math.min(candidate.getQtyOnHand() - candidate.getQtyReserved(), remaining);
+            if (take <= 0) continue;
+
+            allocations.add(new Allocation(candidate, take));
+            remaining -= take;
+            if (remaining == 0) return allocations;
+        }
+
+        return List.of();
+    }
+
+    @Getter
+    @RequiredArgsConstructor
+    public static class Allocation {
+        private final Inventory inventory;
+        private final int qty;
+    }
+}
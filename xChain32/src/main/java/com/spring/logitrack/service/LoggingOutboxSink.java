@@ -0,0 +1,21 @@
+package com.spring.logitrack.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/** Local stand-in used until a real sink is plugged in: declare another OutboxSink as @Primary. */
+@Component
+public class LoggingOutboxSink implements OutboxSink {
+
+    private static final Logger log = LoggerFactory.getLogger(LoggingOutboxSink.class);
+
+    @Override
+    public void publish(List<OrderLifecycleEvent> events) {
+        if (log.isDebugEnabled()) {
+            events.forEach(event -> log.debug("{} {} is now {}", event.aggregateType(), event.aggregateId(), event.status()));
+        }
+    }
+}
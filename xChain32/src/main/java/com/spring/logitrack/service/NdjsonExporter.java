@@ -0,0 +1,48 @@
+package com.spring.logitrack.service;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import jakarta.persistence.EntityManager;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.Iterator;
+import java.util.function.Function;
+import java.util.stream.Stream;
+
+/**
+ * Writes a repository stream as newline-delimited JSON, one row at a time.
+ * Each entity is detached once written so the persistence context stays small
+ * however many rows the export covers.
+ */
+@Component
+@RequiredArgsConstructor
+public class NdjsonExporter {
+
+    private final ObjectMapper objectMapper;
+    private final EntityManager entityManager;
+
+    public <E, D> long write(Stream<E> rows, Function<E, D> mapper, OutputStream out) {
+        ObjectWriter writer = objectMapper.writer().without(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+        long count = 0;
+
+        try (rows) {
+            Iterator<E> it = rows.iterator();
+            while (it.hasNext()) {
+                E row = it.next();
+                writer.writeValue(out, mapper.apply(row));
+                out.write('\n');
+                entityManager.detach(row);
+                count++;
+            }
+            out.flush();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Export interrupted", e);
+        }
+        return count;
+    }
+}
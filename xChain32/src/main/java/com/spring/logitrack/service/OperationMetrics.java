@@ -0,0 +1,108 @@
+package com.spring.logitrack.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+/**
+ * Timers and counters of the business operations, all under the {@code logitrack.} prefix so
+ * percentile histograms can be switched on for them in one property. Services start a sample
+ * before the operation and stop it with the outcome once it is known; a sample stopped with
+ * {@link #FAILED} marks an operation that threw.
+ */
+@Component
+@RequiredArgsConstructor
+public class OperationMetrics {
+
+    public static final String SALES_ORDER = "logitrack.sales_order";
+    public static final String PURCHASE_ORDER = "logitrack.purchase_order";
+    public static final String S3_UPLOAD = "logitrack.s3.upload";
+    public static final String S3_UPLOAD_SIZE = "logitrack.s3.upload.size";
+    public static final String BACKORDERS_CREATED = "logitrack.backorders.created";
+    public static final String BACKORDERS_ALLOCATED = "logitrack.backorders.allocated";
+    public static final String OUTBOX_PUBLISHED = "logitrack.outbox.published";
+    public static final String OUTBOX_PARKED = "logitrack.outbox.parked";
+
+    public static final String FAILED = "failed";
+
+    private final MeterRegistry registry;
+
+    public Timer.Sample start() {
+        return Timer.start(registry);
+    }
+
+    /** Reserve, ship and cancel of a sales order; outcome is e.g. reserved, backorder or transfer. */
+    public void salesOrder(Timer.Sample sample, String operation, String outcome) {
+        sample.stop(Timer.builder(SALES_ORDER)
+                .description("Sales order stock operations")
+                .tag("operation", operation)
+                .tag("outcome", outcome)
+                .register(registry));
+    }
+
+    public void purchaseOrder(Timer.Sample sample, String operation, String outcome) {
+        sample.stop(Timer.builder(PURCHASE_ORDER)
+                .description("Purchase order status changes")
+                .tag("operation", operation)
+                .tag("outcome", outcome)
+                .register(registry));
+    }
+
+    /** One file sent to S3, as a single put or a multipart upload. */
+    public void upload(Timer.Sample sample, String method, String outcome, long bytes) {
+        sample.stop(Timer.builder(S3_UPLOAD)
+                .description("Uploads of product images to S3")
+                .tag("method", method)
+                .tag("outcome", outcome)
+                .register(registry));
+        if (!FAILED.equals(outcome)) {
+            DistributionSummary.builder(S3_UPLOAD_SIZE)
+                    .description("Size of the files uploaded to S3")
+                    .baseUnit("bytes")
+                    .tag("method", method)
+                    .register(registry)
+                    .record(bytes);
+        }
+    }
+
+    /**
+     * Untagged: a series per SKU would grow with the catalog. Counts per product come from the
+     * backorders table, which records the product of every backorder.
+     */
+    public void backorderCreated() {
+        Counter.builder(BACKORDERS_CREATED)
+                .description("Backorders opened for lack of stock")
+                .register(registry)
+                .increment();
+    }
+
+    public void backordersAllocated(int fulfilled, int partial) {
+        if (fulfilled > 0) allocated("fulfilled").increment(fulfilled);
+        if (partial > 0) allocated("partial").increment(partial);
+    }
+
+    public void outboxPublished(int events) {
+        Counter.builder(OUTBOX_PUBLISHED)
+                .description("Order lifecycle events relayed from the outbox")
+                .register(registry)
+                .increment(events);
+    }
+
+    /** An event left unpublished after failing outbox.relay.max-attempts times on its own. */
+    public void outboxParked() {
+        Counter.builder(OUTBOX_PARKED)
+                .description("Order lifecycle events the outbox relay gave up on")
+                .register(registry)
+                .increment();
+    }
+
+    private Counter allocated(String outcome) {
+        return Counter.builder(BACKORDERS_ALLOCATED)
+                .description("Backorders served from arriving stock")
+                .tag("outcome", outcome)
+                .register(registry);
+    }
+}
@@ -0,0 +1,47 @@
+package com.spring.logitrack.service;
+
+import com.spring.logitrack.entity.OutboxEvent;
+import com.spring.logitrack.repository.OutboxEventRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDateTime;
+
+/**
+ * Records state changes of orders in the outbox table, in the transaction that makes them, so an
+ * event exists if and only if its change committed. The rows go out with the transaction's other
+ * writes in Hibernate's JDBC batches; once it commits, {@link OutboxRelay} is woken up to publish
+ * them instead of waiting for its next run.
+ */
+@Component
+@RequiredArgsConstructor
+public class OrderEventOutbox {
+
+    public static final String SALES_ORDER = "SalesOrder";
+    public static final String SHIPMENT = "Shipment";
+    public static final String PURCHASE_ORDER = "PurchaseOrder";
+
+    private final OutboxEventRepository repository;
+    private final OutboxRelay relay;
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void record(String aggregateType, Long aggregateId, Enum<?> status) {
+        repository.save(OutboxEvent.builder()
+                .aggregateType(aggregateType)
+                .aggregateId(aggregateId)
+                .status(status.name())
+                .occurredAt(LocalDateTime.now())
+                .build());
+
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                relay.wakeUp();
+            }
+        });
+    }
+}
@@ -0,0 +1,11 @@
+package com.spring.logitrack.service;
+
+import java.time.LocalDateTime;
+
+/**
+ * A committed state change of a sales order, shipment or purchase order, as relayed from the
+ * outbox. Delivery is at least once: a listener may see the same eventId again after a failure.
+ */
+public record OrderLifecycleEvent(Long eventId, String aggregateType, Long aggregateId, String status,
+                                  LocalDateTime occurredAt) {
+}
@@ -0,0 +1,194 @@
+package com.spring.logitrack.service;
+
+import com.spring.logitrack.entity.OutboxEvent;
+import com.spring.logitrack.repository.OutboxEventRepository;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Publishes the events of {@link OrderEventOutbox} once their transaction committed: first to the
+ * in-process listeners of {@link OrderLifecycleEvent}, then to the {@link OutboxSink}.
+ * <p>
+ * A single relay thread takes the unpublished events oldest first, in transactions of up to
+ * {@code outbox.relay.batch-size} rows: they are published and marked with one UPDATE. A commit
+ * wakes the relay up; it also runs every {@code outbox.relay.interval} for events left behind by a
+ * failure or another instance. A listener or the sink throwing rolls the batch back, and its events
+ * are then relayed one at a time so a single bad event cannot hold back the ones behind it; events
+ * that still fail are sent again on the next run, so delivery is at least once. After
+ * {@code outbox.relay.max-attempts} such failures an event is parked. Published events are deleted
+ * after {@code outbox.retention}.
+ */
+@Component
+public class OutboxRelay {
+
+    private static final Logger log = LoggerFactory.getLogger(OutboxRelay.class);
+    // length of outbox_events.last_error
+    private static final int ERROR_LENGTH = 500;
+
+    private final OutboxEventRepository repository;
+    private final ApplicationEventPublisher events;
+    private final OutboxSink sink;
+    private final OperationMetrics metrics;
+    private final TransactionTemplate transactionTemplate;
+    private final int batchSize;
+    private final int maxAttempts;
+    private final Duration interval;
+    private final Duration retention;
+
+    private final ScheduledExecutorService executor = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread thread = new Thread(r, "outbox-relay");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private final AtomicBoolean woken = new AtomicBoolean();
+
+    @Autowired
+    public OutboxRelay(OutboxEventRepository repository, ApplicationEventPublisher events, OutboxSink sink,
+                       OperationMetrics metrics, PlatformTransactionManager transactionManager,
+                       @Value("${outbox.relay.batch-size:200}") int batchSize,
+                       @Value("${outbox.relay.max-attempts:10}") int maxAttempts,
+                       @Value("${outbox.relay.interval:PT1S}") Duration interval,
+                       @Value("${outbox.retention:P7D}") Duration retention) {
+        this.repository = repository;
+        this.events = events;
+        this.sink = sink;
+        this.metrics = metrics;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.batchSize = batchSize;
+        this.maxAttempts = maxAttempts;
+        this.interval = interval;
+        this.retention = retention;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        executor.scheduleWithFixedDelay(this::drain, 0, interval.toMillis(), TimeUnit.MILLISECONDS);
+        executor.scheduleWithFixedDelay(this::purge, 1, 60, TimeUnit.MINUTES);
+    }
+
+    /** Runs the relay now rather than at its next interval; calls made while it is queued coalesce. */
+    public void wakeUp() {
+        if (woken.compareAndSet(false, true)) {
+            executor.execute(() -> {
+                woken.set(false);
+                drain();
+            });
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    void drain() {
+        try {
+            while (relayBatch() == batchSize) {
+                // a full batch: there may be more behind it
+            }
+        } catch (RuntimeException e) {
+            log.warn("Relaying outbox events failed, retrying in {}: {}", interval, e.getMessage());
+        }
+    }
+
+    int relayBatch() {
+        List<OutboxEvent> batch = new ArrayList<>();
+        Integer relayed;
+        try {
+            relayed = transactionTemplate.execute(status -> {
+                batch.addAll(repository.findUnpublished(maxAttempts, PageRequest.of(0, batchSize)));
+                publish(batch);
+                return batch.size();
+            });
+        } catch (RuntimeException e) {
+            if (batch.size() < 2) throw e;
+            relayed = isolate(batch);
+        }
+        if (relayed != null && relayed > 0) metrics.outboxPublished(relayed);
+        return relayed == null ? 0 : relayed;
+    }
+
+    /**
+     * Relays the events of a failed batch one at a time. A failure counts against an event only when
+     * another event of the batch went through: with the sink down none does, and no event moves closer
+     * to being parked.
+     */
+    private int isolate(List<OutboxEvent> batch) {
+        Map<OutboxEvent, RuntimeException> failed = new LinkedHashMap<>();
+        int relayed = 0;
+        for (OutboxEvent event : batch) {
+            try {
+                // empty when another relay took it meanwhile
+                Boolean sent = transactionTemplate.execute(status -> repository.findUnpublishedById(event.getId())
+                        .map(e -> {
+                            publish(List.of(e));
+                            return true;
+                        })
+                        .orElse(false));
+                if (Boolean.TRUE.equals(sent)) relayed++;
+            } catch (RuntimeException e) {
+                failed.put(event, e);
+            }
+        }
+        if (failed.isEmpty()) return relayed;
+        if (relayed == 0) throw failed.values().iterator().next();
+
+        transactionTemplate.executeWithoutResult(status -> failed.forEach((event, e) -> {
+            String error = e.toString();
+            repository.recordFailure(event.getId(), error.length() > ERROR_LENGTH ? error.substring(0, ERROR_LENGTH) : error);
+        }));
+        failed.forEach((event, e) -> {
+            if (event.getAttempts() + 1 >= maxAttempts) {
+                log.error("Parked outbox event {} ({} {} {}) after {} failed attempts: {}", event.getId(),
+                        event.getAggregateType(), event.getAggregateId(), event.getStatus(), maxAttempts, e.getMessage());
+                metrics.outboxParked();
+            } else {
+                log.warn("Relaying outbox event {} failed, retrying in {}: {}", event.getId(), interval, e.getMessage());
+            }
+        });
+        return relayed;
+    }
+
+    private void publish(List<OutboxEvent> batch) {
+        if (batch.isEmpty()) return;
+
+        List<OrderLifecycleEvent> lifecycle = batch.stream()
+                .map(e -> new OrderLifecycleEvent(e.getId(), e.getAggregateType(), e.getAggregateId(),
+                        e.getStatus(), e.getOccurredAt()))
+                .toList();
+        lifecycle.forEach(events::publishEvent);
+        sink.publish(lifecycle);
+
+        repository.markPublished(batch.stream().map(OutboxEvent::getId).toList(), LocalDateTime.now());
+    }
+
+    void purge() {
+        try {
+            transactionTemplate.executeWithoutResult(status ->
+                    repository.deletePublishedBefore(LocalDateTime.now().minus(retention)));
+        } catch (RuntimeException e) {
+            log.warn("Purging published outbox events failed: {}", e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,13 @@
+package com.spring.logitrack.service;
+
+import java.util.List;
+
+/**
+ * Where the outbox relay hands events over outside this process: a broker, a webhook... The
+ * relay calls it once per batch, in order; throwing leaves the whole batch unpublished, to be
+ * retried on the next run.
+ */
+public interface OutboxSink {
+
+    void publish(List<OrderLifecycleEvent> events);
+}
@@ -0,0 +1,514 @@
+package com.spring.logitrack.service;
+
+import com.spring.logitrack.dto.product.ProductSearchCriteria;
+import com.spring.logitrack.dto.product.ProductSearchHitDTO;
+import com.spring.logitrack.entity.Product;
+import com.spring.logitrack.repository.ProductIndexRow;
+import com.spring.logitrack.repository.ProductRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.math.BigDecimal;
+import java.text.Normalizer;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentNavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.UnaryOperator;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+/**
+ * In-process inverted index of the catalog for search and autocomplete.
+ * <p>
+ * Sku, name and description are folded to lowercase ASCII words. Each word maps to an immutable
+ * posting: the sorted ids of the products containing it and, per id, the fields it was found in.
+ * Words are kept in a sorted map, so a prefix is a range of it. A query matches the products that
+ * contain every word, the last one as a prefix; they are ranked by the rarity of the words and
+ * the field they hit (sku before name before description).
+ * <p>
+ * Reads are lock-free. Writes are serialized and applied after the writing transaction commits,
+ * replacing the postings they touch; the index is rebuilt from the products table at startup.
+ * Writers queue on a {@link ReentrantLock} rather than the monitor: the rebuild holds it while
+ * streaming the table, which would pin the carrier of a virtual thread.
+ */
+@Component
+@RequiredArgsConstructor
+public class ProductSearchIndex {
+
+    /** A prefix matching more words than this is narrowed to the most frequent ones. */
+    static final int MAX_PREFIX_EXPANSIONS = 64;
+
+    private static final byte SKU = 4;
+    private static final byte NAME = 2;
+    private static final byte DESCRIPTION = 1;
+
+    private static final Pattern DIACRITICS = Pattern.compile("\\p{M}+");
+    private static final Pattern SEPARATORS = Pattern.compile("[^a-z0-9]+");
+
+    private final ProductRepository repository;
+
+    private final Map<Long, Document> documents = new ConcurrentHashMap<>();
+    private final ConcurrentNavigableMap<String, Posting> postings = new ConcurrentSkipListMap<>();
+    private final ReentrantLock writes = new ReentrantLock();
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public void rebuild() {
+        writes.lock();
+        try {
+            Map<Long, Document> loaded = new HashMap<>();
+            Map<String, PostingBuilder> building = new HashMap<>();
+            // one String instance per word, shared by every document containing it
+            Map<String, String> canonical = new HashMap<>();
+            try (Stream<ProductIndexRow> rows = repository.streamIndexRows()) {
+                // ordered by id, so every posting is built already sorted
+                rows.forEach(row -> {
+                    Document doc = document(row.getId(), row.getSku(), row.getName(), row.getDescription(),
+                            row.getUnit(), row.getPrice(), row.isActive(), word -> canonical.computeIfAbsent(word, w -> w));
+                    loaded.put(doc.id(), doc);
+                    for (int i = 0; i < doc.terms().length; i++) {
+                        building.computeIfAbsent(doc.terms()[i], t -> new PostingBuilder()).add(doc.id(), doc.fields()[i]);
+                    }
+                });
+            }
+            documents.clear();
+            postings.clear();
+            documents.putAll(loaded);
+            building.forEach((term, builder) -> postings.put(term, builder.build()));
+        } finally {
+            writes.unlock();
+        }
+    }
+
+    public void put(Product product) {
+        Document doc = document(product.getId(), product.getSku(), product.getName(), product.getDescription(),
+                product.getUnit(), product.getPrice(), product.isActive(), word -> {
+                    String known = postings.floorKey(word);
+                    return word.equals(known) ? known : word;
+                });
+        afterCommit(() -> index(doc));
+    }
+
+    public void remove(Long productId) {
+        afterCommit(() -> unindex(productId));
+    }
+
+    public Page<ProductSearchHitDTO> search(ProductSearchCriteria criteria, Pageable pageable) {
+        List<String> words = words(criteria.getQ()).stream().distinct().toList();
+        TopHits top = new TopHits((int) Math.min(pageable.getOffset() + pageable.getPageSize(), Integer.MAX_VALUE));
+
+        if (words.isEmpty()) {
+            documents.values().forEach(doc -> {
+                if (accepts(doc, criteria)) top.offer(doc.id(), 0);
+            });
+        } else {
+            Matches matches = match(words);
+            // without filters, only the products on the page are ever looked up
+            boolean filtered = hasFilters(criteria);
+            for (int i = 0; i < matches.size; i++) {
+                if (filtered) {
+                    Document doc = documents.get(matches.ids[i]);
+                    if (doc == null || !accepts(doc, criteria)) continue;
+                }
+                top.offer(matches.ids[i], matches.scores[i]);
+            }
+        }
+
+        List<ProductSearchHitDTO> ranked = top.ranked(documents);
+        int from = (int) Math.min(pageable.getOffset(), ranked.size());
+        return new PageImpl<>(ranked.subList(from, ranked.size()), pageable, top.total);
+    }
+
+    /** Completions of the last word of the input, most frequent words first. */
+    public List<String> suggest(String input, int limit) {
+        List<String> words = words(input);
+        if (words.isEmpty()) return List.of();
+
+        String head = words.size() == 1 ? "" : String.join(" ", words.subList(0, words.size() - 1)) + " ";
+        return expand(words.get(words.size() - 1)).stream()
+                .sorted(Comparator.comparingInt((Map.Entry<String, Posting> e) -> e.getValue().size()).reversed()
+                        .thenComparing(Map.Entry::getKey))
+                .limit(limit)
+                .map(e -> head + e.getKey())
+                .toList();
+    }
+
+    int size() {
+        return documents.size();
+    }
+
+    private void index(Document doc) {
+        writes.lock();
+        try {
+            Document previous = documents.put(doc.id(), doc);
+            if (previous != null) {
+                Set<String> current = Set.of(doc.terms());
+                for (String term : previous.terms()) {
+                    if (!current.contains(term)) removePosting(term, doc.id());
+                }
+            }
+            for (int i = 0; i < doc.terms().length; i++) {
+                byte fields = doc.fields()[i];
+                postings.compute(doc.terms()[i], (t, posting) -> posting == null
+                        ? new Posting(new long[]{doc.id()}, new byte[]{fields})
+                        : posting.with(doc.id(), fields));
+            }
+        } finally {
+            writes.unlock();
+        }
+    }
+
+    private void unindex(Long productId) {
+        writes.lock();
+        try {
+            Document previous = documents.remove(productId);
+            if (previous == null) return;
+            for (String term : previous.terms()) removePosting(term, productId);
+        } finally {
+            writes.unlock();
+        }
+    }
+
+    private void removePosting(String term, long productId) {
+        postings.computeIfPresent(term, (t, posting) -> posting.without(productId));
+    }
+
+    /**
+     * The products containing every word, with their scores. The word with the fewest candidates
+     * is resolved first; each other word only narrows that sorted candidate list, by a merge walk
+     * over its postings or, when the candidates are few, by binary searching them.
+     */
+    private Matches match(List<String> words) {
+        List<List<WeightedPosting>> groups = new ArrayList<>();
+        for (int i = 0; i < words.size(); i++) {
+            String word = words.get(i);
+            List<WeightedPosting> group = i == words.size() - 1 ? prefixGroup(word) : exactGroup(word);
+            if (group.isEmpty()) return Matches.NONE;
+            groups.add(group);
+        }
+        groups.sort(Comparator.comparingLong(group -> group.stream().mapToLong(p -> p.posting().size()).sum()));
+
+        Matches matches = Matches.union(groups.get(0));
+        for (List<WeightedPosting> group : groups.subList(1, groups.size())) {
+            double[] best = new double[matches.size];
+            for (WeightedPosting weighted : group) matches.score(weighted, best);
+            matches = matches.retain(best);
+            if (matches.size == 0) break;
+        }
+        return matches;
+    }
+
+    private List<WeightedPosting> exactGroup(String word) {
+        Posting posting = postings.get(word);
+        return posting == null ? List.of() : List.of(new WeightedPosting(posting, idf(posting)));
+    }
+
+    private List<WeightedPosting> prefixGroup(String prefix) {
+        // a completed word outranks the longer words it is a prefix of
+        return expand(prefix).stream()
+                .map(e -> new WeightedPosting(e.getValue(),
+                        idf(e.getValue()) * (e.getKey().equals(prefix) ? 1.0 : 0.5)))
+                .toList();
+    }
+
+    private List<Map.Entry<String, Posting>> expand(String prefix) {
+        List<Map.Entry<String, Posting>> matches = new ArrayList<>(
+                postings.subMap(prefix, true, prefix + Character.MAX_VALUE, false).entrySet());
+        if (matches.size() <= MAX_PREFIX_EXPANSIONS) return matches;
+
+        matches.sort(Comparator.comparingInt((Map.Entry<String, Posting> e) -> e.getValue().size()).reversed());
+        return matches.subList(0, MAX_PREFIX_EXPANSIONS);
+    }
+
+    private double idf(Posting posting) {
+        return Math.log(1 + (double) Math.max(documents.size(), 1) / posting.size());
+    }
+
+    private static boolean hasFilters(ProductSearchCriteria criteria) {
+        return criteria.getActive() != null || (criteria.getUnit() != null && !criteria.getUnit().isBlank())
+                || criteria.getMinPrice() != null || criteria.getMaxPrice() != null;
+    }
+
+    private static boolean accepts(Document doc, ProductSearchCriteria criteria) {
+        if (criteria.getActive() != null && doc.active() != criteria.getActive()) return false;
+        if (criteria.getUnit() != null && !criteria.getUnit().isBlank()
+                && !criteria.getUnit().equalsIgnoreCase(doc.unit())) return false;
+        if (criteria.getMinPrice() != null && (doc.price() == null || doc.price().compareTo(criteria.getMinPrice()) < 0)) return false;
+        return criteria.getMaxPrice() == null || (doc.price() != null && doc.price().compareTo(criteria.getMaxPrice()) <= 0);
+    }
+
+    private static Document document(Long id, String sku, String name, String description, String unit,
+                                     BigDecimal price, boolean active, UnaryOperator<String> canonical) {
+        Map<String, Byte> terms = terms(sku, name, description);
+        String[] words = new String[terms.size()];
+        byte[] fields = new byte[terms.size()];
+        int i = 0;
+        for (Map.Entry<String, Byte> term : terms.entrySet()) {
+            words[i] = canonical.apply(term.getKey());
+            fields[i++] = term.getValue();
+        }
+        return new Document(id, sku, name, unit, price, active, words, fields);
+    }
+
+    private static Map<String, Byte> terms(String sku, String name, String description) {
+        Map<String, Byte> terms = new HashMap<>();
+        for (String word : words(sku)) terms.merge(word, SKU, (a, b) -> (byte) (a | b));
+        for (String word : words(name)) terms.merge(word, NAME, (a, b) -> (byte) (a | b));
+        for (String word : words(description)) terms.merge(word, DESCRIPTION, (a, b) -> (byte) (a | b));
+        return terms;
+    }
+
+    static List<String> words(String text) {
+        if (text == null || text.isBlank()) return List.of();
+        String folded = DIACRITICS.matcher(Normalizer.normalize(text, Normalizer.Form.NFD)).replaceAll("")
+                .toLowerCase(Locale.ROOT);
+        return Arrays.stream(SEPARATORS.split(folded)).filter(word -> !word.isEmpty()).toList();
+    }
+
+    private static double fieldWeight(byte fields) {
+        double weight = 0;
+        if ((fields & SKU) != 0) weight += 8;
+        if ((fields & NAME) != 0) weight += 3;
+        if ((fields & DESCRIPTION) != 0) weight += 1;
+        return weight;
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+
+    /** Candidate ids in ascending order, with the score they have collected so far. */
+    private static final class Matches {
+        static final Matches NONE = new Matches(new long[0], new double[0], 0);
+
+        final long[] ids;
+        final double[] scores;
+        final int size;
+
+        Matches(long[] ids, double[] scores, int size) {
+            this.ids = ids;
+            this.scores = scores;
+            this.size = size;
+        }
+
+        /** Products in any posting of the group, each with its best score among them (k-way merge). */
+        static Matches union(List<WeightedPosting> group) {
+            if (group.size() == 1) {
+                WeightedPosting weighted = group.get(0);
+                Posting posting = weighted.posting();
+                double[] scores = new double[posting.size()];
+                for (int i = 0; i < scores.length; i++) scores[i] = weighted.score(posting.fields()[i]);
+                // postings are immutable, so their id array can be shared
+                return new Matches(posting.ids(), scores, scores.length);
+            }
+
+            int capacity = group.stream().mapToInt(weighted -> weighted.posting().size()).sum();
+            long[] ids = new long[capacity];
+            double[] scores = new double[capacity];
+            int size = 0;
+
+            int[] cursor = new int[group.size()];
+            PriorityQueue<Integer> heads = new PriorityQueue<>(
+                    Comparator.comparingLong(g -> group.get(g).posting().ids()[cursor[g]]));
+            for (int g = 0; g < group.size(); g++) heads.add(g);
+
+            while (!heads.isEmpty()) {
+                int g = heads.poll();
+                WeightedPosting weighted = group.get(g);
+                long id = weighted.posting().ids()[cursor[g]];
+                double score = weighted.score(weighted.posting().fields()[cursor[g]]);
+                if (size > 0 && ids[size - 1] == id) {
+                    scores[size - 1] = Math.max(scores[size - 1], score);
+                } else {
+                    ids[size] = id;
+                    scores[size++] = score;
+                }
+                if (++cursor[g] < weighted.posting().size()) heads.add(g);
+            }
+            return new Matches(ids, scores, size);
+        }
+
+        /** Raises best[i] to the score the posting gives candidate i, when it contains it. */
+        void score(WeightedPosting weighted, double[] best) {
+            Posting posting = weighted.posting();
+            int log = 64 - Long.numberOfLeadingZeros(posting.size());
+            if ((long) size * log < size + posting.size()) {
+                for (int i = 0; i < size; i++) {
+                    int at = posting.indexOf(ids[i]);
+                    if (at >= 0) best[i] = Math.max(best[i], weighted.score(posting.fields()[at]));
+                }
+                return;
+            }
+            long[] other = posting.ids();
+            int i = 0;
+            int j = 0;
+            while (i < size && j < other.length) {
+                if (ids[i] < other[j]) {
+                    i++;
+                } else if (ids[i] > other[j]) {
+                    j++;
+                } else {
+                    best[i] = Math.max(best[i], weighted.score(posting.fields()[j]));
+                    i++;
+                    j++;
+                }
+            }
+        }
+
+        /** Candidates with a non-zero best, their score increased by it. */
+        Matches retain(double[] best) {
+            long[] keptIds = new long[size];
+            double[] keptScores = new double[size];
+            int kept = 0;
+            for (int i = 0; i < size; i++) {
+                if (best[i] > 0) {
+                    keptIds[kept] = ids[i];
+                    keptScores[kept++] = scores[i] + best[i];
+                }
+            }
+            return new Matches(keptIds, keptScores, kept);
+        }
+    }
+
+    /**
+     * The best hits up to the end of the requested page, ranked by score then id, in a heap whose
+     * head is the worst one kept. Products that would not enter it cost no allocation.
+     */
+    private static final class TopHits {
+        private static final Comparator<Hit> WORST_FIRST = Comparator.comparingDouble(Hit::score)
+                .thenComparing(Hit::id, Comparator.reverseOrder());
+
+        private final int capacity;
+        private final PriorityQueue<Hit> heap = new PriorityQueue<>(WORST_FIRST);
+        private long total;
+
+        TopHits(int capacity) {
+            this.capacity = capacity;
+        }
+
+        void offer(long id, double score) {
+            total++;
+            if (capacity == 0) return;
+            if (heap.size() == capacity) {
+                Hit worst = heap.peek();
+                if (score < worst.score() || (score == worst.score() && id > worst.id())) return;
+                heap.poll();
+            }
+            heap.add(new Hit(id, score));
+        }
+
+        /** Products removed since they were matched are left out. */
+        List<ProductSearchHitDTO> ranked(Map<Long, Document> documents) {
+            return heap.stream()
+                    .sorted(WORST_FIRST.reversed())
+                    .map(hit -> {
+                        Document doc = documents.get(hit.id());
+                        return doc == null ? null : doc.toHit(hit.score());
+                    })
+                    .filter(Objects::nonNull)
+                    .toList();
+        }
+    }
+
+    private record Hit(long id, double score) {
+    }
+
+    /** Words and the fields they were found in, as parallel arrays; the words are shared with the postings. */
+    private record Document(Long id, String sku, String name, String unit, BigDecimal price, boolean active,
+                            String[] terms, byte[] fields) {
+
+        ProductSearchHitDTO toHit(double score) {
+            return new ProductSearchHitDTO(id, sku, name, unit, price, active, score);
+        }
+    }
+
+    private record WeightedPosting(Posting posting, double weight) {
+
+        double score(byte fields) {
+            return weight * fieldWeight(fields);
+        }
+    }
+
+    /** Immutable: writers replace the posting of a word, readers never see one change. */
+    private record Posting(long[] ids, byte[] fields) {
+
+        int size() {
+            return ids.length;
+        }
+
+        int indexOf(long id) {
+            return Arrays.binarySearch(ids, id);
+        }
+
+        Posting with(long id, byte field) {
+            int at = indexOf(id);
+            if (at >= 0) {
+                byte[] updated = fields.clone();
+                updated[at] = field;
+                return new Posting(ids, updated);
+            }
+            int insertAt = -at - 1;
+            long[] newIds = new long[ids.length + 1];
+            byte[] newFields = new byte[ids.length + 1];
+            System.arraycopy(ids, 0, newIds, 0, insertAt);
+            System.arraycopy(fields, 0, newFields, 0, insertAt);
+            newIds[insertAt] = id;
+            newFields[insertAt] = field;
+            System.arraycopy(ids, insertAt, newIds, insertAt + 1, ids.length - insertAt);
+            System.arraycopy(fields, insertAt, newFields, insertAt + 1, ids.length - insertAt);
+            return new Posting(newIds, newFields);
+        }
+
+        /** Null once the last id is gone, which drops the word from the map. */
+        Posting without(long id) {
+            int at = indexOf(id);
+            if (at < 0) return this;
+            if (ids.length == 1) return null;
+            long[] newIds = new long[ids.length - 1];
+            byte[] newFields = new byte[ids.length - 1];
+            System.arraycopy(ids, 0, newIds, 0, at);
+            System.arraycopy(fields, 0, newFields, 0, at);
+            System.arraycopy(ids, at + 1, newIds, at, ids.length - at - 1);
+            System.arraycopy(fields, at + 1, newFields, at, ids.length - at - 1);
+            return new Posting(newIds, newFields);
+        }
+    }
+
+    private static final class PostingBuilder {
+        private long[] ids = new long[4];
+        private byte[] fields = new byte[4];
+        private int size;
+
+        void add(long id, byte field) {
+            if (size == ids.length) {
+                ids = Arrays.copyOf(ids, size * 2);
+                fields = Arrays.copyOf(fields, size * 2);
+            }
+            ids[size] = id;
+            fields[size++] = field;
+        }
+
+        Posting build() {
+            return new Posting(Arrays.copyOf(ids, size), Arrays.copyOf(fields, size));
+        }
+    }
+}
@@ -3,6 +3,8 @@ package com.spring.logitrack.service;
 import com.spring.logitrack.dto.inventory.InventoryCreateDTO;
 import com.spring.logitrack.dto.product.ProductCreateDTO;
 import com.spring.logitrack.dto.product.ProductResponseDTO;
+import com.spring.logitrack.dto.product.ProductSearchCriteria;
+import com.spring.logitrack.dto.product.ProductSearchHitDTO;
 import com.spring.logitrack.entity.Inventory;
 import com.spring.logitrack.entity.Product;
 import com.spring.logitrack.entity.SalesOrderLine;
@@ -14,13 +16,16 @@ import com.spring.logitrack.mapper.ProductMapper;
 import com.spring.logitrack.repository.InventoryRepository;
 import com.spring.logitrack.repository.ProductRepository;
 import com.spring.logitrack.repository.SalesOrderLineRepository;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.util.List;
 import java.util.Objects;
-import java.util.stream.Collectors;
 
 @Service
 public class ProductService {
@@ -31,6 +36,9 @@ public class ProductService {
     private final InventoryRepository inventoryRepo;
     private final SalesOrderLineRepository lineRepository;
     private final S3Service s3Service;
+    private final TransactionTemplate transactionTemplate;
+    private final CatalogCache catalogCache;
+    private final ProductSearchIndex searchIndex;
     @Autowired
     public ProductService(
             ProductRepository repo,
@@ -38,7 +46,10 @@ public class ProductService {
             InventoryService inventoryService,
             SalesOrderLineRepository salesOrderLineRepository,
             S3Service s3Service,
-            InventoryRepository inventoryRepo
+            InventoryRepository inventoryRepo,
+            PlatformTransactionManager transactionManager,
+            CatalogCache catalogCache,
+            ProductSearchIndex searchIndex
     ) {
         this.repo = repo;
         this.mapper = mapper;
@@ -46,13 +57,22 @@ public class ProductService {
         this.lineRepository = salesOrderLineRepository;
         this.s3Service = s3Service;
         this.inventoryRepo = inventoryRepo;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.catalogCache = catalogCache;
+        this.searchIndex = searchIndex;
     }
 
 
-    public List<ProductResponseDTO> list() {
-        return repo.findAll().stream()
-                .map(mapper::toResponse)
-                .collect(Collectors.toList());
+    public Page<ProductResponseDTO> list(Pageable pageable) {
+        return repo.findAll(pageable).map(mapper::toResponse);
+    }
+
+    public Page<ProductSearchHitDTO> search(ProductSearchCriteria criteria, Pageable pageable) {
+        return searchIndex.search(criteria, pageable);
+    }
+
+    public List<String> suggest(String prefix, int limit) {
+        return searchIndex.suggest(prefix, limit);
     }
 
     public ProductResponseDTO get(Long id) {
@@ -67,30 +87,34 @@ public class ProductService {
     }
 
     public ProductResponseDTO create(ProductCreateDTO dto) {
-        try {
-            if (dto.getImageUrls() == null || dto.getImageUrls().isEmpty()) {
-                throw new IllegalArgumentException("At least one image file is required.");
-            }
-
-            List<String> urls = dto.getImageUrls().stream()
-                    .map(s3Service::uploadFile)
-                    .toList();
-
-            Product product = mapper.toEntity(dto);
-            product.setImageUrls(urls);
-
-            Product saved = repo.save(product);
+        if (dto.getImageUrls() == null || dto.getImageUrls().isEmpty()) {
+            throw new IllegalArgumentException("At least one image file is required.");
+        }
 
-            InventoryCreateDTO inventoryDTO = new InventoryCreateDTO();
-            inventoryDTO.setProductId(saved.getId());
-            inventoryDTO.setQtyReserved(0);
-            inventoryDTO.setQtyOnHand(0);
-            inventoryDTO.setWarehouseId(dto.getWarehouseId());
-            inventoryService.create(inventoryDTO);
+        // uploads run before any transaction opens, so no connection is held while they stream
+        List<String> urls = s3Service.uploadAll(dto.getImageUrls());
 
-            return mapper.toResponse(saved);
-        } catch (DataIntegrityViolationException e) {
-            if (e.getMessage().contains("products_sku_key")) {
+        try {
+            return transactionTemplate.execute(status -> {
+                Product product = mapper.toEntity(dto);
+                product.setImageUrls(urls);
+
+                Product saved = repo.save(product);
+
+                InventoryCreateDTO inventoryDTO = new InventoryCreateDTO();
+                inventoryDTO.setProductId(saved.getId());
+                inventoryDTO.setQtyReserved(0);
+                inventoryDTO.setQtyOnHand(0);
+                inventoryDTO.setWarehouseId(dto.getWarehouseId());
+                inventoryService.create(inventoryDTO);
+                catalogCache.invalidate();
+                searchIndex.put(saved);
+
+                return mapper.toResponse(saved);
+            });
+        } catch (RuntimeException e) {
+            s3Service.deleteQuietly(urls, e);
+            if (e instanceof DataIntegrityViolationException && e.getMessage().contains("products_sku_key")) {
                 throw new DuplicateResourceException("SKU already exists: " + dto.getSku());
             }
             throw e;
@@ -119,7 +143,10 @@ public class ProductService {
 
 
             mapper.patch(product, dto);
-            return mapper.toResponse(repo.save(product));
+            Product saved = repo.save(product);
+            catalogCache.invalidate();
+            searchIndex.put(saved);
+            return mapper.toResponse(saved);
         } catch (DataIntegrityViolationException e) {
             if (e.getMessage().contains("products_sku_key")) {
                 throw new DuplicateResourceException("SKU already exists: " + dto.getSku());
@@ -143,8 +170,6 @@ public class ProductService {
             }
 
             for (SalesOrderLine line : lines) {
-                System.out.println(line.getSalesOrder());
-
                 if (Objects.nonNull(line.getSalesOrder())) {
                     if (line.getSalesOrder().getStatus().equals(OrderStatus.CREATED)
                             || line.getSalesOrder().getStatus().equals(OrderStatus.RESERVED)
@@ -163,7 +188,10 @@ public class ProductService {
         }
 
         product.setActive(status);
-        return mapper.toResponse(repo.save(product));
+        Product saved = repo.save(product);
+        catalogCache.invalidate();
+        searchIndex.put(saved);
+        return mapper.toResponse(saved);
     }
 
     public void delete(Long id, boolean hard) {
@@ -175,10 +203,12 @@ public class ProductService {
                 throw new RuntimeException("cant delete product,its still related to some commands");
             } else {
                 repo.delete(product);
+                searchIndex.remove(id);
             }
         } else {
             product.setActive(false);
-            repo.save(product);
+            searchIndex.put(repo.save(product));
         }
+        catalogCache.invalidate();
     }
 }
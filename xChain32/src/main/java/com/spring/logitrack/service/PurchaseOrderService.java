@@ -1,20 +1,35 @@
 package com.spring.logitrack.service;
 
 import com.spring.logitrack.dto.POLine.POLineCreateDTO;
+import com.spring.logitrack.dto.POLine.POLineReceiptDTO;
 import com.spring.logitrack.dto.purchaseOrder.PurchaseOrderCreateDTO;
+import com.spring.logitrack.dto.purchaseOrder.PurchaseOrderReceiptDTO;
 import com.spring.logitrack.dto.purchaseOrder.PurchaseOrderResponseDTO;
+import com.spring.logitrack.dto.purchaseOrder.ReplenishmentRequestDTO;
 import com.spring.logitrack.entity.*;
 import com.spring.logitrack.entity.enums.BackorderStatus;
 import com.spring.logitrack.entity.enums.OrderStatus;
 import com.spring.logitrack.entity.enums.POStatus;
+import com.spring.logitrack.jfr.BackorderReceiptEvent;
 import com.spring.logitrack.mapper.PurchaseOrderMapper;
 import com.spring.logitrack.repository.*;
+import io.micrometer.core.instrument.Timer;
 import jakarta.persistence.EntityNotFoundException;
 import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
@@ -23,6 +38,7 @@ public class PurchaseOrderService {
 
     private final PurchaseOrderRepository poRepo;
     private final SupplierRepository supplierRepo;
+    private final WarehouseRepository warehouseRepo;
     private final ProductRepository productRepo;
     private final SimpleOrderRepository simpleOrderRepo;
     private final BackorderRepository backorderRepo;
@@ -30,6 +46,11 @@ public class PurchaseOrderService {
     private final SalesOrderRepository salesOrderRepo;
     private final InventoryRepository inventoryRepo;
     private final PurchaseOrderMapper mapper;
+    private final InventoryAvailabilityCache availabilityCache;
+    private final OperationMetrics metrics;
+    private final BackorderAllocator allocator;
+    private final ReceiptPoster receiptPoster;
+    private final OrderEventOutbox outbox;
 
     @Transactional
     public PurchaseOrderResponseDTO create(PurchaseOrderCreateDTO dto) {
@@ -41,6 +62,11 @@ public class PurchaseOrderService {
                 .status(POStatus.APPROVED)
                 .build();
 
+        if (dto.getWarehouseId() != null) {
+            po.setWarehouse(warehouseRepo.findById(dto.getWarehouseId())
+                    .orElseThrow(() -> new EntityNotFoundException("Warehouse not found")));
+        }
+
         // Prevent duplicate POs for same order
         if (dto.getOrderId() != null) {
             poRepo.findByOrder_Id(dto.getOrderId())
@@ -84,8 +110,13 @@ public class PurchaseOrderService {
             po.getLines().add(line);
         }
         else if (dto.getLines() != null && !dto.getLines().isEmpty()) {
+            Map<Long, Product> products = productRepo.findAllById(dto.getLines().stream()
+                            .map(POLineCreateDTO::getProductId)
+                            .collect(Collectors.toSet())).stream()
+                    .collect(Collectors.toMap(Product::getId, Function.identity()));
+
             for (var lineDTO : dto.getLines()) {
-                Product product = productRepo.findById(lineDTO.getProductId())
+                Product product = Optional.ofNullable(products.get(lineDTO.getProductId()))
                         .orElseThrow(() -> new EntityNotFoundException("Product not found"));
 
                 POLine line = POLine.builder()
@@ -129,6 +160,92 @@ public class PurchaseOrderService {
         return mapper.toResponse(poRepo.save(po));
     }
 
+    /**
+     * Raises the purchase orders for every open backorder that has none yet: one per supplier and
+     * receiving warehouse, with one line per product for the qty plus extraQty of its backorders.
+     * Orders and lines are inserted in JDBC batches; each order is then linked to its backorders
+     * with a single UPDATE. Backorders of a product without a chosen supplier are left as they are.
+     */
+    @Transactional
+    public List<PurchaseOrderResponseDTO> replenishBackorders(ReplenishmentRequestDTO dto) {
+        Timer.Sample sample = metrics.start();
+        String outcome = OperationMetrics.FAILED;
+        try {
+            Map<Long, Long> suppliersByProduct = Objects.requireNonNullElse(dto.getSuppliersByProduct(), Map.of());
+
+            // supplier -> warehouse -> product -> backorders
+            Map<Long, Map<Long, Map<Long, List<UnorderedBackorder>>>> demand = new LinkedHashMap<>();
+            for (UnorderedBackorder backorder : backorderRepo.findUnorderedByStatusIn(
+                    EnumSet.of(BackorderStatus.PENDING, BackorderStatus.PARTIALLY_FULFILLED))) {
+                Long supplierId = suppliersByProduct.getOrDefault(backorder.getProductId(), dto.getDefaultSupplierId());
+                if (supplierId == null) continue;
+
+                demand.computeIfAbsent(supplierId, id -> new LinkedHashMap<>())
+                        .computeIfAbsent(backorder.getWarehouseId(), id -> new LinkedHashMap<>())
+                        .computeIfAbsent(backorder.getProductId(), id -> new ArrayList<>())
+                        .add(backorder);
+            }
+
+            if (demand.isEmpty()) {
+                outcome = "none";
+                return List.of();
+            }
+
+            Map<Long, Supplier> suppliers = supplierRepo.findAllById(demand.keySet()).stream()
+                    .collect(Collectors.toMap(Supplier::getId, Function.identity()));
+            Set<Long> productIds = demand.values().stream()
+                    .flatMap(byWarehouse -> byWarehouse.values().stream())
+                    .flatMap(byProduct -> byProduct.keySet().stream())
+                    .collect(Collectors.toSet());
+            Map<Long, Product> products = productRepo.findAllById(productIds).stream()
+                    .collect(Collectors.toMap(Product::getId, Function.identity()));
+
+            List<PurchaseOrder> orders = new ArrayList<>();
+            List<List<Long>> backorderIds = new ArrayList<>();
+            demand.forEach((supplierId, byWarehouse) -> {
+                Supplier supplier = Optional.ofNullable(suppliers.get(supplierId))
+                        .orElseThrow(() -> new EntityNotFoundException("Supplier not found with id: " + supplierId));
+
+                byWarehouse.forEach((warehouseId, byProduct) -> {
+                    PurchaseOrder po = PurchaseOrder.builder()
+                            .supplier(supplier)
+                            .warehouse(warehouseRepo.getReferenceById(warehouseId))
+                            .status(POStatus.APPROVED)
+                            .build();
+                    List<Long> ids = new ArrayList<>();
+
+                    byProduct.forEach((productId, backorders) -> {
+                        Product product = products.get(productId);
+                        po.getLines().add(POLine.builder()
+                                .purchaseOrder(po)
+                                .product(product)
+                                .qty(backorders.stream().mapToInt(b -> b.getQty() + b.getExtraQty()).sum())
+                                .price(product.getPrice())
+                                .build());
+                        backorders.forEach(b -> ids.add(b.getId()));
+                    });
+
+                    orders.add(po);
+                    backorderIds.add(ids);
+                });
+            });
+
+            poRepo.saveAllAndFlush(orders);
+            for (int i = 0; i < orders.size(); i++) {
+                List<Long> ids = backorderIds.get(i);
+                if (backorderRepo.linkReplenishmentOrder(orders.get(i).getId(), ids) != ids.size()) {
+                    throw new IllegalStateException("Backorders were ordered concurrently, try again");
+                }
+            }
+
+            List<PurchaseOrderResponseDTO> response = orders.stream().map(mapper::toResponse).toList();
+            outcome = "created";
+            return response;
+        } finally {
+            metrics.purchaseOrder(sample, "replenish", outcome);
+        }
+    }
+
     public PurchaseOrderResponseDTO update(Long id, PurchaseOrderCreateDTO dto) {
         PurchaseOrder existing = poRepo.findById(id)
                 .orElseThrow(() -> new EntityNotFoundException("PurchaseOrder not found"));
@@ -146,7 +263,8 @@ public class PurchaseOrderService {
 
     @Transactional
     public PurchaseOrderResponseDTO updateStatus(Long id, String status) {
-        PurchaseOrder order = poRepo.findById(id)
+        // locked like receive(): the status check and the posting of a receipt must not interleave
+        PurchaseOrder order = poRepo.findForUpdateById(id)
                 .orElseThrow(() -> new EntityNotFoundException("Purchase order not found"));
 
         POStatus newStatus;
@@ -159,26 +277,128 @@ public class PurchaseOrderService {
         if (order.getStatus() == newStatus)
             throw new IllegalStateException("Purchase order already has status: " + newStatus);
 
-        if (order.getStatus().equals(POStatus.RECEIVED) && newStatus.equals(POStatus.APPROVED))
-            throw new IllegalStateException("Can't revert status from RECEIVED to APPROVED");
+        if (order.getStatus() != POStatus.APPROVED && newStatus.equals(POStatus.APPROVED))
+            throw new IllegalStateException("Can't revert status from " + order.getStatus() + " to APPROVED");
 
-        if(newStatus == POStatus.RECEIVED){
+        if (newStatus == POStatus.PARTIALLY_RECEIVED)
+            throw new IllegalStateException("Partial receipts are posted with the received quantity of each line");
+
+        if (newStatus != POStatus.RECEIVED) {
+            order.setStatus(newStatus);
+            outbox.record(OrderEventOutbox.PURCHASE_ORDER, order.getId(), newStatus);
+            return mapper.toResponse(poRepo.save(order));
+        }
+
+        Timer.Sample sample = metrics.start();
+        String outcome = OperationMetrics.FAILED;
+        try {
             if (order.getOrder() instanceof Backorder) {
                 applyModificationsForBackOrder(order);
             } else {
                 applyModificationsForSimpleOrder(order);
             }
+
+            order.setStatus(newStatus);
+            outbox.record(OrderEventOutbox.PURCHASE_ORDER, order.getId(), newStatus);
+            PurchaseOrderResponseDTO response = mapper.toResponse(poRepo.save(order));
+            outcome = order.getOrder() instanceof Backorder ? "backorder" : "received";
+            return response;
+        } finally {
+            metrics.purchaseOrder(sample, "receive", outcome);
         }
+    }
+
+    /**
+     * Posts a receipt of the given lines, or of everything still outstanding when none are given.
+     * The purchase order becomes PARTIALLY_RECEIVED until every line has been received in full.
+     */
+    @Transactional
+    public PurchaseOrderResponseDTO receive(Long id, PurchaseOrderReceiptDTO dto) {
+        PurchaseOrder order = poRepo.findForUpdateById(id)
+                .orElseThrow(() -> new EntityNotFoundException("Purchase order not found"));
+        // lines and their products in one statement, for the receipt and the response
+        poRepo.findAllWithDetailsByIdIn(List.of(id));
+
+        if (order.getStatus() == POStatus.RECEIVED)
+            throw new IllegalStateException("Purchase order already has status: " + POStatus.RECEIVED);
+
+        if (order.getOrder() instanceof Backorder)
+            throw new IllegalStateException("A purchase order for a backorder is received as a whole through its status");
 
-        order.setStatus(newStatus);
-        return mapper.toResponse(poRepo.save(order));
+        Timer.Sample sample = metrics.start();
+        String outcome = OperationMetrics.FAILED;
+        try {
+            Map<POLine, Integer> received = dto == null || dto.getLines() == null || dto.getLines().isEmpty()
+                    ? outstanding(order)
+                    : requested(order, dto.getLines());
+            postReceipt(order, received);
+
+            boolean complete = order.getLines().stream().allMatch(line -> line.getQtyReceived() >= line.getQty());
+            order.setStatus(complete ? POStatus.RECEIVED : POStatus.PARTIALLY_RECEIVED);
+            outbox.record(OrderEventOutbox.PURCHASE_ORDER, order.getId(), order.getStatus());
+            PurchaseOrderResponseDTO response = mapper.toResponse(poRepo.save(order));
+            outcome = complete ? "received" : "partial";
+            return response;
+        } finally {
+            metrics.purchaseOrder(sample, "receive", outcome);
+        }
     }
 
     private void applyModificationsForSimpleOrder(PurchaseOrder order) {
+        postReceipt(order, outstanding(order));
+    }
+
+    private void postReceipt(PurchaseOrder order, Map<POLine, Integer> received) {
+        if (received.isEmpty()) return;
+
+        Warehouse warehouse = Optional.ofNullable(order.getWarehouse())
+                .orElseThrow(() -> new IllegalStateException(
+                        "Purchase order " + order.getId() + " has no warehouse to receive into"));
+
+        Map<Long, Integer> qtyByProductId = new LinkedHashMap<>();
+        received.forEach((line, qty) -> {
+            qtyByProductId.merge(line.getProduct().getId(), qty, Integer::sum);
+            line.setQtyReceived(line.getQtyReceived() + qty);
+        });
+        receiptPoster.post(warehouse, qtyByProductId);
+    }
 
+    private static Map<POLine, Integer> outstanding(PurchaseOrder order) {
+        Map<POLine, Integer> outstanding = new LinkedHashMap<>();
+        for (POLine line : order.getLines()) {
+            if (line.getQty() > line.getQtyReceived()) outstanding.put(line, line.getQty() - line.getQtyReceived());
+        }
+        return outstanding;
+    }
+
+    private static Map<POLine, Integer> requested(PurchaseOrder order, List<POLineReceiptDTO> lines) {
+        Map<Long, POLine> byId = order.getLines().stream()
+                .collect(Collectors.toMap(POLine::getId, Function.identity()));
+
+        Map<POLine, Integer> requested = new LinkedHashMap<>();
+        for (POLineReceiptDTO dto : lines) {
+            POLine line = Optional.ofNullable(byId.get(dto.getLineId()))
+                    .orElseThrow(() -> new EntityNotFoundException(
+                            "Line " + dto.getLineId() + " not found in purchase order " + order.getId()));
+
+            int qty = requested.merge(line, dto.getQty(), Integer::sum);
+            if (qty > line.getQty() - line.getQtyReceived()) {
+                throw new IllegalArgumentException("Cannot receive " + qty + " on line " + line.getId()
+                        + ", only " + (line.getQty() - line.getQtyReceived()) + " outstanding");
+            }
+        }
+        return requested;
     }
 
+    /**
+     * Receives a purchase order raised for a backorder. The goods are reserved for the backorder's
+     * line only up to what it still lacks: the allocator may have served it from other stock since,
+     * and whatever is not reserved is posted as plain stock.
+     */
     private void applyModificationsForBackOrder(PurchaseOrder order) {
+        BackorderReceiptEvent event = new BackorderReceiptEvent();
+        event.begin();
+
         Backorder backOrder = (Backorder) order.getOrder();
         SalesOrder salesOrder = backOrder.getSalesOrder();
         Warehouse warehouse = salesOrder.getWarehouse();
@@ -190,27 +410,86 @@ public class PurchaseOrderService {
                 .orElseThrow(() -> new EntityNotFoundException(
                         "No SalesOrderLine found for product ID: " + product.getId()));
 
-        salesOrderLine.setQtyReserved(salesOrderLine.getQtyReserved()+backOrder.getQty());
-        salesOrder.setStatus(OrderStatus.RESERVED);
+        int received = 0;
+        Map<Long, Integer> plainStock = new LinkedHashMap<>();
+        for (Map.Entry<POLine, Integer> outstanding : outstanding(order).entrySet()) {
+            POLine line = outstanding.getKey();
+            line.setQtyReceived(line.getQtyReceived() + outstanding.getValue());
+            if (line.getProduct().getId().equals(product.getId())) {
+                received += outstanding.getValue();
+            } else {
+                plainStock.merge(line.getProduct().getId(), outstanding.getValue(), Integer::sum);
+            }
+        }
 
-        Optional<Inventory> inventory = Optional.ofNullable(inventoryRepo.findTopByProduct_IdAndWarehouse_IdOrderByIdDesc(product.getId(), warehouse.getId()).orElseThrow(() -> new EntityNotFoundException("Inventory of Product not found")));
+        boolean open = backOrder.getStatus() == BackorderStatus.PENDING
+                || backOrder.getStatus() == BackorderStatus.PARTIALLY_FULFILLED;
+        int reserved = open
+                ? Math.min(received, Math.max(0, salesOrderLine.getQtyOrdered() - salesOrderLine.getQtyReserved()))
+                : 0;
+        if (received > reserved) plainStock.merge(product.getId(), received - reserved, Integer::sum);
+
+        if (reserved > 0) {
+            Inventory inventory = inventoryRepo.findTopByProduct_IdAndWarehouse_IdOrderByIdDesc(product.getId(), warehouse.getId())
+                    .orElseThrow(() -> new EntityNotFoundException("Inventory of Product not found"));
+
+            // the goods arrive already reserved for the backorder; a relative UPDATE so reservations
+            // committed since the row was read are kept
+            inventoryRepo.addOnHandReserved(inventory.getId(), reserved);
+            availabilityCache.adjust(inventory, reserved, reserved);
+            salesOrderLine.setQtyReserved(salesOrderLine.getQtyReserved() + reserved);
+        }
+        if (!plainStock.isEmpty()) receiptPoster.post(warehouse, plainStock);
 
-        inventory.get().setQtyOnHand(inventory.get().getQtyOnHand()+backOrder.getQty());
-        inventory.get().setQtyReserved(inventory.get().getQtyReserved()+backOrder.getQty());
+        if (open) {
+            if (reserved >= backOrder.getQty() || salesOrderLine.getQtyReserved() >= salesOrderLine.getQtyOrdered()) {
+                backOrder.setStatus(BackorderStatus.FULFILLED);
+            } else {
+                backOrder.setQty(backOrder.getQty() - reserved);
+                backOrder.setStatus(BackorderStatus.PARTIALLY_FULFILLED);
+            }
+        }
+        // lines of inactive products are skipped by reserve(), they cannot hold an order back
+        boolean fullyReserved = salesOrder.getLines().stream()
+                .filter(line -> line.getProduct().isActive())
+                .allMatch(line -> line.getQtyReserved() >= line.getQtyOrdered());
+        if (salesOrder.getStatus() == OrderStatus.BACKORDER && fullyReserved) {
+            salesOrder.setStatus(OrderStatus.RESERVED);
+            outbox.record(OrderEventOutbox.SALES_ORDER, salesOrder.getId(), OrderStatus.RESERVED);
+        }
 
-        backOrder.setStatus(BackorderStatus.FULFILLED);
-        inventoryRepo.save(inventory.get());
         salesOrderLineRepo.save(salesOrderLine);
         salesOrderRepo.save(salesOrder);
         backorderRepo.save(backOrder);
+        allocator.track(backOrder);
+
+        event.purchaseOrderId = Objects.requireNonNullElse(order.getId(), 0L);
+        event.backorderId = Objects.requireNonNullElse(backOrder.getId(), 0L);
+        event.productId = Objects.requireNonNullElse(product.getId(), 0L);
+        event.qty = received;
+        event.commit();
     }
 
-    public List<PurchaseOrderResponseDTO> list() {
-        return poRepo.findAll().stream().map(mapper::toResponse).toList();
+    @Transactional(readOnly = true)
+    public Page<PurchaseOrderResponseDTO> list(Pageable pageable) {
+        Page<Long> ids = poRepo.findPageOfIds(pageable);
+        Map<Long, PurchaseOrder> orders = loadWithDetails(ids.getContent());
+        return ids.map(id -> mapper.toResponse(orders.get(id)));
     }
 
+    @Transactional(readOnly = true)
     public List<PurchaseOrderResponseDTO> findBySupplier(Long supplierId) {
-        return poRepo.findBySupplier_Id(supplierId).stream().map(mapper::toResponse).toList();
+        List<Long> ids = poRepo.findIdsBySupplierId(supplierId);
+        Map<Long, PurchaseOrder> orders = loadWithDetails(ids);
+        return ids.stream().map(id -> mapper.toResponse(orders.get(id))).toList();
+    }
+
+    /** Loads supplier, lines, products and the linked order together instead of one lazy load per row. */
+    private Map<Long, PurchaseOrder> loadWithDetails(List<Long> ids) {
+        if (ids.isEmpty()) return Map.of();
+
+        return poRepo.findAllWithDetailsByIdIn(ids).stream()
+                .collect(Collectors.toMap(PurchaseOrder::getId, Function.identity()));
     }
 
     public void delete(Long id) {
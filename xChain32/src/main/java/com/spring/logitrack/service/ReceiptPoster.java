@@ -0,0 +1,89 @@
+package com.spring.logitrack.service;
+
+import com.spring.logitrack.entity.Inventory;
+import com.spring.logitrack.entity.InventoryMovement;
+import com.spring.logitrack.entity.Product;
+import com.spring.logitrack.entity.Warehouse;
+import com.spring.logitrack.entity.enums.MovementType;
+import com.spring.logitrack.exception.StockConflictException;
+import com.spring.logitrack.repository.InventoryMovementRepository;
+import com.spring.logitrack.repository.InventoryRepository;
+import jakarta.persistence.EntityManager;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Posts received goods to the inventories of a warehouse with a fixed number of statements,
+ * however many products the receipt holds: one SELECT for the existing inventories, one batch
+ * inserting the missing ones, one set-based UPDATE of qty_on_hand and one batch of INBOUND
+ * movements. The availability cache is adjusted after commit, which in turn hands the new stock
+ * to the backorders waiting for it.
+ * <p>
+ * The UPDATE bypasses the persistence context: Inventory entities the calling transaction
+ * already holds keep their previous qtyOnHand.
+ */
+@Component
+@RequiredArgsConstructor
+public class ReceiptPoster {
+
+    private final InventoryRepository inventoryRepo;
+    private final InventoryMovementRepository movementRepo;
+    private final InventoryAvailabilityCache availabilityCache;
+    private final EntityManager entityManager;
+
+    /** Adds the received quantity of each product (all positive) to its inventory in the warehouse. */
+    public void post(Warehouse warehouse, Map<Long, Integer> qtyByProductId) {
+        if (qtyByProductId.isEmpty()) return;
+
+        Map<Long, Inventory> inventories = new HashMap<>();
+        // the latest row of a (product, warehouse) pair wins, as in findTopBy...OrderByIdDesc
+        inventoryRepo.findAllByWarehouse_IdAndProduct_IdIn(warehouse.getId(), qtyByProductId.keySet())
+                .forEach(inv -> inventories.merge(inv.getProduct().getId(), inv,
+                        (a, b) -> a.getId() > b.getId() ? a : b));
+
+        List<Inventory> created = new ArrayList<>();
+        for (Long productId : qtyByProductId.keySet()) {
+            if (inventories.containsKey(productId)) continue;
+
+            Inventory inventory = Inventory.builder()
+                    .warehouse(warehouse)
+                    .product(entityManager.getReference(Product.class, productId))
+                    .qtyOnHand(0)
+                    .qtyReserved(0)
+                    .build();
+            inventories.put(productId, inventory);
+            created.add(inventory);
+        }
+        if (!created.isEmpty()) {
+            inventoryRepo.saveAll(created);
+            // the rows must exist before the UPDATE and the movements reach them
+            inventoryRepo.flush();
+        }
+
+        Map<Long, Integer> qtyByInventoryId = new LinkedHashMap<>();
+        qtyByProductId.forEach((productId, qty) -> qtyByInventoryId.put(inventories.get(productId).getId(), qty));
+        if (inventoryRepo.receiveAll(qtyByInventoryId) != qtyByInventoryId.size()) {
+            throw new StockConflictException("Inventories of warehouse " + warehouse.getId()
+                    + " were removed while receiving goods");
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        movementRepo.appendAll(qtyByProductId.entrySet().stream()
+                .map(e -> InventoryMovement.builder()
+                        .inventory(inventories.get(e.getKey()))
+                        .type(MovementType.INBOUND)
+                        .qty(e.getValue())
+                        .occurredAt(now)
+                        .build())
+                .toList());
+
+        qtyByProductId.forEach((productId, qty) -> availabilityCache.adjust(inventories.get(productId), qty, 0));
+    }
+}
@@ -1,43 +1,169 @@
 package com.spring.logitrack.service;
-import lombok.RequiredArgsConstructor;
+
+import com.spring.logitrack.jfr.S3UploadEvent;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import org.springframework.web.multipart.MultipartFile;
+import software.amazon.awssdk.core.exception.SdkException;
 import software.amazon.awssdk.core.sync.RequestBody;
 import software.amazon.awssdk.services.s3.S3Client;
+import software.amazon.awssdk.services.s3.model.CompletedPart;
+import software.amazon.awssdk.services.s3.model.ObjectIdentifier;
 import software.amazon.awssdk.services.s3.model.PutObjectRequest;
 
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
 
 
 @Service
-@RequiredArgsConstructor
 public class S3Service {
 
+    // files above this size go through a multipart upload, one part in memory at a time
+    static final long MULTIPART_THRESHOLD = 16L * 1024 * 1024;
+    static final int PART_SIZE = 8 * 1024 * 1024;
+
+    private static final String KEY_PREFIX = "uploads/";
+
     private final S3Client s3Client;
+    private final Executor uploadExecutor;
+    private final String bucketName;
+    private final OperationMetrics metrics;
 
-    @Value("${aws.s3.bucket}")
-    private String bucketName;
+    public S3Service(S3Client s3Client,
+                     @Qualifier("s3UploadExecutor") Executor uploadExecutor,
+                     @Value("${aws.s3.bucket}") String bucketName,
+                     OperationMetrics metrics) {
+        this.s3Client = s3Client;
+        this.uploadExecutor = uploadExecutor;
+        this.bucketName = bucketName;
+        this.metrics = metrics;
+    }
 
+    /**
+     * Streams the file to S3 without buffering it on heap, and returns its public url.
+     */
     public String uploadFile(MultipartFile file) {
+        String key = KEY_PREFIX + UUID.randomUUID() + "_" + file.getOriginalFilename();
+        boolean multipart = file.getSize() > MULTIPART_THRESHOLD;
+        Timer.Sample sample = metrics.start();
+        String outcome = OperationMetrics.FAILED;
+        S3UploadEvent event = new S3UploadEvent();
+        event.begin();
         try {
-            String uniqueFileName = UUID.randomUUID() + "_" + file.getOriginalFilename();
-            String key = "uploads/" + uniqueFileName;
-
-            PutObjectRequest request = PutObjectRequest.builder()
-                    .bucket(bucketName)
-                    .key(key)
-                    .contentType(file.getContentType())
-                    .build();
-
-            s3Client.putObject(request, RequestBody.fromBytes(file.getBytes()));
+            if (multipart) {
+                uploadMultipart(key, file);
+            } else {
+                PutObjectRequest request = PutObjectRequest.builder()
+                        .bucket(bucketName)
+                        .key(key)
+                        .contentType(file.getContentType())
+                        .build();
 
+                try (InputStream in = file.getInputStream()) {
+                    s3Client.putObject(request, RequestBody.fromInputStream(in, file.getSize()));
+                }
+            }
+            outcome = "success";
             return "https://" + bucketName + ".s3.amazonaws.com/" + key;
-        } catch (Exception e) {
-            e.printStackTrace();
-            System.err.println("Upload error: " + e.getMessage());
+        } catch (IOException | SdkException e) {
             throw new RuntimeException("Failed to upload file: " + e.getMessage(), e);
+        } finally {
+            metrics.upload(sample, multipart ? "multipart" : "single", outcome, file.getSize());
+            event.key = key;
+            event.bytes = file.getSize();
+            event.multipart = multipart;
+            event.success = !OperationMetrics.FAILED.equals(outcome);
+            event.commit();
+        }
+    }
+
+    /**
+     * Uploads the files concurrently on the upload executor and returns their urls in order.
+     * If any upload fails, the files already stored are deleted again before the error is rethrown.
+     */
+    public List<String> uploadAll(List<MultipartFile> files) {
+        List<CompletableFuture<String>> uploads = files.stream()
+                .map(file -> CompletableFuture.supplyAsync(() -> uploadFile(file), uploadExecutor))
+                .toList();
+        try {
+            // allOf completes only once every upload is done, so nothing is left in flight
+            CompletableFuture.allOf(uploads.toArray(CompletableFuture[]::new)).join();
+        } catch (CompletionException e) {
+            RuntimeException failure = e.getCause() instanceof RuntimeException re ? re : e;
+            List<String> stored = uploads.stream()
+                    .filter(upload -> !upload.isCompletedExceptionally())
+                    .map(CompletableFuture::join)
+                    .toList();
+            deleteQuietly(stored, failure);
+            throw failure;
         }
+        return uploads.stream().map(CompletableFuture::join).toList();
+    }
 
+    /** Removes previously uploaded files, given the urls returned by uploadFile/uploadAll. */
+    public void deleteAll(List<String> urls) {
+        if (urls.isEmpty()) return;
+        String prefix = "https://" + bucketName + ".s3.amazonaws.com/";
+        List<ObjectIdentifier> keys = urls.stream()
+                .filter(url -> url.startsWith(prefix))
+                .map(url -> ObjectIdentifier.builder().key(url.substring(prefix.length())).build())
+                .toList();
+        if (keys.isEmpty()) return;
+
+        s3Client.deleteObjects(b -> b.bucket(bucketName).delete(d -> d.objects(keys).quiet(true)));
+    }
+
+    /** Best-effort cleanup; a failure is recorded on the original error rather than hiding it. */
+    public void deleteQuietly(List<String> urls, RuntimeException original) {
+        try {
+            deleteAll(urls);
+        } catch (RuntimeException e) {
+            original.addSuppressed(e);
+        }
+    }
+
+    private void uploadMultipart(String key, MultipartFile file) throws IOException {
+        String uploadId = s3Client.createMultipartUpload(b -> b
+                .bucket(bucketName)
+                .key(key)
+                .contentType(file.getContentType())).uploadId();
+
+        try (InputStream in = file.getInputStream()) {
+            List<CompletedPart> parts = new ArrayList<>();
+            byte[] buffer = new byte[PART_SIZE];
+            int read;
+            while ((read = in.readNBytes(buffer, 0, PART_SIZE)) > 0) {
+                int partNumber = parts.size() + 1;
+                String eTag = s3Client.uploadPart(b -> b
+                                .bucket(bucketName)
+                                .key(key)
+                                .uploadId(uploadId)
+                                .partNumber(partNumber),
+                        RequestBody.fromInputStream(new ByteArrayInputStream(buffer, 0, read), read)).eTag();
+                parts.add(CompletedPart.builder().partNumber(partNumber).eTag(eTag).build());
+            }
+
+            s3Client.completeMultipartUpload(b -> b
+                    .bucket(bucketName)
+                    .key(key)
+                    .uploadId(uploadId)
+                    .multipartUpload(m -> m.parts(parts)));
+        } catch (IOException | RuntimeException e) {
+            try {
+                s3Client.abortMultipartUpload(b -> b.bucket(bucketName).key(key).uploadId(uploadId));
+            } catch (SdkException abortFailure) {
+                e.addSuppressed(abortFailure);
+            }
+            throw e;
+        }
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,222 @@
+package com.spring.logitrack.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.spring.logitrack.dto.salesOrder.SalesOrderCreateDTO;
+import com.spring.logitrack.dto.salesOrder.SalesOrderImportItemDTO;
+import com.spring.logitrack.dto.salesOrder.SalesOrderImportResultDTO;
+import com.spring.logitrack.dto.salesOrderLine.SalesOrderLineCreateDTO;
+import com.spring.logitrack.entity.*;
+import com.spring.logitrack.entity.enums.OrderStatus;
+import com.spring.logitrack.repository.ProductRepository;
+import com.spring.logitrack.repository.SalesOrderRepository;
+import com.spring.logitrack.repository.UserRepository;
+import com.spring.logitrack.repository.WarehouseRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.validation.Validator;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Bulk ingest of sales orders sent as newline-delimited JSON, one SalesOrderCreateDTO per line.
+ * <p>
+ * Orders are handled in chunks: the clients, warehouses and products a chunk refers to are
+ * loaded with one IN-query each, the orders are validated in parallel, and the valid ones are
+ * committed together in one transaction. A failing order never blocks the rest of the file.
+ */
+@Service
+public class SalesOrderImportService {
+
+    static final int CHUNK_SIZE = 500;
+
+    private final SalesOrderRepository orderRepo;
+    private final UserRepository userRepo;
+    private final WarehouseRepository warehouseRepo;
+    private final ProductRepository productRepo;
+    private final ObjectMapper objectMapper;
+    private final Validator validator;
+    private final EntityManager entityManager;
+    private final TransactionTemplate transactionTemplate;
+
+    public SalesOrderImportService(SalesOrderRepository orderRepo, UserRepository userRepo,
+                                   WarehouseRepository warehouseRepo, ProductRepository productRepo,
+                                   ObjectMapper objectMapper, Validator validator, EntityManager entityManager,
+                                   PlatformTransactionManager transactionManager) {
+        this.orderRepo = orderRepo;
+        this.userRepo = userRepo;
+        this.warehouseRepo = warehouseRepo;
+        this.productRepo = productRepo;
+        this.objectMapper = objectMapper;
+        this.validator = validator;
+        this.entityManager = entityManager;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    public SalesOrderImportResultDTO importNdjson(InputStream in) {
+        SalesOrderImportResultDTO result = new SalesOrderImportResultDTO();
+        List<Row> chunk = new ArrayList<>(CHUNK_SIZE);
+
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8))) {
+            String text;
+            int lineNumber = 0;
+            while ((text = reader.readLine()) != null) {
+                lineNumber++;
+                if (text.isBlank()) continue;
+
+                chunk.add(parse(lineNumber, text));
+                if (chunk.size() == CHUNK_SIZE) {
+                    processChunk(chunk, result);
+                    chunk.clear();
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not read import stream", e);
+        }
+        if (!chunk.isEmpty()) processChunk(chunk, result);
+
+        return result;
+    }
+
+    private Row parse(int lineNumber, String text) {
+        Row row = new Row(lineNumber);
+        try {
+            row.dto = objectMapper.readValue(text, SalesOrderCreateDTO.class);
+        } catch (JsonProcessingException e) {
+            row.errors.add("Malformed JSON: " + e.getOriginalMessage());
+        }
+        return row;
+    }
+
+    private void processChunk(List<Row> chunk, SalesOrderImportResultDTO result) {
+        List<Row> parsed = chunk.stream().filter(r -> r.dto != null).toList();
+
+        // ids are collected before validation: a missing one must reject its row, not fail the chunk
+        Map<Long, User> clients = byId(userRepo.findAllById(ids(parsed, dto -> Collections.singletonList(dto.getClientId()))), User::getId);
+        Map<Long, Warehouse> warehouses = byId(warehouseRepo.findAllById(ids(parsed, dto -> Collections.singletonList(dto.getWarehouseId()))), Warehouse::getId);
+        Map<Long, Product> products = byId(productRepo.findAllById(ids(parsed, dto -> dto.getLines() == null ? List.of()
+                : dto.getLines().stream().filter(Objects::nonNull).map(SalesOrderLineCreateDTO::getProductId).toList())), Product::getId);
+
+        // validation only reads the maps above, so rows are independent of each other
+        parsed.parallelStream().forEach(row -> validate(row, clients, warehouses, products));
+
+        List<Row> valid = parsed.stream().filter(r -> r.order != null).toList();
+        if (!valid.isEmpty()) persist(valid);
+
+        for (Row row : chunk) {
+            boolean imported = row.order != null && row.order.getId() != null;
+            List<String> messages = new ArrayList<>(row.errors);
+            messages.addAll(row.warnings);
+            result.getResults().add(new SalesOrderImportItemDTO(
+                    row.line, imported ? row.order.getId() : null, imported, messages));
+            if (imported) result.setImported(result.getImported() + 1);
+            else result.setRejected(result.getRejected() + 1);
+        }
+        result.setTotal(result.getTotal() + chunk.size());
+    }
+
+    private void validate(Row row, Map<Long, User> clients, Map<Long, Warehouse> warehouses, Map<Long, Product> products) {
+        SalesOrderCreateDTO dto = row.dto;
+        validator.validate(dto).forEach(v -> row.errors.add(v.getPropertyPath() + " " + v.getMessage()));
+        if (!row.errors.isEmpty()) return;
+
+        User client = clients.get(dto.getClientId());
+        Warehouse warehouse = warehouses.get(dto.getWarehouseId());
+        if (client == null) row.errors.add("Client not found: " + dto.getClientId());
+        if (warehouse == null) row.errors.add("Warehouse not found: " + dto.getWarehouseId());
+
+        SalesOrder order = SalesOrder.builder()
+                .client(client)
+                .warehouse(warehouse)
+                .country(dto.getCountry())
+                .city(dto.getCity())
+                .street(dto.getStreet())
+                .zip(dto.getZip())
+                .status(OrderStatus.CREATED)
+                .build();
+
+        for (SalesOrderLineCreateDTO lineDTO : dto.getLines()) {
+            if (lineDTO == null) {
+                row.errors.add("Line must not be null");
+                continue;
+            }
+            Product product = products.get(lineDTO.getProductId());
+            if (product == null) {
+                row.errors.add("Product not found: " + lineDTO.getProductId());
+                continue;
+            }
+            if (lineDTO.getQtyOrdered() <= 0) {
+                row.errors.add("Quantity must be positive for product " + product.getId());
+                continue;
+            }
+            if (!product.isActive()) {
+                row.warnings.add("Product '" + product.getName() + "' is inactive and was skipped.");
+                continue;
+            }
+
+            SalesOrderLine line = new SalesOrderLine();
+            line.setSalesOrder(order);
+            line.setProduct(product);
+            line.setPrice(product.getPrice());
+            line.setQtyOrdered(lineDTO.getQtyOrdered());
+            line.setQtyReserved(0);
+            order.getLines().add(line);
+        }
+
+        if (row.errors.isEmpty()) row.order = order;
+    }
+
+    private void persist(List<Row> valid) {
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                orderRepo.saveAll(valid.stream().map(r -> r.order).toList());
+                entityManager.flush();
+                entityManager.clear();
+            });
+        } catch (RuntimeException e) {
+            for (Row row : valid) {
+                row.order = null;
+                row.errors.add("Chunk rolled back: " + e.getMessage());
+            }
+        }
+    }
+
+    private static Set<Long> ids(List<Row> rows, Function<SalesOrderCreateDTO, Collection<Long>> extractor) {
+        return rows.stream()
+                .flatMap(r -> extractor.apply(r.dto).stream())
+                .filter(Objects::nonNull)
+                .collect(Collectors.toSet());
+    }
+
+    private static <T> Map<Long, T> byId(List<T> entities, Function<T, Long> id) {
+        return entities.stream().collect(Collectors.toMap(id, Function.identity()));
+    }
+
+    private static class Row {
+        private final int line;
+        private final List<String> errors = new ArrayList<>();
+        private final List<String> warnings = new ArrayList<>();
+        private SalesOrderCreateDTO dto;
+        private SalesOrder order;
+
+        Row(int line) {
+            this.line = line;
+        }
+    }
+}
@@ -10,17 +10,32 @@ import com.spring.logitrack.entity.*;
 import com.spring.logitrack.entity.enums.BackorderStatus;
 import com.spring.logitrack.entity.enums.MovementType;
 import com.spring.logitrack.entity.enums.OrderStatus;
+import com.spring.logitrack.exception.StockConflictException;
+import com.spring.logitrack.jfr.ReservationEvent;
+import com.spring.logitrack.jfr.WarehouseTransferEvent;
 import com.spring.logitrack.mapper.SalesOrderMapper;
 import com.spring.logitrack.repository.*;
+import io.micrometer.core.instrument.Timer;
+import jakarta.persistence.EntityManager;
 import jakarta.persistence.EntityNotFoundException;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.io.OutputStream;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @Service
 public class SalesOrderService {
@@ -36,11 +51,17 @@ public class SalesOrderService {
     private final BackorderService backorderService;
     private final SalesOrderRepository salesOrderRepo;
     private final InventoryRepository inventoryRepo;
+    private final InventoryAvailabilityCache availabilityCache;
+    private final InventorySourcingService sourcingService;
+    private final NdjsonExporter exporter;
+    private final OperationMetrics metrics;
+    private final OrderEventOutbox outbox;
+    private final EntityManager entityManager;
 
     @Autowired
     public SalesOrderService(SalesOrderRepository orderRepo, UserRepository userRepo,
                              WarehouseRepository warehouseRepo, ProductRepository productRepo,
-                             SalesOrderMapper mapper, InventoryRepository inventoryRepository, InventoryService inventoryService , InventoryMovementService inventoryMovementService, BackorderService backorderService, InventoryRepository inventoryRepo, SalesOrderRepository salesOrderRepo) {
+                             SalesOrderMapper mapper, InventoryRepository inventoryRepository, InventoryService inventoryService , InventoryMovementService inventoryMovementService, BackorderService backorderService, InventoryRepository inventoryRepo, SalesOrderRepository salesOrderRepo, InventoryAvailabilityCache availabilityCache, InventorySourcingService sourcingService, NdjsonExporter exporter, OperationMetrics metrics, OrderEventOutbox outbox, EntityManager entityManager) {
         this.orderRepo = orderRepo;
         this.userRepo = userRepo;
         this.warehouseRepo = warehouseRepo;
@@ -52,12 +73,30 @@ public class SalesOrderService {
         this.backorderService = backorderService;
         this.salesOrderRepo = salesOrderRepo;
         this.inventoryRepo = inventoryRepo;
+        this.availabilityCache = availabilityCache;
+        this.sourcingService = sourcingService;
+        this.exporter = exporter;
+        this.metrics = metrics;
+        this.outbox = outbox;
+        this.entityManager = entityManager;
     }
 
-    public List<SalesOrderResponseDTO> list() {
-        return orderRepo.findAll().stream()
-                .map(mapper::toResponse)
-                .toList();
+    /**
+     * Pages over ids first, then loads that page with its client, warehouse and lines in one
+     * fetch-join query; paging a collection fetch directly would be done in memory.
+     */
+    @Transactional(readOnly = true)
+    public Page<SalesOrderResponseDTO> list(Pageable pageable) {
+        Page<Long> ids = orderRepo.findPageOfIds(pageable);
+        Map<Long, SalesOrder> orders = ids.isEmpty() ? Map.of()
+                : orderRepo.findAllWithDetailsByIdIn(ids.getContent()).stream()
+                        .collect(Collectors.toMap(SalesOrder::getId, Function.identity()));
+        return ids.map(id -> mapper.toResponse(orders.get(id)));
+    }
+
+    @Transactional(readOnly = true)
+    public long export(OutputStream out) {
+        return exporter.write(orderRepo.streamAllForExport(), mapper::toResponse, out);
     }
 
     public SalesOrderResponseDTO get(Long id) {
@@ -83,9 +122,12 @@ public class SalesOrderService {
                 .build();
 
         List<String> warnings = new ArrayList<>();
+        Map<Long, Product> products = loadProducts(dto.getLines().stream()
+                .map(SalesOrderLineCreateDTO::getProductId)
+                .collect(Collectors.toSet()));
 
         for (SalesOrderLineCreateDTO lineDTO : dto.getLines()) {
-            Product product = productRepo.findById(lineDTO.getProductId())
+            Product product = Optional.ofNullable(products.get(lineDTO.getProductId()))
                     .orElseThrow(() -> new RuntimeException("Product not found"));
 
             if (!product.isActive()) {
@@ -111,86 +153,187 @@ public class SalesOrderService {
         }
     }
 
-    public SalesOrderResponseWithWarningsDTO reserve(Long orderId) {
-        SalesOrder order = orderRepo.findById(orderId)
-                .orElseThrow(() -> new EntityNotFoundException("Sales order not found"));
+    private Map<Long, Product> loadProducts(Set<Long> productIds) {
+        return productRepo.findAllById(productIds).stream()
+                .collect(Collectors.toMap(Product::getId, Function.identity()));
+    }
 
-        if(order.getStatus().equals(OrderStatus.RESERVED)){
-            throw new RuntimeException("This Order already reserved");
-        }
+    @Transactional
+    public SalesOrderResponseWithWarningsDTO reserve(Long orderId) {
+        Timer.Sample sample = metrics.start();
+        String outcome = OperationMetrics.FAILED;
+        ReservationEvent event = new ReservationEvent();
+        event.begin();
+        try {
+            SalesOrder order = orderRepo.findWithLinesById(orderId)
+                    .orElseThrow(() -> new EntityNotFoundException("Sales order not found"));
+            event.lines = order.getLines().size();
 
-        List<String> warnings = new ArrayList<>();
-        Warehouse warehouse = order.getWarehouse();
+            if(order.getStatus().equals(OrderStatus.RESERVED)){
+                throw new RuntimeException("This Order already reserved");
+            }
 
-        for (SalesOrderLine line : order.getLines()) {
-            Product product = line.getProduct();
+            OrderStatus statusBefore = order.getStatus();
+            List<String> warnings = new ArrayList<>();
+            Warehouse warehouse = order.getWarehouse();
+            Map<Long, Inventory> inventories = loadInventories(activeProductIds(order.getLines()), warehouse.getId());
 
-            if (!product.isActive()) {
-                warnings.add("Product '" + product.getName() + "' is inactive and was skipped during reservation.");
-                continue;
-            }
+            // stock is never written back from the loaded entities: every change goes through a
+            // conditional UPDATE so concurrent reservations cannot oversell the same inventory
+            Map<Long, Integer> toReserve = new LinkedHashMap<>();
+            Map<Long, Integer> transferredIn = new HashMap<>();
 
-            Optional<Inventory> optInv = inventoryRepository
-                    .findTopByProduct_IdAndWarehouse_IdOrderByIdDesc(product.getId(), warehouse.getId());
+            for (SalesOrderLine line : order.getLines()) {
+                Product product = line.getProduct();
 
-            if (optInv.isEmpty()) {
-                warnings.add("Inventory not found for SKU '" + product.getSku() + "'.");
-                continue;
-            }
+                if (!product.isActive()) {
+                    warnings.add("Product '" + product.getName() + "' is inactive and was skipped during reservation.");
+                    continue;
+                }
 
-            Inventory inventory = optInv.get();
-            int available = inventory.getQtyOnHand() - inventory.getQtyReserved();
+                Inventory inventory = inventories.get(product.getId());
 
-            if (line.getQtyOrdered() > available) {
-                int qtyNeeded = line.getQtyOrdered() - available;
-                System.out.println("Qyy : "+qtyNeeded);
+                if (inventory == null) {
+                    warnings.add("Inventory not found for SKU '" + product.getSku() + "'.");
+                    continue;
+                }
 
-                Optional<Inventory> optHelper = inventoryService
-                        .getHelperInventory(product.getId(), qtyNeeded, warehouse.getId());
+                int available = inventory.getQtyOnHand() - inventory.getQtyReserved()
+                        + transferredIn.getOrDefault(inventory.getId(), 0)
+                        - toReserve.getOrDefault(inventory.getId(), 0);
+
+                if (line.getQtyOrdered() > available) {
+                    int qtyNeeded = line.getQtyOrdered() - available;
+                    event.helperLookups++;
+
+                    List<InventorySourcingService.Allocation> allocations = sourcingService
+                            .plan(product.getId(), warehouse, qtyNeeded);
+
+                    if (!allocations.isEmpty()) {
+                        for (InventorySourcingService.Allocation allocation : allocations) {
+                            MakeExchangeBetweenWareHouses(allocation.getInventory(), inventory, allocation.getQty());
+                        }
+                        transferredIn.merge(inventory.getId(), qtyNeeded, Integer::sum);
+                        toReserve.merge(inventory.getId(), line.getQtyOrdered(), Integer::sum);
+                        line.setQtyReserved(line.getQtyOrdered());
+                        order.setStatus(OrderStatus.RESERVED);
+                    } else {
+                        // Create backorder
+                        OrderCreateDTO backorder = new OrderCreateDTO();
+                        backorder.setSalesOrderId(order.getId());
+                        backorder.setType("BACKORDER");
+                        backorder.setProductId(product.getId());
+                        backorder.setQty(qtyNeeded);
+                        backorder.setExtraQty(0);
+                        backorder.setStatus(BackorderStatus.PENDING);
+                        backorderService.create(backorder);
+                        event.backorders++;
+
+                        if (available > 0) toReserve.merge(inventory.getId(), available, Integer::sum);
+                        line.setQtyReserved(available);
+                        order.setStatus(OrderStatus.BACKORDER);
+
+                        warnings.add("Backorder created for SKU '" + product.getSku()
+                                + "' due to insufficient stock (" + qtyNeeded + " units).");
+                    }
 
-                if (optHelper.isPresent()) {
-                    Inventory helper = optHelper.get();
-                    MakeExchangeBetweenWareHouses(helper, inventory, qtyNeeded);
-                    inventory.setQtyOnHand(inventory.getQtyOnHand() + qtyNeeded);
-                    inventory.setQtyReserved(inventory.getQtyReserved() + line.getQtyOrdered());
+                } else {
+                    // enough stock
+                    toReserve.merge(inventory.getId(), line.getQtyOrdered(), Integer::sum);
                     line.setQtyReserved(line.getQtyOrdered());
                     order.setStatus(OrderStatus.RESERVED);
-                } else {
-                    // Create backorder
-                    OrderCreateDTO backorder = new OrderCreateDTO();
-                    backorder.setSalesOrderId(order.getId());
-                    backorder.setType("BACKORDER");
-                    backorder.setProductId(product.getId());
-                    backorder.setQty(qtyNeeded);
-                    backorder.setExtraQty(0);
-                    backorder.setStatus(BackorderStatus.PENDING);
-                    backorderService.create(backorder);
-
-                    inventory.setQtyReserved(inventory.getQtyReserved() + available);
-                    line.setQtyReserved(available);
-                    order.setStatus(OrderStatus.BACKORDER);
-
-                    warnings.add("Backorder created for SKU '" + product.getSku()
-                            + "' due to insufficient stock (" + qtyNeeded + " units).");
                 }
+            }
 
-            } else {
-                // enough stock
-                inventory.setQtyReserved(inventory.getQtyReserved() + line.getQtyOrdered());
-                line.setQtyReserved(line.getQtyOrdered());
-                order.setStatus(OrderStatus.RESERVED);
+            // all reservations are sent together as one JDBC batch
+            assertApplied(inventoryRepository.reserveAll(toReserve), toReserve);
+            adjustCache(inventories.values(), toReserve, 0, 1);
+            if (order.getStatus() != statusBefore) {
+                outbox.record(OrderEventOutbox.SALES_ORDER, order.getId(), order.getStatus());
             }
 
-            inventoryRepository.save(inventory);
+            SalesOrder saved = orderRepo.save(order);
+            outcome = reservationOutcome(order, !transferredIn.isEmpty());
+            return mapper.toResponse(mapper.toResponse(saved), warnings);
+        } finally {
+            metrics.salesOrder(sample, "reserve", outcome);
+            event.orderId = orderId;
+            event.outcome = outcome;
+            event.commit();
         }
+    }
 
-        SalesOrder saved = orderRepo.save(order);
-        return mapper.toResponse(mapper.toResponse(saved), warnings);
+    private static String reservationOutcome(SalesOrder order, boolean transferred) {
+        return switch (order.getStatus()) {
+            case BACKORDER -> "backorder";
+            case RESERVED -> transferred ? "transfer" : "reserved";
+            default -> "skipped";
+        };
+    }
+
+    private Set<Long> activeProductIds(List<SalesOrderLine> lines) {
+        return lines.stream()
+                .map(SalesOrderLine::getProduct)
+                .filter(Product::isActive)
+                .map(Product::getId)
+                .collect(Collectors.toSet());
+    }
+
+    /**
+     * Loads the inventories of the given products in a single query.
+     * When a product has several rows in the warehouse the latest one wins, like
+     * findTopByProduct_IdAndWarehouse_IdOrderByIdDesc.
+     */
+    private Map<Long, Inventory> loadInventories(Set<Long> productIds, Long warehouseId) {
+        if (productIds.isEmpty()) return new HashMap<>();
+
+        return inventoryRepository.findAllByWarehouse_IdAndProduct_IdIn(warehouseId, productIds).stream()
+                .collect(Collectors.toMap(
+                        inv -> inv.getProduct().getId(),
+                        Function.identity(),
+                        (a, b) -> a.getId() > b.getId() ? a : b,
+                        HashMap::new));
+    }
+
+    /**
+     * A zero update count means another transaction consumed the stock between our read and
+     * our conditional update; the whole operation is rolled back and can be retried.
+     */
+    private void assertApplied(int[] counts, Map<Long, Integer> qtyByInventoryId) {
+        int i = 0;
+        for (Long inventoryId : qtyByInventoryId.keySet()) {
+            if (counts[i++] == 0) {
+                throw new StockConflictException("Stock of inventory " + inventoryId
+                        + " changed concurrently, please retry");
+            }
+        }
+    }
+
+    private void adjustCache(Collection<Inventory> inventories, Map<Long, Integer> qtyByInventoryId,
+                             int onHandSign, int reservedSign) {
+        for (Inventory inventory : inventories) {
+            Integer qty = qtyByInventoryId.get(inventory.getId());
+            if (qty != null) {
+                availabilityCache.adjust(inventory, onHandSign * qty, reservedSign * qty);
+            }
+        }
     }
 
     @Transactional
     protected void MakeExchangeBetweenWareHouses(Inventory inventoryHelper, Inventory inventory, int qty) {
-        inventoryHelper.setQtyOnHand(inventoryHelper.getQtyOnHand() - qty);
+        WarehouseTransferEvent event = new WarehouseTransferEvent();
+        event.begin();
+
+        if (inventoryRepository.withdrawAvailable(inventoryHelper.getId(), qty) == 0) {
+            throw new StockConflictException("Stock of inventory " + inventoryHelper.getId()
+                    + " changed concurrently, please retry");
+        }
+        inventoryRepository.addOnHand(inventory.getId(), qty);
+        availabilityCache.adjust(inventoryHelper, -qty, 0);
+        availabilityCache.adjust(inventory, qty, 0);
+        // the bulk UPDATE bypassed the persistence context: a later line of the same product must
+        // plan against what the helper has left, not against the quantities read before
+        entityManager.refresh(inventoryHelper);
 
         InventoryMovementCreateDTO outDTO = new InventoryMovementCreateDTO();
         outDTO.setInventoryId(inventoryHelper.getId());
@@ -202,10 +345,13 @@ public class SalesOrderService {
         inDTO.setType(MovementType.INBOUND);
         inDTO.setQty(qty);
 
-        inventoryRepository.save(inventoryHelper);
-        inventoryRepository.save(inventory);
         inventoryMovementService.create(outDTO);
         inventoryMovementService.create(inDTO);
+
+        event.fromInventoryId = inventoryHelper.getId();
+        event.toInventoryId = inventory.getId();
+        event.qty = qty;
+        event.commit();
     }
 
     public SalesOrderResponseDTO update(Long id, SalesOrderCreateDTO dto) {
@@ -226,6 +372,7 @@ public class SalesOrderService {
         orderRepo.delete(order);
     }
 
+    @Transactional
     public SalesOrderResponseWithWarningsDTO updateStatus(Long id, String status) {
         SalesOrder order = orderRepo.findById(id)
                 .orElseThrow(() -> new RuntimeException("Sales order not found"));
@@ -248,85 +395,109 @@ public class SalesOrderService {
     }
 
     private SalesOrderResponseWithWarningsDTO shipping(SalesOrder order) {
-        List<String> warnings = new ArrayList<>();
-
-        for (SalesOrderLine line : order.getLines()) {
-
-            if(line.getQtyOrdered() != line.getQtyReserved()){
-                warnings.add("Cant Ship the product cuz still not fulfilled : "+line.getProduct().getName());
-                break;
-            }
+        Timer.Sample sample = metrics.start();
+        String outcome = OperationMetrics.FAILED;
+        try {
+            List<String> warnings = new ArrayList<>();
+            Map<Long, Inventory> inventories = loadInventories(productIds(order.getLines()), order.getWarehouse().getId());
+            Map<Long, Integer> toShip = new LinkedHashMap<>();
 
-            Product product = line.getProduct();
+            for (SalesOrderLine line : order.getLines()) {
 
-            Inventory inventory = inventoryRepo.findTopByProduct_IdAndWarehouse_IdOrderByIdDesc(product.getId(), order.getWarehouse().getId())
-                    .orElseThrow(() -> new EntityNotFoundException(
-                            "No inventory found for product ID: " + product.getId()));
+                if(line.getQtyOrdered() != line.getQtyReserved()){
+                    warnings.add("Cant Ship the product cuz still not fulfilled : "+line.getProduct().getName());
+                    break;
+                }
 
-            if (line.getQtyReserved() > 0) {
+                Product product = line.getProduct();
 
-                int newReserved = inventory.getQtyReserved() - line.getQtyReserved();
-                int newQtyOnHand = inventory.getQtyOnHand() - line.getQtyReserved();
-                inventory.setQtyReserved(newReserved);
-                inventory.setQtyOnHand(newQtyOnHand);
+                Inventory inventory = Optional.ofNullable(inventories.get(product.getId()))
+                        .orElseThrow(() -> new EntityNotFoundException(
+                                "No inventory found for product ID: " + product.getId()));
 
+                if (line.getQtyReserved() > 0) {
+                    toShip.merge(inventory.getId(), line.getQtyReserved(), Integer::sum);
+                }
             }
 
-            inventoryRepo.save(inventory);
-        }
-
-        if(warnings.isEmpty()) order.setStatus(OrderStatus.SHIPPED);
-        salesOrderRepo.saveAndFlush(order);
+            if(warnings.isEmpty()) {
+                assertApplied(inventoryRepo.shipAll(toShip), toShip);
+                adjustCache(inventories.values(), toShip, -1, -1);
+                order.setStatus(OrderStatus.SHIPPED);
+                outbox.record(OrderEventOutbox.SALES_ORDER, order.getId(), OrderStatus.SHIPPED);
+            }
+            salesOrderRepo.saveAndFlush(order);
 
 
-        SalesOrderResponseDTO salesOrderResponseDTO = mapper.toResponse(order);
+            SalesOrderResponseDTO salesOrderResponseDTO = mapper.toResponse(order);
 
-        SalesOrderResponseWithWarningsDTO response = mapper.toResponse(salesOrderResponseDTO, warnings);
-        response.setWarnings(warnings);
+            SalesOrderResponseWithWarningsDTO response = mapper.toResponse(salesOrderResponseDTO, warnings);
+            response.setWarnings(warnings);
+            outcome = warnings.isEmpty() ? "shipped" : "unfulfilled";
 
-        return response;
+            return response;
+        } finally {
+            metrics.salesOrder(sample, "ship", outcome);
+        }
     }
 
     protected SalesOrderResponseWithWarningsDTO cancelWhileReserve(SalesOrder order) {
+        Timer.Sample sample = metrics.start();
+        String outcome = OperationMetrics.FAILED;
+        try {
 
-        List<String> warnings = new ArrayList<>();
+            List<String> warnings = new ArrayList<>();
+            Map<Long, Inventory> inventories = loadInventories(productIds(order.getLines()), order.getWarehouse().getId());
+            Map<Long, Integer> toRelease = new LinkedHashMap<>();
 
-        for (SalesOrderLine line : order.getLines()) {
-            Product product = line.getProduct();
+            for (SalesOrderLine line : order.getLines()) {
+                Product product = line.getProduct();
 
-            Inventory inventory = inventoryRepo.findTopByProduct_IdAndWarehouse_IdOrderByIdDesc(product.getId(), order.getWarehouse().getId())
-                    .orElseThrow(() -> new EntityNotFoundException(
-                            "No inventory found for product ID: " + product.getId()));
+                Inventory inventory = Optional.ofNullable(inventories.get(product.getId()))
+                        .orElseThrow(() -> new EntityNotFoundException(
+                                "No inventory found for product ID: " + product.getId()));
 
-            int reservedBefore = line.getQtyReserved();
+                int reservedBefore = line.getQtyReserved();
 
-            if (line.getQtyReserved() > 0) {
+                if (line.getQtyReserved() > 0) {
 
-                int newReserved = inventory.getQtyReserved() - line.getQtyReserved();
-                inventory.setQtyReserved(newReserved);
+                    toRelease.merge(inventory.getId(), line.getQtyReserved(), Integer::sum);
 
-                line.setQtyReserved(0);
+                    line.setQtyReserved(0);
 
-                warnings.add(String.format(
-                        "Reservation of %d units for product '%s' (SKU: %s) has been cancelled.",
-                        reservedBefore,
-                        product.getName(),
-                        product.getSku()
-                ));
+                    warnings.add(String.format(
+                            "Reservation of %d units for product '%s' (SKU: %s) has been cancelled.",
+                            reservedBefore,
+                            product.getName(),
+                            product.getSku()
+                    ));
+                }
             }
-            inventoryRepo.save(inventory);
-        }
 
-        order.setStatus(OrderStatus.CANCELLED);
-        salesOrderRepo.saveAndFlush(order);
+            assertApplied(inventoryRepo.releaseAll(toRelease), toRelease);
+            adjustCache(inventories.values(), toRelease, 0, -1);
+
+            order.setStatus(OrderStatus.CANCELLED);
+            outbox.record(OrderEventOutbox.SALES_ORDER, order.getId(), OrderStatus.CANCELLED);
+            salesOrderRepo.saveAndFlush(order);
 
 
-        SalesOrderResponseDTO salesOrderResponseDTO = mapper.toResponse(order);
+            SalesOrderResponseDTO salesOrderResponseDTO = mapper.toResponse(order);
 
-        SalesOrderResponseWithWarningsDTO response = mapper.toResponse(salesOrderResponseDTO, warnings);
-        response.setWarnings(warnings);
+            SalesOrderResponseWithWarningsDTO response = mapper.toResponse(salesOrderResponseDTO, warnings);
+            response.setWarnings(warnings);
+            outcome = "cancelled";
+
+            return response;
+        } finally {
+            metrics.salesOrder(sample, "cancel", outcome);
+        }
+    }
 
-        return response;
+    private Set<Long> productIds(List<SalesOrderLine> lines) {
+        return lines.stream()
+                .map(line -> line.getProduct().getId())
+                .collect(Collectors.toSet());
     }
 
 }
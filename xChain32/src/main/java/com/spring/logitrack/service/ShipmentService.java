@@ -13,10 +13,11 @@ import com.spring.logitrack.repository.ShipmentRepository;
 import com.spring.logitrack.repository.WarehouseRepository;
 import jakarta.persistence.EntityNotFoundException;
 import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
-import java.util.List;
 
 @Service
 @RequiredArgsConstructor
@@ -25,6 +26,7 @@ public class ShipmentService {
     private final SalesOrderRepository salesOrderRepo;
     private final WarehouseRepository warehouseRepo;
     private final ShipmentMapper mapper;
+    private final OrderEventOutbox outbox;
 
     @Transactional
     public ShipmentResponseDTO create(ShipmentCreateDTO dto) {
@@ -41,6 +43,7 @@ public class ShipmentService {
         }
 
         order.setStatus(OrderStatus.SHIPPED);
+        outbox.record(OrderEventOutbox.SALES_ORDER, order.getId(), OrderStatus.SHIPPED);
 
         shipment.setSalesOrder(order);
         shipment.setWarehouse(warehouse);
@@ -56,10 +59,8 @@ public class ShipmentService {
         return mapper.toResponse(shipment);
     }
 
-    public List<ShipmentResponseDTO> list() {
-        return shipmentRepo.findAll().stream()
-                .map(mapper::toResponse)
-                .toList();
+    public Page<ShipmentResponseDTO> list(Pageable pageable) {
+        return shipmentRepo.findAll(pageable).map(mapper::toResponse);
     }
 
     @Transactional
@@ -90,10 +91,12 @@ public class ShipmentService {
                 .orElseThrow(() -> new EntityNotFoundException("Shipment not found"));
 
         shipment.setStatus(status);
+        outbox.record(OrderEventOutbox.SHIPMENT, shipment.getId(), status);
 
         if (status == ShipmentStatus.DELIVERED) {
             SalesOrder order = shipment.getSalesOrder();
             order.setStatus(OrderStatus.DELIVERED);
+            outbox.record(OrderEventOutbox.SALES_ORDER, order.getId(), OrderStatus.DELIVERED);
         }
 
         return mapper.toResponse(shipmentRepo.save(shipment));
@@ -0,0 +1,14 @@
+package com.spring.logitrack.service;
+
+import com.spring.logitrack.entity.Inventory;
+import com.spring.logitrack.entity.Warehouse;
+
+/**
+ * Cost of sourcing stock from a candidate inventory into the destination warehouse.
+ * Lower is better; a non-finite cost excludes the candidate. Declare another bean as
+ * {@code @Primary} to plug in a different ranking.
+ */
+@FunctionalInterface
+public interface SourcingCostFunction {
+    double cost(Inventory candidate, Warehouse destination);
+}
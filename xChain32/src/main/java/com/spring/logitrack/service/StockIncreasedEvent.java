@@ -0,0 +1,8 @@
+package com.spring.logitrack.service;
+
+/**
+ * Published by {@link InventoryAvailabilityCache} once a committed change left more stock
+ * available to promise for a product in a warehouse than before, whatever wrote it.
+ */
+public record StockIncreasedEvent(Long productId, Long warehouseId) {
+}
@@ -7,11 +7,12 @@ import com.spring.logitrack.mapper.SupplierMapper;
 import com.spring.logitrack.repository.SupplierRepository;
 import jakarta.persistence.EntityNotFoundException;
 import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
-import java.util.List;
 
 @Service
 @RequiredArgsConstructor
@@ -32,8 +33,8 @@ public class SupplierService {
     }
 
     @Transactional(readOnly = true)
-    public List<SupplierResponseDTO> list() {
-        return repo.findAll().stream().map(mapper::toResponse).toList();
+    public Page<SupplierResponseDTO> list(Pageable pageable) {
+        return repo.findAll(pageable).map(mapper::toResponse);
     }
 
     @Transactional(readOnly = true)
@@ -0,0 +1,59 @@
+package com.spring.logitrack.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.oauth2.core.OAuth2Error;
+import org.springframework.security.oauth2.core.OAuth2TokenValidator;
+import org.springframework.security.oauth2.core.OAuth2TokenValidatorResult;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Cut-off instants per user: tokens issued before a user's cut-off are rejected.
+ * <p>
+ * Checked in memory on every request, so revocation costs no SQL. Entries older than the
+ * refresh token lifetime are dropped, since every token they could reject has expired anyway.
+ * The list lives in this node only.
+ */
+@Component
+public class TokenRevocationService implements OAuth2TokenValidator<Jwt> {
+
+    private static final OAuth2Error REVOKED = new OAuth2Error("invalid_token", "Token has been revoked", null);
+
+    private final Map<Long, Instant> revokedBefore = new ConcurrentHashMap<>();
+    private final Duration retention;
+
+    public TokenRevocationService(@Value("${security.jwt.refresh-ttl:P7D}") Duration retention) {
+        this.retention = retention;
+    }
+
+    public void revokeAll(Long userId) {
+        revokeAll(userId, Instant.now());
+    }
+
+    void revokeAll(Long userId, Instant now) {
+        revokedBefore.values().removeIf(cutOff -> cutOff.isBefore(now.minus(retention)));
+        // iat has second precision: a token signed later in the same second as the revocation must
+        // stay valid, so the cut-off is the start of that second and only earlier tokens are rejected
+        revokedBefore.put(userId, now.truncatedTo(ChronoUnit.SECONDS));
+    }
+
+    public boolean isRevoked(Long userId, Instant issuedAt) {
+        Instant cutOff = revokedBefore.get(userId);
+        return cutOff != null && (issuedAt == null || issuedAt.isBefore(cutOff));
+    }
+
+    @Override
+    public OAuth2TokenValidatorResult validate(Jwt jwt) {
+        Number userId = jwt.getClaim(TokenService.USER_ID_CLAIM);
+        if (userId == null || isRevoked(userId.longValue(), jwt.getIssuedAt())) {
+            return OAuth2TokenValidatorResult.failure(REVOKED);
+        }
+        return OAuth2TokenValidatorResult.success();
+    }
+}
@@ -0,0 +1,128 @@
+package com.spring.logitrack.service;
+
+import com.spring.logitrack.dto.user.TokenResponseDTO;
+import com.spring.logitrack.dto.user.UserResponseDTO;
+import com.spring.logitrack.entity.User;
+import com.spring.logitrack.mapper.UserMapper;
+import com.spring.logitrack.repository.UserRepository;
+import com.nimbusds.jose.jwk.source.ImmutableSecret;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.oauth2.core.DelegatingOAuth2TokenValidator;
+import org.springframework.security.oauth2.core.OAuth2Error;
+import org.springframework.security.oauth2.core.OAuth2TokenValidatorResult;
+import org.springframework.security.oauth2.jose.jws.MacAlgorithm;
+import org.springframework.security.oauth2.jwt.*;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.crypto.SecretKey;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Issues and refreshes HMAC-signed JWTs. Access tokens carry everything a request needs
+ * (subject, user id, roles), so validating one is a signature check plus an in-memory
+ * revocation lookup: no SQL and no BCrypt.
+ */
+@Service
+public class TokenService {
+
+    static final String USER_ID_CLAIM = "uid";
+    static final String ROLES_CLAIM = "roles";
+    static final String TYPE_CLAIM = "typ";
+
+    private static final String ACCESS = "access";
+    private static final String REFRESH = "refresh";
+
+    private final UserRepository userRepository;
+    private final UserMapper userMapper;
+    private final TokenRevocationService revocations;
+    private final JwtEncoder encoder;
+    private final JwtDecoder accessDecoder;
+    private final JwtDecoder refreshDecoder;
+    private final Duration accessTtl;
+    private final Duration refreshTtl;
+
+    public TokenService(UserRepository userRepository,
+                        UserMapper userMapper,
+                        TokenRevocationService revocations,
+                        @Value("${security.jwt.secret}") String secret,
+                        @Value("${security.jwt.access-ttl:PT15M}") Duration accessTtl,
+                        @Value("${security.jwt.refresh-ttl:P7D}") Duration refreshTtl) {
+        if (secret.getBytes(StandardCharsets.UTF_8).length < 32) {
+            throw new IllegalStateException("security.jwt.secret must be at least 32 bytes for HS256");
+        }
+        SecretKey key = new SecretKeySpec(secret.getBytes(StandardCharsets.UTF_8), "HmacSHA256");
+
+        this.userRepository = userRepository;
+        this.userMapper = userMapper;
+        this.revocations = revocations;
+        this.encoder = new NimbusJwtEncoder(new ImmutableSecret<>(key));
+        this.accessDecoder = decoder(key, ACCESS);
+        this.refreshDecoder = decoder(key, REFRESH);
+        this.accessTtl = accessTtl;
+        this.refreshTtl = refreshTtl;
+    }
+
+    /** Decoder used by the resource server filter; rejects refresh tokens and revoked users. */
+    public JwtDecoder accessTokenDecoder() {
+        return accessDecoder;
+    }
+
+    public TokenResponseDTO issue(UserResponseDTO user) {
+        Instant now = Instant.now();
+
+        TokenResponseDTO dto = new TokenResponseDTO();
+        dto.setAccessToken(encode(user, ACCESS, now, accessTtl));
+        dto.setRefreshToken(encode(user, REFRESH, now, refreshTtl));
+        dto.setExpiresIn(accessTtl.toSeconds());
+        dto.setUser(user);
+        return dto;
+    }
+
+    /** Trades a valid refresh token for a new pair, re-reading the user so role changes apply. */
+    @Transactional(readOnly = true)
+    public TokenResponseDTO refresh(String refreshToken) {
+        Jwt jwt;
+        try {
+            jwt = refreshDecoder.decode(refreshToken);
+        } catch (JwtException e) {
+            throw new IllegalArgumentException("Invalid refresh token");
+        }
+
+        Number userId = jwt.getClaim(USER_ID_CLAIM);
+        User user = userRepository.findById(userId.longValue())
+                .filter(User::isActive)
+                .orElseThrow(() -> new IllegalArgumentException("Invalid refresh token"));
+
+        return issue(userMapper.toResponse(user));
+    }
+
+    private String encode(UserResponseDTO user, String type, Instant now, Duration ttl) {
+        JwtClaimsSet claims = JwtClaimsSet.builder()
+                .subject(user.getEmail())
+                .issuedAt(now)
+                .expiresAt(now.plus(ttl))
+                .claim(USER_ID_CLAIM, user.getId())
+                .claim(ROLES_CLAIM, List.of(user.getRole()))
+                .claim(TYPE_CLAIM, type)
+                .build();
+        JwsHeader header = JwsHeader.with(MacAlgorithm.HS256).build();
+        return encoder.encode(JwtEncoderParameters.from(header, claims)).getTokenValue();
+    }
+
+    private JwtDecoder decoder(SecretKey key, String type) {
+        NimbusJwtDecoder decoder = NimbusJwtDecoder.withSecretKey(key).macAlgorithm(MacAlgorithm.HS256).build();
+        OAuth2Error wrongType = new OAuth2Error("invalid_token", "Expected a " + type + " token", null);
+        decoder.setJwtValidator(new DelegatingOAuth2TokenValidator<>(
+                JwtValidators.createDefault(),
+                jwt -> type.equals(jwt.getClaimAsString(TYPE_CLAIM))
+                        ? OAuth2TokenValidatorResult.success()
+                        : OAuth2TokenValidatorResult.failure(wrongType),
+                revocations));
+        return decoder;
+    }
+}
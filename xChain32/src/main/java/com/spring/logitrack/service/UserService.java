@@ -1,5 +1,6 @@
 package com.spring.logitrack.service;
 
+import com.spring.logitrack.config.CustomUserDetailsService;
 import com.spring.logitrack.dto.user.UserLoginDTO;
 import com.spring.logitrack.dto.user.UserCreateDTO;
 import com.spring.logitrack.dto.user.UserResponseDTO;
@@ -8,11 +9,14 @@ import com.spring.logitrack.entity.enums.Role;
 import com.spring.logitrack.mapper.UserMapper;
 import com.spring.logitrack.repository.UserRepository;
 import lombok.AllArgsConstructor;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
-import java.util.List;
+import java.util.Objects;
+
 
 @Service
 @AllArgsConstructor
@@ -21,6 +25,8 @@ public class UserService {
     private final UserRepository repo;
     private final UserMapper userMapper;
     private final PasswordEncoder passwordEncoder;
+    private final TokenRevocationService tokenRevocations;
+    private final CustomUserDetailsService userDetailsService;
 
     @Transactional
     public UserResponseDTO register(UserCreateDTO dto) {
@@ -42,7 +48,7 @@ public class UserService {
         User user = repo.findByEmail(dto.getEmail())
                 .orElseThrow(() -> new IllegalArgumentException("Invalid email or password"));
 
-        if (!passwordEncoder.matches(dto.getPassword(), user.getPassword())) {
+        if (!passwordEncoder.matches(dto.getPassword(), user.getPassword()) || !user.isActive()) {
             throw new IllegalArgumentException("Invalid email or password");
         }
 
@@ -57,15 +63,29 @@ public class UserService {
                 && repo.existsByEmail(dto.getEmail())) {
             throw new IllegalArgumentException("Email already exists");
         }
+        String previousEmail = u.getEmail();
+        Role previousRole = u.getRole();
+        boolean previouslyActive = u.isActive();
+        String previousPassword = u.getPassword();
+        boolean passwordChanged = dto.getPassword() != null && !passwordEncoder.matches(dto.getPassword(), previousPassword);
         userMapper.patch(u, dto);
+        // the mapper copies the raw password; it is stored encoded, like on registration
+        u.setPassword(passwordChanged ? passwordEncoder.encode(dto.getPassword()) : previousPassword);
         u = repo.save(u);
+        // issued tokens carry the email and role and were granted to an active user with the old
+        // password; other profile edits leave them valid
+        if (passwordChanged || u.getRole() != previousRole || u.isActive() != previouslyActive
+                || !Objects.equals(u.getEmail(), previousEmail)) {
+            tokenRevocations.revokeAll(u.getId());
+        }
+        userDetailsService.evict(previousEmail);
+        userDetailsService.evict(u.getEmail());
         return userMapper.toResponse(u);
     }
 
     @Transactional(readOnly = true)
-    public List<UserResponseDTO> list() {
-        List<User> users = repo.findAll();
-        return users.stream().map(userMapper::toResponse).toList();
+    public Page<UserResponseDTO> list(Pageable pageable) {
+        return repo.findAll(pageable).map(userMapper::toResponse);
     }
 
     @Transactional(readOnly = true)
@@ -82,5 +102,7 @@ public class UserService {
             u.setActive(false);
             repo.save(u);
         }
+        tokenRevocations.revokeAll(u.getId());
+        userDetailsService.evict(u.getEmail());
     }
 }
@@ -9,10 +9,11 @@ import com.spring.logitrack.mapper.WarehouseMapper;
 import com.spring.logitrack.repository.UserRepository;
 import com.spring.logitrack.repository.WarehouseRepository;
 import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
-import java.util.List;
 import java.util.NoSuchElementException;
 import java.util.Optional;
 
@@ -49,10 +50,8 @@ public class WarehouseService {
         return mapper.toResponse(repository.save(entity));
     }
 
-    public List<WarehouseResponseDTO> list() {
-        return repository.findAll().stream()
-                .map(mapper::toResponse)
-                .toList();
+    public Page<WarehouseResponseDTO> list(Pageable pageable) {
+        return repository.findAll(pageable).map(mapper::toResponse);
     }
 
     public WarehouseResponseDTO getById(Long id) {
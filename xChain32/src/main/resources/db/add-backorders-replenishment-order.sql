@@ -0,0 +1,7 @@
+-- One-off migration for databases created before open backorders were replenished through
+-- consolidated purchase orders. Run it once against PostgreSQL before starting that version.
+--
+-- Existing backorders get no replenishment order, so the next replenishment run orders them.
+
+ALTER TABLE backorders ADD COLUMN IF NOT EXISTS replenishment_order_id bigint
+    CONSTRAINT fk_backorders_replenishment_order REFERENCES purchase_orders (id);
@@ -0,0 +1,8 @@
+-- One-off migration for databases created before backorders were allocated from arriving stock.
+-- Run it once against PostgreSQL; the application can keep running. BackorderAllocator reads the
+-- open backorders (PENDING, PARTIALLY_FULFILLED) through this index at startup, instead of
+-- scanning the whole table, most of which is closed.
+--
+-- CONCURRENTLY does not block writes but cannot run inside a transaction block.
+
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_backorders_status ON backorders (status);
@@ -0,0 +1,25 @@
+-- One-off migration for databases created before purchase orders could be received in parts.
+-- Run it once against PostgreSQL before starting the version that posts receipts to inventory.
+--
+-- Lines of orders already RECEIVED count as fully received, all others as not received yet.
+-- Existing orders get no receiving warehouse: they must be given one before a receipt of their
+-- lines can be posted. The status check is rebuilt to accept PARTIALLY_RECEIVED.
+
+BEGIN;
+
+ALTER TABLE po_lines ADD COLUMN IF NOT EXISTS qty_received integer NOT NULL DEFAULT 0
+    CHECK (qty_received >= 0);
+
+UPDATE po_lines l
+SET qty_received = l.qty
+FROM purchase_orders po
+WHERE po.id = l.purchase_order_id
+  AND po.status = 'RECEIVED';
+
+ALTER TABLE purchase_orders ADD COLUMN IF NOT EXISTS warehouse_id bigint REFERENCES warehouses (id);
+
+ALTER TABLE purchase_orders DROP CONSTRAINT IF EXISTS purchase_orders_status_check;
+ALTER TABLE purchase_orders ADD CONSTRAINT purchase_orders_status_check
+    CHECK (status IN ('APPROVED', 'PARTIALLY_RECEIVED', 'RECEIVED'));
+
+COMMIT;
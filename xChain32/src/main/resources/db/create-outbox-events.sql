@@ -0,0 +1,25 @@
+-- One-off migration for databases created before order status changes went through the outbox.
+-- Run it once against PostgreSQL before starting the version that records them.
+--
+-- Ids come from a pooled sequence (allocationSize = 50). The relay takes the unpublished events
+-- in id order through (published_at, id); attempts and last_error track the failures of an event
+-- relayed on its own, and park it once attempts reaches outbox.relay.max-attempts.
+
+BEGIN;
+
+CREATE SEQUENCE IF NOT EXISTS outbox_events_seq START WITH 1 INCREMENT BY 50;
+
+CREATE TABLE IF NOT EXISTS outbox_events (
+    id             bigint       NOT NULL PRIMARY KEY,
+    aggregate_type varchar(32)  NOT NULL,
+    aggregate_id   bigint       NOT NULL,
+    status         varchar(32)  NOT NULL,
+    occurred_at    timestamp(6) NOT NULL,
+    published_at   timestamp(6),
+    attempts       integer      NOT NULL DEFAULT 0,
+    last_error     varchar(500)
+);
+
+CREATE INDEX IF NOT EXISTS idx_outbox_events_published_at ON outbox_events (published_at, id);
+
+COMMIT;
@@ -0,0 +1,26 @@
+-- One-off migration for databases created while these tables still used IDENTITY ids.
+-- Run it once against PostgreSQL before starting the version that generates ids from
+-- pooled sequences (allocationSize = 50). The existing identity columns are left in
+-- place; Hibernate supplies the id on insert from now on.
+--
+-- With the pooled optimizer the sequence value is the upper bound of the block handed
+-- out, so each sequence is moved at least one block past the current max(id).
+
+DO $$
+DECLARE
+    t text;
+BEGIN
+    FOREACH t IN ARRAY ARRAY[
+        'sales_orders',
+        'sales_order_lines',
+        'purchase_orders',
+        'po_lines',
+        'orders',
+        'inventories',
+        'inventory_movements'
+    ]
+    LOOP
+        EXECUTE format('CREATE SEQUENCE IF NOT EXISTS %I START WITH 1 INCREMENT BY 50', t || '_seq');
+        EXECUTE format('SELECT setval(%L, (SELECT COALESCE(MAX(id), 0) + 50 FROM %I))', t || '_seq', t);
+    END LOOP;
+END $$;
@@ -0,0 +1,57 @@
+-- One-off migration turning inventory_movements into a table range-partitioned by month on
+-- occurred_at. Run it once against PostgreSQL while the application is stopped. The ledger
+-- is append-only, so old months can later be detached or dropped without touching live ones.
+--
+-- PostgreSQL requires the partition key in the primary key, hence (id, occurred_at). Rows
+-- outside the pre-created months land in the default partition until
+-- create_inventory_movement_partitions() is run again (e.g. monthly from pg_cron).
+
+CREATE OR REPLACE FUNCTION create_inventory_movement_partition(month_start date) RETURNS void AS $$
+BEGIN
+    EXECUTE format(
+        'CREATE TABLE IF NOT EXISTS %I PARTITION OF inventory_movements FOR VALUES FROM (%L) TO (%L)',
+        format('inventory_movements_%s', to_char(month_start, 'YYYY_MM')),
+        month_start, (month_start + interval '1 month')::date);
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE OR REPLACE FUNCTION create_inventory_movement_partitions(months_ahead int) RETURNS void AS $$
+BEGIN
+    FOR i IN 0..months_ahead LOOP
+        PERFORM create_inventory_movement_partition(
+                (date_trunc('month', now()) + make_interval(months => i))::date);
+    END LOOP;
+END;
+$$ LANGUAGE plpgsql;
+
+BEGIN;
+
+ALTER TABLE inventory_movements RENAME TO inventory_movements_old;
+ALTER INDEX IF EXISTS idx_inventory_movements_inventory_occurred_at
+    RENAME TO idx_inventory_movements_old_inventory_occurred_at;
+
+CREATE TABLE inventory_movements (
+    id           bigint       NOT NULL,
+    inventory_id bigint       NOT NULL REFERENCES inventories (id),
+    type         varchar(255) NOT NULL,
+    qty          integer      NOT NULL CHECK (qty >= 1),
+    occurred_at  timestamp(6) NOT NULL,
+    PRIMARY KEY (id, occurred_at)
+) PARTITION BY RANGE (occurred_at);
+
+CREATE INDEX idx_inventory_movements_inventory_occurred_at
+    ON inventory_movements (inventory_id, occurred_at);
+
+CREATE TABLE inventory_movements_default PARTITION OF inventory_movements DEFAULT;
+
+-- one partition per month already present in the history, plus the upcoming ones
+SELECT create_inventory_movement_partition(month_start)
+FROM (SELECT DISTINCT date_trunc('month', occurred_at)::date AS month_start FROM inventory_movements_old) months;
+SELECT create_inventory_movement_partitions(3);
+
+INSERT INTO inventory_movements (id, inventory_id, type, qty, occurred_at)
+SELECT id, inventory_id, type, qty, occurred_at FROM inventory_movements_old;
+
+DROP TABLE inventory_movements_old;
+
+COMMIT;
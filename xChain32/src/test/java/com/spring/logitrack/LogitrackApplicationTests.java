@@ -1,13 +1,44 @@
 package com.spring.logitrack;
 
+import com.spring.logitrack.service.OperationMetrics;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.prometheusmetrics.PrometheusConfig;
+import io.micrometer.prometheusmetrics.PrometheusMeterRegistry;
 import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.actuate.autoconfigure.metrics.PropertiesMeterFilter;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.core.env.Environment;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
 
 @SpringBootTest(properties = "spring.profiles.active=test")
 class LogitrackApplicationTests {
 
+    @Autowired private Environment environment;
+    @Autowired private PropertiesMeterFilter meterFilter;
+
     @Test
     void contextLoads() {
     }
 
+    @Test
+    void shippedDefaults_areLoaded() {
+        assertThat(environment.getProperty("spring.data.web.pageable.max-page-size")).isEqualTo("200");
+        assertThat(environment.getProperty("management.endpoints.web.exposure.include", String[].class))
+                .contains("health", "metrics", "prometheus", "jfr");
+    }
+
+    @Test
+    void businessTimers_publishHistogramBuckets() {
+        PrometheusMeterRegistry prometheus = new PrometheusMeterRegistry(PrometheusConfig.DEFAULT);
+        prometheus.config().meterFilter(meterFilter);
+
+        Timer.builder(OperationMetrics.SALES_ORDER).register(prometheus).record(Duration.ofMillis(5));
+
+        assertThat(prometheus.scrape()).contains("logitrack_sales_order_seconds_bucket");
+    }
+
 }
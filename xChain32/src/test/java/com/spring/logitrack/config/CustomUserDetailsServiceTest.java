@@ -0,0 +1,96 @@
+package com.spring.logitrack.config;
+
+import com.spring.logitrack.entity.User;
+import com.spring.logitrack.entity.enums.Role;
+import com.spring.logitrack.repository.UserRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.security.core.CredentialsContainer;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.Duration;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ActiveProfiles("test")
+class CustomUserDetailsServiceTest {
+
+    @Mock private UserRepository repo;
+
+    private SimpleMeterRegistry registry;
+    private CustomUserDetailsService service;
+    private User user;
+
+    @BeforeEach
+    void setup() {
+        MockitoAnnotations.openMocks(this);
+        registry = new SimpleMeterRegistry();
+        service = new CustomUserDetailsService(repo, registry, Duration.ofMinutes(5), 100);
+
+        user = new User();
+        user.setEmail("client@test.com");
+        user.setPassword("HASH");
+        user.setRole(Role.CLIENT);
+        user.setActive(true);
+        when(repo.findByEmail("client@test.com")).thenReturn(Optional.of(user));
+    }
+
+    @Test
+    void loadUserByUsername_cachesLookups() {
+        UserDetails first = service.loadUserByUsername("client@test.com");
+        UserDetails second = service.loadUserByUsername("client@test.com");
+
+        assertThat(first.getAuthorities()).extracting("authority").containsExactly("ROLE_CLIENT");
+        assertThat(second.isEnabled()).isTrue();
+        verify(repo, times(1)).findByEmail("client@test.com");
+        assertThat(registry.get("cache.gets").tag("cache", "userDetails").tag("result", "hit")
+                .functionCounter().count()).isEqualTo(1);
+        assertThat(registry.get("cache.gets").tag("cache", "userDetails").tag("result", "miss")
+                .functionCounter().count()).isEqualTo(1);
+    }
+
+    @Test
+    void loadUserByUsername_erasingCallerCopyKeepsCachedHash() {
+        ((CredentialsContainer) service.loadUserByUsername("client@test.com")).eraseCredentials();
+
+        assertThat(service.loadUserByUsername("client@test.com").getPassword()).isEqualTo("HASH");
+    }
+
+    @Test
+    void evict_forcesReload() {
+        service.loadUserByUsername("client@test.com");
+
+        service.evict("client@test.com");
+        service.loadUserByUsername("client@test.com");
+
+        verify(repo, times(2)).findByEmail("client@test.com");
+    }
+
+    @Test
+    void evict_duringLoad_dropsWhatWasLoaded() {
+        when(repo.findByEmail("client@test.com")).thenAnswer(invocation -> {
+            service.evict("client@test.com");
+            return Optional.of(user);
+        }).thenReturn(Optional.of(user));
+
+        service.loadUserByUsername("client@test.com");
+        service.loadUserByUsername("client@test.com");
+
+        verify(repo, times(2)).findByEmail("client@test.com");
+    }
+
+    @Test
+    void loadUserByUsername_unknownUser() {
+        when(repo.findByEmail("nobody@test.com")).thenReturn(Optional.empty());
+
+        assertThatThrownBy(() -> service.loadUserByUsername("nobody@test.com"))
+                .isInstanceOf(UsernameNotFoundException.class);
+    }
+}
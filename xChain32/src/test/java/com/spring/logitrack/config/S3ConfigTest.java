@@ -0,0 +1,49 @@
+package com.spring.logitrack.config;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledForJreRange;
+import org.junit.jupiter.api.condition.JRE;
+import org.springframework.boot.test.context.runner.ApplicationContextRunner;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ThreadPoolExecutor;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class S3ConfigTest {
+
+    private final ApplicationContextRunner runner = new ApplicationContextRunner()
+            .withUserConfiguration(S3Config.class)
+            .withPropertyValues("aws.accessKeyId=test", "aws.secretKey=test", "aws.region=eu-central-1",
+                    "aws.s3.upload-concurrency=2");
+
+    @Test
+    void uploadExecutor_isBoundedPoolOnPlatformThreads() {
+        runner.run(context -> {
+            ThreadPoolExecutor executor = context.getBean("s3UploadExecutor", ThreadPoolExecutor.class);
+            assertThat(executor.getMaximumPoolSize()).isEqualTo(2);
+        });
+    }
+
+    @Test
+    @EnabledForJreRange(min = JRE.JAVA_21)
+    void uploadExecutor_startsLimitedVirtualThreads_whenEnabled() {
+        runner.withPropertyValues("spring.threads.virtual.enabled=true").run(context -> {
+            Executor executor = context.getBean("s3UploadExecutor", Executor.class);
+            assertThat(executor).isInstanceOf(SimpleAsyncTaskExecutor.class);
+            assertThat(((SimpleAsyncTaskExecutor) executor).getConcurrencyLimit()).isEqualTo(2);
+
+            // Thread#isVirtual is Java 21 API, the main build targets 17
+            Object virtual = CompletableFuture.supplyAsync(() -> {
+                try {
+                    return Thread.class.getMethod("isVirtual").invoke(Thread.currentThread());
+                } catch (ReflectiveOperationException e) {
+                    throw new IllegalStateException(e);
+                }
+            }, executor).join();
+            assertThat(virtual).isEqualTo(true);
+        });
+    }
+}
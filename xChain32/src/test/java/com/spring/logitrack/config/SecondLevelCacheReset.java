@@ -0,0 +1,26 @@
+package com.spring.logitrack.config;
+
+import jakarta.persistence.EntityManagerFactory;
+import lombok.RequiredArgsConstructor;
+import org.hibernate.SessionFactory;
+import org.springframework.context.event.ContextRefreshedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+/**
+ * The JCache provider is JVM-wide, so every test context shares the regions of
+ * {@code hibernate-cache.conf} while each one recreates the schema of the same in-memory database.
+ * Clearing them once the new schema is in place keeps a context from reading rows another context
+ * cached before the drop.
+ */
+@Component
+@RequiredArgsConstructor
+class SecondLevelCacheReset {
+
+    private final EntityManagerFactory entityManagerFactory;
+
+    @EventListener(ContextRefreshedEvent.class)
+    void evictRegions() {
+        entityManagerFactory.unwrap(SessionFactory.class).getCache().evictAllRegions();
+    }
+}
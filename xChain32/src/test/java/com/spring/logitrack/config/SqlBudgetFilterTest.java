@@ -0,0 +1,68 @@
+package com.spring.logitrack.config;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.boot.test.system.CapturedOutput;
+import org.springframework.boot.test.system.OutputCaptureExtension;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.*;
+
+@ActiveProfiles("test")
+@ExtendWith(OutputCaptureExtension.class)
+class SqlBudgetFilterTest {
+
+    private final SqlStatementInspector inspector = new SqlStatementInspector();
+
+    @Test
+    void fingerprint_groupsStatementsDifferingOnlyByValues() {
+        assertThat(SqlRequestStats.fingerprint("SELECT * FROM products p\n WHERE p.id = 42 AND p.sku = 'A''1'"))
+                .isEqualTo("select * from products p where p.id = ? and p.sku = ?");
+        assertThat(SqlRequestStats.fingerprint("select * from inventories where id in (?, ?, ?)"))
+                .isEqualTo(SqlRequestStats.fingerprint("select * from inventories where id in (?)"));
+    }
+
+    @Test
+    void inspector_outsideRequest_isNoOp() {
+        assertThat(SqlRequestStats.current()).isNull();
+        assertThat(inspector.inspect("select 1")).isEqualTo("select 1");
+    }
+
+    @Test
+    void withinBudget_addsServerTimingWithoutLogging(CapturedOutput output) throws Exception {
+        SqlBudgetFilter filter = new SqlBudgetFilter(5, Duration.ofSeconds(1));
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        filter.doFilter(new MockHttpServletRequest("GET", "/api/products/1"), response,
+                (req, res) -> inspector.inspect("select * from products where id = ?"));
+
+        assertThat(response.getHeader(SqlBudgetFilter.SERVER_TIMING))
+                .startsWith("db;dur=").endsWith(";desc=\"1 statements\"");
+        assertThat(output).doesNotContain("SQL statements");
+        assertThat(SqlRequestStats.current()).isNull();
+    }
+
+    @Test
+    void overBudget_logsMostRepeatedStatements(CapturedOutput output) throws Exception {
+        SqlBudgetFilter filter = new SqlBudgetFilter(3, Duration.ofSeconds(1));
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        filter.doFilter(new MockHttpServletRequest("GET", "/api/sales-orders"), response, (req, res) -> {
+            inspector.inspect("select * from sales_orders");
+            for (int id = 1; id <= 4; id++) {
+                inspector.inspect("select * from sales_order_lines where sales_order_id = " + id);
+            }
+            res.getWriter().write("[]");
+            res.flushBuffer();
+        });
+
+        assertThat(response.getHeader(SqlBudgetFilter.SERVER_TIMING)).endsWith(";desc=\"5 statements\"");
+        assertThat(output)
+                .contains("GET /api/sales-orders ran 5 SQL statements")
+                .contains("4x select * from sales_order_lines where sales_order_id = ?");
+    }
+}
@@ -0,0 +1,37 @@
+package com.spring.logitrack.config;
+
+import com.spring.logitrack.entity.Product;
+import com.spring.logitrack.repository.ProductRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.math.BigDecimal;
+import java.util.UUID;
+
+import static org.hamcrest.Matchers.matchesPattern;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = "spring.profiles.active=test")
+@AutoConfigureMockMvc
+class SqlInstrumentationTest {
+
+    @Autowired private MockMvc mvc;
+    @Autowired private ProductRepository productRepo;
+
+    @Test
+    void request_reportsHibernateStatementsInServerTiming() throws Exception {
+        Product product = productRepo.save(Product.builder()
+                .sku("SQL-" + UUID.randomUUID().toString().substring(0, 8)).name("Timed product").description("Timed")
+                .price(BigDecimal.TEN).unit("pcs").active(true).build());
+
+        mvc.perform(get("/api/products/" + product.getId()))
+                .andExpect(status().isOk())
+                .andExpect(header().string(SqlBudgetFilter.SERVER_TIMING,
+                        matchesPattern("db;dur=\\d+\\.\\d;desc=\"[1-9]\\d* statements\"")));
+    }
+}
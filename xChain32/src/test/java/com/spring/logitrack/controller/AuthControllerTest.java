@@ -1,6 +1,7 @@
 package com.spring.logitrack.controller;
 
 import com.spring.logitrack.dto.user.*;
+import com.spring.logitrack.service.TokenService;
 import com.spring.logitrack.service.UserService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -22,6 +23,9 @@ class AuthControllerTest {
     @Mock
     private UserService userService;
 
+    @Mock
+    private TokenService tokenService;
+
     @InjectMocks
     private AuthController controller;
 
@@ -60,11 +64,30 @@ class AuthControllerTest {
 
     @Test
     void login_success() {
+        TokenResponseDTO tokens = new TokenResponseDTO();
+        tokens.setAccessToken("access");
+        tokens.setRefreshToken("refresh");
+        tokens.setUser(responseDTO);
         when(userService.login(any())).thenReturn(responseDTO);
+        when(tokenService.issue(responseDTO)).thenReturn(tokens);
 
         ResponseEntity<?> result = controller.login(loginDTO);
 
         assertThat(result.getStatusCode().is2xxSuccessful()).isTrue();
-        assertThat(((UserResponseDTO) result.getBody()).getName()).isEqualTo("John Doe");
+        assertThat(((TokenResponseDTO) result.getBody()).getAccessToken()).isEqualTo("access");
+        assertThat(((TokenResponseDTO) result.getBody()).getUser().getName()).isEqualTo("John Doe");
+    }
+
+    @Test
+    void refresh_success() {
+        TokenRefreshDTO refreshDTO = new TokenRefreshDTO();
+        refreshDTO.setRefreshToken("refresh");
+        TokenResponseDTO tokens = new TokenResponseDTO();
+        tokens.setAccessToken("new-access");
+        when(tokenService.refresh("refresh")).thenReturn(tokens);
+
+        ResponseEntity<?> result = controller.refresh(refreshDTO);
+
+        assertThat(((TokenResponseDTO) result.getBody()).getAccessToken()).isEqualTo("new-access");
     }
 }
@@ -8,6 +8,10 @@ import org.junit.jupiter.api.Test;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.web.PagedModel;
 import org.springframework.http.ResponseEntity;
 import org.springframework.test.context.ActiveProfiles;
 
@@ -51,12 +55,12 @@ class BackorderControllerTest {
 
     @Test
     void list_success() {
-        when(service.list()).thenReturn(List.of(responseDTO));
+        when(service.list(any(Pageable.class))).thenReturn(new PageImpl<>(List.of(responseDTO)));
 
-        ResponseEntity<List<OrderResponseDTO>> result = controller.list();
+        ResponseEntity<PagedModel<OrderResponseDTO>> result = controller.list(PageRequest.of(0, 20));
 
         assertThat(result.getStatusCode().is2xxSuccessful()).isTrue();
-        assertThat(result.getBody()).hasSize(1);
+        assertThat(result.getBody().getContent()).hasSize(1);
     }
 
     @Test
@@ -1,5 +1,6 @@
 package com.spring.logitrack.controller;
 
+import com.spring.logitrack.dto.inventory.InventoryAvailabilityDTO;
 import com.spring.logitrack.dto.inventory.InventoryCreateDTO;
 import com.spring.logitrack.dto.inventory.InventoryResponseDTO;
 import com.spring.logitrack.service.InventoryService;
@@ -8,6 +9,10 @@ import org.junit.jupiter.api.Test;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.web.PagedModel;
 import org.springframework.http.ResponseEntity;
 import org.springframework.test.context.ActiveProfiles;
 
@@ -52,12 +57,12 @@ class InventoryControllerTest {
 
     @Test
     void list_success() {
-        when(service.list()).thenReturn(List.of(responseDTO));
+        when(service.list(any(Pageable.class))).thenReturn(new PageImpl<>(List.of(responseDTO)));
 
-        ResponseEntity<List<InventoryResponseDTO>> result = controller.list();
+        ResponseEntity<PagedModel<InventoryResponseDTO>> result = controller.list(PageRequest.of(0, 20));
 
         assertThat(result.getStatusCode().is2xxSuccessful()).isTrue();
-        assertThat(result.getBody()).hasSize(1);
+        assertThat(result.getBody().getContent()).hasSize(1);
     }
 
     @Test
@@ -99,4 +104,17 @@ class InventoryControllerTest {
         assertThat(result.getStatusCode().is2xxSuccessful()).isTrue();
         verify(service).delete(7L);
     }
+
+    @Test
+    void availability_success() {
+        InventoryAvailabilityDTO availability = new InventoryAvailabilityDTO();
+        availability.setAvailable(7);
+        availability.setPromisable(true);
+        when(service.availability(1L, 2L, 5)).thenReturn(availability);
+
+        ResponseEntity<InventoryAvailabilityDTO> result = controller.availability(1L, 2L, 5);
+
+        assertThat(result.getStatusCode().is2xxSuccessful()).isTrue();
+        assertThat(result.getBody().isPromisable()).isTrue();
+    }
 }
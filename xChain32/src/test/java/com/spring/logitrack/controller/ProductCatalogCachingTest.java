@@ -0,0 +1,75 @@
+package com.spring.logitrack.controller;
+
+import com.spring.logitrack.dto.product.ProductCreateDTO;
+import com.spring.logitrack.entity.Product;
+import com.spring.logitrack.repository.ProductRepository;
+import com.spring.logitrack.service.ProductService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = "spring.profiles.active=test")
+@AutoConfigureMockMvc
+class ProductCatalogCachingTest {
+
+    @Autowired private MockMvc mvc;
+    @Autowired private ProductRepository productRepo;
+    @Autowired private ProductService productService;
+    @Autowired private PlatformTransactionManager transactionManager;
+
+    @Test
+    void get_matchingIfNoneMatch_answers304WithoutBody() throws Exception {
+        Product product = save("Cached product");
+
+        String etag = mvc.perform(get("/api/products/" + product.getId()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.name").value("Cached product"))
+                .andExpect(header().string(HttpHeaders.CACHE_CONTROL, "no-cache, public"))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        mvc.perform(get("/api/products/" + product.getId()).header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string(HttpHeaders.ETAG, etag))
+                .andExpect(content().bytes(new byte[0]));
+    }
+
+    @Test
+    void update_invalidatesCachedProduct() throws Exception {
+        Product product = save("Before update");
+        String etag = mvc.perform(get("/api/products/" + product.getId()))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        ProductCreateDTO patch = new ProductCreateDTO();
+        patch.setName("After update");
+        // the cache is dropped only once this transaction commits
+        new TransactionTemplate(transactionManager).executeWithoutResult(
+                status -> productService.update(product.getId(), patch));
+
+        String renewed = mvc.perform(get("/api/products/" + product.getId()).header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.name").value("After update"))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        assertThat(renewed).isNotEqualTo(etag);
+    }
+
+    private Product save(String name) {
+        return productRepo.save(Product.builder()
+                .sku("CAT-" + UUID.randomUUID().toString().substring(0, 8)).name(name).description("Catalog")
+                .price(BigDecimal.TEN).unit("pcs").active(true).build());
+    }
+}
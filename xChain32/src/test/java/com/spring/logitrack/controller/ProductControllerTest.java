@@ -1,16 +1,30 @@
 package com.spring.logitrack.controller;
 
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.spring.logitrack.dto.product.ProductCreateDTO;
 import com.spring.logitrack.dto.product.ProductResponseDTO;
+import com.spring.logitrack.dto.product.ProductSearchCriteria;
+import com.spring.logitrack.dto.product.ProductSearchHitDTO;
+import com.spring.logitrack.service.CatalogCache;
 import com.spring.logitrack.service.ProductService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
+import org.mockito.Spy;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.web.PagedModel;
 import org.springframework.http.HttpStatus;
 import org.springframework.test.context.ActiveProfiles;
 
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.time.Duration;
 import java.util.List;
 import java.util.Map;
 
@@ -19,14 +33,21 @@ import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.doNothing;
 import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 @ActiveProfiles("test")
 class ProductControllerTest {
 
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
     @Mock
     private ProductService service;
 
+    @Spy
+    private CatalogCache catalogCache = new CatalogCache(objectMapper, new SimpleMeterRegistry(), Duration.ofMinutes(10), 100);
+
     @InjectMocks
     private ProductController controller;
 
@@ -45,32 +66,65 @@ class ProductControllerTest {
     }
 
     @Test
-    void list_success() {
-        when(service.list()).thenReturn(List.of(responseDTO));
+    void list_success() throws IOException {
+        when(service.list(any(Pageable.class))).thenReturn(new PageImpl<>(List.of(responseDTO)));
 
-        var result = controller.list();
+        var result = controller.list(PageRequest.of(0, 20));
 
         assertThat(result.getStatusCode().is2xxSuccessful()).isTrue();
-        assertThat(((List<?>) result.getBody()).size()).isEqualTo(1);
+        assertThat(json(result.getBody()).path("content")).hasSize(1);
+        assertThat(result.getHeaders().getETag()).isNotBlank();
+        assertThat(result.getHeaders().getCacheControl()).contains("private");
+    }
+
+    @Test
+    void list_samePageServedFromCache() {
+        when(service.list(any(Pageable.class))).thenReturn(new PageImpl<>(List.of(responseDTO)));
+
+        var first = controller.list(PageRequest.of(0, 20));
+        var second = controller.list(PageRequest.of(0, 20));
+        controller.list(PageRequest.of(1, 20));
+
+        verify(service, times(2)).list(any(Pageable.class));
+        assertThat(second.getHeaders().getETag()).isEqualTo(first.getHeaders().getETag());
     }
 
     @Test
     void list_exception() {
-        when(service.list()).thenThrow(new RuntimeException("DB Error"));
+        when(service.list(any(Pageable.class))).thenThrow(new RuntimeException("DB Error"));
 
-        var result = controller.list();
+        var result = controller.list(PageRequest.of(0, 20));
 
         assertThat(result.getStatusCode().is5xxServerError()).isTrue();
     }
 
     @Test
-    void get_success() {
+    void get_success() throws IOException {
         when(service.get(10L)).thenReturn(responseDTO);
 
         var result = controller.get(10L);
 
         assertThat(result.getStatusCode().is2xxSuccessful()).isTrue();
-        assertThat(((ProductResponseDTO) result.getBody()).getId()).isEqualTo(1L);
+        assertThat(json(result.getBody()).path("id").asLong()).isEqualTo(1L);
+        assertThat(result.getHeaders().getCacheControl()).contains("no-cache", "public");
+    }
+
+    @Test
+    void get_reloadedAfterInvalidate() throws IOException {
+        when(service.get(10L)).thenReturn(responseDTO);
+        controller.get(10L);
+
+        ProductResponseDTO renamed = new ProductResponseDTO();
+        renamed.setId(1L);
+        renamed.setSku("ABC124");
+        when(service.get(10L)).thenReturn(renamed);
+        var cached = controller.get(10L);
+        catalogCache.invalidate();
+        var reloaded = controller.get(10L);
+
+        assertThat(json(cached.getBody()).path("sku").asText()).isEqualTo("ABC123");
+        assertThat(json(reloaded.getBody()).path("sku").asText()).isEqualTo("ABC124");
+        assertThat(reloaded.getHeaders().getETag()).isNotEqualTo(cached.getHeaders().getETag());
     }
 
     @Test
@@ -82,6 +136,35 @@ class ProductControllerTest {
         assertThat(result.getStatusCode().is4xxClientError()).isTrue();
     }
 
+    @Test
+    void search_success() {
+        ProductSearchHitDTO hit = new ProductSearchHitDTO(1L, "ABC123", "Pallet", "pcs", BigDecimal.TEN, true, 4.2);
+        when(service.search(any(ProductSearchCriteria.class), any(Pageable.class))).thenReturn(new PageImpl<>(List.of(hit)));
+
+        var result = controller.search(new ProductSearchCriteria(), PageRequest.of(0, 20));
+
+        assertThat(result.getStatusCode().is2xxSuccessful()).isTrue();
+        assertThat(((PagedModel<?>) result.getBody()).getContent()).hasSize(1).first().isSameAs(hit);
+    }
+
+    @Test
+    void search_exception() {
+        when(service.search(any(ProductSearchCriteria.class), any(Pageable.class))).thenThrow(new RuntimeException("Index error"));
+
+        var result = controller.search(new ProductSearchCriteria(), PageRequest.of(0, 20));
+
+        assertThat(result.getStatusCode().is5xxServerError()).isTrue();
+    }
+
+    @Test
+    void suggest_capsLimit() {
+        when(service.suggest("pal", 50)).thenReturn(List.of("pallet"));
+
+        var result = controller.suggest("pal", 1000);
+
+        assertThat(result.getBody()).containsExactly("pallet");
+    }
+
     @Test
     void create_success() {
         when(service.create(any())).thenReturn(responseDTO);
@@ -159,4 +242,8 @@ class ProductControllerTest {
 
         assertThat(result.getStatusCode().is4xxClientError()).isTrue();
     }
+
+    private JsonNode json(Object body) throws IOException {
+        return objectMapper.readTree((byte[]) body);
+    }
 }
@@ -1,18 +1,26 @@
 package com.spring.logitrack.controller;
 
 import com.spring.logitrack.dto.salesOrder.SalesOrderCreateDTO;
+import com.spring.logitrack.dto.salesOrder.SalesOrderImportResultDTO;
 import com.spring.logitrack.dto.salesOrder.SalesOrderResponseDTO;
 import com.spring.logitrack.dto.salesOrder.SalesOrderResponseWithWarningsDTO;
 import com.spring.logitrack.dto.salesOrderLine.SalesOrderLineCreateDTO;
+import com.spring.logitrack.service.SalesOrderImportService;
 import com.spring.logitrack.service.SalesOrderService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.web.PagedModel;
 import org.springframework.http.HttpStatus;
 import org.springframework.test.context.ActiveProfiles;
 
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
 import java.util.List;
 import java.util.Map;
 
@@ -27,6 +35,9 @@ class SalesOrderControllerTest {
     @Mock
     private SalesOrderService service;
 
+    @Mock
+    private SalesOrderImportService importService;
+
     @InjectMocks
     private SalesOrderController controller;
 
@@ -63,19 +74,19 @@ class SalesOrderControllerTest {
     // ======================================================================
     @Test
     void list_success() {
-        when(service.list()).thenReturn(List.of(responseOrder));
+        when(service.list(any(Pageable.class))).thenReturn(new PageImpl<>(List.of(responseOrder)));
 
-        var result = controller.list();
+        var result = controller.list(PageRequest.of(0, 20));
 
         assertThat(result.getStatusCode()).isEqualTo(HttpStatus.OK);
-        assertThat(((List<?>) result.getBody()).size()).isEqualTo(1);
+        assertThat(((PagedModel<?>) result.getBody()).getContent().size()).isEqualTo(1);
     }
 
     @Test
     void list_exception() {
-        when(service.list()).thenThrow(new RuntimeException("DB Error"));
+        when(service.list(any(Pageable.class))).thenThrow(new RuntimeException("DB Error"));
 
-        var result = controller.list();
+        var result = controller.list(PageRequest.of(0, 20));
 
         assertThat(result.getStatusCode()).isEqualTo(HttpStatus.INTERNAL_SERVER_ERROR);
     }
@@ -185,6 +196,23 @@ class SalesOrderControllerTest {
                 .isEqualTo("Invalid status");
     }
 
+    // ======================================================================
+    // IMPORT
+    // ======================================================================
+    @Test
+    void importOrders_success() {
+        SalesOrderImportResultDTO report = new SalesOrderImportResultDTO();
+        report.setTotal(3);
+        report.setImported(2);
+        report.setRejected(1);
+        when(importService.importNdjson(any(InputStream.class))).thenReturn(report);
+
+        var result = controller.importOrders(new ByteArrayInputStream(new byte[0]));
+
+        assertThat(result.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(result.getBody().getImported()).isEqualTo(2);
+    }
+
     // ======================================================================
     // DELETE
     // ======================================================================
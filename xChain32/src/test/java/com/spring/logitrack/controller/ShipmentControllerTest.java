@@ -9,6 +9,10 @@ import org.junit.jupiter.api.Test;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.web.PagedModel;
 import org.springframework.http.ResponseEntity;
 import org.springframework.test.context.ActiveProfiles;
 
@@ -65,12 +69,12 @@ class ShipmentControllerTest {
 
     @Test
     void list_success() {
-        when(service.list()).thenReturn(List.of(responseDTO));
+        when(service.list(any(Pageable.class))).thenReturn(new PageImpl<>(List.of(responseDTO)));
 
-        ResponseEntity<List<ShipmentResponseDTO>> result = controller.list();
+        ResponseEntity<PagedModel<ShipmentResponseDTO>> result = controller.list(PageRequest.of(0, 20));
 
         assertThat(result.getStatusCode().is2xxSuccessful()).isTrue();
-        assertThat(result.getBody()).hasSize(1);
+        assertThat(result.getBody().getContent()).hasSize(1);
     }
 
     @Test
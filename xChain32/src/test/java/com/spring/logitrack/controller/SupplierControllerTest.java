@@ -8,6 +8,10 @@ import org.junit.jupiter.api.Test;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.web.PagedModel;
 import org.springframework.http.HttpStatus;
 import org.springframework.test.context.ActiveProfiles;
 
@@ -77,12 +81,12 @@ class SupplierControllerTest {
     // ======================================================================
     @Test
     void list_success() {
-        when(service.list()).thenReturn(List.of(responseDTO));
+        when(service.list(any(Pageable.class))).thenReturn(new PageImpl<>(List.of(responseDTO)));
 
-        var result = controller.list();
+        var result = controller.list(PageRequest.of(0, 20));
 
         assertThat(result.getStatusCode()).isEqualTo(HttpStatus.OK);
-        assertThat(((List<?>) result.getBody()).size()).isEqualTo(1);
+        assertThat(((PagedModel<?>) result.getBody()).getContent().size()).isEqualTo(1);
     }
 
     // ======================================================================
@@ -0,0 +1,70 @@
+package com.spring.logitrack.controller;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.spring.logitrack.entity.User;
+import com.spring.logitrack.entity.enums.Role;
+import com.spring.logitrack.repository.UserRepository;
+import com.spring.logitrack.service.UserService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.Instant;
+import java.util.UUID;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = "spring.profiles.active=test")
+@AutoConfigureMockMvc
+class TokenAuthenticationFlowTest {
+
+    @Autowired private MockMvc mvc;
+    @Autowired private ObjectMapper objectMapper;
+    @Autowired private UserRepository userRepo;
+    @Autowired private UserService userService;
+    @Autowired private PasswordEncoder passwordEncoder;
+
+    @Test
+    void bearerToken_authorizesUntilUserIsDeactivated() throws Exception {
+        String email = "token-admin-" + UUID.randomUUID().toString().substring(0, 8) + "@test.com";
+        User admin = userRepo.save(User.builder()
+                .name("Admin").email(email).password(passwordEncoder.encode("secret1"))
+                .active(true).role(Role.ADMIN).build());
+
+        String body = mvc.perform(post("/api/login")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"email\":\"" + email + "\",\"password\":\"secret1\"}"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        JsonNode tokens = objectMapper.readTree(body);
+        String access = tokens.get("accessToken").asText();
+        String refresh = tokens.get("refreshToken").asText();
+
+        mvc.perform(get("/api/users").header("Authorization", "Bearer " + access))
+                .andExpect(status().isOk());
+        // a refresh token is not accepted as an access token
+        mvc.perform(get("/api/users").header("Authorization", "Bearer " + refresh))
+                .andExpect(status().isUnauthorized());
+
+        // tokens issued in the second of a revocation stay valid, so revoke in a later one
+        long issuedIn = Instant.now().getEpochSecond();
+        while (Instant.now().getEpochSecond() <= issuedIn) {
+            Thread.sleep(50);
+        }
+        userService.delete(admin.getId(), false);
+
+        mvc.perform(get("/api/users").header("Authorization", "Bearer " + access))
+                .andExpect(status().isUnauthorized());
+        mvc.perform(post("/api/token/refresh")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"refreshToken\":\"" + refresh + "\"}"))
+                .andExpect(status().isBadRequest());
+    }
+}
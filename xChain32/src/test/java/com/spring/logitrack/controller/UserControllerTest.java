@@ -9,6 +9,10 @@ import org.junit.jupiter.api.Test;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.web.PagedModel;
 import org.springframework.http.HttpStatus;
 import org.springframework.test.context.ActiveProfiles;
 
@@ -58,19 +62,19 @@ class UserControllerTest {
     // ======================================================================
     @Test
     void list_success() {
-        when(service.list()).thenReturn(List.of(responseDTO));
+        when(service.list(any(Pageable.class))).thenReturn(new PageImpl<>(List.of(responseDTO)));
 
-        var result = controller.list();
+        var result = controller.list(PageRequest.of(0, 20));
 
         assertThat(result.getStatusCode()).isEqualTo(HttpStatus.OK);
-        assertThat(((List<?>) result.getBody()).size()).isEqualTo(1);
+        assertThat(((PagedModel<?>) result.getBody()).getContent().size()).isEqualTo(1);
     }
 
     @Test
     void list_exception() {
-        when(service.list()).thenThrow(new RuntimeException("DB Error"));
+        when(service.list(any(Pageable.class))).thenThrow(new RuntimeException("DB Error"));
 
-        var result = controller.list();
+        var result = controller.list(PageRequest.of(0, 20));
 
         assertThat(result.getStatusCode()).isEqualTo(HttpStatus.INTERNAL_SERVER_ERROR);
         assertThat(((Map<?, ?>) result.getBody()).get("message"))
@@ -0,0 +1,102 @@
+package com.spring.logitrack.jfr;
+
+import com.spring.logitrack.dto.inventory.InventoryResponseDTO;
+import com.spring.logitrack.entity.Inventory;
+import com.spring.logitrack.mapper.InventoryMapper;
+import com.spring.logitrack.repository.InventoryRepository;
+import com.spring.logitrack.service.InventoryAvailabilityCache;
+import com.spring.logitrack.service.InventoryMovementService;
+import com.spring.logitrack.service.InventoryService;
+import jakarta.persistence.EntityManager;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.actuate.endpoint.web.WebEndpointResponse;
+import org.springframework.core.io.Resource;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ActiveProfiles("test")
+class FlightRecordingEndpointTest {
+
+    private final FlightRecordingEndpoint endpoint = new FlightRecordingEndpoint();
+    private Long recordingId;
+
+    @AfterEach
+    void tearDown() {
+        if (recordingId != null) endpoint.stop(recordingId);
+    }
+
+    @Test
+    void startDumpStop_capturesBusinessEvents() throws Exception {
+        FlightRecordingEndpoint.RecordingDescriptor started = endpoint.start("test", null, Duration.ofMinutes(5));
+        recordingId = started.id();
+        assertThat(started.state()).isEqualTo("RUNNING");
+        assertThat(endpoint.recordings()).extracting(FlightRecordingEndpoint.RecordingDescriptor::id).contains(started.id());
+
+        adjustInventory(1L, -2L);
+
+        WebEndpointResponse<Resource> dump = endpoint.dump(started.id());
+        assertThat(dump.getStatus()).isEqualTo(WebEndpointResponse.STATUS_OK);
+
+        Path copy = Files.createTempFile("endpoint-test-", ".jfr");
+        try (InputStream in = dump.getBody().getInputStream()) {
+            Files.copy(in, copy, StandardCopyOption.REPLACE_EXISTING);
+        }
+        assertThat(dump.getBody().exists()).isFalse();
+
+        List<RecordedEvent> adjustments = RecordingFile.readAllEvents(copy).stream()
+                .filter(e -> e.getEventType().getName().equals("logitrack.InventoryAdjustment"))
+                .toList();
+        Files.delete(copy);
+
+        assertThat(adjustments).singleElement().satisfies(event -> {
+            assertThat(event.getLong("inventoryId")).isEqualTo(1L);
+            assertThat(event.getLong("adjustment")).isEqualTo(-2L);
+            assertThat(event.getBoolean("applied")).isTrue();
+        });
+
+        WebEndpointResponse<FlightRecordingEndpoint.RecordingDescriptor> stopped = endpoint.stop(started.id());
+        recordingId = null;
+        assertThat(stopped.getBody().state()).isEqualTo("STOPPED");
+        assertThat(endpoint.recordings()).extracting(FlightRecordingEndpoint.RecordingDescriptor::id)
+                .doesNotContain(started.id());
+    }
+
+    @Test
+    void unknownRecording_isNotFound() {
+        assertThat(endpoint.dump(-1).getStatus()).isEqualTo(WebEndpointResponse.STATUS_NOT_FOUND);
+        assertThat(endpoint.stop(-1).getStatus()).isEqualTo(WebEndpointResponse.STATUS_NOT_FOUND);
+    }
+
+    @Test
+    void unknownSettings_areRejected() {
+        assertThatThrownBy(() -> endpoint.start(null, "no-such-settings", null))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private void adjustInventory(Long id, Long adjust) {
+        Inventory inventory = new Inventory();
+        inventory.setId(id);
+        inventory.setQtyOnHand(10);
+        InventoryRepository repository = mock(InventoryRepository.class);
+        InventoryMapper mapper = mock(InventoryMapper.class);
+        when(repository.findById(id)).thenReturn(Optional.of(inventory));
+        when(repository.withdrawAvailable(id, (int) Math.abs(adjust))).thenReturn(1);
+        when(mapper.toResponse(inventory)).thenReturn(new InventoryResponseDTO());
+
+        new InventoryService(repository, null, null, mapper, mock(InventoryMovementService.class),
+                mock(InventoryAvailabilityCache.class), mock(EntityManager.class)).adjust(id, adjust);
+    }
+}
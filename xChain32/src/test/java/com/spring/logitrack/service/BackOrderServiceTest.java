@@ -9,11 +9,16 @@ import com.spring.logitrack.mapper.BackorderMapper;
 import com.spring.logitrack.repository.BackorderRepository;
 import com.spring.logitrack.repository.ProductRepository;
 import com.spring.logitrack.repository.SalesOrderRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import jakarta.persistence.EntityNotFoundException;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.*;
 
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.test.context.ActiveProfiles;
 
@@ -30,6 +35,9 @@ class BackorderServiceTest {
     @Mock private ProductRepository productRepository;
     @Mock private SalesOrderRepository salesOrderRepository;
     @Mock private BackorderMapper mapper;
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    @Spy private OperationMetrics metrics = new OperationMetrics(registry);
+    @Mock private BackorderAllocator allocator;
 
     @InjectMocks private BackorderService service;
 
@@ -52,6 +60,7 @@ class BackorderServiceTest {
 
         product = new Product();
         product.setId(2L);
+        product.setSku("SKU-2");
 
         backOrder = new Backorder();
         backOrder.setId(10L);
@@ -73,6 +82,9 @@ class BackorderServiceTest {
         assertThat(result).isNotNull();
         assertThat(result.getId()).isEqualTo(10L);
         verify(backorderRepository).save(backOrder);
+        verify(allocator).track(backOrder);
+        assertThat(registry.get(OperationMetrics.BACKORDERS_CREATED).counter().count())
+                .isEqualTo(1);
     }
 
     @Test
@@ -110,14 +122,14 @@ class BackorderServiceTest {
         OrderResponseDTO r1 = new OrderResponseDTO(); r1.setId(1L);
         OrderResponseDTO r2 = new OrderResponseDTO(); r2.setId(2L);
 
-        when(backorderRepository.findAll()).thenReturn(List.of(b1, b2));
+        when(backorderRepository.findAll(any(Pageable.class))).thenReturn(new PageImpl<>(List.of(b1, b2)));
         when(mapper.toResponse(b1)).thenReturn(r1);
         when(mapper.toResponse(b2)).thenReturn(r2);
 
-        List<OrderResponseDTO> result = service.list();
+        Page<OrderResponseDTO> result = service.list(PageRequest.of(0, 20));
 
         assertThat(result).hasSize(2);
-        verify(backorderRepository).findAll();
+        verify(backorderRepository).findAll(any(Pageable.class));
     }
 
     @Test
@@ -180,6 +192,7 @@ class BackorderServiceTest {
         when(backorderRepository.findById(10L)).thenReturn(Optional.of(backOrder));
         service.delete(10L);
         verify(backorderRepository).delete(backOrder);
+        verify(allocator).untrack(10L);
     }
 
     @Test
@@ -0,0 +1,137 @@
+package com.spring.logitrack.service;
+
+import com.spring.logitrack.dto.inventory.InventoryCreateDTO;
+import com.spring.logitrack.dto.purchaseOrder.PurchaseOrderCreateDTO;
+import com.spring.logitrack.entity.*;
+import com.spring.logitrack.entity.enums.BackorderStatus;
+import com.spring.logitrack.entity.enums.OrderStatus;
+import com.spring.logitrack.entity.enums.Role;
+import com.spring.logitrack.repository.*;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(properties = "spring.profiles.active=test")
+class BackorderAllocationFlowTest {
+
+    @Autowired private SalesOrderService salesOrderService;
+    @Autowired private InventoryService inventoryService;
+    @Autowired private UserRepository userRepo;
+    @Autowired private WarehouseRepository warehouseRepo;
+    @Autowired private ProductRepository productRepo;
+    @Autowired private InventoryRepository inventoryRepo;
+    @Autowired private SalesOrderRepository salesOrderRepo;
+    @Autowired private BackorderRepository backorderRepo;
+    @Autowired private PurchaseOrderService purchaseOrderService;
+    @Autowired private SupplierRepository supplierRepo;
+
+    @Test
+    @DisplayName("a manual stock update releases the order waiting on a backorder")
+    void inventoryUpdate_reservesBackorderedOrder() throws InterruptedException {
+        String suffix = UUID.randomUUID().toString().substring(0, 8);
+        User manager = userRepo.save(User.builder()
+                .name("Manager").email("alloc-manager-" + suffix + "@test.com").password("x")
+                .active(true).role(Role.WAREHOUSE_MANAGER).build());
+        User client = userRepo.save(User.builder()
+                .name("Client").email("alloc-client-" + suffix + "@test.com").password("x")
+                .active(true).role(Role.CLIENT).build());
+        Warehouse warehouse = warehouseRepo.save(Warehouse.builder()
+                .code("AL-" + suffix).name("Warehouse " + suffix).location("Tangier")
+                .active(true).manager(manager).build());
+        Product product = productRepo.save(Product.builder()
+                .sku("AL-" + suffix).name("Product").description("Backordered product")
+                .price(BigDecimal.TEN).unit("pcs").active(true).imageUrls(new ArrayList<>()).build());
+        Inventory inventory = inventoryRepo.save(Inventory.builder()
+                .warehouse(warehouse).product(product).qtyOnHand(2).qtyReserved(0).build());
+
+        SalesOrder order = SalesOrder.builder()
+                .client(client).warehouse(warehouse).status(OrderStatus.CREATED)
+                .country("Morocco").city("Tangier").street("Port").zip("90000").build();
+        order.getLines().add(SalesOrderLine.builder()
+                .salesOrder(order).product(product).qtyOrdered(5).qtyReserved(0).price(BigDecimal.TEN).build());
+        Long orderId = salesOrderRepo.save(order).getId();
+
+        salesOrderService.reserve(orderId);
+        assertThat(salesOrderRepo.findById(orderId).orElseThrow().getStatus()).isEqualTo(OrderStatus.BACKORDER);
+
+        InventoryCreateDTO restock = new InventoryCreateDTO();
+        restock.setWarehouseId(warehouse.getId());
+        restock.setProductId(product.getId());
+        restock.setQtyOnHand(10);
+        restock.setQtyReserved(2);
+        inventoryService.update(inventory.getId(), restock);
+
+        // allocation runs on its own thread once the update has committed
+        for (int i = 0; i < 100 && salesOrderRepo.findById(orderId).orElseThrow().getStatus() != OrderStatus.RESERVED; i++) {
+            Thread.sleep(50);
+        }
+
+        SalesOrder reserved = salesOrderRepo.findWithLinesById(orderId).orElseThrow();
+        assertThat(reserved.getStatus()).isEqualTo(OrderStatus.RESERVED);
+        assertThat(reserved.getLines().get(0).getQtyReserved()).isEqualTo(5);
+        assertThat(backorderRepo.findBySalesOrder_Id(orderId))
+                .extracting(Backorder::getStatus).containsExactly(BackorderStatus.FULFILLED);
+        assertThat(inventoryRepo.findById(inventory.getId()).orElseThrow().getQtyReserved()).isEqualTo(5);
+    }
+
+    @Test
+    @DisplayName("a purchase order raised for a backorder the allocator served first only adds stock")
+    void allocatedBackorder_receivedPurchaseOrderAddsPlainStock() throws InterruptedException {
+        String suffix = UUID.randomUUID().toString().substring(0, 8);
+        User manager = userRepo.save(User.builder()
+                .name("Manager").email("alloc-po-manager-" + suffix + "@test.com").password("x")
+                .active(true).role(Role.WAREHOUSE_MANAGER).build());
+        User client = userRepo.save(User.builder()
+                .name("Client").email("alloc-po-client-" + suffix + "@test.com").password("x")
+                .active(true).role(Role.CLIENT).build());
+        Warehouse warehouse = warehouseRepo.save(Warehouse.builder()
+                .code("AP-" + suffix).name("Warehouse " + suffix).location("Tangier")
+                .active(true).manager(manager).build());
+        Product product = productRepo.save(Product.builder()
+                .sku("AP-" + suffix).name("Product").description("Backordered product")
+                .price(BigDecimal.TEN).unit("pcs").active(true).imageUrls(new ArrayList<>()).build());
+        Supplier supplier = supplierRepo.save(Supplier.builder()
+                .name("Supplier").email("alloc-po-" + suffix + "@test.com").contact("0600000000").build());
+        Inventory inventory = inventoryRepo.save(Inventory.builder()
+                .warehouse(warehouse).product(product).qtyOnHand(2).qtyReserved(0).build());
+
+        SalesOrder order = SalesOrder.builder()
+                .client(client).warehouse(warehouse).status(OrderStatus.CREATED)
+                .country("Morocco").city("Tangier").street("Port").zip("90000").build();
+        order.getLines().add(SalesOrderLine.builder()
+                .salesOrder(order).product(product).qtyOrdered(5).qtyReserved(0).price(BigDecimal.TEN).build());
+        Long orderId = salesOrderRepo.save(order).getId();
+
+        salesOrderService.reserve(orderId);
+        PurchaseOrderCreateDTO forBackorder = new PurchaseOrderCreateDTO();
+        forBackorder.setSupplierId(supplier.getId());
+        forBackorder.setOrderId(backorderRepo.findBySalesOrder_Id(orderId).get(0).getId());
+        Long poId = purchaseOrderService.create(forBackorder).getId();
+
+        // other stock arrives before the purchase order and the allocator serves the backorder from it
+        InventoryCreateDTO restock = new InventoryCreateDTO();
+        restock.setWarehouseId(warehouse.getId());
+        restock.setProductId(product.getId());
+        restock.setQtyOnHand(10);
+        restock.setQtyReserved(2);
+        inventoryService.update(inventory.getId(), restock);
+        for (int i = 0; i < 100 && salesOrderRepo.findById(orderId).orElseThrow().getStatus() != OrderStatus.RESERVED; i++) {
+            Thread.sleep(50);
+        }
+        assertThat(salesOrderRepo.findById(orderId).orElseThrow().getStatus()).isEqualTo(OrderStatus.RESERVED);
+
+        purchaseOrderService.updateStatus(poId, "RECEIVED");
+
+        assertThat(salesOrderRepo.findWithLinesById(orderId).orElseThrow().getLines().get(0).getQtyReserved()).isEqualTo(5);
+        Inventory after = inventoryRepo.findById(inventory.getId()).orElseThrow();
+        assertThat(after.getQtyOnHand()).isEqualTo(13);
+        assertThat(after.getQtyReserved()).isEqualTo(5);
+    }
+}
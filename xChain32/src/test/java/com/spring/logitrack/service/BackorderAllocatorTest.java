@@ -0,0 +1,212 @@
+package com.spring.logitrack.service;
+
+import com.spring.logitrack.entity.*;
+import com.spring.logitrack.entity.enums.BackorderStatus;
+import com.spring.logitrack.entity.enums.OrderStatus;
+import com.spring.logitrack.repository.BackorderRepository;
+import com.spring.logitrack.repository.InventoryRepository;
+import com.spring.logitrack.repository.PendingBackorder;
+import com.spring.logitrack.repository.SalesOrderRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.mockito.stubbing.Answer;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ActiveProfiles("test")
+class BackorderAllocatorTest {
+
+    private static final LocalDateTime T0 = LocalDateTime.of(2025, 11, 10, 8, 0);
+
+    @Mock private BackorderRepository backorderRepo;
+    @Mock private SalesOrderRepository salesOrderRepo;
+    @Mock private InventoryRepository inventoryRepo;
+    @Mock private InventoryAvailabilityCache availabilityCache;
+    @Mock private OrderEventOutbox outbox;
+    @Mock private PlatformTransactionManager transactionManager;
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private BackorderAllocator allocator;
+
+    private Product product;
+    private Warehouse warehouse;
+    private Inventory inventory;
+    private final List<Backorder> backorders = new ArrayList<>();
+    private final List<SalesOrder> orders = new ArrayList<>();
+
+    @BeforeEach
+    void setup() {
+        MockitoAnnotations.openMocks(this);
+        // allocations run inline instead of on the allocation thread
+        allocator = new BackorderAllocator(backorderRepo, salesOrderRepo, inventoryRepo, availabilityCache,
+                new OperationMetrics(registry), outbox, transactionManager, Runnable::run);
+
+        product = Product.builder().id(1L).sku("SKU-1").name("Pallet").price(BigDecimal.TEN).unit("pcs").active(true).build();
+        warehouse = Warehouse.builder().id(1L).name("Main").build();
+        inventory = Inventory.builder().id(100L).product(product).warehouse(warehouse).qtyOnHand(0).qtyReserved(0).build();
+
+        when(inventoryRepo.findTopByProduct_IdAndWarehouse_IdOrderByIdDesc(1L, 1L)).thenAnswer(i -> Optional.of(inventory));
+        when(backorderRepo.findAllForUpdateByIdIn(anyCollection())).thenAnswer(i -> backorders.stream()
+                .filter(b -> i.<List<Long>>getArgument(0).contains(b.getId())).toList());
+        when(salesOrderRepo.findAllWithLinesByIdIn(anyCollection())).thenAnswer(i -> orders);
+        when(inventoryRepo.reserveAll(anyMap())).thenReturn(new int[]{1});
+    }
+
+    @Test
+    @DisplayName("arriving stock goes to the oldest backorders first, the last one served partially")
+    void stockIncrease_allocatesOldestFirst() {
+        Backorder second = backorder(11L, T0.plusMinutes(5), 3, 3);
+        Backorder first = backorder(10L, T0, 4, 4);
+        Backorder third = backorder(12L, T0.plusMinutes(9), 5, 5);
+        // nothing on hand yet, so tracking them reserves nothing
+        List.of(second, first, third).forEach(allocator::track);
+        verify(inventoryRepo, never()).reserveAll(anyMap());
+
+        inventory.setQtyOnHand(6);
+        allocator.onStockIncreased(new StockIncreasedEvent(1L, 1L));
+
+        assertThat(first.getStatus()).isEqualTo(BackorderStatus.FULFILLED);
+        assertThat(first.getSalesOrder().getStatus()).isEqualTo(OrderStatus.RESERVED);
+        assertThat(first.getSalesOrder().getLines().get(0).getQtyReserved()).isEqualTo(4);
+        verify(outbox).record(OrderEventOutbox.SALES_ORDER, first.getSalesOrder().getId(), OrderStatus.RESERVED);
+
+        assertThat(second.getStatus()).isEqualTo(BackorderStatus.PARTIALLY_FULFILLED);
+        assertThat(second.getQty()).isEqualTo(1);
+        assertThat(second.getSalesOrder().getStatus()).isEqualTo(OrderStatus.BACKORDER);
+        assertThat(second.getSalesOrder().getLines().get(0).getQtyReserved()).isEqualTo(2);
+
+        assertThat(third.getStatus()).isEqualTo(BackorderStatus.PENDING);
+
+        verify(inventoryRepo).reserveAll(Map.of(100L, 6));
+        verify(availabilityCache).adjust(inventory, 0, 6);
+        assertThat(allocator.waiting(1L, 1L)).isEqualTo(2);
+        assertThat(registry.get(OperationMetrics.BACKORDERS_ALLOCATED).tag("outcome", "fulfilled").counter().count())
+                .isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("stock of a product nobody waits for costs no query")
+    void stockIncrease_withoutWaitingBackorders_isIgnored() {
+        allocator.onStockIncreased(new StockIncreasedEvent(1L, 1L));
+
+        verifyNoInteractions(inventoryRepo, backorderRepo, salesOrderRepo, transactionManager);
+    }
+
+    @Test
+    @DisplayName("backorders of a cancelled order are closed without taking stock")
+    void cancelledOrder_closesBackorder() {
+        Backorder backorder = backorder(10L, T0, 4, 4);
+        backorder.getSalesOrder().setStatus(OrderStatus.CANCELLED);
+        inventory.setQtyOnHand(10);
+
+        allocator.track(backorder);
+
+        assertThat(backorder.getStatus()).isEqualTo(BackorderStatus.CANCELLED);
+        assertThat(allocator.waiting(1L, 1L)).isZero();
+        verify(inventoryRepo, never()).reserveAll(anyMap());
+    }
+
+    @Test
+    @DisplayName("a batch losing the stock to a concurrent writer is retried against the stock left")
+    void conflict_retriesWithStockLeft() {
+        Backorder backorder = backorder(10L, T0, 6, 6);
+        inventory.setQtyOnHand(10);
+        when(inventoryRepo.reserveAll(anyMap()))
+                .thenAnswer(rolledBack(backorder, () -> inventory.setQtyReserved(6)))
+                .thenReturn(new int[]{1});
+
+        allocator.track(backorder);
+
+        verify(inventoryRepo).reserveAll(Map.of(100L, 6));
+        verify(inventoryRepo).reserveAll(Map.of(100L, 4));
+        assertThat(backorder.getStatus()).isEqualTo(BackorderStatus.PARTIALLY_FULFILLED);
+        assertThat(backorder.getQty()).isEqualTo(2);
+        assertThat(allocator.waiting(1L, 1L)).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("a batch losing the stock on every retry leaves the backorders queued")
+    void conflict_keepsBackordersQueued() {
+        Backorder backorder = backorder(10L, T0, 4, 4);
+        when(inventoryRepo.reserveAll(anyMap())).thenAnswer(rolledBack(backorder, () -> { }));
+        inventory.setQtyOnHand(10);
+
+        allocator.track(backorder);
+
+        verify(transactionManager, times(BackorderAllocator.CONFLICT_RETRIES + 1)).rollback(any());
+        assertThat(backorder.getStatus()).isEqualTo(BackorderStatus.PENDING);
+        assertThat(allocator.waiting(1L, 1L)).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("rebuild queues the open backorders and serves them from the stock on hand")
+    void rebuild_allocatesOpenBackorders() {
+        Backorder backorder = backorder(10L, T0, 4, 4);
+        inventory.setQtyOnHand(4);
+        when(backorderRepo.streamByStatusIn(anyCollection())).thenReturn(Stream.of(pending(backorder)));
+
+        allocator.rebuild();
+
+        assertThat(backorder.getStatus()).isEqualTo(BackorderStatus.FULFILLED);
+        assertThat(backorder.getSalesOrder().getStatus()).isEqualTo(OrderStatus.RESERVED);
+        assertThat(allocator.waiting(1L, 1L)).isZero();
+    }
+
+    private Backorder backorder(Long id, LocalDateTime createdAt, int qtyOrdered, int missing) {
+        SalesOrder order = SalesOrder.builder().id(id + 1000).warehouse(warehouse).status(OrderStatus.BACKORDER).build();
+        order.getLines().add(SalesOrderLine.builder()
+                .salesOrder(order).product(product).qtyOrdered(qtyOrdered).qtyReserved(qtyOrdered - missing)
+                .price(BigDecimal.TEN).build());
+        orders.add(order);
+
+        Backorder backorder = Backorder.builder()
+                .id(id).product(product).qty(missing).createdAt(createdAt)
+                .salesOrder(order).status(BackorderStatus.PENDING).build();
+        backorders.add(backorder);
+        return backorder;
+    }
+
+    /** A conflicting reserveAll, undoing on the mocked entities what rolling the transaction back would. */
+    private static Answer<int[]> rolledBack(Backorder backorder, Runnable concurrentWriter) {
+        SalesOrder order = backorder.getSalesOrder();
+        SalesOrderLine line = order.getLines().get(0);
+        int qty = backorder.getQty();
+        BackorderStatus status = backorder.getStatus();
+        int lineReserved = line.getQtyReserved();
+        OrderStatus orderStatus = order.getStatus();
+        return i -> {
+            backorder.setQty(qty);
+            backorder.setStatus(status);
+            line.setQtyReserved(lineReserved);
+            order.setStatus(orderStatus);
+            concurrentWriter.run();
+            return new int[]{0};
+        };
+    }
+
+    private static PendingBackorder pending(Backorder backorder) {
+        return new PendingBackorder() {
+            public Long getId() { return backorder.getId(); }
+            public Long getProductId() { return backorder.getProduct().getId(); }
+            public Long getWarehouseId() { return backorder.getSalesOrder().getWarehouse().getId(); }
+            public LocalDateTime getCreatedAt() { return backorder.getCreatedAt(); }
+            public int getQty() { return backorder.getQty(); }
+        };
+    }
+}
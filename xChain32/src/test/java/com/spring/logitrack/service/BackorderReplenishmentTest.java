@@ -0,0 +1,112 @@
+package com.spring.logitrack.service;
+
+import com.spring.logitrack.dto.purchaseOrder.PurchaseOrderResponseDTO;
+import com.spring.logitrack.dto.purchaseOrder.ReplenishmentRequestDTO;
+import com.spring.logitrack.entity.*;
+import com.spring.logitrack.entity.enums.BackorderStatus;
+import com.spring.logitrack.entity.enums.OrderStatus;
+import com.spring.logitrack.entity.enums.POStatus;
+import com.spring.logitrack.entity.enums.Role;
+import com.spring.logitrack.repository.*;
+import jakarta.persistence.Cache;
+import jakarta.persistence.EntityManagerFactory;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(properties = "spring.profiles.active=test")
+class BackorderReplenishmentTest {
+
+    @Autowired private PurchaseOrderService purchaseOrderService;
+    @Autowired private PurchaseOrderRepository poRepo;
+    @Autowired private SupplierRepository supplierRepo;
+    @Autowired private UserRepository userRepo;
+    @Autowired private WarehouseRepository warehouseRepo;
+    @Autowired private ProductRepository productRepo;
+    @Autowired private SalesOrderRepository salesOrderRepo;
+    @Autowired private BackorderRepository backorderRepo;
+    @Autowired private PlatformTransactionManager transactionManager;
+    @Autowired private EntityManagerFactory entityManagerFactory;
+
+    @Test
+    @DisplayName("open backorders are ordered once, consolidated into one PO per supplier")
+    void replenish_consolidatesAndLinksBackorders() {
+        String suffix = UUID.randomUUID().toString().substring(0, 8);
+        User manager = userRepo.save(User.builder()
+                .name("Manager").email("repl-manager-" + suffix + "@test.com").password("x")
+                .active(true).role(Role.WAREHOUSE_MANAGER).build());
+        User client = userRepo.save(User.builder()
+                .name("Client").email("repl-client-" + suffix + "@test.com").password("x")
+                .active(true).role(Role.CLIENT).build());
+        Warehouse warehouse = warehouseRepo.save(Warehouse.builder()
+                .code("RP-" + suffix).name("Warehouse " + suffix).location("Fes")
+                .active(true).manager(manager).build());
+        Supplier supplier = supplierRepo.save(Supplier.builder()
+                .name("Supplier").email("repl-" + suffix + "@test.com").contact("0600000000").build());
+        Product pallets = product("RPA-" + suffix);
+        Product crates = product("RPB-" + suffix);
+
+        SalesOrder order = salesOrderRepo.save(SalesOrder.builder()
+                .client(client).warehouse(warehouse).status(OrderStatus.BACKORDER)
+                .country("Morocco").city("Fes").street("Medina").zip("30000").build());
+        Backorder first = backorder(order, pallets, 3, 2, BackorderStatus.PENDING);
+        Backorder second = backorder(order, pallets, 4, 0, BackorderStatus.PARTIALLY_FULFILLED);
+        Backorder third = backorder(order, crates, 5, 0, BackorderStatus.PENDING);
+        Backorder fulfilled = backorder(order, crates, 9, 0, BackorderStatus.FULFILLED);
+
+        ReplenishmentRequestDTO dto = new ReplenishmentRequestDTO();
+        dto.setSuppliersByProduct(Map.of(pallets.getId(), supplier.getId(), crates.getId(), supplier.getId()));
+
+        // identity inserts are not cached, so a lookup fills the regions first
+        supplierRepo.findById(supplier.getId()).orElseThrow();
+        productRepo.findById(pallets.getId()).orElseThrow();
+        Cache cache = entityManagerFactory.getCache();
+        assertThat(cache.contains(Supplier.class, supplier.getId())).isTrue();
+
+        List<PurchaseOrderResponseDTO> raised = purchaseOrderService.replenishBackorders(dto);
+
+        // linking the backorders invalidates their own tables only, not the reference data regions
+        assertThat(cache.contains(Supplier.class, supplier.getId())).isTrue();
+        assertThat(cache.contains(Product.class, pallets.getId())).isTrue();
+
+        assertThat(raised).singleElement().satisfies(po -> {
+            assertThat(po.getSupplierId()).isEqualTo(supplier.getId());
+            assertThat(po.getWarehouseId()).isEqualTo(warehouse.getId());
+            assertThat(po.getStatus()).isEqualTo(POStatus.APPROVED);
+            assertThat(po.getLines()).extracting(line -> Map.entry(line.getProductId(), line.getQty()))
+                    .containsExactlyInAnyOrder(Map.entry(pallets.getId(), 9), Map.entry(crates.getId(), 5));
+        });
+        Long poId = raised.get(0).getId();
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            assertThat(List.of(first, second, third)).allSatisfy(b -> assertThat(
+                    backorderRepo.findById(b.getId()).orElseThrow().getReplenishmentOrder().getId()).isEqualTo(poId));
+            assertThat(backorderRepo.findById(fulfilled.getId()).orElseThrow().getReplenishmentOrder()).isNull();
+        });
+
+        // already ordered, so a second run raises nothing
+        assertThat(purchaseOrderService.replenishBackorders(dto)).isEmpty();
+        assertThat(poRepo.findIdsBySupplierId(supplier.getId())).containsExactly(poId);
+    }
+
+    private Backorder backorder(SalesOrder order, Product product, int qty, int extraQty, BackorderStatus status) {
+        return backorderRepo.save(Backorder.builder()
+                .salesOrder(order).product(product).qty(qty).extraQty(extraQty).status(status).build());
+    }
+
+    private Product product(String sku) {
+        return productRepo.save(Product.builder()
+                .sku(sku).name("Product " + sku).description("Backordered product")
+                .price(BigDecimal.TEN).unit("pcs").active(true).imageUrls(new ArrayList<>()).build());
+    }
+}
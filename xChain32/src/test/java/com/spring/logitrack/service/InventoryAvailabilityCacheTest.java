@@ -0,0 +1,119 @@
+package com.spring.logitrack.service;
+
+import com.spring.logitrack.entity.Inventory;
+import com.spring.logitrack.entity.Product;
+import com.spring.logitrack.entity.Warehouse;
+import com.spring.logitrack.repository.InventoryLevel;
+import com.spring.logitrack.repository.InventoryRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.Optional;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.*;
+
+@ActiveProfiles("test")
+class InventoryAvailabilityCacheTest {
+
+    @Mock private InventoryRepository repository;
+    @Mock private ApplicationEventPublisher events;
+
+    @InjectMocks private InventoryAvailabilityCache cache;
+
+    @BeforeEach
+    void setup() {
+        MockitoAnnotations.openMocks(this);
+    }
+
+    @Test
+    @DisplayName("should rebuild from inventories table, latest row winning")
+    void rebuild_loadsLevels() {
+        when(repository.streamAllLevels()).thenReturn(Stream.of(
+                level(1L, 1L, 5, 0),
+                level(1L, 1L, 10, 2),
+                level(1L, 2L, 3, 3)));
+
+        cache.rebuild();
+
+        assertThat(cache.available(1L, 1L)).isEqualTo(8);
+        assertThat(cache.canPromise(1L, 1L, 8)).isTrue();
+        assertThat(cache.canPromise(1L, 2L, 1)).isFalse();
+        verify(repository, never()).findTopByProduct_IdAndWarehouse_IdOrderByIdDesc(anyLong(), anyLong());
+    }
+
+    @Test
+    @DisplayName("should load a missing slot from the repository once")
+    void available_missLoadsOnce() {
+        when(repository.findTopByProduct_IdAndWarehouse_IdOrderByIdDesc(1L, 1L))
+                .thenReturn(Optional.of(inventory(1L, 1L, 10, 4)));
+
+        assertThat(cache.available(1L, 1L)).isEqualTo(6);
+        assertThat(cache.available(1L, 1L)).isEqualTo(6);
+        verify(repository, times(1)).findTopByProduct_IdAndWarehouse_IdOrderByIdDesc(1L, 1L);
+    }
+
+    @Test
+    @DisplayName("should apply concurrent deltas without losing updates")
+    void adjust_concurrent() {
+        Inventory inventory = inventory(1L, 1L, 1000, 0);
+        cache.put(inventory);
+
+        IntStream.range(0, 500).parallel().forEach(i -> cache.adjust(inventory, 0, 1));
+
+        assertThat(cache.available(1L, 1L)).isEqualTo(500);
+    }
+
+    @Test
+    @DisplayName("should announce changes that raise the available quantity only")
+    void stockIncrease_isPublished() {
+        Inventory inventory = inventory(1L, 1L, 10, 0);
+        cache.put(inventory);
+        cache.adjust(inventory, 0, 4);
+        cache.adjust(inventory, 5, 0);
+        cache.adjust(inventory, 0, -2);
+        cache.put(inventory(1L, 1L, 15, 7));
+
+        // the first put, the receipt and the release; reserving and re-putting less do not count
+        verify(events, times(3)).publishEvent(new StockIncreasedEvent(1L, 1L));
+    }
+
+    @Test
+    @DisplayName("should drop evicted slots")
+    void evict() {
+        cache.put(inventory(1L, 1L, 10, 0));
+        cache.evict(1L, 1L);
+
+        assertThat(cache.available(1L, 1L)).isZero();
+    }
+
+    private static Inventory inventory(Long productId, Long warehouseId, int onHand, int reserved) {
+        Product product = new Product();
+        product.setId(productId);
+        Warehouse warehouse = new Warehouse();
+        warehouse.setId(warehouseId);
+        Inventory inventory = new Inventory();
+        inventory.setProduct(product);
+        inventory.setWarehouse(warehouse);
+        inventory.setQtyOnHand(onHand);
+        inventory.setQtyReserved(reserved);
+        return inventory;
+    }
+
+    private static InventoryLevel level(Long productId, Long warehouseId, int onHand, int reserved) {
+        return new InventoryLevel() {
+            public Long getProductId() { return productId; }
+            public Long getWarehouseId() { return warehouseId; }
+            public int getQtyOnHand() { return onHand; }
+            public int getQtyReserved() { return reserved; }
+        };
+    }
+}
@@ -0,0 +1,119 @@
+package com.spring.logitrack.service;
+
+import com.spring.logitrack.entity.*;
+import com.spring.logitrack.entity.enums.MovementType;
+import com.spring.logitrack.entity.enums.Role;
+import com.spring.logitrack.repository.*;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(properties = "spring.profiles.active=test")
+class InventoryLedgerTest {
+
+    @Autowired private InventoryLedger ledger;
+    @Autowired private InventoryMovementRepository movementRepo;
+    @Autowired private InventoryRepository inventoryRepo;
+    @Autowired private UserRepository userRepo;
+    @Autowired private WarehouseRepository warehouseRepo;
+    @Autowired private ProductRepository productRepo;
+    @Autowired private PlatformTransactionManager transactionManager;
+    @Autowired private JdbcTemplate jdbcTemplate;
+
+    private Warehouse warehouse;
+    private Product product;
+
+    @BeforeEach
+    void setup() {
+        String suffix = UUID.randomUUID().toString().substring(0, 8);
+
+        User manager = userRepo.save(User.builder()
+                .name("Manager").email("ledger-manager-" + suffix + "@test.com").password("x")
+                .active(true).role(Role.WAREHOUSE_MANAGER).build());
+        warehouse = warehouseRepo.save(Warehouse.builder()
+                .code("GWH-" + suffix).name("Warehouse " + suffix).location("Rabat")
+                .active(true).manager(manager).build());
+        product = productRepo.save(Product.builder()
+                .sku("GSKU-" + suffix).name("Ledger product").description("Ledger product")
+                .price(BigDecimal.TEN).unit("pcs").active(true).imageUrls(new ArrayList<>()).build());
+    }
+
+    @Test
+    @DisplayName("movements are written when the transaction commits, after inventories created in it")
+    void append_writesOnCommit() {
+        TransactionTemplate tx = new TransactionTemplate(transactionManager);
+        LocalDateTime from = LocalDateTime.now().minusMinutes(1);
+
+        Long inventoryId = tx.execute(status -> {
+            Inventory inventory = inventoryRepo.save(Inventory.builder()
+                    .warehouse(warehouse).product(product).qtyOnHand(10).qtyReserved(0).build());
+            ledger.append(inventory.getId(), MovementType.INBOUND, 10);
+            ledger.append(inventory.getId(), MovementType.OUTBOUND, 3);
+            ledger.append(inventory.getId(), MovementType.ADJUSTMENT, 1);
+
+            assertThat(movementRepo.findByInventoryAndPeriod(inventory.getId(), from, LocalDateTime.now().plusMinutes(1),
+                    PageRequest.of(0, 10))).isEmpty();
+            return inventory.getId();
+        });
+
+        var movements = movementRepo.findByInventoryAndPeriod(inventoryId, from, LocalDateTime.now().plusMinutes(1),
+                PageRequest.of(0, 10));
+        assertThat(movements.getContent()).extracting(InventoryMovement::getType)
+                .containsExactlyInAnyOrder(MovementType.INBOUND, MovementType.OUTBOUND, MovementType.ADJUSTMENT);
+        assertThat(movements.getContent()).allSatisfy(m -> assertThat(m.getId()).isNotNull());
+    }
+
+    @Test
+    @DisplayName("movements buffered in a rolled back transaction are discarded")
+    void append_discardedOnRollback() {
+        Inventory inventory = inventoryRepo.save(Inventory.builder()
+                .warehouse(warehouse).product(product).qtyOnHand(10).qtyReserved(0).build());
+        LocalDateTime from = LocalDateTime.now().minusMinutes(1);
+
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            ledger.append(inventory.getId(), MovementType.INBOUND, 5);
+            status.setRollbackOnly();
+        });
+
+        assertThat(movementRepo.findByInventoryAndPeriod(inventory.getId(), from, LocalDateTime.now().plusMinutes(1),
+                PageRequest.of(0, 10))).isEmpty();
+    }
+
+    @Test
+    @DisplayName("ledger rows take their ids from the pooled generator instead of a sequence block each")
+    void append_idsComeFromPooledGenerator() {
+        Inventory inventory = inventoryRepo.save(Inventory.builder()
+                .warehouse(warehouse).product(product).qtyOnHand(10).qtyReserved(0).build());
+        LocalDateTime from = LocalDateTime.now().minusMinutes(1);
+        long before = nextSequenceValue();
+
+        for (int i = 0; i < 3; i++) {
+            ledger.append(inventory.getId(), MovementType.INBOUND, 1);
+            movementRepo.save(InventoryMovement.builder()
+                    .inventory(inventory).type(MovementType.ADJUSTMENT).qty(1).occurredAt(LocalDateTime.now()).build());
+        }
+
+        var movements = movementRepo.findByInventoryAndPeriod(inventory.getId(), from, LocalDateTime.now().plusMinutes(1),
+                PageRequest.of(0, 10));
+        assertThat(movements.getContent()).hasSize(6);
+        // six ids fit in the generator's current block and at most one more, plus the block read here
+        assertThat(nextSequenceValue() - before).isLessThanOrEqualTo(2 * 50);
+    }
+
+    private long nextSequenceValue() {
+        return jdbcTemplate.queryForObject("SELECT nextval('inventory_movements_seq')", Long.class);
+    }
+}
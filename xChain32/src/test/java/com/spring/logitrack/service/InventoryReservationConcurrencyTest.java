@@ -0,0 +1,126 @@
+package com.spring.logitrack.service;
+
+import com.spring.logitrack.entity.*;
+import com.spring.logitrack.entity.enums.OrderStatus;
+import com.spring.logitrack.entity.enums.Role;
+import com.spring.logitrack.exception.StockConflictException;
+import com.spring.logitrack.repository.*;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.dao.ConcurrencyFailureException;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(properties = "spring.profiles.active=test")
+class InventoryReservationConcurrencyTest {
+
+    private static final int THREADS = 64;
+    private static final int STOCK = 40;
+    private static final int MAX_ATTEMPTS = 100;
+
+    @Autowired private SalesOrderService salesOrderService;
+    @Autowired private UserRepository userRepo;
+    @Autowired private WarehouseRepository warehouseRepo;
+    @Autowired private ProductRepository productRepo;
+    @Autowired private InventoryRepository inventoryRepo;
+    @Autowired private SalesOrderRepository salesOrderRepo;
+
+    @Test
+    @DisplayName("64 concurrent reservations never oversell a single inventory")
+    void concurrentReservations_neverOversell() throws Exception {
+        String suffix = UUID.randomUUID().toString().substring(0, 8);
+
+        User manager = userRepo.save(User.builder()
+                .name("Manager").email("manager-" + suffix + "@test.com").password("x")
+                .active(true).role(Role.WAREHOUSE_MANAGER).build());
+        User client = userRepo.save(User.builder()
+                .name("Client").email("client-" + suffix + "@test.com").password("x")
+                .active(true).role(Role.CLIENT).build());
+        Warehouse warehouse = warehouseRepo.save(Warehouse.builder()
+                .code("WH-" + suffix).name("Warehouse " + suffix).location("Casablanca")
+                .active(true).manager(manager).build());
+        Product product = productRepo.save(Product.builder()
+                .sku("SKU-" + suffix).name("Product").description("Stress test product")
+                .price(BigDecimal.TEN).unit("pcs").active(true).imageUrls(new ArrayList<>()).build());
+        Inventory inventory = inventoryRepo.save(Inventory.builder()
+                .warehouse(warehouse).product(product).qtyOnHand(STOCK).qtyReserved(0).build());
+
+        List<Long> orderIds = new ArrayList<>();
+        for (int i = 0; i < THREADS; i++) {
+            SalesOrder order = SalesOrder.builder()
+                    .client(client).warehouse(warehouse).status(OrderStatus.CREATED)
+                    .country("Morocco").city("Casablanca").street("Street " + i).zip("20000")
+                    .build();
+            order.getLines().add(SalesOrderLine.builder()
+                    .salesOrder(order).product(product).qtyOrdered(1).qtyReserved(0).price(BigDecimal.TEN)
+                    .build());
+            orderIds.add(salesOrderRepo.save(order).getId());
+        }
+
+        ExecutorService pool = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        AtomicInteger conflicts = new AtomicInteger();
+        List<Future<?>> futures = new ArrayList<>();
+
+        for (Long orderId : orderIds) {
+            futures.add(pool.submit(() -> {
+                start.await();
+                // a lost race rolls the reservation back; retried like a client would, until the
+                // order is either reserved or backordered
+                for (int attempt = 0; attempt < MAX_ATTEMPTS; attempt++) {
+                    try {
+                        salesOrderService.reserve(orderId);
+                        return null;
+                    } catch (StockConflictException | ConcurrencyFailureException e) {
+                        conflicts.incrementAndGet();
+                    }
+                }
+                throw new IllegalStateException("Order " + orderId + " still conflicting after " + MAX_ATTEMPTS + " attempts");
+            }));
+        }
+
+        // samples the row while the reservations run: it must never hold more reserved than on hand
+        AtomicBoolean running = new AtomicBoolean(true);
+        AtomicInteger oversold = new AtomicInteger();
+        Future<?> monitor = Executors.newSingleThreadExecutor().submit(() -> {
+            while (running.get()) {
+                Inventory current = inventoryRepo.findById(inventory.getId()).orElseThrow();
+                if (current.getQtyReserved() > current.getQtyOnHand()) oversold.incrementAndGet();
+            }
+        });
+
+        start.countDown();
+        for (Future<?> future : futures) {
+            future.get(60, TimeUnit.SECONDS);
+        }
+        running.set(false);
+        monitor.get(10, TimeUnit.SECONDS);
+        pool.shutdown();
+
+        Inventory after = inventoryRepo.findById(inventory.getId()).orElseThrow();
+        long reservedOrders = orderIds.stream()
+                .map(id -> salesOrderRepo.findById(id).orElseThrow())
+                .filter(o -> o.getStatus() == OrderStatus.RESERVED)
+                .count();
+        long backorderedOrders = orderIds.stream()
+                .map(id -> salesOrderRepo.findById(id).orElseThrow())
+                .filter(o -> o.getStatus() == OrderStatus.BACKORDER)
+                .count();
+
+        assertThat(oversold).hasValue(0);
+        assertThat(after.getQtyOnHand()).isEqualTo(STOCK);
+        assertThat(after.getQtyReserved()).isEqualTo(STOCK);
+        assertThat(reservedOrders).isEqualTo(STOCK);
+        assertThat(backorderedOrders).isEqualTo(THREADS - STOCK);
+    }
+}
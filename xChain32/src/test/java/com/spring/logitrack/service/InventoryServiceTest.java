@@ -1,5 +1,6 @@
 package com.spring.logitrack.service;
 
+import com.spring.logitrack.dto.inventory.InventoryAvailabilityDTO;
 import com.spring.logitrack.dto.inventory.InventoryCreateDTO;
 import com.spring.logitrack.dto.inventory.InventoryResponseDTO;
 import com.spring.logitrack.dto.inventoryMovement.InventoryMovementCreateDTO;
@@ -7,16 +8,22 @@ import com.spring.logitrack.entity.Inventory;
 import com.spring.logitrack.entity.Product;
 import com.spring.logitrack.entity.Warehouse;
 import com.spring.logitrack.entity.enums.MovementType;
+import com.spring.logitrack.exception.StockConflictException;
 import com.spring.logitrack.mapper.InventoryMapper;
 import com.spring.logitrack.repository.InventoryRepository;
 import com.spring.logitrack.repository.ProductRepository;
 import com.spring.logitrack.repository.WarehouseRepository;
+import jakarta.persistence.EntityManager;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 import org.springframework.test.context.ActiveProfiles;
 
 import java.util.List;
@@ -34,6 +41,8 @@ class InventoryServiceTest {
     @Mock private ProductRepository productRepository;
     @Mock private InventoryMapper mapper;
     @Mock private InventoryMovementService inventoryMovementService;
+    @Mock private InventoryAvailabilityCache availabilityCache;
+    @Mock private EntityManager entityManager;
 
     @InjectMocks private InventoryService service;
 
@@ -91,11 +100,11 @@ class InventoryServiceTest {
     @Test
     @DisplayName("should list all inventories")
     void listInventories() {
-        when(repository.findAll()).thenReturn(List.of(inventory));
+        when(repository.findAll(any(Pageable.class))).thenReturn(new PageImpl<>(List.of(inventory)));
         when(mapper.toResponse(inventory)).thenReturn(new InventoryResponseDTO());
-        List<InventoryResponseDTO> result = service.list();
+        Page<InventoryResponseDTO> result = service.list(PageRequest.of(0, 20));
         assertThat(result).hasSize(1);
-        verify(repository).findAll();
+        verify(repository).findAll(any(Pageable.class));
     }
 
     @Test
@@ -129,13 +138,33 @@ class InventoryServiceTest {
         when(repository.findById(1L)).thenReturn(Optional.of(inventory));
         when(warehouseRepository.findById(1L)).thenReturn(Optional.of(warehouse));
         when(productRepository.findById(1L)).thenReturn(Optional.of(product));
-        when(repository.save(any())).thenReturn(inventory);
+        when(repository.overwrite(1L, warehouse, product, 5, 1, 10, 2)).thenReturn(1);
         when(mapper.toResponse(any())).thenReturn(new InventoryResponseDTO());
 
         InventoryResponseDTO result = service.update(1L, dto);
 
         assertThat(result).isNotNull();
-        verify(repository).save(inventory);
+        verify(repository, never()).save(any());
+        verify(entityManager).refresh(inventory);
+    }
+
+    @Test
+    @DisplayName("should reject an update when the stock changed since it was read")
+    void updateInventory_concurrentChange() {
+        InventoryCreateDTO dto = new InventoryCreateDTO();
+        dto.setWarehouseId(1L);
+        dto.setProductId(1L);
+        dto.setQtyOnHand(5);
+        dto.setQtyReserved(1);
+
+        when(repository.findById(1L)).thenReturn(Optional.of(inventory));
+        when(warehouseRepository.findById(1L)).thenReturn(Optional.of(warehouse));
+        when(productRepository.findById(1L)).thenReturn(Optional.of(product));
+        when(repository.overwrite(1L, warehouse, product, 5, 1, 10, 2)).thenReturn(0);
+
+        assertThatThrownBy(() -> service.update(1L, dto))
+                .isInstanceOf(StockConflictException.class);
+        verifyNoInteractions(availabilityCache);
     }
 
     @Test
@@ -160,14 +189,26 @@ class InventoryServiceTest {
     @DisplayName("should adjust inventory successfully with valid negative qty")
     void adjustInventory_success() {
         when(repository.findById(1L)).thenReturn(Optional.of(inventory));
-        when(repository.save(inventory)).thenReturn(inventory);
+        when(repository.withdrawAvailable(1L, 2)).thenReturn(1);
         when(mapper.toResponse(inventory)).thenReturn(new InventoryResponseDTO());
 
         InventoryResponseDTO result = service.adjust(1L, -2L);
 
         assertThat(result).isNotNull();
         verify(inventoryMovementService).create(any(InventoryMovementCreateDTO.class));
-        verify(repository).save(inventory);
+        verify(availabilityCache).adjust(inventory, -2, 0);
+        verify(repository, never()).save(any());
+    }
+
+    @Test
+    @DisplayName("should reject an adjustment when the stock was reserved concurrently")
+    void adjustInventory_concurrentReservation() {
+        when(repository.findById(1L)).thenReturn(Optional.of(inventory));
+        when(repository.withdrawAvailable(1L, 2)).thenReturn(0);
+
+        assertThatThrownBy(() -> service.adjust(1L, -2L))
+                .isInstanceOf(StockConflictException.class);
+        verifyNoInteractions(inventoryMovementService);
     }
 
     @Test
@@ -206,12 +247,14 @@ class InventoryServiceTest {
     }
 
     @Test
-    @DisplayName("should call repository for helper inventory")
-    void getHelperInventory_success() {
-        when(repository.findAvailableInventoryNative(1L, 5, 1L))
-                .thenReturn(Optional.of(inventory));
-        Optional<Inventory> result = service.getHelperInventory(1L, 5, 1L);
-        assertThat(result).isPresent();
-        verify(repository).findAvailableInventoryNative(1L, 5, 1L);
+    @DisplayName("should answer availability from the cache")
+    void availability_fromCache() {
+        when(availabilityCache.available(1L, 1L)).thenReturn(8);
+
+        InventoryAvailabilityDTO result = service.availability(1L, 1L, 10);
+
+        assertThat(result.getAvailable()).isEqualTo(8);
+        assertThat(result.isPromisable()).isFalse();
+        verifyNoInteractions(repository);
     }
 }
@@ -0,0 +1,89 @@
+package com.spring.logitrack.service;
+
+import com.spring.logitrack.entity.Inventory;
+import com.spring.logitrack.entity.Warehouse;
+import com.spring.logitrack.repository.InventoryRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.*;
+
+@ActiveProfiles("test")
+class InventorySourcingServiceTest {
+
+    @Mock private InventoryRepository repository;
+
+    private InventorySourcingService service;
+    private Warehouse destination;
+
+    @BeforeEach
+    void setup() {
+        MockitoAnnotations.openMocks(this);
+        service = new InventorySourcingService(repository, new DefaultSourcingCostFunction());
+        destination = warehouse(1L, "Casablanca", true);
+    }
+
+    @Test
+    @DisplayName("should prefer same-location warehouses, then the most available stock")
+    void plan_ranksCandidates() {
+        Inventory far = inventory(2L, warehouse(2L, "Rabat", true), 50);
+        Inventory nearSmall = inventory(3L, warehouse(3L, "Casablanca", true), 3);
+        Inventory nearLarge = inventory(4L, warehouse(4L, "casablanca", true), 8);
+        when(repository.findSourcingCandidates(1L, 1L)).thenReturn(List.of(far, nearLarge, nearSmall));
+
+        List<InventorySourcingService.Allocation> plan = service.plan(1L, destination, 10);
+
+        assertThat(plan).extracting(InventorySourcingService.Allocation::getInventory)
+                .containsExactly(nearLarge, nearSmall);
+        assertThat(plan).extracting(InventorySourcingService.Allocation::getQty)
+                .containsExactly(8, 2);
+    }
+
+    @Test
+    @DisplayName("should skip inactive warehouses")
+    void plan_skipsInactive() {
+        Inventory inactive = inventory(2L, warehouse(2L, "Casablanca", false), 50);
+        Inventory active = inventory(3L, warehouse(3L, "Rabat", true), 5);
+        when(repository.findSourcingCandidates(1L, 1L)).thenReturn(List.of(inactive, active));
+
+        List<InventorySourcingService.Allocation> plan = service.plan(1L, destination, 5);
+
+        assertThat(plan).hasSize(1);
+        assertThat(plan.get(0).getInventory()).isSameAs(active);
+    }
+
+    @Test
+    @DisplayName("should return no plan when the other warehouses cannot cover the shortfall")
+    void plan_insufficientStock() {
+        when(repository.findSourcingCandidates(1L, 1L)).thenReturn(List.of(
+                inventory(2L, warehouse(2L, "Rabat", true), 3),
+                inventory(3L, warehouse(3L, "Fes", true), 4)));
+
+        assertThat(service.plan(1L, destination, 10)).isEmpty();
+        verify(repository, times(1)).findSourcingCandidates(1L, 1L);
+    }
+
+    private static Warehouse warehouse(Long id, String location, boolean active) {
+        Warehouse warehouse = new Warehouse();
+        warehouse.setId(id);
+        warehouse.setLocation(location);
+        warehouse.setActive(active);
+        return warehouse;
+    }
+
+    private static Inventory inventory(Long id, Warehouse warehouse, int available) {
+        Inventory inventory = new Inventory();
+        inventory.setId(id);
+        inventory.setWarehouse(warehouse);
+        inventory.setQtyOnHand(available + 1);
+        inventory.setQtyReserved(1);
+        return inventory;
+    }
+}
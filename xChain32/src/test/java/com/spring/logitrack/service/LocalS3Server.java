@@ -0,0 +1,180 @@
+package com.spring.logitrack.service;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * In-process stand-in for S3, path-style, implementing just the calls S3Service makes:
+ * PutObject, the multipart upload calls and DeleteObjects. Keys containing a configured
+ * marker are refused so failure paths can be exercised.
+ */
+class LocalS3Server implements AutoCloseable {
+
+    private static final String NS = "http://s3.amazonaws.com/doc/2006-03-01/";
+    private static final Pattern KEY = Pattern.compile("<Key>(.*?)</Key>");
+
+    private final HttpServer server;
+    private final ExecutorService executor = Executors.newFixedThreadPool(8);
+    private final Map<String, byte[]> objects = new ConcurrentHashMap<>();
+    private final Map<String, Map<Integer, byte[]>> uploads = new ConcurrentHashMap<>();
+    private volatile String failingMarker;
+
+    LocalS3Server() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/", this::handle);
+        server.setExecutor(executor);
+        server.start();
+    }
+
+    URI endpoint() {
+        return URI.create("http://127.0.0.1:" + server.getAddress().getPort());
+    }
+
+    Set<String> keys() {
+        return objects.keySet();
+    }
+
+    byte[] object(String key) {
+        return objects.get(key);
+    }
+
+    int openMultipartUploads() {
+        return uploads.size();
+    }
+
+    void failKeysContaining(String marker) {
+        this.failingMarker = marker;
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+        executor.shutdownNow();
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        try {
+            String path = exchange.getRequestURI().getPath();
+            int slash = path.indexOf('/', 1);
+            String key = slash < 0 ? "" : path.substring(slash + 1);
+            Map<String, String> query = query(exchange.getRequestURI().getRawQuery());
+            byte[] body = payload(exchange);
+
+            if (failingMarker != null && key.contains(failingMarker)) {
+                xml(exchange, 400, "<Error><Code>InvalidRequest</Code><Message>refused by stand-in</Message></Error>");
+                return;
+            }
+
+            switch (exchange.getRequestMethod()) {
+                case "PUT" -> {
+                    if (query.containsKey("uploadId")) {
+                        uploads.get(query.get("uploadId")).put(Integer.parseInt(query.get("partNumber")), body);
+                    } else {
+                        objects.put(key, body);
+                    }
+                    exchange.getResponseHeaders().add("ETag", "\"" + md5(body) + "\"");
+                    exchange.sendResponseHeaders(200, -1);
+                }
+                case "POST" -> {
+                    if (query.containsKey("delete")) {
+                        Matcher matcher = KEY.matcher(new String(body, StandardCharsets.UTF_8));
+                        while (matcher.find()) objects.remove(matcher.group(1));
+                        xml(exchange, 200, "<DeleteResult xmlns=\"" + NS + "\"></DeleteResult>");
+                    } else if (query.containsKey("uploads")) {
+                        String uploadId = UUID.randomUUID().toString();
+                        uploads.put(uploadId, new TreeMap<>());
+                        xml(exchange, 200, "<InitiateMultipartUploadResult xmlns=\"" + NS + "\"><Key>" + key
+                                + "</Key><UploadId>" + uploadId + "</UploadId></InitiateMultipartUploadResult>");
+                    } else {
+                        ByteArrayOutputStream content = new ByteArrayOutputStream();
+                        for (byte[] part : uploads.remove(query.get("uploadId")).values()) content.writeBytes(part);
+                        objects.put(key, content.toByteArray());
+                        xml(exchange, 200, "<CompleteMultipartUploadResult xmlns=\"" + NS + "\"><Key>" + key
+                                + "</Key><ETag>\"" + md5(content.toByteArray()) + "\"</ETag></CompleteMultipartUploadResult>");
+                    }
+                }
+                case "DELETE" -> {
+                    if (query.containsKey("uploadId")) uploads.remove(query.get("uploadId"));
+                    else objects.remove(key);
+                    exchange.sendResponseHeaders(204, -1);
+                }
+                default -> exchange.sendResponseHeaders(405, -1);
+            }
+        } finally {
+            exchange.close();
+        }
+    }
+
+    /** Request body with the aws-chunked framing (used for signed uploads over plain http) removed. */
+    private static byte[] payload(HttpExchange exchange) throws IOException {
+        byte[] raw = exchange.getRequestBody().readAllBytes();
+        String sha = exchange.getRequestHeaders().getFirst("x-amz-content-sha256");
+        if (sha == null || !sha.startsWith("STREAMING-")) return raw;
+
+        ByteArrayOutputStream decoded = new ByteArrayOutputStream();
+        int pos = 0;
+        while (pos < raw.length) {
+            int lineEnd = indexOfCrlf(raw, pos);
+            String header = new String(raw, pos, lineEnd - pos, StandardCharsets.US_ASCII);
+            int size = Integer.parseInt(header.split(";")[0].trim(), 16);
+            if (size == 0) break;
+            decoded.write(raw, lineEnd + 2, size);
+            pos = lineEnd + 2 + size + 2;
+        }
+        return decoded.toByteArray();
+    }
+
+    private static int indexOfCrlf(byte[] data, int from) {
+        for (int i = from; i < data.length - 1; i++) {
+            if (data[i] == '\r' && data[i + 1] == '\n') return i;
+        }
+        return data.length;
+    }
+
+    private static Map<String, String> query(String raw) {
+        Map<String, String> params = new HashMap<>();
+        if (raw == null) return params;
+        for (String pair : raw.split("&")) {
+            int eq = pair.indexOf('=');
+            params.put(eq < 0 ? pair : pair.substring(0, eq), eq < 0 ? "" : pair.substring(eq + 1));
+        }
+        return params;
+    }
+
+    private static void xml(HttpExchange exchange, int status, String body) throws IOException {
+        byte[] bytes = ("<?xml version=\"1.0\" encoding=\"UTF-8\"?>" + body).getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().add("Content-Type", "application/xml");
+        exchange.sendResponseHeaders(status, bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+
+    private static String md5(byte[] content) {
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance("MD5").digest(content));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
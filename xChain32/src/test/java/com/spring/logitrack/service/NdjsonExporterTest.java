@@ -0,0 +1,60 @@
+package com.spring.logitrack.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.spring.logitrack.dto.inventoryMovement.InventoryMovementResponseDTO;
+import com.spring.logitrack.entity.InventoryMovement;
+import com.spring.logitrack.entity.enums.MovementType;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.*;
+
+@ActiveProfiles("test")
+class NdjsonExporterTest {
+
+    @Mock private EntityManager entityManager;
+
+    private NdjsonExporter exporter;
+
+    @BeforeEach
+    void setup() {
+        MockitoAnnotations.openMocks(this);
+        exporter = new NdjsonExporter(new ObjectMapper(), entityManager);
+    }
+
+    @Test
+    @DisplayName("should write one JSON document per line, detach rows and close the stream")
+    void write_ndjson() {
+        InventoryMovement m1 = InventoryMovement.builder().id(1L).type(MovementType.INBOUND).qty(3).build();
+        InventoryMovement m2 = InventoryMovement.builder().id(2L).type(MovementType.OUTBOUND).qty(1).build();
+        AtomicBoolean closed = new AtomicBoolean();
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        long count = exporter.write(Stream.of(m1, m2).onClose(() -> closed.set(true)), m -> {
+            InventoryMovementResponseDTO dto = new InventoryMovementResponseDTO();
+            dto.setId(m.getId());
+            dto.setQty(m.getQty());
+            return dto;
+        }, out);
+
+        String[] lines = out.toString(StandardCharsets.UTF_8).split("\n");
+        assertThat(count).isEqualTo(2);
+        assertThat(lines).hasSize(2);
+        assertThat(lines[0]).contains("\"id\":1").contains("\"qty\":3");
+        assertThat(lines[1]).contains("\"id\":2");
+        assertThat(closed).isTrue();
+        verify(entityManager).detach(m1);
+        verify(entityManager).detach(m2);
+    }
+}
@@ -0,0 +1,117 @@
+package com.spring.logitrack.service;
+
+import com.spring.logitrack.dto.POLine.POLineCreateDTO;
+import com.spring.logitrack.dto.purchaseOrder.PurchaseOrderCreateDTO;
+import com.spring.logitrack.dto.salesOrder.SalesOrderCreateDTO;
+import com.spring.logitrack.dto.salesOrderLine.SalesOrderLineCreateDTO;
+import com.spring.logitrack.entity.*;
+import com.spring.logitrack.entity.enums.Role;
+import com.spring.logitrack.repository.*;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(properties = "spring.profiles.active=test")
+class OrderCreationBatchingTest {
+
+    private static final int LINES = 300;
+
+    @Autowired private SalesOrderService salesOrderService;
+    @Autowired private PurchaseOrderService purchaseOrderService;
+    @Autowired private UserRepository userRepo;
+    @Autowired private WarehouseRepository warehouseRepo;
+    @Autowired private ProductRepository productRepo;
+    @Autowired private SupplierRepository supplierRepo;
+    @Autowired private EntityManagerFactory entityManagerFactory;
+
+    private User client;
+    private Warehouse warehouse;
+    private Supplier supplier;
+    private List<Product> products;
+    private Statistics statistics;
+
+    @BeforeEach
+    void setup() {
+        String suffix = UUID.randomUUID().toString().substring(0, 8);
+
+        User manager = userRepo.save(User.builder()
+                .name("Manager").email("batch-manager-" + suffix + "@test.com").password("x")
+                .active(true).role(Role.WAREHOUSE_MANAGER).build());
+        client = userRepo.save(User.builder()
+                .name("Client").email("batch-client-" + suffix + "@test.com").password("x")
+                .active(true).role(Role.CLIENT).build());
+        warehouse = warehouseRepo.save(Warehouse.builder()
+                .code("BWH-" + suffix).name("Warehouse " + suffix).location("Tanger")
+                .active(true).manager(manager).build());
+        supplier = supplierRepo.save(Supplier.builder()
+                .name("Supplier " + suffix).email("batch-supplier-" + suffix + "@test.com").contact("0600000000").build());
+
+        products = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            products.add(productRepo.save(Product.builder()
+                    .sku("BSKU-" + suffix + "-" + i).name("Product " + i).description("Batching product")
+                    .price(BigDecimal.TEN).unit("pcs").active(true).imageUrls(new ArrayList<>()).build()));
+        }
+
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    @Test
+    @DisplayName("creating a sales order with 300 lines batches the line inserts")
+    void createSalesOrder_batchesInserts() {
+        SalesOrderCreateDTO dto = new SalesOrderCreateDTO();
+        dto.setClientId(client.getId());
+        dto.setWarehouseId(warehouse.getId());
+        dto.setCountry("Morocco");
+        dto.setCity("Tanger");
+        dto.setStreet("Batch street");
+        dto.setZip("90000");
+        List<SalesOrderLineCreateDTO> lines = new ArrayList<>();
+        for (int i = 0; i < LINES; i++) {
+            SalesOrderLineCreateDTO line = new SalesOrderLineCreateDTO();
+            line.setProductId(products.get(i % products.size()).getId());
+            line.setQtyOrdered(1);
+            lines.add(line);
+        }
+        dto.setLines(lines);
+
+        salesOrderService.create(dto);
+
+        assertThat(statistics.getEntityInsertCount()).isEqualTo(LINES + 1);
+        // one statement per JDBC batch and per sequence block instead of one per row
+        assertThat(statistics.getPrepareStatementCount()).isLessThan(30);
+    }
+
+    @Test
+    @DisplayName("creating a purchase order with 300 lines batches the line inserts")
+    void createPurchaseOrder_batchesInserts() {
+        PurchaseOrderCreateDTO dto = new PurchaseOrderCreateDTO();
+        dto.setSupplierId(supplier.getId());
+        List<POLineCreateDTO> lines = new ArrayList<>();
+        for (int i = 0; i < LINES; i++) {
+            POLineCreateDTO line = new POLineCreateDTO();
+            line.setProductId(products.get(i % products.size()).getId());
+            line.setQty(2);
+            lines.add(line);
+        }
+        dto.setLines(lines);
+
+        purchaseOrderService.create(dto);
+
+        assertThat(statistics.getEntityInsertCount()).isEqualTo(LINES + 1);
+        assertThat(statistics.getPrepareStatementCount()).isLessThan(30);
+    }
+}
@@ -0,0 +1,128 @@
+package com.spring.logitrack.service;
+
+import com.spring.logitrack.dto.purchaseOrder.PurchaseOrderResponseDTO;
+import com.spring.logitrack.dto.salesOrder.SalesOrderResponseDTO;
+import com.spring.logitrack.entity.*;
+import com.spring.logitrack.entity.enums.OrderStatus;
+import com.spring.logitrack.entity.enums.POStatus;
+import com.spring.logitrack.entity.enums.Role;
+import com.spring.logitrack.repository.*;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+
+import java.io.ByteArrayOutputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(properties = "spring.profiles.active=test")
+class OrderListingStatementCountTest {
+
+    private static final int ORDERS = 60;
+
+    @Autowired private SalesOrderService salesOrderService;
+    @Autowired private PurchaseOrderService purchaseOrderService;
+    @Autowired private UserRepository userRepo;
+    @Autowired private WarehouseRepository warehouseRepo;
+    @Autowired private ProductRepository productRepo;
+    @Autowired private SupplierRepository supplierRepo;
+    @Autowired private SalesOrderRepository salesOrderRepo;
+    @Autowired private PurchaseOrderRepository purchaseOrderRepo;
+    @Autowired private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void setup() {
+        String suffix = UUID.randomUUID().toString().substring(0, 8);
+
+        User manager = userRepo.save(User.builder()
+                .name("Manager").email("list-manager-" + suffix + "@test.com").password("x")
+                .active(true).role(Role.WAREHOUSE_MANAGER).build());
+        User client = userRepo.save(User.builder()
+                .name("Client").email("list-client-" + suffix + "@test.com").password("x")
+                .active(true).role(Role.CLIENT).build());
+        Warehouse warehouse = warehouseRepo.save(Warehouse.builder()
+                .code("LWH-" + suffix).name("Warehouse " + suffix).location("Rabat")
+                .active(true).manager(manager).build());
+        Supplier supplier = supplierRepo.save(Supplier.builder()
+                .name("Supplier " + suffix).email("supplier-" + suffix + "@test.com").contact("0600000000").build());
+
+        List<Product> products = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            products.add(productRepo.save(Product.builder()
+                    .sku("LSKU-" + suffix + "-" + i).name("Product " + i).description("Listing product")
+                    .price(BigDecimal.TEN).unit("pcs").active(true).imageUrls(new ArrayList<>()).build()));
+        }
+
+        for (int i = 0; i < ORDERS; i++) {
+            SalesOrder order = SalesOrder.builder()
+                    .client(client).warehouse(warehouse).status(OrderStatus.CREATED)
+                    .country("Morocco").city("Rabat").street("Street " + i).zip("10000")
+                    .build();
+            PurchaseOrder po = PurchaseOrder.builder().supplier(supplier).status(POStatus.APPROVED).build();
+            for (Product product : products) {
+                order.getLines().add(SalesOrderLine.builder()
+                        .salesOrder(order).product(product).qtyOrdered(1).qtyReserved(0).price(BigDecimal.TEN)
+                        .build());
+                po.getLines().add(POLine.builder()
+                        .purchaseOrder(po).product(product).qty(5).price(BigDecimal.ONE)
+                        .build());
+            }
+            salesOrderRepo.save(order);
+            purchaseOrderRepo.save(po);
+        }
+
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    @Test
+    @DisplayName("listing a page of sales orders costs a constant number of statements")
+    void listSalesOrders_constantStatements() {
+        Page<SalesOrderResponseDTO> page = salesOrderService.list(PageRequest.of(0, ORDERS, Sort.by("id").descending()));
+
+        assertThat(page.getContent()).hasSize(ORDERS);
+        assertThat(page.getContent()).allSatisfy(o -> assertThat(o.getLines()).hasSize(3));
+        // count + page of ids + one fetch-join query
+        assertThat(statistics.getPrepareStatementCount()).isBetween(1L, 3L);
+    }
+
+    @Test
+    @DisplayName("exporting sales orders loads their lines in the same statement")
+    void exportSalesOrders_singleStatement() {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        long exported = salesOrderService.export(out);
+        long statements = statistics.getPrepareStatementCount();
+
+        // one document per order, even though the lines multiply the rows of the stream
+        assertThat(exported).isEqualTo(salesOrderRepo.count());
+        assertThat(out.toString(StandardCharsets.UTF_8).lines().limit(1))
+                .allSatisfy(line -> assertThat(line).contains("\"productName\""));
+        assertThat(statements).isEqualTo(1L);
+    }
+
+    @Test
+    @DisplayName("listing a page of purchase orders costs a constant number of statements")
+    void listPurchaseOrders_constantStatements() {
+        Page<PurchaseOrderResponseDTO> page = purchaseOrderService.list(PageRequest.of(0, ORDERS, Sort.by("id").descending()));
+
+        assertThat(page.getContent()).hasSize(ORDERS);
+        assertThat(page.getContent()).allSatisfy(o -> assertThat(o.getLines()).hasSize(3));
+        assertThat(statistics.getPrepareStatementCount()).isBetween(1L, 3L);
+    }
+}
@@ -0,0 +1,109 @@
+package com.spring.logitrack.service;
+
+import com.spring.logitrack.entity.*;
+import com.spring.logitrack.entity.enums.OrderStatus;
+import com.spring.logitrack.entity.enums.Role;
+import com.spring.logitrack.repository.*;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Primary;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.function.Predicate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(properties = "spring.profiles.active=test")
+class OutboxRelayFlowTest {
+
+    @TestConfiguration
+    static class SinkConfig {
+        @Bean
+        @Primary
+        RecordingOutboxSink recordingOutboxSink() {
+            return new RecordingOutboxSink();
+        }
+    }
+
+    @Autowired private RecordingOutboxSink sink;
+    @Autowired private SalesOrderService salesOrderService;
+    @Autowired private OutboxEventRepository outboxRepo;
+    @Autowired private UserRepository userRepo;
+    @Autowired private WarehouseRepository warehouseRepo;
+    @Autowired private ProductRepository productRepo;
+    @Autowired private InventoryRepository inventoryRepo;
+    @Autowired private SalesOrderRepository salesOrderRepo;
+    @Autowired private PlatformTransactionManager transactionManager;
+
+    @Test
+    @DisplayName("a committed reservation reaches the sink and the in-process listeners, then is marked published")
+    void reservation_isRelayed() throws InterruptedException {
+        String suffix = UUID.randomUUID().toString().substring(0, 8);
+        User manager = userRepo.save(User.builder()
+                .name("Manager").email("outbox-manager-" + suffix + "@test.com").password("x")
+                .active(true).role(Role.WAREHOUSE_MANAGER).build());
+        User client = userRepo.save(User.builder()
+                .name("Client").email("outbox-client-" + suffix + "@test.com").password("x")
+                .active(true).role(Role.CLIENT).build());
+        Warehouse warehouse = warehouseRepo.save(Warehouse.builder()
+                .code("OB-" + suffix).name("Warehouse " + suffix).location("Oujda")
+                .active(true).manager(manager).build());
+        Product product = productRepo.save(Product.builder()
+                .sku("OB-" + suffix).name("Product").description("Reserved product")
+                .price(BigDecimal.TEN).unit("pcs").active(true).imageUrls(new ArrayList<>()).build());
+        inventoryRepo.save(Inventory.builder()
+                .warehouse(warehouse).product(product).qtyOnHand(10).qtyReserved(0).build());
+
+        SalesOrder order = SalesOrder.builder()
+                .client(client).warehouse(warehouse).status(OrderStatus.CREATED)
+                .country("Morocco").city("Oujda").street("Centre").zip("60000").build();
+        order.getLines().add(SalesOrderLine.builder()
+                .salesOrder(order).product(product).qtyOrdered(4).qtyReserved(0).price(BigDecimal.TEN).build());
+        Long orderId = salesOrderRepo.save(order).getId();
+
+        salesOrderService.reserve(orderId);
+
+        Predicate<OrderLifecycleEvent> reserved = e -> e.aggregateType().equals(OrderEventOutbox.SALES_ORDER)
+                && e.aggregateId().equals(orderId) && e.status().equals(OrderStatus.RESERVED.name());
+        // the relay runs on its own thread once the reservation has committed
+        for (int i = 0; i < 100 && sink.published().stream().noneMatch(reserved); i++) {
+            Thread.sleep(50);
+        }
+
+        List<OrderLifecycleEvent> published = sink.published().stream().filter(reserved).toList();
+        assertThat(published).hasSize(1);
+        assertThat(sink.heard()).filteredOn(reserved).containsExactlyElementsOf(published);
+
+        Long eventId = published.get(0).eventId();
+        for (int i = 0; i < 100 && outboxRepo.findById(eventId).orElseThrow().getPublishedAt() == null; i++) {
+            Thread.sleep(50);
+        }
+        assertThat(outboxRepo.findById(eventId).orElseThrow().getPublishedAt()).isNotNull();
+    }
+
+    @Test
+    @DisplayName("parked events are no longer picked up by the relay")
+    void parkedEvent_isSkipped() {
+        OutboxEvent parked = outboxRepo.save(OutboxEvent.builder()
+                .aggregateType(OrderEventOutbox.SALES_ORDER).aggregateId(-1L).status(OrderStatus.RESERVED.name())
+                .attempts(3).lastError("IllegalArgumentException: unmappable payload").build());
+        OutboxEvent retried = outboxRepo.save(OutboxEvent.builder()
+                .aggregateType(OrderEventOutbox.SALES_ORDER).aggregateId(-1L).status(OrderStatus.RESERVED.name())
+                .attempts(2).build());
+
+        List<Long> unpublished = new TransactionTemplate(transactionManager).execute(status ->
+                outboxRepo.findUnpublished(3, PageRequest.of(0, 1000)).stream().map(OutboxEvent::getId).toList());
+
+        assertThat(unpublished).contains(retried.getId()).doesNotContain(parked.getId());
+    }
+}
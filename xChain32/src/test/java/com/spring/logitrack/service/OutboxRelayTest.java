@@ -0,0 +1,132 @@
+package com.spring.logitrack.service;
+
+import com.spring.logitrack.entity.OutboxEvent;
+import com.spring.logitrack.repository.OutboxEventRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Pageable;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.LongStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ActiveProfiles("test")
+class OutboxRelayTest {
+
+    @Mock private OutboxEventRepository repository;
+    @Mock private ApplicationEventPublisher events;
+    @Mock private OutboxSink sink;
+    @Mock private PlatformTransactionManager transactionManager;
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private OutboxRelay relay;
+
+    @BeforeEach
+    void setup() {
+        MockitoAnnotations.openMocks(this);
+        relay = new OutboxRelay(repository, events, sink, new OperationMetrics(registry), transactionManager,
+                2, 3, Duration.ofSeconds(1), Duration.ofDays(7));
+    }
+
+    @AfterEach
+    void tearDown() {
+        relay.shutdown();
+    }
+
+    @Test
+    @DisplayName("full batches are relayed back to back until the outbox is drained")
+    void drain_relaysUntilEmpty() {
+        when(repository.findUnpublished(anyInt(), any(Pageable.class)))
+                .thenReturn(events(1, 2), events(3, 4), events(5));
+
+        relay.drain();
+
+        verify(sink, times(3)).publish(anyList());
+        verify(events, times(5)).publishEvent(any(OrderLifecycleEvent.class));
+        verify(repository).markPublished(eq(List.of(1L, 2L)), any());
+        verify(repository).markPublished(eq(List.of(5L)), any());
+        assertThat(registry.get(OperationMetrics.OUTBOX_PUBLISHED).counter().count()).isEqualTo(5);
+    }
+
+    @Test
+    @DisplayName("a failing sink leaves the batch unpublished for the next run, without counting attempts")
+    void sinkFailure_rollsBack() {
+        when(repository.findUnpublished(anyInt(), any(Pageable.class))).thenReturn(events(1, 2));
+        when(repository.findUnpublishedById(anyLong())).thenAnswer(i -> Optional.of(events(i.<Long>getArgument(0)).get(0)));
+        doThrow(new IllegalStateException("broker down")).when(sink).publish(anyList());
+
+        relay.drain();
+
+        verify(repository, never()).markPublished(anyCollection(), any());
+        verify(repository, never()).recordFailure(anyLong(), anyString());
+        // the batch, then each of its events on its own
+        verify(transactionManager, times(3)).rollback(any());
+        assertThat(registry.find(OperationMetrics.OUTBOX_PUBLISHED).counter()).isNull();
+    }
+
+    @Test
+    @DisplayName("an event the sink always rejects does not hold back the events behind it")
+    void poisonEvent_isIsolated() {
+        when(repository.findUnpublished(anyInt(), any(Pageable.class))).thenReturn(events(1, 2), events(1, 3));
+        when(repository.findUnpublishedById(anyLong())).thenAnswer(i -> Optional.of(events(i.<Long>getArgument(0)).get(0)));
+        doAnswer(i -> {
+            if (i.<List<OrderLifecycleEvent>>getArgument(0).stream().anyMatch(e -> e.eventId() == 1L)) {
+                throw new IllegalArgumentException("unmappable payload");
+            }
+            return null;
+        }).when(sink).publish(anyList());
+
+        relay.drain();
+        relay.drain();
+
+        verify(repository).markPublished(eq(List.of(2L)), any());
+        verify(repository).markPublished(eq(List.of(3L)), any());
+        verify(repository, never()).markPublished(argThat(ids -> ids.contains(1L)), any());
+        verify(repository, times(2)).recordFailure(eq(1L), contains("unmappable payload"));
+        assertThat(registry.get(OperationMetrics.OUTBOX_PUBLISHED).counter().count()).isEqualTo(2);
+        assertThat(registry.find(OperationMetrics.OUTBOX_PARKED).counter()).isNull();
+    }
+
+    @Test
+    @DisplayName("an event failing its last attempt is parked")
+    void poisonEvent_isParkedAfterMaxAttempts() {
+        OutboxEvent poison = events(1).get(0);
+        poison.setAttempts(2);
+        when(repository.findUnpublished(anyInt(), any(Pageable.class))).thenReturn(List.of(poison, events(2).get(0)));
+        when(repository.findUnpublishedById(1L)).thenReturn(Optional.of(poison));
+        when(repository.findUnpublishedById(2L)).thenReturn(Optional.of(events(2).get(0)));
+        doAnswer(i -> {
+            if (i.<List<OrderLifecycleEvent>>getArgument(0).stream().anyMatch(e -> e.eventId() == 1L)) {
+                throw new IllegalArgumentException("unmappable payload");
+            }
+            return null;
+        }).when(sink).publish(anyList());
+
+        relay.drain();
+
+        verify(repository).findUnpublished(eq(3), any(Pageable.class));
+        verify(repository).recordFailure(eq(1L), anyString());
+        assertThat(registry.get(OperationMetrics.OUTBOX_PARKED).counter().count()).isEqualTo(1);
+    }
+
+    private static List<OutboxEvent> events(long... ids) {
+        return LongStream.of(ids)
+                .mapToObj(id -> OutboxEvent.builder().id(id).aggregateType(OrderEventOutbox.SALES_ORDER)
+                        .aggregateId(id * 10).status("RESERVED").occurredAt(LocalDateTime.now()).build())
+                .toList();
+    }
+}
@@ -0,0 +1,156 @@
+package com.spring.logitrack.service;
+
+import com.spring.logitrack.dto.product.ProductSearchCriteria;
+import com.spring.logitrack.dto.product.ProductSearchHitDTO;
+import com.spring.logitrack.entity.Product;
+import com.spring.logitrack.repository.ProductIndexRow;
+import com.spring.logitrack.repository.ProductRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class ProductSearchIndexTest {
+
+    @Mock private ProductRepository repository;
+
+    @InjectMocks private ProductSearchIndex index;
+
+    @BeforeEach
+    void setup() {
+        index.put(product(1L, "PAL-100", "Wooden pallet", "Standard euro pallet, heat treated", "pcs", "12.50", true));
+        index.put(product(2L, "BOX-200", "Cardboard box", "Double wall box for pallets", "pcs", "1.20", true));
+        index.put(product(3L, "TAPE-300", "Packing tape", "Brown tape, 66 metres", "roll", "3.00", true));
+        index.put(product(4L, "PAL-400", "Plastic pallet", "Réutilisable, lavable", "pcs", "45.00", false));
+    }
+
+    @Test
+    void search_matchesEveryWord_lastOneAsPrefix() {
+        assertThat(ids(search("wooden pal"))).containsExactly(1L);
+        // "pallets" only completes the word, so it ranks after both exact matches
+        assertThat(ids(search("pallet"))).containsExactly(1L, 4L, 2L);
+        assertThat(ids(search("pal"))).containsExactlyInAnyOrder(1L, 2L, 4L);
+        assertThat(ids(search("wooden tape"))).isEmpty();
+    }
+
+    @Test
+    void search_ranksSkuAboveNameAboveDescription() {
+        index.put(product(5L, "BOX-500", "Crate", "Box of crates", "pcs", "9.00", true));
+
+        List<ProductSearchHitDTO> hits = search("box").getContent();
+
+        // BOX-200 has it in sku and name, BOX-500 in sku and description
+        assertThat(hits).extracting(ProductSearchHitDTO::getId).containsExactly(2L, 5L);
+        assertThat(hits.get(0).getScore()).isGreaterThan(hits.get(1).getScore());
+    }
+
+    @Test
+    void search_foldsCaseAndAccents() {
+        assertThat(ids(search("REUTILISABLE"))).containsExactly(4L);
+        assertThat(ids(search("pal-400"))).containsExactly(4L);
+    }
+
+    @Test
+    void search_appliesFilters() {
+        ProductSearchCriteria criteria = criteria("plastic pallet");
+        assertThat(ids(index.search(criteria, PageRequest.of(0, 20)))).containsExactly(4L);
+        criteria.setActive(true);
+        assertThat(ids(index.search(criteria, PageRequest.of(0, 20)))).isEmpty();
+
+        criteria = criteria(null);
+        criteria.setUnit("PCS");
+        criteria.setMinPrice(new BigDecimal("1.20"));
+        criteria.setMaxPrice(new BigDecimal("12.50"));
+        assertThat(ids(index.search(criteria, PageRequest.of(0, 20)))).containsExactly(1L, 2L);
+    }
+
+    @Test
+    void search_pagesRankedHits() {
+        IntStream.rangeClosed(10, 34).forEach(i ->
+                index.put(product((long) i, "CRT-" + i, "Crate " + i, "Slatted crate", "pcs", "5.00", true)));
+
+        Page<ProductSearchHitDTO> page = index.search(criteria("crate"), PageRequest.of(2, 10));
+
+        assertThat(page.getTotalElements()).isEqualTo(25);
+        assertThat(page.getTotalPages()).isEqualTo(3);
+        assertThat(ids(page)).containsExactly(30L, 31L, 32L, 33L, 34L);
+    }
+
+    @Test
+    void put_reindexesChangedWords_andRemoveDropsProduct() {
+        index.put(product(3L, "TAPE-300", "Masking tape", "Paper tape", "roll", "3.00", true));
+
+        assertThat(ids(search("packing"))).isEmpty();
+        assertThat(ids(search("masking"))).containsExactly(3L);
+
+        index.remove(3L);
+
+        assertThat(ids(search("tape"))).isEmpty();
+        assertThat(index.suggest("ta", 10)).isEmpty();
+    }
+
+    @Test
+    void suggest_completesLastWord_mostFrequentFirst() {
+        assertThat(index.suggest("pal", 10)).containsExactly("pal", "pallet", "pallets");
+        assertThat(index.suggest("wooden PALL", 1)).containsExactly("wooden pallet");
+        assertThat(index.suggest("  ", 10)).isEmpty();
+    }
+
+    @Test
+    void rebuild_replacesIndexWithTableContent() {
+        ProductIndexRow row = row(7L, "GLV-700", "Work gloves", "Nitrile coated", "pair", "2.50", true);
+        when(repository.streamIndexRows()).thenReturn(Stream.of(row));
+
+        index.rebuild();
+
+        assertThat(index.size()).isEqualTo(1);
+        assertThat(ids(search("glo"))).containsExactly(7L);
+        assertThat(ids(search("pallet"))).isEmpty();
+    }
+
+    private Page<ProductSearchHitDTO> search(String q) {
+        return index.search(criteria(q), PageRequest.of(0, 20));
+    }
+
+    private static ProductSearchCriteria criteria(String q) {
+        ProductSearchCriteria criteria = new ProductSearchCriteria();
+        criteria.setQ(q);
+        return criteria;
+    }
+
+    private static List<Long> ids(Page<ProductSearchHitDTO> page) {
+        return page.getContent().stream().map(ProductSearchHitDTO::getId).toList();
+    }
+
+    private static Product product(Long id, String sku, String name, String description, String unit,
+                                   String price, boolean active) {
+        return Product.builder().id(id).sku(sku).name(name).description(description).unit(unit)
+                .price(new BigDecimal(price)).active(active).build();
+    }
+
+    private static ProductIndexRow row(Long id, String sku, String name, String description, String unit,
+                                       String price, boolean active) {
+        return new ProductIndexRow() {
+            public Long getId() { return id; }
+            public String getSku() { return sku; }
+            public String getName() { return name; }
+            public String getDescription() { return description; }
+            public String getUnit() { return unit; }
+            public BigDecimal getPrice() { return new BigDecimal(price); }
+            public boolean isActive() { return active; }
+        };
+    }
+}
@@ -20,14 +20,19 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.mock.web.MockMultipartFile;
 import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
 
 import java.util.List;
 import java.util.Optional;
 
 import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
 
@@ -41,6 +46,9 @@ class ProductServiceTest {
     @Mock private InventoryRepository inventoryRepo;
     @Mock private SalesOrderLineRepository lineRepo;
     @Mock private S3Service s3Service;
+    @Mock private PlatformTransactionManager transactionManager;
+    @Mock private CatalogCache catalogCache;
+    @Mock private ProductSearchIndex searchIndex;
 
     @InjectMocks private ProductService service;
 
@@ -61,13 +69,13 @@ class ProductServiceTest {
         ProductResponseDTO r = new ProductResponseDTO();
         r.setId(1L);
 
-        when(repo.findAll()).thenReturn(List.of(p));
+        when(repo.findAll(any(Pageable.class))).thenReturn(new PageImpl<>(List.of(p)));
         when(mapper.toResponse(p)).thenReturn(r);
 
-        var result = service.list();
+        var result = service.list(PageRequest.of(0, 20));
 
         assertThat(result).hasSize(1);
-        assertThat(result.get(0).getId()).isEqualTo(1L);
+        assertThat(result.getContent().get(0).getId()).isEqualTo(1L);
     }
 
     // -------------------------------------------------------------------
@@ -130,7 +138,7 @@ class ProductServiceTest {
         ProductResponseDTO response = new ProductResponseDTO();
         response.setId(1L);
 
-        when(s3Service.uploadFile(file)).thenReturn("url1");
+        when(s3Service.uploadAll(List.of(file))).thenReturn(List.of("url1"));
         when(mapper.toEntity(dto)).thenReturn(entity);
         when(repo.save(entity)).thenReturn(saved);
         when(mapper.toResponse(saved)).thenReturn(response);
@@ -161,7 +169,7 @@ class ProductServiceTest {
         dto.setImageUrls(List.of(file));
 
         // Mock S3 returning a URL
-        when(s3Service.uploadFile(file)).thenReturn("uploaded-url");
+        when(s3Service.uploadAll(List.of(file))).thenReturn(List.of("uploaded-url"));
 
         // Map DTO → product entity
         Product entity = new Product();
@@ -174,6 +182,31 @@ class ProductServiceTest {
         assertThatThrownBy(() -> service.create(dto))
                 .isInstanceOf(DuplicateResourceException.class)
                 .hasMessageContaining("SKU already exists");
+        verify(s3Service).deleteQuietly(eq(List.of("uploaded-url")), any(RuntimeException.class));
+    }
+
+    @Test
+    void create_inventoryFails_rollsBackUploads() {
+        ProductCreateDTO dto = new ProductCreateDTO();
+        dto.setSku("SKU-2");
+        dto.setWarehouseId(99L);
+        dto.setImageUrls(List.of(file, file));
+
+        Product entity = new Product();
+        Product saved = new Product();
+        saved.setId(2L);
+
+        when(s3Service.uploadAll(List.of(file, file))).thenReturn(List.of("url1", "url2"));
+        when(mapper.toEntity(dto)).thenReturn(entity);
+        when(repo.save(entity)).thenReturn(saved);
+        when(inventoryService.create(any(InventoryCreateDTO.class)))
+                .thenThrow(new IllegalArgumentException("Warehouse not found"));
+
+        assertThatThrownBy(() -> service.create(dto))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("Warehouse not found");
+        verify(s3Service).deleteQuietly(eq(List.of("url1", "url2")), any(RuntimeException.class));
+        verify(transactionManager).rollback(any());
     }
 
 
@@ -203,6 +236,8 @@ class ProductServiceTest {
         var result = service.update(1L, dto);
 
         assertThat(result.getId()).isEqualTo(1L);
+        verify(catalogCache).invalidate();
+        verify(searchIndex).put(saved);
     }
 
     @Test
@@ -0,0 +1,151 @@
+package com.spring.logitrack.service;
+
+import com.spring.logitrack.dto.POLine.POLineReceiptDTO;
+import com.spring.logitrack.dto.purchaseOrder.PurchaseOrderReceiptDTO;
+import com.spring.logitrack.dto.purchaseOrder.PurchaseOrderResponseDTO;
+import com.spring.logitrack.entity.*;
+import com.spring.logitrack.entity.enums.MovementType;
+import com.spring.logitrack.entity.enums.POStatus;
+import com.spring.logitrack.entity.enums.Role;
+import com.spring.logitrack.repository.*;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+
+@SpringBootTest(properties = "spring.profiles.active=test")
+class PurchaseOrderReceiptTest {
+
+    @Autowired private PurchaseOrderService purchaseOrderService;
+    @Autowired private PurchaseOrderRepository poRepo;
+    @Autowired private SupplierRepository supplierRepo;
+    @Autowired private UserRepository userRepo;
+    @Autowired private WarehouseRepository warehouseRepo;
+    @Autowired private ProductRepository productRepo;
+    @Autowired private InventoryRepository inventoryRepo;
+    @Autowired private InventoryMovementRepository movementRepo;
+
+    private Warehouse warehouse;
+    private Product stocked;
+    private Product unstocked;
+    private Inventory inventory;
+    private PurchaseOrder po;
+
+    @BeforeEach
+    void setup() {
+        String suffix = UUID.randomUUID().toString().substring(0, 8);
+
+        User manager = userRepo.save(User.builder()
+                .name("Manager").email("receipt-manager-" + suffix + "@test.com").password("x")
+                .active(true).role(Role.WAREHOUSE_MANAGER).build());
+        warehouse = warehouseRepo.save(Warehouse.builder()
+                .code("RC-" + suffix).name("Warehouse " + suffix).location("Agadir")
+                .active(true).manager(manager).build());
+        stocked = product("RCA-" + suffix);
+        unstocked = product("RCB-" + suffix);
+        inventory = inventoryRepo.save(Inventory.builder()
+                .warehouse(warehouse).product(stocked).qtyOnHand(4).qtyReserved(1).build());
+
+        Supplier supplier = supplierRepo.save(Supplier.builder()
+                .name("Supplier").email("receipt-" + suffix + "@test.com").contact("0600000000").build());
+        po = PurchaseOrder.builder().supplier(supplier).warehouse(warehouse).status(POStatus.APPROVED).build();
+        po.getLines().add(POLine.builder().purchaseOrder(po).product(stocked).qty(10).price(BigDecimal.TEN).build());
+        po.getLines().add(POLine.builder().purchaseOrder(po).product(unstocked).qty(6).price(BigDecimal.TEN).build());
+        po = poRepo.save(po);
+    }
+
+    @Test
+    @DisplayName("a partial receipt posts only the received quantities, the rest completes the order")
+    void partialThenFullReceipt() {
+        LocalDateTime from = LocalDateTime.now().minusMinutes(1);
+        POLineReceiptDTO firstLine = new POLineReceiptDTO();
+        firstLine.setLineId(po.getLines().get(0).getId());
+        firstLine.setQty(3);
+        PurchaseOrderReceiptDTO partial = new PurchaseOrderReceiptDTO();
+        partial.setLines(List.of(firstLine));
+
+        PurchaseOrderResponseDTO afterPartial = purchaseOrderService.receive(po.getId(), partial);
+
+        assertThat(afterPartial.getStatus()).isEqualTo(POStatus.PARTIALLY_RECEIVED);
+        assertThat(inventoryRepo.findById(inventory.getId()).orElseThrow().getQtyOnHand()).isEqualTo(7);
+        assertThat(inventoryRepo.findTopByProduct_IdAndWarehouse_IdOrderByIdDesc(unstocked.getId(), warehouse.getId()))
+                .isEmpty();
+
+        PurchaseOrderResponseDTO afterRest = purchaseOrderService.receive(po.getId(), null);
+
+        assertThat(afterRest.getStatus()).isEqualTo(POStatus.RECEIVED);
+        assertThat(afterRest.getLines()).allSatisfy(line -> assertThat(line.getQtyReceived()).isEqualTo(line.getQty()));
+        assertThat(inventoryRepo.findById(inventory.getId()).orElseThrow().getQtyOnHand()).isEqualTo(14);
+        Inventory created = inventoryRepo.findTopByProduct_IdAndWarehouse_IdOrderByIdDesc(unstocked.getId(), warehouse.getId())
+                .orElseThrow();
+        assertThat(created.getQtyOnHand()).isEqualTo(6);
+        assertThat(created.getQtyReserved()).isZero();
+
+        LocalDateTime to = LocalDateTime.now().plusMinutes(1);
+        assertThat(movementRepo.findByInventoryAndPeriod(inventory.getId(), from, to, PageRequest.of(0, 10)).getContent())
+                .extracting(InventoryMovement::getType, InventoryMovement::getQty)
+                .containsExactlyInAnyOrder(
+                        tuple(MovementType.INBOUND, 3),
+                        tuple(MovementType.INBOUND, 7));
+        assertThat(movementRepo.findByInventoryAndPeriod(created.getId(), from, to, PageRequest.of(0, 10)).getContent())
+                .extracting(InventoryMovement::getQty).containsExactly(6);
+    }
+
+    @Test
+    @DisplayName("concurrent status changes to RECEIVED post the outstanding quantities once")
+    void concurrentReceivedStatus_postsOnce() throws Exception {
+        ExecutorService pool = Executors.newFixedThreadPool(2);
+        CountDownLatch start = new CountDownLatch(1);
+        try {
+            List<Future<?>> calls = new ArrayList<>();
+            for (int i = 0; i < 2; i++) {
+                calls.add(pool.submit(() -> {
+                    start.await();
+                    return purchaseOrderService.updateStatus(po.getId(), "RECEIVED");
+                }));
+            }
+            start.countDown();
+
+            int failed = 0;
+            for (Future<?> call : calls) {
+                try {
+                    call.get(30, TimeUnit.SECONDS);
+                } catch (ExecutionException e) {
+                    assertThat(e.getCause()).isInstanceOf(IllegalStateException.class)
+                            .hasMessageContaining("already has status");
+                    failed++;
+                }
+            }
+            assertThat(failed).isEqualTo(1);
+        } finally {
+            pool.shutdownNow();
+        }
+
+        assertThat(inventoryRepo.findById(inventory.getId()).orElseThrow().getQtyOnHand()).isEqualTo(14);
+        assertThat(inventoryRepo.findTopByProduct_IdAndWarehouse_IdOrderByIdDesc(unstocked.getId(), warehouse.getId())
+                .orElseThrow().getQtyOnHand()).isEqualTo(6);
+    }
+
+    private Product product(String sku) {
+        return productRepo.save(Product.builder()
+                .sku(sku).name("Product " + sku).description("Received product")
+                .price(BigDecimal.TEN).unit("pcs").active(true).imageUrls(new ArrayList<>()).build());
+    }
+}
@@ -1,28 +1,40 @@
 package com.spring.logitrack.service;
 
 import com.spring.logitrack.dto.POLine.POLineCreateDTO;
+import com.spring.logitrack.dto.POLine.POLineReceiptDTO;
 import com.spring.logitrack.dto.purchaseOrder.PurchaseOrderCreateDTO;
+import com.spring.logitrack.dto.purchaseOrder.PurchaseOrderReceiptDTO;
 import com.spring.logitrack.dto.purchaseOrder.PurchaseOrderResponseDTO;
+import com.spring.logitrack.dto.purchaseOrder.ReplenishmentRequestDTO;
 import com.spring.logitrack.entity.*;
 import com.spring.logitrack.entity.enums.BackorderStatus;
 import com.spring.logitrack.entity.enums.OrderStatus;
 import com.spring.logitrack.entity.enums.POStatus;
 import com.spring.logitrack.mapper.PurchaseOrderMapper;
 import com.spring.logitrack.repository.*;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import jakarta.persistence.EntityNotFoundException;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 import org.springframework.test.context.ActiveProfiles;
 
 import java.math.BigDecimal;
 import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 
 import static org.assertj.core.api.Assertions.*;
 import static org.mockito.Mockito.*;
@@ -33,6 +45,7 @@ class PurchaseOrderServiceTest {
 
     @Mock private PurchaseOrderRepository poRepo;
     @Mock private SupplierRepository supplierRepo;
+    @Mock private WarehouseRepository warehouseRepo;
     @Mock private ProductRepository productRepo;
     @Mock private SimpleOrderRepository simpleOrderRepo;
     @Mock private BackorderRepository backorderRepo;
@@ -40,6 +53,12 @@ class PurchaseOrderServiceTest {
     @Mock private SalesOrderRepository salesOrderRepo;
     @Mock private InventoryRepository inventoryRepo;
     @Mock private PurchaseOrderMapper mapper;
+    @Mock private InventoryAvailabilityCache availabilityCache;
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    @Spy private OperationMetrics metrics = new OperationMetrics(registry);
+    @Mock private BackorderAllocator allocator;
+    @Mock private ReceiptPoster receiptPoster;
+    @Mock private OrderEventOutbox outbox;
 
     @InjectMocks
     private PurchaseOrderService service;
@@ -71,7 +90,7 @@ class PurchaseOrderServiceTest {
         PurchaseOrder saved = PurchaseOrder.builder().id(99L).supplier(supplier).build();
 
         when(supplierRepo.findById(1L)).thenReturn(Optional.of(supplier));
-        when(productRepo.findById(10L)).thenReturn(Optional.of(product));
+        when(productRepo.findAllById(Set.of(10L))).thenReturn(List.of(product));
         when(poRepo.saveAndFlush(any(PurchaseOrder.class))).thenReturn(saved);
         when(mapper.toResponse(saved)).thenReturn(new PurchaseOrderResponseDTO());
 
@@ -106,7 +125,7 @@ class PurchaseOrderServiceTest {
         dto.setLines(List.of(lineDTO));
 
         when(supplierRepo.findById(1L)).thenReturn(Optional.of(supplier));
-        when(productRepo.findById(10L)).thenReturn(Optional.empty());
+        when(productRepo.findAllById(Set.of(10L))).thenReturn(List.of());
 
         assertThatThrownBy(() -> service.create(dto))
                 .isInstanceOf(EntityNotFoundException.class)
@@ -273,6 +292,73 @@ class PurchaseOrderServiceTest {
                 .hasMessageContaining("Supplier not found");
     }
 
+    @Test
+    @DisplayName("replenishBackorders: one PO per supplier and warehouse, one line per product")
+    @SuppressWarnings("unchecked")
+    void replenishBackorders_consolidatesPerSupplier() {
+        Supplier other = Supplier.builder().id(2L).name("Other").build();
+        Product bolts = Product.builder().id(11L).price(BigDecimal.ONE).build();
+        ReplenishmentRequestDTO dto = new ReplenishmentRequestDTO();
+        dto.setDefaultSupplierId(1L);
+        dto.setSuppliersByProduct(Map.of(11L, 2L));
+
+        when(backorderRepo.findUnorderedByStatusIn(anyCollection())).thenReturn(List.of(
+                unordered(1L, 10L, 5L, 3, 1),
+                unordered(2L, 10L, 5L, 2, 0),
+                unordered(3L, 11L, 5L, 4, 0),
+                unordered(4L, 10L, 6L, 1, 0)));
+        when(supplierRepo.findAllById(anyCollection())).thenReturn(List.of(supplier, other));
+        when(productRepo.findAllById(anyCollection())).thenReturn(List.of(product, bolts));
+        when(warehouseRepo.getReferenceById(anyLong())).thenAnswer(i -> Warehouse.builder().id(i.getArgument(0)).build());
+        when(backorderRepo.linkReplenishmentOrder(any(), anyCollection())).thenAnswer(i -> i.<List<Long>>getArgument(1).size());
+
+        List<PurchaseOrderResponseDTO> result = service.replenishBackorders(dto);
+
+        ArgumentCaptor<List<PurchaseOrder>> saved = ArgumentCaptor.forClass(List.class);
+        verify(poRepo).saveAllAndFlush(saved.capture());
+        assertThat(saved.getValue()).hasSize(3);
+        assertThat(result).hasSize(3);
+
+        PurchaseOrder first = saved.getValue().get(0);
+        assertThat(first.getSupplier()).isSameAs(supplier);
+        assertThat(first.getWarehouse().getId()).isEqualTo(5L);
+        assertThat(first.getLines()).singleElement().satisfies(line -> {
+            assertThat(line.getProduct()).isSameAs(product);
+            assertThat(line.getQty()).isEqualTo(6);
+        });
+        assertThat(saved.getValue().get(1).getWarehouse().getId()).isEqualTo(6L);
+        assertThat(saved.getValue().get(2).getSupplier()).isSameAs(other);
+        assertThat(saved.getValue().get(2).getLines()).singleElement()
+                .satisfies(line -> assertThat(line.getQty()).isEqualTo(4));
+
+        verify(backorderRepo).linkReplenishmentOrder(first.getId(), List.of(1L, 2L));
+    }
+
+    @Test
+    @DisplayName("replenishBackorders: a backorder ordered concurrently rolls the whole run back")
+    void replenishBackorders_concurrentRun() {
+        ReplenishmentRequestDTO dto = new ReplenishmentRequestDTO();
+        dto.setDefaultSupplierId(1L);
+
+        when(backorderRepo.findUnorderedByStatusIn(anyCollection())).thenReturn(List.of(unordered(1L, 10L, 5L, 3, 0)));
+        when(supplierRepo.findAllById(anyCollection())).thenReturn(List.of(supplier));
+        when(productRepo.findAllById(anyCollection())).thenReturn(List.of(product));
+        when(backorderRepo.linkReplenishmentOrder(any(), anyCollection())).thenReturn(0);
+
+        assertThatThrownBy(() -> service.replenishBackorders(dto))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("ordered concurrently");
+    }
+
+    @Test
+    @DisplayName("replenishBackorders: backorders of products without supplier are left alone")
+    void replenishBackorders_noSupplierChosen() {
+        when(backorderRepo.findUnorderedByStatusIn(anyCollection())).thenReturn(List.of(unordered(1L, 10L, 5L, 3, 0)));
+
+        assertThat(service.replenishBackorders(new ReplenishmentRequestDTO())).isEmpty();
+        verify(poRepo, never()).saveAllAndFlush(anyList());
+    }
+
     @Test
     @DisplayName("update: should patch and update supplier when provided")
     void update_successWithSupplierChange() {
@@ -326,38 +412,20 @@ class PurchaseOrderServiceTest {
     @Test
     @DisplayName("updateStatus: should update to RECEIVED for BackOrder and update inventory, sales order & backorder")
     void updateStatus_receivedBackorder_success() {
-        Warehouse warehouse = new Warehouse();
-        warehouse.setId(2L);
-
-        SalesOrderLine line = new SalesOrderLine();
-        line.setProduct(product);
-        line.setQtyReserved(2);
-
-        SalesOrder sales = new SalesOrder();
-        sales.setId(20L);
-        sales.setWarehouse(warehouse);
-        sales.setLines(List.of(line));
-        sales.setStatus(OrderStatus.CREATED);
-
-        Backorder back = new Backorder();
-        back.setId(100L);
-        back.setQty(3);
-        back.setProduct(product);
-        back.setSalesOrder(sales);
-
-        PurchaseOrder po = PurchaseOrder.builder()
-                .id(55L)
-                .status(POStatus.APPROVED)
-                .order(back)
-                .build();
+        Warehouse warehouse = Warehouse.builder().id(2L).build();
+        SalesOrderLine line = salesLine(5, 2);
+        SalesOrder sales = salesOrder(warehouse, line, OrderStatus.BACKORDER);
+        Backorder back = backorder(sales, 3, BackorderStatus.PENDING);
+        PurchaseOrder po = backorderPo(back, 3);
 
         Inventory inv = new Inventory();
+        inv.setId(9L);
         inv.setQtyOnHand(5);
         inv.setQtyReserved(1);
         inv.setProduct(product);
         inv.setWarehouse(warehouse);
 
-        when(poRepo.findById(55L)).thenReturn(Optional.of(po));
+        when(poRepo.findForUpdateById(55L)).thenReturn(Optional.of(po));
         when(inventoryRepo.findTopByProduct_IdAndWarehouse_IdOrderByIdDesc(product.getId(), warehouse.getId()))
                 .thenReturn(Optional.of(inv));
         when(poRepo.save(po)).thenReturn(po);
@@ -366,26 +434,73 @@ class PurchaseOrderServiceTest {
         PurchaseOrderResponseDTO result = service.updateStatus(55L, "RECEIVED");
 
         assertThat(result).isNotNull();
-        assertThat(inv.getQtyOnHand()).isEqualTo(8);
-        assertThat(inv.getQtyReserved()).isEqualTo(4);
         assertThat(line.getQtyReserved()).isEqualTo(5);
         assertThat(sales.getStatus()).isEqualTo(OrderStatus.RESERVED);
         assertThat(back.getStatus()).isEqualTo(BackorderStatus.FULFILLED);
+        assertThat(po.getLines().get(0).getQtyReceived()).isEqualTo(3);
 
         verify(poRepo).save(po);
-        verify(inventoryRepo).save(inv);
+        verify(inventoryRepo).addOnHandReserved(9L, 3);
+        verify(inventoryRepo, never()).save(any());
+        verify(availabilityCache).adjust(inv, 3, 3);
+        verifyNoInteractions(receiptPoster);
+        verify(outbox).record(OrderEventOutbox.SALES_ORDER, 20L, OrderStatus.RESERVED);
         verify(salesOrderLineRepo).save(line);
         verify(salesOrderRepo).save(sales);
         verify(backorderRepo).save(back);
     }
 
+    @Test
+    @DisplayName("updateStatus: a backorder the allocator already fulfilled gets the receipt as plain stock")
+    void updateStatus_receivedBackorder_alreadyAllocated() {
+        Warehouse warehouse = Warehouse.builder().id(2L).build();
+        SalesOrderLine line = salesLine(5, 5);
+        SalesOrder sales = salesOrder(warehouse, line, OrderStatus.RESERVED);
+        Backorder back = backorder(sales, 3, BackorderStatus.FULFILLED);
+        PurchaseOrder po = backorderPo(back, 3);
+
+        when(poRepo.findForUpdateById(55L)).thenReturn(Optional.of(po));
+        when(poRepo.save(po)).thenReturn(po);
+
+        service.updateStatus(55L, "RECEIVED");
+
+        assertThat(line.getQtyReserved()).isEqualTo(5);
+        assertThat(back.getStatus()).isEqualTo(BackorderStatus.FULFILLED);
+        verify(receiptPoster).post(warehouse, Map.of(10L, 3));
+        verify(inventoryRepo, never()).addOnHandReserved(anyLong(), anyInt());
+        verify(outbox, never()).record(eq(OrderEventOutbox.SALES_ORDER), any(), any());
+    }
+
+    @Test
+    @DisplayName("updateStatus: only what the line still lacks is reserved, the rest is posted as plain stock")
+    void updateStatus_receivedBackorder_partlyAllocated() {
+        Warehouse warehouse = Warehouse.builder().id(2L).build();
+        SalesOrderLine line = salesLine(5, 4);
+        SalesOrder sales = salesOrder(warehouse, line, OrderStatus.BACKORDER);
+        Backorder back = backorder(sales, 1, BackorderStatus.PARTIALLY_FULFILLED);
+        PurchaseOrder po = backorderPo(back, 3);
+        Inventory inv = Inventory.builder().id(9L).product(product).warehouse(warehouse).qtyOnHand(4).qtyReserved(4).build();
+
+        when(poRepo.findForUpdateById(55L)).thenReturn(Optional.of(po));
+        when(inventoryRepo.findTopByProduct_IdAndWarehouse_IdOrderByIdDesc(10L, 2L)).thenReturn(Optional.of(inv));
+        when(poRepo.save(po)).thenReturn(po);
+
+        service.updateStatus(55L, "RECEIVED");
+
+        assertThat(line.getQtyReserved()).isEqualTo(5);
+        assertThat(sales.getStatus()).isEqualTo(OrderStatus.RESERVED);
+        assertThat(back.getStatus()).isEqualTo(BackorderStatus.FULFILLED);
+        verify(inventoryRepo).addOnHandReserved(9L, 1);
+        verify(receiptPoster).post(warehouse, Map.of(10L, 2));
+    }
+
     @Test
     @DisplayName("updateStatus: should throw when status is invalid")
     void updateStatus_invalidStatus() {
         PurchaseOrder po = new PurchaseOrder();
         po.setId(1L);
 
-        when(poRepo.findById(1L)).thenReturn(Optional.of(po));
+        when(poRepo.findForUpdateById(1L)).thenReturn(Optional.of(po));
 
         assertThatThrownBy(() -> service.updateStatus(1L, "INVALID"))
                 .isInstanceOf(IllegalArgumentException.class)
@@ -395,7 +510,7 @@ class PurchaseOrderServiceTest {
     @Test
     @DisplayName("updateStatus: should throw when PO not found")
     void updateStatus_poNotFound() {
-        when(poRepo.findById(77L)).thenReturn(Optional.empty());
+        when(poRepo.findForUpdateById(77L)).thenReturn(Optional.empty());
 
         assertThatThrownBy(() -> service.updateStatus(77L, "RECEIVED"))
                 .isInstanceOf(EntityNotFoundException.class)
@@ -409,7 +524,7 @@ class PurchaseOrderServiceTest {
         po.setId(1L);
         po.setStatus(POStatus.APPROVED);
 
-        when(poRepo.findById(1L)).thenReturn(Optional.of(po));
+        when(poRepo.findForUpdateById(1L)).thenReturn(Optional.of(po));
 
         assertThatThrownBy(() -> service.updateStatus(1L, "APPROVED"))
                 .isInstanceOf(IllegalStateException.class)
@@ -423,7 +538,7 @@ class PurchaseOrderServiceTest {
         po.setId(1L);
         po.setStatus(POStatus.RECEIVED);
 
-        when(poRepo.findById(1L)).thenReturn(Optional.of(po));
+        when(poRepo.findForUpdateById(1L)).thenReturn(Optional.of(po));
 
         assertThatThrownBy(() -> service.updateStatus(1L, "APPROVED"))
                 .isInstanceOf(IllegalStateException.class)
@@ -452,7 +567,7 @@ class PurchaseOrderServiceTest {
 
         PurchaseOrderResponseDTO responseDTO = new PurchaseOrderResponseDTO();
 
-        when(poRepo.findById(1L)).thenReturn(Optional.of(po));
+        when(poRepo.findForUpdateById(1L)).thenReturn(Optional.of(po));
         when(poRepo.save(po)).thenReturn(saved);
         when(mapper.toResponse(saved)).thenReturn(responseDTO);
 
@@ -462,51 +577,127 @@ class PurchaseOrderServiceTest {
         assertThat(po.getStatus()).isEqualTo(POStatus.RECEIVED);
         verify(poRepo).save(po);
         verify(mapper).toResponse(saved);
+        assertThat(registry.get(OperationMetrics.PURCHASE_ORDER)
+                .tags("operation", "receive", "outcome", "received").timer().count()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("updateStatus: RECEIVED posts every outstanding line to the PO's warehouse")
+    void updateStatus_received_postsOutstandingLines() {
+        Warehouse warehouse = Warehouse.builder().id(2L).build();
+        Product other = Product.builder().id(11L).build();
+        PurchaseOrder po = PurchaseOrder.builder().id(1L).status(POStatus.PARTIALLY_RECEIVED).warehouse(warehouse).build();
+        po.getLines().add(POLine.builder().id(1L).purchaseOrder(po).product(product).qty(5).qtyReceived(2).build());
+        po.getLines().add(POLine.builder().id(2L).purchaseOrder(po).product(other).qty(4).build());
+        po.getLines().add(POLine.builder().id(3L).purchaseOrder(po).product(product).qty(1).build());
+
+        when(poRepo.findForUpdateById(1L)).thenReturn(Optional.of(po));
+        when(poRepo.save(po)).thenReturn(po);
+
+        service.updateStatus(1L, "RECEIVED");
+
+        verify(receiptPoster).post(warehouse, Map.of(10L, 4, 11L, 4));
+        assertThat(po.getLines()).allSatisfy(line -> assertThat(line.getQtyReceived()).isEqualTo(line.getQty()));
+        assertThat(po.getStatus()).isEqualTo(POStatus.RECEIVED);
+    }
+
+    @Test
+    @DisplayName("receive: a partial receipt posts the given quantities and leaves the PO partially received")
+    void receive_partial() {
+        Warehouse warehouse = Warehouse.builder().id(2L).build();
+        PurchaseOrder po = PurchaseOrder.builder().id(1L).status(POStatus.APPROVED).warehouse(warehouse).build();
+        po.getLines().add(POLine.builder().id(7L).purchaseOrder(po).product(product).qty(5).build());
+
+        when(poRepo.findForUpdateById(1L)).thenReturn(Optional.of(po));
+        when(poRepo.save(po)).thenReturn(po);
+
+        service.receive(1L, receipt(7L, 3));
+
+        verify(receiptPoster).post(warehouse, Map.of(10L, 3));
+        assertThat(po.getLines().get(0).getQtyReceived()).isEqualTo(3);
+        assertThat(po.getStatus()).isEqualTo(POStatus.PARTIALLY_RECEIVED);
+        verify(outbox).record(OrderEventOutbox.PURCHASE_ORDER, 1L, POStatus.PARTIALLY_RECEIVED);
+        assertThat(registry.get(OperationMetrics.PURCHASE_ORDER)
+                .tags("operation", "receive", "outcome", "partial").timer().count()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("receive: more than what is outstanding on a line is rejected")
+    void receive_moreThanOutstanding() {
+        PurchaseOrder po = PurchaseOrder.builder().id(1L).status(POStatus.PARTIALLY_RECEIVED)
+                .warehouse(Warehouse.builder().id(2L).build()).build();
+        po.getLines().add(POLine.builder().id(7L).purchaseOrder(po).product(product).qty(5).qtyReceived(4).build());
+
+        when(poRepo.findForUpdateById(1L)).thenReturn(Optional.of(po));
+
+        assertThatThrownBy(() -> service.receive(1L, receipt(7L, 2)))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("only 1 outstanding");
+        verifyNoInteractions(receiptPoster);
+    }
+
+    @Test
+    @DisplayName("receive: a PO without warehouse cannot be received")
+    void receive_withoutWarehouse() {
+        PurchaseOrder po = PurchaseOrder.builder().id(1L).status(POStatus.APPROVED).build();
+        po.getLines().add(POLine.builder().id(7L).purchaseOrder(po).product(product).qty(5).build());
+
+        when(poRepo.findForUpdateById(1L)).thenReturn(Optional.of(po));
+
+        assertThatThrownBy(() -> service.receive(1L, null))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("no warehouse");
+        verifyNoInteractions(receiptPoster);
     }
 
     @Test
     @DisplayName("list: should list all purchase orders")
     void listPurchaseOrders() {
         PurchaseOrder po = new PurchaseOrder();
+        po.setId(7L);
         PurchaseOrderResponseDTO dto = new PurchaseOrderResponseDTO();
 
-        when(poRepo.findAll()).thenReturn(List.of(po));
+        when(poRepo.findPageOfIds(any(Pageable.class))).thenReturn(new PageImpl<>(List.of(7L)));
+        when(poRepo.findAllWithDetailsByIdIn(List.of(7L))).thenReturn(List.of(po));
         when(mapper.toResponse(po)).thenReturn(dto);
 
-        List<PurchaseOrderResponseDTO> result = service.list();
+        Page<PurchaseOrderResponseDTO> result = service.list(PageRequest.of(0, 20));
 
         assertThat(result).hasSize(1);
-        assertThat(result.get(0)).isSameAs(dto);
-        verify(poRepo).findAll();
+        assertThat(result.getContent().get(0)).isSameAs(dto);
+        verify(poRepo, never()).findAll(any(Pageable.class));
     }
 
     @Test
     @DisplayName("findBySupplier: should return mapped purchase orders")
     void findBySupplier_success() {
         PurchaseOrder po1 = new PurchaseOrder();
+        po1.setId(1L);
         PurchaseOrder po2 = new PurchaseOrder();
+        po2.setId(2L);
         PurchaseOrderResponseDTO dto1 = new PurchaseOrderResponseDTO();
         PurchaseOrderResponseDTO dto2 = new PurchaseOrderResponseDTO();
 
-        when(poRepo.findBySupplier_Id(1L)).thenReturn(List.of(po1, po2));
+        when(poRepo.findIdsBySupplierId(1L)).thenReturn(List.of(1L, 2L));
+        when(poRepo.findAllWithDetailsByIdIn(List.of(1L, 2L))).thenReturn(List.of(po2, po1));
         when(mapper.toResponse(po1)).thenReturn(dto1);
         when(mapper.toResponse(po2)).thenReturn(dto2);
 
         List<PurchaseOrderResponseDTO> result = service.findBySupplier(1L);
 
         assertThat(result).containsExactly(dto1, dto2);
-        verify(poRepo).findBySupplier_Id(1L);
+        verify(poRepo).findAllWithDetailsByIdIn(List.of(1L, 2L));
     }
 
     @Test
     @DisplayName("findBySupplier: should handle empty result list")
     void findBySupplier_empty() {
-        when(poRepo.findBySupplier_Id(1L)).thenReturn(Collections.emptyList());
+        when(poRepo.findIdsBySupplierId(1L)).thenReturn(Collections.emptyList());
 
         List<PurchaseOrderResponseDTO> result = service.findBySupplier(1L);
 
         assertThat(result).isEmpty();
-        verify(poRepo).findBySupplier_Id(1L);
+        verify(poRepo, never()).findAllWithDetailsByIdIn(anyCollection());
     }
 
     @Test
@@ -529,4 +720,51 @@ class PurchaseOrderServiceTest {
                 .isInstanceOf(EntityNotFoundException.class)
                 .hasMessageContaining("PurchaseOrder not found");
     }
+
+    private static UnorderedBackorder unordered(Long id, Long productId, Long warehouseId, int qty, int extraQty) {
+        return new UnorderedBackorder() {
+            public Long getId() { return id; }
+            public Long getProductId() { return productId; }
+            public Long getWarehouseId() { return warehouseId; }
+            public int getQty() { return qty; }
+            public int getExtraQty() { return extraQty; }
+        };
+    }
+
+    private static PurchaseOrderReceiptDTO receipt(Long lineId, int qty) {
+        POLineReceiptDTO line = new POLineReceiptDTO();
+        line.setLineId(lineId);
+        line.setQty(qty);
+        PurchaseOrderReceiptDTO dto = new PurchaseOrderReceiptDTO();
+        dto.setLines(List.of(line));
+        return dto;
+    }
+
+    private SalesOrderLine salesLine(int qtyOrdered, int qtyReserved) {
+        product.setActive(true);
+        return SalesOrderLine.builder().product(product).qtyOrdered(qtyOrdered).qtyReserved(qtyReserved).build();
+    }
+
+    private static SalesOrder salesOrder(Warehouse warehouse, SalesOrderLine line, OrderStatus status) {
+        SalesOrder sales = SalesOrder.builder().id(20L).warehouse(warehouse).status(status).build();
+        sales.getLines().add(line);
+        line.setSalesOrder(sales);
+        return sales;
+    }
+
+    private Backorder backorder(SalesOrder sales, int qty, BackorderStatus status) {
+        Backorder back = new Backorder();
+        back.setId(100L);
+        back.setQty(qty);
+        back.setProduct(product);
+        back.setSalesOrder(sales);
+        back.setStatus(status);
+        return back;
+    }
+
+    private PurchaseOrder backorderPo(Backorder back, int qty) {
+        PurchaseOrder po = PurchaseOrder.builder().id(55L).status(POStatus.APPROVED).order(back).build();
+        po.getLines().add(POLine.builder().id(1L).purchaseOrder(po).product(product).qty(qty).build());
+        return po;
+    }
 }
@@ -0,0 +1,34 @@
+package com.spring.logitrack.service;
+
+import org.springframework.context.event.EventListener;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * In-process stand-in for an external outbox sink. It keeps what the relay handed over, and also
+ * what the in-process listeners received, so tests can compare both.
+ */
+public class RecordingOutboxSink implements OutboxSink {
+
+    private final List<OrderLifecycleEvent> published = new CopyOnWriteArrayList<>();
+    private final List<OrderLifecycleEvent> heard = new CopyOnWriteArrayList<>();
+
+    @Override
+    public void publish(List<OrderLifecycleEvent> events) {
+        published.addAll(events);
+    }
+
+    @EventListener
+    public void on(OrderLifecycleEvent event) {
+        heard.add(event);
+    }
+
+    public List<OrderLifecycleEvent> published() {
+        return published;
+    }
+
+    public List<OrderLifecycleEvent> heard() {
+        return heard;
+    }
+}
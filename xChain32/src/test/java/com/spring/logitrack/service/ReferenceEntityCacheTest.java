@@ -0,0 +1,98 @@
+package com.spring.logitrack.service;
+
+import com.spring.logitrack.entity.Product;
+import com.spring.logitrack.entity.Supplier;
+import com.spring.logitrack.entity.User;
+import com.spring.logitrack.entity.Warehouse;
+import com.spring.logitrack.entity.enums.Role;
+import com.spring.logitrack.repository.ProductRepository;
+import com.spring.logitrack.repository.SupplierRepository;
+import com.spring.logitrack.repository.UserRepository;
+import com.spring.logitrack.repository.WarehouseRepository;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(properties = "spring.profiles.active=test")
+class ReferenceEntityCacheTest {
+
+    @Autowired private UserRepository userRepo;
+    @Autowired private WarehouseRepository warehouseRepo;
+    @Autowired private ProductRepository productRepo;
+    @Autowired private SupplierRepository supplierRepo;
+    @Autowired private EntityManagerFactory entityManagerFactory;
+    @Autowired private PlatformTransactionManager transactionManager;
+
+    private Statistics statistics;
+    private String suffix;
+
+    @BeforeEach
+    void setup() {
+        suffix = UUID.randomUUID().toString().substring(0, 8);
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    @Test
+    void findById_repeatedLookupsAreServedFromCache_includingEagerManager() {
+        User manager = userRepo.save(User.builder()
+                .name("Manager").email("l2-manager-" + suffix + "@test.com").password("x")
+                .active(true).role(Role.WAREHOUSE_MANAGER).build());
+        Warehouse warehouse = warehouseRepo.save(Warehouse.builder()
+                .code("L2-" + suffix).name("Warehouse " + suffix).location("Rabat")
+                .active(true).manager(manager).build());
+        Product product = productRepo.save(Product.builder()
+                .sku("L2-" + suffix).name("Cached").description("Cached").price(BigDecimal.TEN)
+                .unit("pcs").active(true).imageUrls(List.of("https://img/1.png")).build());
+        Supplier supplier = supplierRepo.save(Supplier.builder()
+                .name("Supplier " + suffix).email("l2-supplier-" + suffix + "@test.com").contact("0600000000").build());
+
+        // identity inserts are not cached, so the first session loads and fills the regions
+        Runnable lookups = () -> inTransaction(() -> {
+            Warehouse loaded = warehouseRepo.findById(warehouse.getId()).orElseThrow();
+            assertThat(loaded.getManager().getEmail()).isEqualTo(manager.getEmail());
+            assertThat(productRepo.findById(product.getId()).orElseThrow().getImageUrls()).containsExactly("https://img/1.png");
+            assertThat(supplierRepo.findById(supplier.getId())).isPresent();
+            assertThat(userRepo.findById(manager.getId())).isPresent();
+        });
+        lookups.run();
+
+        statistics.clear();
+        lookups.run();
+
+        assertThat(statistics.getPrepareStatementCount()).isZero();
+        assertThat(statistics.getSecondLevelCacheHitCount()).isEqualTo(5);
+    }
+
+    @Test
+    void cacheableQuery_isInvalidatedByWriteToItsTable() {
+        Product product = productRepo.save(Product.builder()
+                .sku("L2Q-" + suffix).name("Before").description("Cached").price(BigDecimal.ONE)
+                .unit("pcs").active(true).build());
+
+        productRepo.findBySku(product.getSku());
+        statistics.clear();
+        assertThat(productRepo.findBySku(product.getSku())).isPresent();
+        assertThat(statistics.getQueryCacheHitCount()).isEqualTo(1);
+
+        product.setName("After");
+        productRepo.save(product);
+
+        assertThat(productRepo.findBySku(product.getSku()).orElseThrow().getName()).isEqualTo("After");
+    }
+
+    private void inTransaction(Runnable action) {
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> action.run());
+    }
+}
@@ -1,68 +1,140 @@
 package com.spring.logitrack.service;
 
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
-import org.mockito.InjectMocks;
-import org.mockito.Mock;
-import org.mockito.junit.jupiter.MockitoExtension;
-
-import org.junit.jupiter.api.extension.ExtendWith;
 import org.springframework.mock.web.MockMultipartFile;
 import org.springframework.test.context.ActiveProfiles;
-import software.amazon.awssdk.core.sync.RequestBody;
+import org.springframework.web.multipart.MultipartFile;
+import software.amazon.awssdk.auth.credentials.AwsBasicCredentials;
+import software.amazon.awssdk.auth.credentials.StaticCredentialsProvider;
+import software.amazon.awssdk.regions.Region;
 import software.amazon.awssdk.services.s3.S3Client;
-import software.amazon.awssdk.services.s3.model.PutObjectRequest;
-import software.amazon.awssdk.services.s3.model.PutObjectResponse;
 
-import java.lang.reflect.Field;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
 
-import static org.mockito.ArgumentMatchers.any;
-import static org.mockito.Mockito.*;
+import static org.assertj.core.api.Assertions.*;
 
 
 @ActiveProfiles("test")
-@ExtendWith(MockitoExtension.class)
 class S3ServiceTest {
 
-    @Mock
-    private S3Client s3Client;
+    private static final String PREFIX = "https://my-test-bucket.s3.amazonaws.com/";
 
-    @InjectMocks
+    private LocalS3Server s3;
+    private S3Client s3Client;
+    private ExecutorService executor;
+    private SimpleMeterRegistry registry;
     private S3Service s3Service;
 
+    @BeforeEach
+    void setup() throws IOException {
+        s3 = new LocalS3Server();
+        s3Client = S3Client.builder()
+                .endpointOverride(s3.endpoint())
+                .forcePathStyle(true)
+                .region(Region.EU_CENTRAL_1)
+                .credentialsProvider(StaticCredentialsProvider.create(AwsBasicCredentials.create("test", "test")))
+                .build();
+        executor = Executors.newFixedThreadPool(3);
+        registry = new SimpleMeterRegistry();
+        s3Service = new S3Service(s3Client, executor, "my-test-bucket", new OperationMetrics(registry));
+    }
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+        s3Client.close();
+        s3.close();
+    }
+
     @Test
-    void testUploadFile_success() throws Exception {
-
-        // mock file
-        MockMultipartFile file = new MockMultipartFile(
-                "file",
-                "test.png",
-                "image/png",
-                "hello".getBytes()
-        );
-
-        // Inject value for @Value
-        Field field = S3Service.class.getDeclaredField("bucketName");
-        field.setAccessible(true);
-        field.set(s3Service, "my-test-bucket");
-
-        // mock response
-        PutObjectResponse response = PutObjectResponse.builder().build();
-
-        when(s3Client.putObject(
-                any(PutObjectRequest.class),
-                any(RequestBody.class)
-        )).thenReturn(response);  // <-- CORRECT
-
-        // execute
+    void testUploadFile_success() {
+        MockMultipartFile file = new MockMultipartFile("file", "test.png", "image/png", "hello".getBytes());
+
         String url = s3Service.uploadFile(file);
 
-        // verify S3 upload was called once
-        verify(s3Client, times(1)).putObject(
-                any(PutObjectRequest.class),
-                any(RequestBody.class)
-        );
+        assertThat(url).startsWith(PREFIX + "uploads/").endsWith("_test.png");
+        assertThat(s3.object(url.substring(PREFIX.length()))).isEqualTo("hello".getBytes());
+        assertThat(registry.get(OperationMetrics.S3_UPLOAD).tags("method", "single", "outcome", "success")
+                .timer().count()).isEqualTo(1);
+        assertThat(registry.get(OperationMetrics.S3_UPLOAD_SIZE).summary().totalAmount()).isEqualTo(5);
+    }
+
+    @Test
+    void uploadFile_largeFileUsesMultipart() {
+        byte[] content = new byte[(int) S3Service.MULTIPART_THRESHOLD + S3Service.PART_SIZE / 2];
+        new Random(42).nextBytes(content);
+        MockMultipartFile file = new MockMultipartFile("file", "large.png", "image/png", content);
 
-        assert url.startsWith("https://my-test-bucket.s3.amazonaws.com/uploads/");
+        String url = s3Service.uploadFile(file);
+
+        assertThat(s3.object(url.substring(PREFIX.length()))).isEqualTo(content);
+        assertThat(s3.openMultipartUploads()).isZero();
     }
-}
 
+    @Test
+    void uploadAll_runsConcurrentlyAndKeepsOrder() {
+        // every stream waits until all three are open, which only happens if they upload in parallel
+        CountDownLatch opened = new CountDownLatch(3);
+        List<MultipartFile> files = List.of(
+                gated("a.png", opened), gated("b.png", opened), gated("c.png", opened));
+
+        List<String> urls = s3Service.uploadAll(files);
+
+        assertThat(urls).hasSize(3);
+        assertThat(urls.get(0)).endsWith("_a.png");
+        assertThat(urls.get(1)).endsWith("_b.png");
+        assertThat(urls.get(2)).endsWith("_c.png");
+        assertThat(s3.keys()).hasSize(3);
+    }
+
+    @Test
+    void uploadAll_failureDeletesStoredFiles() {
+        s3.failKeysContaining("broken");
+        List<MultipartFile> files = List.of(
+                new MockMultipartFile("file", "first.png", "image/png", "1".getBytes()),
+                new MockMultipartFile("file", "broken.png", "image/png", "2".getBytes()),
+                new MockMultipartFile("file", "third.png", "image/png", "3".getBytes()));
+
+        assertThatThrownBy(() -> s3Service.uploadAll(files))
+                .isInstanceOf(RuntimeException.class)
+                .hasMessageContaining("Failed to upload file");
+        assertThat(s3.keys()).isEmpty();
+    }
+
+    @Test
+    void deleteAll_removesUploadedFiles() {
+        String kept = s3Service.uploadFile(new MockMultipartFile("file", "kept.png", "image/png", "k".getBytes()));
+        String removed = s3Service.uploadFile(new MockMultipartFile("file", "gone.png", "image/png", "g".getBytes()));
+
+        s3Service.deleteAll(List.of(removed));
+
+        assertThat(s3.keys()).containsExactly(kept.substring(PREFIX.length()));
+    }
+
+    private static MultipartFile gated(String name, CountDownLatch opened) {
+        return new MockMultipartFile("file", name, "image/png", name.getBytes()) {
+            @Override
+            public InputStream getInputStream() throws IOException {
+                opened.countDown();
+                try {
+                    if (!opened.await(5, TimeUnit.SECONDS)) throw new IOException("uploads did not run in parallel");
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new UncheckedIOException(new IOException(e));
+                }
+                return super.getInputStream();
+            }
+        };
+    }
+}
@@ -0,0 +1,178 @@
+package com.spring.logitrack.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.spring.logitrack.dto.salesOrder.SalesOrderImportResultDTO;
+import com.spring.logitrack.entity.Product;
+import com.spring.logitrack.entity.SalesOrder;
+import com.spring.logitrack.entity.User;
+import com.spring.logitrack.entity.Warehouse;
+import com.spring.logitrack.repository.ProductRepository;
+import com.spring.logitrack.repository.SalesOrderRepository;
+import com.spring.logitrack.repository.UserRepository;
+import com.spring.logitrack.repository.WarehouseRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.validation.Validation;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.io.ByteArrayInputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ActiveProfiles("test")
+class SalesOrderImportServiceTest {
+
+    @Mock private SalesOrderRepository orderRepo;
+    @Mock private UserRepository userRepo;
+    @Mock private WarehouseRepository warehouseRepo;
+    @Mock private ProductRepository productRepo;
+    @Mock private EntityManager entityManager;
+    @Mock private PlatformTransactionManager transactionManager;
+
+    private SalesOrderImportService service;
+    private final AtomicLong sequence = new AtomicLong();
+
+    @BeforeEach
+    void setup() {
+        MockitoAnnotations.openMocks(this);
+        service = new SalesOrderImportService(orderRepo, userRepo, warehouseRepo, productRepo,
+                new ObjectMapper(), Validation.buildDefaultValidatorFactory().getValidator(),
+                entityManager, transactionManager);
+
+        User client = new User();
+        client.setId(1L);
+        Warehouse warehouse = new Warehouse();
+        warehouse.setId(2L);
+        Product active = product(10L, true);
+        Product inactive = product(11L, false);
+
+        when(userRepo.findAllById(anyIterable())).thenReturn(List.of(client));
+        when(warehouseRepo.findAllById(anyIterable())).thenReturn(List.of(warehouse));
+        when(productRepo.findAllById(anyIterable())).thenReturn(List.of(active, inactive));
+        when(orderRepo.saveAll(anyIterable())).thenAnswer(inv -> {
+            List<SalesOrder> orders = inv.getArgument(0);
+            orders.forEach(o -> o.setId(sequence.incrementAndGet()));
+            return orders;
+        });
+    }
+
+    @Test
+    @DisplayName("should import valid orders and report rejected lines")
+    void importNdjson_mixed() {
+        String body = String.join("\n",
+                order(1L, 2L, 10L),
+                "{not json",
+                "",
+                order(99L, 2L, 10L),
+                order(1L, 2L, 12L));
+
+        SalesOrderImportResultDTO result = service.importNdjson(stream(body));
+
+        assertThat(result.getTotal()).isEqualTo(4);
+        assertThat(result.getImported()).isEqualTo(1);
+        assertThat(result.getRejected()).isEqualTo(3);
+        assertThat(result.getResults().get(0).isImported()).isTrue();
+        assertThat(result.getResults().get(0).getOrderId()).isEqualTo(1L);
+        assertThat(result.getResults().get(1).getLine()).isEqualTo(2);
+        assertThat(result.getResults().get(1).getMessages().get(0)).startsWith("Malformed JSON");
+        assertThat(result.getResults().get(2).getLine()).isEqualTo(4);
+        assertThat(result.getResults().get(2).getMessages()).containsExactly("Client not found: 99");
+        assertThat(result.getResults().get(3).getMessages()).containsExactly("Product not found: 12");
+        verify(orderRepo, times(1)).saveAll(anyIterable());
+    }
+
+    @Test
+    @DisplayName("should keep an order whose inactive lines are skipped as warnings")
+    void importNdjson_inactiveProductIsWarning() {
+        String body = "{\"clientId\":1,\"warehouseId\":2,\"country\":\"MA\",\"city\":\"Casablanca\","
+                + "\"street\":\"Street 1\",\"zip\":\"20000\",\"lines\":["
+                + "{\"productId\":10,\"qtyOrdered\":2,\"price\":5},{\"productId\":11,\"qtyOrdered\":1,\"price\":5}]}";
+
+        SalesOrderImportResultDTO result = service.importNdjson(stream(body));
+
+        assertThat(result.getImported()).isEqualTo(1);
+        assertThat(result.getResults().get(0).getMessages()).singleElement()
+                .asString().contains("inactive");
+    }
+
+    @Test
+    @DisplayName("should reject a row without client or warehouse and import the others")
+    void importNdjson_missingIds() {
+        String body = String.join("\n",
+                order(null, 2L, 10L),
+                order(1L, null, 10L),
+                "{\"clientId\":1,\"warehouseId\":2,\"country\":\"MA\",\"city\":\"Casablanca\","
+                        + "\"street\":\"Street 1\",\"zip\":\"20000\",\"lines\":[null]}",
+                order(1L, 2L, 10L));
+
+        SalesOrderImportResultDTO result = service.importNdjson(stream(body));
+
+        assertThat(result.getImported()).isEqualTo(1);
+        assertThat(result.getRejected()).isEqualTo(3);
+        assertThat(result.getResults().get(0).getMessages()).containsExactly("clientId must not be null");
+        assertThat(result.getResults().get(1).getMessages()).containsExactly("warehouseId must not be null");
+        assertThat(result.getResults().get(2).getMessages()).containsExactly("Line must not be null");
+        assertThat(result.getResults().get(3).isImported()).isTrue();
+    }
+
+    @Test
+    @DisplayName("should commit one transaction per chunk")
+    void importNdjson_chunks() {
+        int count = SalesOrderImportService.CHUNK_SIZE * 2 + 1;
+        String body = IntStream.range(0, count).mapToObj(i -> order(1L, 2L, 10L))
+                .collect(Collectors.joining("\n"));
+
+        SalesOrderImportResultDTO result = service.importNdjson(stream(body));
+
+        assertThat(result.getImported()).isEqualTo(count);
+        verify(orderRepo, times(3)).saveAll(anyIterable());
+        verify(transactionManager, times(3)).commit(any());
+        verify(userRepo, times(3)).findAllById(anyIterable());
+    }
+
+    @Test
+    @DisplayName("should reject every order of a chunk that fails to commit")
+    void importNdjson_chunkRolledBack() {
+        doThrow(new RuntimeException("constraint violation")).when(entityManager).flush();
+
+        SalesOrderImportResultDTO result = service.importNdjson(stream(order(1L, 2L, 10L) + "\n" + order(1L, 2L, 10L)));
+
+        assertThat(result.getImported()).isZero();
+        assertThat(result.getRejected()).isEqualTo(2);
+        assertThat(result.getResults().get(0).getOrderId()).isNull();
+        assertThat(result.getResults().get(0).getMessages()).containsExactly("Chunk rolled back: constraint violation");
+        verify(transactionManager).rollback(any());
+    }
+
+    private static String order(Long clientId, Long warehouseId, Long productId) {
+        return "{\"clientId\":" + clientId + ",\"warehouseId\":" + warehouseId
+                + ",\"country\":\"MA\",\"city\":\"Casablanca\",\"street\":\"Street 1\",\"zip\":\"20000\","
+                + "\"lines\":[{\"productId\":" + productId + ",\"qtyOrdered\":2,\"price\":5}]}";
+    }
+
+    private static Product product(Long id, boolean active) {
+        Product product = new Product();
+        product.setId(id);
+        product.setName("P" + id);
+        product.setPrice(BigDecimal.TEN);
+        product.setActive(active);
+        return product;
+    }
+
+    private static ByteArrayInputStream stream(String body) {
+        return new ByteArrayInputStream(body.getBytes(StandardCharsets.UTF_8));
+    }
+}
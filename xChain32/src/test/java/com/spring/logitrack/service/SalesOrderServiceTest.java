@@ -6,20 +6,27 @@ import com.spring.logitrack.dto.salesOrder.SalesOrderResponseDTO;
 import com.spring.logitrack.dto.salesOrder.SalesOrderResponseWithWarningsDTO;
 import com.spring.logitrack.entity.*;
 import com.spring.logitrack.entity.enums.OrderStatus;
+import com.spring.logitrack.exception.StockConflictException;
 import com.spring.logitrack.mapper.SalesOrderMapper;
 import com.spring.logitrack.repository.*;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import jakarta.persistence.EntityNotFoundException;
+import jakarta.persistence.EntityManager;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
+import org.mockito.Spy;
 import org.springframework.test.context.ActiveProfiles;
 
 import java.math.BigDecimal;
+import java.util.Arrays;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 
 import static org.assertj.core.api.Assertions.*;
 import static org.mockito.Mockito.*;
@@ -37,6 +44,12 @@ class SalesOrderServiceTest {
     @Mock private InventoryMovementService inventoryMovementService;
     @Mock private BackorderService backorderService;
     @Mock private SalesOrderMapper mapper;
+    @Mock private InventoryAvailabilityCache availabilityCache;
+    @Mock private InventorySourcingService sourcingService;
+    @Mock private OrderEventOutbox outbox;
+    @Mock private EntityManager entityManager;
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    @Spy private OperationMetrics metrics = new OperationMetrics(registry);
 
     @InjectMocks private SalesOrderService service;
 
@@ -84,7 +97,7 @@ class SalesOrderServiceTest {
 
         when(userRepo.findById(1L)).thenReturn(Optional.of(user));
         when(warehouseRepo.findById(1L)).thenReturn(Optional.of(warehouse));
-        when(productRepo.findById(1L)).thenReturn(Optional.of(product));
+        when(productRepo.findAllById(Set.of(1L))).thenReturn(List.of(product));
         when(salesOrderRepo.save(any(SalesOrder.class))).thenReturn(order);
         when(mapper.toResponse(any(SalesOrder.class))).thenReturn(new SalesOrderResponseDTO());
         when(mapper.toResponse(any(SalesOrderResponseDTO.class), anyList()))
@@ -134,25 +147,133 @@ class SalesOrderServiceTest {
         line.setQtyOrdered(5);
         order.setLines(List.of(line));
 
-        when(salesOrderRepo.findById(1L)).thenReturn(Optional.of(order));
-        when(inventoryRepo.findTopByProduct_IdAndWarehouse_IdOrderByIdDesc(1L, 1L))
-                .thenReturn(Optional.of(inventory));
+        when(salesOrderRepo.findWithLinesById(1L)).thenReturn(Optional.of(order));
+        when(inventoryRepo.findAllByWarehouse_IdAndProduct_IdIn(eq(1L), anyCollection()))
+                .thenReturn(List.of(inventory));
         when(salesOrderRepo.save(any(SalesOrder.class))).thenReturn(order);
         when(mapper.toResponse(any(SalesOrder.class))).thenReturn(new SalesOrderResponseDTO());
         when(mapper.toResponse(any(SalesOrderResponseDTO.class), anyList()))
                 .thenReturn(new SalesOrderResponseWithWarningsDTO());
 
+        when(inventoryRepo.reserveAll(anyMap())).thenAnswer(inv -> applied(inv.getArgument(0)));
+
         SalesOrderResponseWithWarningsDTO result = service.reserve(1L);
 
         assertThat(result).isNotNull();
         assertThat(order.getStatus()).isEqualTo(OrderStatus.RESERVED);
-        verify(inventoryRepo, atLeastOnce()).save(any(Inventory.class));
+        assertThat(line.getQtyReserved()).isEqualTo(5);
+        verify(inventoryRepo).reserveAll(Map.of(1L, 5));
+        verify(inventoryRepo, never()).save(any(Inventory.class));
+        assertThat(reservations("reserved")).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("should fail the reservation when stock was taken concurrently")
+    void reserve_concurrentConflict() {
+        SalesOrderLine line = new SalesOrderLine();
+        line.setProduct(product);
+        line.setQtyOrdered(5);
+        order.setLines(List.of(line));
+
+        when(salesOrderRepo.findWithLinesById(1L)).thenReturn(Optional.of(order));
+        when(inventoryRepo.findAllByWarehouse_IdAndProduct_IdIn(eq(1L), anyCollection()))
+                .thenReturn(List.of(inventory));
+        when(inventoryRepo.reserveAll(anyMap())).thenReturn(new int[]{0});
+
+        assertThatThrownBy(() -> service.reserve(1L))
+                .isInstanceOf(StockConflictException.class);
+        verify(salesOrderRepo, never()).save(any(SalesOrder.class));
+        assertThat(reservations("failed")).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("should load inventories once for a multi-line order")
+    void reserve_multiLine_singleInventoryFetch() {
+        Product other = new Product();
+        other.setId(2L);
+        other.setName("Other Product");
+        other.setSku("SKU2");
+        other.setActive(true);
+
+        Inventory otherInventory = new Inventory();
+        otherInventory.setId(2L);
+        otherInventory.setProduct(other);
+        otherInventory.setWarehouse(warehouse);
+        otherInventory.setQtyOnHand(4);
+        otherInventory.setQtyReserved(0);
+
+        SalesOrderLine first = new SalesOrderLine();
+        first.setProduct(product);
+        first.setQtyOrdered(3);
+        SalesOrderLine second = new SalesOrderLine();
+        second.setProduct(other);
+        second.setQtyOrdered(4);
+        order.setLines(List.of(first, second));
+
+        when(salesOrderRepo.findWithLinesById(1L)).thenReturn(Optional.of(order));
+        when(inventoryRepo.findAllByWarehouse_IdAndProduct_IdIn(eq(1L), anyCollection()))
+                .thenReturn(List.of(inventory, otherInventory));
+        when(salesOrderRepo.save(any(SalesOrder.class))).thenReturn(order);
+        when(mapper.toResponse(any(SalesOrder.class))).thenReturn(new SalesOrderResponseDTO());
+        when(mapper.toResponse(any(SalesOrderResponseDTO.class), anyList()))
+                .thenReturn(new SalesOrderResponseWithWarningsDTO());
+
+        when(inventoryRepo.reserveAll(anyMap())).thenAnswer(inv -> applied(inv.getArgument(0)));
+
+        service.reserve(1L);
+
+        assertThat(first.getQtyReserved()).isEqualTo(3);
+        assertThat(second.getQtyReserved()).isEqualTo(4);
+        verify(inventoryRepo, times(1)).findAllByWarehouse_IdAndProduct_IdIn(eq(1L), anyCollection());
+        verify(inventoryRepo, never()).findTopByProduct_IdAndWarehouse_IdOrderByIdDesc(anyLong(), anyLong());
+        verify(inventoryRepo).reserveAll(Map.of(1L, 3, 2L, 4));
+    }
+
+    @Test
+    @DisplayName("should split a shortfall across several helper warehouses")
+    void reserve_splitShortfallAcrossHelpers() {
+        SalesOrderLine line = new SalesOrderLine();
+        line.setProduct(product);
+        line.setQtyOrdered(16);
+        order.setLines(List.of(line));
+
+        Inventory firstHelper = new Inventory();
+        firstHelper.setId(2L);
+        Inventory secondHelper = new Inventory();
+        secondHelper.setId(3L);
+
+        when(salesOrderRepo.findWithLinesById(1L)).thenReturn(Optional.of(order));
+        when(inventoryRepo.findAllByWarehouse_IdAndProduct_IdIn(eq(1L), anyCollection()))
+                .thenReturn(List.of(inventory));
+        when(sourcingService.plan(1L, warehouse, 6)).thenReturn(List.of(
+                new InventorySourcingService.Allocation(firstHelper, 4),
+                new InventorySourcingService.Allocation(secondHelper, 2)));
+        when(inventoryRepo.withdrawAvailable(anyLong(), anyInt())).thenReturn(1);
+        when(inventoryRepo.reserveAll(anyMap())).thenAnswer(inv -> applied(inv.getArgument(0)));
+        when(salesOrderRepo.save(any(SalesOrder.class))).thenReturn(order);
+        when(mapper.toResponse(any(SalesOrder.class))).thenReturn(new SalesOrderResponseDTO());
+        when(mapper.toResponse(any(SalesOrderResponseDTO.class), anyList()))
+                .thenReturn(new SalesOrderResponseWithWarningsDTO());
+
+        service.reserve(1L);
+
+        assertThat(order.getStatus()).isEqualTo(OrderStatus.RESERVED);
+        assertThat(line.getQtyReserved()).isEqualTo(16);
+        verify(inventoryRepo).withdrawAvailable(2L, 4);
+        verify(inventoryRepo).withdrawAvailable(3L, 2);
+        verify(inventoryRepo).addOnHand(1L, 4);
+        verify(inventoryRepo).addOnHand(1L, 2);
+        verify(entityManager).refresh(firstHelper);
+        verify(entityManager).refresh(secondHelper);
+        verify(inventoryRepo).reserveAll(Map.of(1L, 16));
+        verify(backorderService, never()).create(any());
+        assertThat(reservations("transfer")).isEqualTo(1);
     }
 
     @Test
     @DisplayName("should throw when order not found on reserve")
     void reserve_orderNotFound() {
-        when(salesOrderRepo.findById(10L)).thenReturn(Optional.empty());
+        when(salesOrderRepo.findWithLinesById(10L)).thenReturn(Optional.empty());
         assertThatThrownBy(() -> service.reserve(10L))
                 .isInstanceOf(EntityNotFoundException.class);
     }
@@ -166,9 +287,7 @@ class SalesOrderServiceTest {
         line.setQtyOrdered(3);
         order.setLines(List.of(line));
 
-        when(salesOrderRepo.findById(1L)).thenReturn(Optional.of(order));
-        when(inventoryRepo.findTopByProduct_IdAndWarehouse_IdOrderByIdDesc(anyLong(), anyLong()))
-                .thenReturn(Optional.of(inventory));
+        when(salesOrderRepo.findWithLinesById(1L)).thenReturn(Optional.of(order));
         when(salesOrderRepo.save(any(SalesOrder.class))).thenReturn(order);
         when(mapper.toResponse(any(SalesOrder.class))).thenReturn(new SalesOrderResponseDTO());
         when(mapper.toResponse(any(SalesOrderResponseDTO.class), anyList()))
@@ -178,5 +297,18 @@ class SalesOrderServiceTest {
 
         assertThat(result).isNotNull();
         verify(salesOrderRepo).save(any(SalesOrder.class));
+        verify(inventoryRepo, never()).findAllByWarehouse_IdAndProduct_IdIn(anyLong(), anyCollection());
+    }
+
+    private static int[] applied(Map<?, ?> updates) {
+        int[] counts = new int[updates.size()];
+        Arrays.fill(counts, 1);
+        return counts;
+    }
+
+    private long reservations(String outcome) {
+        return registry.get(OperationMetrics.SALES_ORDER)
+                .tags("operation", "reserve", "outcome", outcome)
+                .timer().count();
     }
 }
@@ -15,6 +15,10 @@ import jakarta.persistence.EntityNotFoundException;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.*;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 import org.springframework.test.context.ActiveProfiles;
 
 import java.util.List;
@@ -31,6 +35,7 @@ class ShipmentServiceTest {
     @Mock private SalesOrderRepository salesOrderRepo;
     @Mock private WarehouseRepository warehouseRepo;
     @Mock private ShipmentMapper mapper;
+    @Mock private OrderEventOutbox outbox;
 
     @InjectMocks private ShipmentService service;
 
@@ -124,11 +129,11 @@ class ShipmentServiceTest {
 
     @Test
     void list_success() {
-        when(shipmentRepo.findAll()).thenReturn(List.of(shipment));
+        when(shipmentRepo.findAll(any(Pageable.class))).thenReturn(new PageImpl<>(List.of(shipment)));
         when(mapper.toResponse(shipment)).thenReturn(responseDTO);
-        List<ShipmentResponseDTO> result = service.list();
+        Page<ShipmentResponseDTO> result = service.list(PageRequest.of(0, 20));
         assertThat(result).hasSize(1);
-        verify(shipmentRepo).findAll();
+        verify(shipmentRepo).findAll(any(Pageable.class));
     }
 
     @Test
@@ -169,6 +174,8 @@ class ShipmentServiceTest {
         assertThat(result).isNotNull();
         assertThat(order.getStatus()).isEqualTo(OrderStatus.DELIVERED);
         verify(shipmentRepo).save(shipment);
+        verify(outbox).record(OrderEventOutbox.SHIPMENT, shipment.getId(), ShipmentStatus.DELIVERED);
+        verify(outbox).record(OrderEventOutbox.SALES_ORDER, order.getId(), OrderStatus.DELIVERED);
     }
 
     @Test
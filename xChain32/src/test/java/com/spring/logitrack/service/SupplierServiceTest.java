@@ -11,6 +11,10 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.test.context.ActiveProfiles;
 
@@ -96,13 +100,13 @@ class SupplierServiceTest {
         dto.setEmail("a@a.com");
         dto.setContact("0601010101");
 
-        when(repo.findAll()).thenReturn(List.of(entity));
+        when(repo.findAll(any(Pageable.class))).thenReturn(new PageImpl<>(List.of(entity)));
         when(mapper.toResponse(entity)).thenReturn(dto);
 
-        List<SupplierResponseDTO> result = service.list();
+        Page<SupplierResponseDTO> result = service.list(PageRequest.of(0, 20));
 
         assertThat(result).hasSize(1);
-        assertThat(result.get(0).getName()).isEqualTo("A");
+        assertThat(result.getContent().get(0).getName()).isEqualTo("A");
     }
 
     // --------------------------------------------------------
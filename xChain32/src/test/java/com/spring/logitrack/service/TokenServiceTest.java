@@ -0,0 +1,138 @@
+package com.spring.logitrack.service;
+
+import com.spring.logitrack.dto.user.TokenResponseDTO;
+import com.spring.logitrack.dto.user.UserResponseDTO;
+import com.spring.logitrack.entity.User;
+import com.spring.logitrack.mapper.UserMapper;
+import com.spring.logitrack.repository.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.jwt.JwtValidationException;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ActiveProfiles("test")
+class TokenServiceTest {
+
+    private static final String SECRET = "test-secret-with-at-least-32-bytes-of-entropy";
+
+    @Mock private UserRepository userRepository;
+    @Mock private UserMapper userMapper;
+
+    private TokenRevocationService revocations;
+    private TokenService service;
+    private UserResponseDTO user;
+
+    @BeforeEach
+    void setup() {
+        MockitoAnnotations.openMocks(this);
+        revocations = new TokenRevocationService(Duration.ofDays(7));
+        service = new TokenService(userRepository, userMapper, revocations, SECRET,
+                Duration.ofMinutes(15), Duration.ofDays(7));
+
+        user = new UserResponseDTO();
+        user.setId(7L);
+        user.setEmail("manager@test.com");
+        user.setRole("WAREHOUSE_MANAGER");
+        user.setActive(true);
+    }
+
+    @Test
+    void issue_accessTokenCarriesIdentityAndRoles() {
+        TokenResponseDTO tokens = service.issue(user);
+
+        Jwt jwt = service.accessTokenDecoder().decode(tokens.getAccessToken());
+
+        assertThat(jwt.getSubject()).isEqualTo("manager@test.com");
+        assertThat(jwt.getClaimAsStringList(TokenService.ROLES_CLAIM)).containsExactly("WAREHOUSE_MANAGER");
+        assertThat(tokens.getExpiresIn()).isEqualTo(900);
+        assertThat(tokens.getTokenType()).isEqualTo("Bearer");
+        verifyNoInteractions(userRepository);
+    }
+
+    @Test
+    void accessDecoder_rejectsRefreshTokensAndForeignSignatures() {
+        TokenResponseDTO tokens = service.issue(user);
+        TokenService other = new TokenService(userRepository, userMapper, revocations,
+                "another-secret-with-at-least-32-bytes-of-entropy", Duration.ofMinutes(15), Duration.ofDays(7));
+
+        assertThatThrownBy(() -> service.accessTokenDecoder().decode(tokens.getRefreshToken()))
+                .isInstanceOf(JwtValidationException.class);
+        assertThatThrownBy(() -> other.accessTokenDecoder().decode(tokens.getAccessToken()))
+                .hasMessageContaining("signature");
+    }
+
+    @Test
+    void accessDecoder_rejectsRevokedUsers() {
+        TokenResponseDTO tokens = service.issue(user);
+
+        // the next second: iat has second precision, so the token is then strictly older
+        revocations.revokeAll(7L, Instant.now().plusSeconds(1));
+
+        assertThatThrownBy(() -> service.accessTokenDecoder().decode(tokens.getAccessToken()))
+                .isInstanceOf(JwtValidationException.class)
+                .hasMessageContaining("revoked");
+    }
+
+    @Test
+    void accessDecoder_acceptsTokensIssuedInTheSecondOfTheRevocation() {
+        revocations.revokeAll(7L);
+
+        TokenResponseDTO tokens = service.issue(user);
+
+        assertThat(service.accessTokenDecoder().decode(tokens.getAccessToken()).getSubject())
+                .isEqualTo("manager@test.com");
+    }
+
+    @Test
+    void refresh_issuesNewPairFromCurrentUser() {
+        User entity = new User();
+        entity.setId(7L);
+        entity.setActive(true);
+        UserResponseDTO promoted = new UserResponseDTO();
+        promoted.setId(7L);
+        promoted.setEmail("manager@test.com");
+        promoted.setRole("ADMIN");
+
+        when(userRepository.findById(7L)).thenReturn(Optional.of(entity));
+        when(userMapper.toResponse(entity)).thenReturn(promoted);
+
+        TokenResponseDTO refreshed = service.refresh(service.issue(user).getRefreshToken());
+
+        Jwt jwt = service.accessTokenDecoder().decode(refreshed.getAccessToken());
+        assertThat(jwt.getClaimAsStringList(TokenService.ROLES_CLAIM)).isEqualTo(List.of("ADMIN"));
+    }
+
+    @Test
+    void refresh_rejectsAccessTokensAndInactiveUsers() {
+        TokenResponseDTO tokens = service.issue(user);
+        User inactive = new User();
+        inactive.setId(7L);
+        inactive.setActive(false);
+        when(userRepository.findById(7L)).thenReturn(Optional.of(inactive));
+
+        assertThatThrownBy(() -> service.refresh(tokens.getAccessToken()))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("Invalid refresh token");
+        assertThatThrownBy(() -> service.refresh(tokens.getRefreshToken()))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("Invalid refresh token");
+    }
+
+    @Test
+    void constructor_rejectsShortSecrets() {
+        assertThatThrownBy(() -> new TokenService(userRepository, userMapper, revocations, "short",
+                Duration.ofMinutes(15), Duration.ofDays(7)))
+                .isInstanceOf(IllegalStateException.class);
+    }
+}
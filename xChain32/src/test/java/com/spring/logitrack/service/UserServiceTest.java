@@ -1,5 +1,6 @@
 package com.spring.logitrack.service;
 
+import com.spring.logitrack.config.CustomUserDetailsService;
 import com.spring.logitrack.dto.user.UserCreateDTO;
 import com.spring.logitrack.dto.user.UserLoginDTO;
 import com.spring.logitrack.dto.user.UserResponseDTO;
@@ -12,6 +13,10 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.test.context.ActiveProfiles;
 
@@ -35,6 +40,12 @@ class UserServiceTest {
     @Mock
     private UserMapper userMapper;
 
+    @Mock
+    private TokenRevocationService tokenRevocations;
+
+    @Mock
+    private CustomUserDetailsService userDetailsService;
+
     @InjectMocks
     private UserService service;
 
@@ -187,6 +198,63 @@ class UserServiceTest {
         UserResponseDTO result = service.update(1L, dto);
 
         assertThat(result.getEmail()).isEqualTo("new@test.com");
+        verify(userDetailsService).evict("old@test.com");
+        verify(userDetailsService).evict("new@test.com");
+        verify(tokenRevocations).revokeAll(1L);
+    }
+
+    @Test
+    void update_profileOnly_keepsTokens() {
+        UserCreateDTO dto = new UserCreateDTO();
+        dto.setName("New Name");
+
+        User existing = new User();
+        existing.setId(1L);
+        existing.setEmail("same@test.com");
+        existing.setPassword("encoded");
+        existing.setRole(Role.CLIENT);
+        existing.setActive(true);
+
+        when(repo.findById(1L)).thenReturn(Optional.of(existing));
+        doAnswer(inv -> {
+            User u = inv.getArgument(0);
+            u.setName(dto.getName());
+            return null;
+        }).when(userMapper).patch(existing, dto);
+        when(repo.save(existing)).thenReturn(existing);
+
+        service.update(1L, dto);
+
+        assertThat(existing.getPassword()).isEqualTo("encoded");
+        verifyNoInteractions(tokenRevocations);
+    }
+
+    @Test
+    void update_passwordChange_encodesAndRevokesTokens() {
+        UserCreateDTO dto = new UserCreateDTO();
+        dto.setPassword("new-secret");
+
+        User existing = new User();
+        existing.setId(1L);
+        existing.setEmail("same@test.com");
+        existing.setPassword("encoded-old");
+        existing.setRole(Role.CLIENT);
+        existing.setActive(true);
+
+        when(repo.findById(1L)).thenReturn(Optional.of(existing));
+        when(passwordEncoder.matches("new-secret", "encoded-old")).thenReturn(false);
+        when(passwordEncoder.encode("new-secret")).thenReturn("encoded-new");
+        doAnswer(inv -> {
+            User u = inv.getArgument(0);
+            u.setPassword(dto.getPassword());
+            return null;
+        }).when(userMapper).patch(existing, dto);
+        when(repo.save(existing)).thenReturn(existing);
+
+        service.update(1L, dto);
+
+        assertThat(existing.getPassword()).isEqualTo("encoded-new");
+        verify(tokenRevocations).revokeAll(1L);
     }
 
     @Test
@@ -218,6 +286,59 @@ class UserServiceTest {
                 .hasMessage("Email already exists");
     }
 
+    // ------------------------------------------------------------------
+    // DELETE
+    // ------------------------------------------------------------------
+    @Test
+    void delete_soft_revokesTokens() {
+        User u = new User();
+        u.setId(3L);
+        u.setEmail("soft@test.com");
+        u.setActive(true);
+
+        when(repo.findById(3L)).thenReturn(Optional.of(u));
+
+        service.delete(3L, false);
+
+        assertThat(u.isActive()).isFalse();
+        verify(repo).save(u);
+        verify(tokenRevocations).revokeAll(3L);
+        verify(userDetailsService).evict("soft@test.com");
+    }
+
+    @Test
+    void delete_hard_revokesTokens() {
+        User u = new User();
+        u.setId(4L);
+        u.setEmail("hard@test.com");
+
+        when(repo.findById(4L)).thenReturn(Optional.of(u));
+
+        service.delete(4L, true);
+
+        verify(repo).delete(u);
+        verify(tokenRevocations).revokeAll(4L);
+        verify(userDetailsService).evict("hard@test.com");
+    }
+
+    @Test
+    void login_inactiveUser() {
+        UserLoginDTO dto = new UserLoginDTO();
+        dto.setEmail("off@test.com");
+        dto.setPassword("1234");
+
+        User user = new User();
+        user.setPassword("ENCODED");
+        user.setActive(false);
+
+        when(repo.findByEmail("off@test.com")).thenReturn(Optional.of(user));
+        when(passwordEncoder.matches("1234", "ENCODED")).thenReturn(true);
+
+        assertThatThrownBy(() -> service.login(dto))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("Invalid email or password");
+    }
+
     // ------------------------------------------------------------------
     // LIST
     // ------------------------------------------------------------------
@@ -231,13 +352,13 @@ class UserServiceTest {
         d.setId(1L);
         d.setEmail("a@test.com");
 
-        when(repo.findAll()).thenReturn(List.of(u));
+        when(repo.findAll(any(Pageable.class))).thenReturn(new PageImpl<>(List.of(u)));
         when(userMapper.toResponse(u)).thenReturn(d);
 
-        List<UserResponseDTO> result = service.list();
+        Page<UserResponseDTO> result = service.list(PageRequest.of(0, 20));
 
         assertThat(result).hasSize(1);
-        assertThat(result.get(0).getEmail()).isEqualTo("a@test.com");
+        assertThat(result.getContent().get(0).getEmail()).isEqualTo("a@test.com");
     }
 
     // ------------------------------------------------------------------
@@ -15,6 +15,9 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 import org.springframework.test.context.ActiveProfiles;
 
 import java.util.List;
@@ -130,13 +133,13 @@ class WarehouseServiceTest {
         WarehouseResponseDTO dto = new WarehouseResponseDTO();
         dto.setId(1L);
 
-        when(repository.findAll()).thenReturn(List.of(entity));
+        when(repository.findAll(any(Pageable.class))).thenReturn(new PageImpl<>(List.of(entity)));
         when(mapper.toResponse(entity)).thenReturn(dto);
 
-        var list = service.list();
+        var list = service.list(PageRequest.of(0, 20));
 
         assertThat(list).hasSize(1);
-        assertThat(list.get(0).getId()).isEqualTo(1L);
+        assertThat(list.getContent().get(0).getId()).isEqualTo(1L);
     }
 
     // -------------------------------------------------------------------------
@@ -0,0 +1,78 @@
+package com.spring.logitrack.service;
+
+import com.spring.logitrack.entity.*;
+import com.spring.logitrack.entity.enums.OrderStatus;
+import com.spring.logitrack.entity.enums.Role;
+import com.spring.logitrack.repository.*;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(properties = "spring.profiles.active=test")
+class WarehouseTransferFlowTest {
+
+    @Autowired private SalesOrderService salesOrderService;
+    @Autowired private UserRepository userRepo;
+    @Autowired private WarehouseRepository warehouseRepo;
+    @Autowired private ProductRepository productRepo;
+    @Autowired private InventoryRepository inventoryRepo;
+    @Autowired private SalesOrderRepository salesOrderRepo;
+
+    @Test
+    @DisplayName("two lines of one product are sourced against what the helper warehouses have left")
+    void duplicateProductLines_plannedAgainstRemainingStock() {
+        String suffix = UUID.randomUUID().toString().substring(0, 8);
+        User manager = userRepo.save(User.builder()
+                .name("Manager").email("transfer-manager-" + suffix + "@test.com").password("x")
+                .active(true).role(Role.WAREHOUSE_MANAGER).build());
+        User client = userRepo.save(User.builder()
+                .name("Client").email("transfer-client-" + suffix + "@test.com").password("x")
+                .active(true).role(Role.CLIENT).build());
+        Warehouse destination = warehouse("TD-" + suffix, "Casablanca", manager);
+        // same location, so ranked first while it has stock
+        Warehouse near = warehouse("TN-" + suffix, "Casablanca", manager);
+        Warehouse far = warehouse("TF-" + suffix, "Fes", manager);
+        Product product = productRepo.save(Product.builder()
+                .sku("TR-" + suffix).name("Product").description("Transferred product")
+                .price(BigDecimal.TEN).unit("pcs").active(true).imageUrls(new ArrayList<>()).build());
+        Inventory target = inventory(destination, product, 0);
+        Inventory nearStock = inventory(near, product, 7);
+        Inventory farStock = inventory(far, product, 10);
+
+        SalesOrder order = SalesOrder.builder()
+                .client(client).warehouse(destination).status(OrderStatus.CREATED)
+                .country("Morocco").city("Casablanca").street("Port").zip("20000").build();
+        for (int i = 0; i < 2; i++) {
+            order.getLines().add(SalesOrderLine.builder()
+                    .salesOrder(order).product(product).qtyOrdered(4).qtyReserved(0).price(BigDecimal.TEN).build());
+        }
+        Long orderId = salesOrderRepo.save(order).getId();
+
+        salesOrderService.reserve(orderId);
+
+        assertThat(salesOrderRepo.findById(orderId).orElseThrow().getStatus()).isEqualTo(OrderStatus.RESERVED);
+        // the second line takes the 3 left near and 1 from far, not 4 more from near
+        assertThat(inventoryRepo.findById(nearStock.getId()).orElseThrow().getQtyOnHand()).isZero();
+        assertThat(inventoryRepo.findById(farStock.getId()).orElseThrow().getQtyOnHand()).isEqualTo(9);
+        Inventory after = inventoryRepo.findById(target.getId()).orElseThrow();
+        assertThat(after.getQtyOnHand()).isEqualTo(8);
+        assertThat(after.getQtyReserved()).isEqualTo(8);
+    }
+
+    private Warehouse warehouse(String code, String location, User manager) {
+        return warehouseRepo.save(Warehouse.builder()
+                .code(code).name("Warehouse " + code).location(location).active(true).manager(manager).build());
+    }
+
+    private Inventory inventory(Warehouse warehouse, Product product, int qtyOnHand) {
+        return inventoryRepo.save(Inventory.builder()
+                .warehouse(warehouse).product(product).qtyOnHand(qtyOnHand).qtyReserved(0).build());
+    }
+}